@@ -16,6 +16,7 @@ import edu.jas.gb.GBOptimized;
 import edu.jas.gb.GBProxy;
 import edu.jas.gb.GroebnerBaseAbstract;
 import edu.jas.gb.GroebnerBaseArriSigSeqIter;
+import edu.jas.gb.GroebnerBaseF4;
 import edu.jas.gb.GroebnerBaseF5zSigSeqIter;
 import edu.jas.gb.GroebnerBaseGGVSigSeqIter;
 import edu.jas.gb.GroebnerBaseParIter;
@@ -65,6 +66,8 @@ import edu.jas.ufd.QuotientRing;
  * constructing a Gr&ouml;bner base wrt. a lexicographical term order,</li>
  * <li><code>iterated()</code> for using the iterative GB algorithm to compute a
  * Gr&ouml;bner base adding one polynomial after another,</li>
+ * <li><code>F4()</code> for using the F4 algorithm with reduction of sets of
+ * critical pairs by linear algebra (over field coefficients),</li>
  * <li><code>F5()</code>, <code>GGV()</code> and <code>Arri()</code> for using
  * the respective iterative signature based GB algorithm (over field
  * coefficients) to compute a Gr&ouml;bner base adding one polynomial after
@@ -463,6 +466,26 @@ public class GBAlgorithmBuilder<C extends GcdRingElem<C>> implements Serializabl
     }
 
 
+    /**
+     * Request F4 linear algebra GB algorithm.
+     * @return GBAlgorithmBuilder object.
+     */
+    @SuppressWarnings("unchecked")
+    public GBAlgorithmBuilder<C> F4() {
+        if (ring.coFac.isField()) {
+            GroebnerBaseAbstract<C> bb;
+            bb = new GroebnerBaseF4<C>(strategy);
+            // if (algo instanceof GBProxy) ... assemble parallel todo
+            if (algo != null) {
+                logger.warn("algorithm " + algo + " ignored for " + bb);
+            }
+            return new GBAlgorithmBuilder<C>(ring, bb, strategy);
+        }
+        logger.warn("no F4 GB algorithm implemented for " + ring);
+        return this;
+    }
+
+
     /**
      * Request iterated F5 signature based GB algorithm.
      * @return GBAlgorithmBuilder object.
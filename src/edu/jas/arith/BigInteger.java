@@ -70,7 +70,7 @@ public final class BigInteger
      * @param a long.
      */
     public BigInteger(long a) {
-        val = new java.math.BigInteger(String.valueOf(a));
+        val = java.math.BigInteger.valueOf(a);
     }
 
 
@@ -435,6 +435,13 @@ public final class BigInteger
      * @return this-S.
      */
     public BigInteger subtract(BigInteger S) {
+        if (val.bitLength() < 64 && S.val.bitLength() < 64) {
+            try {
+                return new BigInteger(Math.subtractExact(val.longValue(), S.val.longValue()));
+            } catch (ArithmeticException e) {
+                // overflow, use java.math.BigInteger
+            }
+        }
         return new BigInteger(val.subtract(S.val));
     }
 
@@ -664,6 +671,13 @@ public final class BigInteger
      * @return this*S.
      */
     public BigInteger multiply(BigInteger S) {
+        if (val.bitLength() + S.val.bitLength() < 64) {
+            try {
+                return new BigInteger(Math.multiplyExact(val.longValue(), S.val.longValue()));
+            } catch (ArithmeticException e) {
+                // overflow, use java.math.BigInteger
+            }
+        }
         return new BigInteger(val.multiply(S.val));
     }
 
@@ -698,6 +712,13 @@ public final class BigInteger
      * @return this+S.
      */
     public BigInteger sum(BigInteger S) {
+        if (val.bitLength() < 64 && S.val.bitLength() < 64) {
+            try {
+                return new BigInteger(Math.addExact(val.longValue(), S.val.longValue()));
+            } catch (ArithmeticException e) {
+                // overflow, use java.math.BigInteger
+            }
+        }
         return new BigInteger(val.add(S.val));
     }
 
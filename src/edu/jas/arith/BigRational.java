@@ -607,6 +607,65 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
     }
 
 
+    /**
+     * Rational reconstruction bound. Numerators and denominators up to the
+     * bound are uniquely determined by their residue modulo m.
+     * @param m modulus, m &gt; 2.
+     * @return N = floor(sqrt((m-1)/2)), so 2 N<sup>2</sup> &lt; m.
+     */
+    public static BigInteger reconstructionBound(BigInteger m) {
+        BigInteger h = m.subtract(BigInteger.ONE).shiftRight(1);
+        return Roots.sqrtInt(new edu.jas.arith.BigInteger(h)).getVal();
+    }
+
+
+    /**
+     * Rational number reconstruction. Finds n/d with n = a d mod m, |n| &le;
+     * N and 0 &lt; d &le; N by the half extended Euclidean algorithm.
+     * @param a residue modulo m.
+     * @param m modulus.
+     * @param N numerator and denominator bound with 2 N<sup>2</sup> &lt; m.
+     * @return n/d with n/d = a mod m, or null if no such rational number
+     *         exists.
+     */
+    public static BigRational rationalReconstruction(BigInteger a, BigInteger m, BigInteger N) {
+        BigInteger r0 = m;
+        BigInteger r1 = a.mod(m);
+        BigInteger t0 = BigInteger.ZERO;
+        BigInteger t1 = BigInteger.ONE;
+        while (r1.compareTo(N) > 0) {
+            BigInteger[] qr = r0.divideAndRemainder(r1);
+            r0 = r1;
+            r1 = qr[1];
+            BigInteger t = t0.subtract(qr[0].multiply(t1));
+            t0 = t1;
+            t1 = t;
+        }
+        if (t1.abs().compareTo(N) > 0) {
+            return null;
+        }
+        if (!r1.gcd(t1).equals(BigInteger.ONE)) { // also r1 == 0 with |t1| > 1
+            return null;
+        }
+        if (t1.signum() < 0) {
+            return new BigRational(r1.negate(), t1.negate());
+        }
+        return new BigRational(r1, t1);
+    }
+
+
+    /**
+     * Rational number reconstruction with the maximal symmetric bound.
+     * @param a residue modulo m.
+     * @param m modulus.
+     * @return n/d with n/d = a mod m and |n|, d &le; sqrt((m-1)/2), or null if
+     *         no such rational number exists.
+     */
+    public static BigRational rationalReconstruction(BigInteger a, BigInteger m) {
+        return rationalReconstruction(a, m, reconstructionBound(m));
+    }
+
+
     /**
      * Rational number absolute value.
      * @return the absolute value of this.
@@ -655,6 +714,9 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
         if (S.equals(ZERO)) {
             return this.signum();
         }
+        if (num.bitLength() + S.den.bitLength() < 63 && den.bitLength() + S.num.bitLength() < 63) {
+            return Long.compare(num.longValue() * S.den.longValue(), den.longValue() * S.num.longValue());
+        }
         R1 = num; //this.numerator(); 
         R2 = den; //this.denominator();
         S1 = S.num;
@@ -843,6 +905,9 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
             T = ZERO;
             return T;
         }
+        if (num.bitLength() + S.num.bitLength() < 63 && den.bitLength() + S.den.bitLength() < 63) {
+            return multiplySmall(num.longValue(), den.longValue(), S.num.longValue(), S.den.longValue());
+        }
         R1 = num; //this.numerator(); 
         R2 = den; //this.denominator();
         S1 = S.num;
@@ -897,6 +962,68 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
     }
 
 
+    /**
+     * Greatest common divisor of non-negative longs.
+     * @param a long &ge; 0.
+     * @param b long &ge; 0.
+     * @return gcd(a,b).
+     */
+    private static long gcd(long a, long b) {
+        while (b != 0L) {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+
+    /**
+     * Rational number product of small numbers with cross-cancellation.
+     * Arguments are in lowest terms, non-zero and the products of the
+     * numerators and denominators fit in a long.
+     * @param r1 numerator of this.
+     * @param r2 denominator of this.
+     * @param s1 numerator of S.
+     * @param s2 denominator of S.
+     * @return r1/r2 * s1/s2.
+     */
+    private static BigRational multiplySmall(long r1, long r2, long s1, long s2) {
+        long d1 = gcd(Math.abs(r1), s2);
+        long d2 = gcd(Math.abs(s1), r2);
+        long t1 = (r1 / d1) * (s1 / d2);
+        long t2 = (r2 / d2) * (s2 / d1);
+        return new BigRational(BigInteger.valueOf(t1), BigInteger.valueOf(t2));
+    }
+
+
+    /**
+     * Rational number sum of small numbers, Henrici's algorithm. Arguments
+     * are in lowest terms, non-zero and the cross products and their sum fit
+     * in a long.
+     * @param r1 numerator of this.
+     * @param r2 denominator of this.
+     * @param s1 numerator of S.
+     * @param s2 denominator of S.
+     * @return r1/r2 + s1/s2.
+     */
+    private static BigRational sumSmall(long r1, long r2, long s1, long s2) {
+        long d = gcd(r2, s2);
+        long rb2 = r2 / d;
+        long sb2 = s2 / d;
+        long t1 = r1 * sb2 + s1 * rb2;
+        if (t1 == 0L) {
+            return ZERO;
+        }
+        if (d != 1L) {
+            long e = gcd(Math.abs(t1), d);
+            t1 /= e;
+            r2 /= e;
+        }
+        return new BigRational(BigInteger.valueOf(t1), BigInteger.valueOf(r2 * sb2));
+    }
+
+
     /**
      * Rational number product.
      * @param R BigRational.
@@ -1048,6 +1175,10 @@ public final class BigRational implements GcdRingElem<BigRational>, RingFactory<
         if (S.equals(ZERO)) {
             return this;
         }
+        if (num.bitLength() + S.den.bitLength() < 62 && den.bitLength() + S.num.bitLength() < 62
+                        && den.bitLength() + S.den.bitLength() < 63) {
+            return sumSmall(num.longValue(), den.longValue(), S.num.longValue(), S.den.longValue());
+        }
         R1 = num; //this.numerator(); 
         R2 = den; //this.denominator();
         S1 = S.num;
@@ -0,0 +1,591 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import edu.jas.kern.StringUtil;
+
+
+/**
+ * ModLongMontgomeryRing factory with RingFactory interface. The modul can be
+ * any long integer up to 2<sup>63</sup>-1, instead of 2<sup>31</sup>-1 for
+ * ModLongRing. The elements are stored as residues in [0,modul), the
+ * products of two residues are reduced by Montgomery multiplication with R =
+ * 2<sup>64</sup> for odd moduli, the high word of the 128 bit products is
+ * computed without java.math.BigInteger. Effectively immutable.
+ * @author agent
+ * @see ModLongRing
+ */
+
+public final class ModLongMontgomeryRing implements ModularRingFactory<ModLongMontgomery>,
+                Iterable<ModLongMontgomery> {
+
+
+    /**
+     * Module part of the factory data structure.
+     */
+    public final long modul;
+
+
+    /**
+     * Montgomery constant m' = modul<sup>-1</sup> mod 2<sup>64</sup>, for
+     * odd moduli.
+     */
+    private final long minv;
+
+
+    /**
+     * Montgomery constant R<sup>2</sup> mod modul, with R = 2<sup>64</sup>.
+     */
+    private final long r2;
+
+
+    /**
+     * Indicator if plain long multiplication does not overflow.
+     */
+    private final boolean small;
+
+
+    /**
+     * Random number generator.
+     */
+    private final static Random random = new Random();
+
+
+    /**
+     * Indicator if this ring is a field.
+     */
+    private int isField = -1; // initially unknown
+
+
+    /**
+     * maximal representable integer.
+     */
+    public final static java.math.BigInteger MAX_LONG = java.math.BigInteger.valueOf(Long.MAX_VALUE);
+
+
+    /**
+     * The constructor creates a ModLongMontgomeryRing object from a long
+     * integer as module part.
+     * @param m long integer.
+     */
+    public ModLongMontgomeryRing(long m) {
+        if (m <= 0L) {
+            throw new IllegalArgumentException("modul must be positive " + m);
+        }
+        modul = m;
+        small = (m <= Integer.MAX_VALUE);
+        if ((m & 1L) == 1L) {
+            long x = m; // Newton iteration, correct to 3 bits
+            for (int i = 0; i < 5; i++) {
+                x *= 2L - m * x;
+            }
+            minv = x;
+            java.math.BigInteger mb = java.math.BigInteger.valueOf(m);
+            r2 = java.math.BigInteger.ONE.shiftLeft(128).mod(mb).longValue();
+        } else {
+            minv = 0L;
+            r2 = 0L;
+        }
+    }
+
+
+    /**
+     * The constructor creates a ModLongMontgomeryRing object from a long
+     * integer as module part.
+     * @param m long integer.
+     * @param isField indicator if m is prime.
+     */
+    public ModLongMontgomeryRing(long m, boolean isField) {
+        this(m);
+        this.isField = (isField ? 1 : 0);
+    }
+
+
+    /**
+     * The constructor creates a ModLongMontgomeryRing object from a
+     * BigInteger converted to long as module part.
+     * @param m java.math.BigInteger.
+     */
+    public ModLongMontgomeryRing(java.math.BigInteger m) {
+        this(checkedModul(m));
+    }
+
+
+    /**
+     * The constructor creates a ModLongMontgomeryRing object from a
+     * BigInteger converted to long as module part.
+     * @param m java.math.BigInteger.
+     * @param isField indicator if m is prime.
+     */
+    public ModLongMontgomeryRing(java.math.BigInteger m, boolean isField) {
+        this(checkedModul(m), isField);
+    }
+
+
+    /**
+     * The constructor creates a ModLongMontgomeryRing object from a String
+     * object as module part.
+     * @param m String.
+     */
+    public ModLongMontgomeryRing(String m) {
+        this(Long.parseLong(m.trim()));
+    }
+
+
+    /**
+     * Check size of a modul.
+     * @param m java.math.BigInteger.
+     * @return m as long.
+     */
+    private static long checkedModul(java.math.BigInteger m) {
+        if (MAX_LONG.compareTo(m) < 0) { // m > max
+            throw new IllegalArgumentException("modul to large for long " + m + ", max=" + MAX_LONG);
+        }
+        return m.longValue();
+    }
+
+
+    /**
+     * Get the module part as BigInteger.
+     * @return modul.
+     */
+    public java.math.BigInteger getModul() {
+        return java.math.BigInteger.valueOf(modul);
+    }
+
+
+    /**
+     * Get the module part as long.
+     * @return modul.
+     */
+    public long getLongModul() {
+        return modul;
+    }
+
+
+    /**
+     * Get the module part as BigInteger.
+     * @return modul.
+     */
+    public BigInteger getIntegerModul() {
+        return new BigInteger(modul);
+    }
+
+
+    /**
+     * Residue sum.
+     * @param a residue in [0,modul).
+     * @param b residue in [0,modul).
+     * @return a+b mod modul.
+     */
+    long sum(long a, long b) {
+        long s = a + b;
+        if (s < 0L || s >= modul) { // overflow or s >= modul
+            s -= modul;
+        }
+        return s;
+    }
+
+
+    /**
+     * Residue difference.
+     * @param a residue in [0,modul).
+     * @param b residue in [0,modul).
+     * @return a-b mod modul.
+     */
+    long subtract(long a, long b) {
+        long d = a - b;
+        if (d < 0L) {
+            d += modul;
+        }
+        return d;
+    }
+
+
+    /**
+     * Residue product.
+     * @param a residue in [0,modul).
+     * @param b residue in [0,modul).
+     * @return a*b mod modul.
+     */
+    long multiply(long a, long b) {
+        if (small) {
+            return (a * b) % modul;
+        }
+        if (minv == 0L) { // even modul
+            java.math.BigInteger p = java.math.BigInteger.valueOf(a).multiply(java.math.BigInteger.valueOf(b));
+            return p.mod(getModul()).longValue();
+        }
+        // a b R^-1 R^2 R^-1 = a b
+        long t = redc(multiplyHigh(a, b), a * b);
+        return redc(multiplyHigh(t, r2), t * r2);
+    }
+
+
+    /**
+     * Montgomery reduction.
+     * @param hi high word of x.
+     * @param lo low word of x, with x = hi 2<sup>64</sup> + lo &lt; modul
+     *            2<sup>64</sup>.
+     * @return x R<sup>-1</sup> mod modul.
+     */
+    private long redc(long hi, long lo) {
+        long q = lo * minv; // x - q modul = 0 mod 2^64
+        long t = hi - multiplyHigh(q, modul);
+        return (t < 0L) ? t + modul : t;
+    }
+
+
+    /**
+     * High word of the unsigned 128 bit product.
+     * @param a unsigned long.
+     * @param b unsigned long.
+     * @return floor(a b / 2<sup>64</sup>).
+     */
+    static long multiplyHigh(long a, long b) {
+        long a0 = a & 0xFFFFFFFFL;
+        long a1 = a >>> 32;
+        long b0 = b & 0xFFFFFFFFL;
+        long b1 = b >>> 32;
+        long p00 = a0 * b0;
+        long p10 = a1 * b0 + (p00 >>> 32);
+        long p01 = a0 * b1 + (p10 & 0xFFFFFFFFL);
+        return a1 * b1 + (p10 >>> 32) + (p01 >>> 32);
+    }
+
+
+    /**
+     * Create ModLongMontgomery element c.
+     * @param c
+     * @return a ModLongMontgomery of c.
+     */
+    public ModLongMontgomery create(java.math.BigInteger c) {
+        return new ModLongMontgomery(this, c);
+    }
+
+
+    /**
+     * Create ModLongMontgomery element c.
+     * @param c
+     * @return a ModLongMontgomery of c.
+     */
+    public ModLongMontgomery create(long c) {
+        return new ModLongMontgomery(this, c);
+    }
+
+
+    /**
+     * Create ModLongMontgomery element c.
+     * @param c
+     * @return a ModLongMontgomery of c.
+     */
+    public ModLongMontgomery create(String c) {
+        return parse(c);
+    }
+
+
+    /**
+     * Copy ModLongMontgomery element c.
+     * @param c
+     * @return a copy of c.
+     */
+    public ModLongMontgomery copy(ModLongMontgomery c) {
+        return new ModLongMontgomery(this, c.val);
+    }
+
+
+    /**
+     * Get the zero element.
+     * @return 0 as ModLongMontgomery.
+     */
+    public ModLongMontgomery getZERO() {
+        return new ModLongMontgomery(this, 0L);
+    }
+
+
+    /**
+     * Get the one element.
+     * @return 1 as ModLongMontgomery.
+     */
+    public ModLongMontgomery getONE() {
+        return new ModLongMontgomery(this, 1L);
+    }
+
+
+    /**
+     * Get a list of the generating elements.
+     * @return list of generators for the algebraic structure.
+     * @see edu.jas.structure.ElemFactory#generators()
+     */
+    public List<ModLongMontgomery> generators() {
+        List<ModLongMontgomery> g = new ArrayList<ModLongMontgomery>(1);
+        g.add(getONE());
+        return g;
+    }
+
+
+    /**
+     * Is this structure finite or infinite.
+     * @return true if this structure is finite, else false.
+     * @see edu.jas.structure.ElemFactory#isFinite()
+     */
+    public boolean isFinite() {
+        return true;
+    }
+
+
+    /**
+     * Query if this ring is commutative.
+     * @return true.
+     */
+    public boolean isCommutative() {
+        return true;
+    }
+
+
+    /**
+     * Query if this ring is associative.
+     * @return true.
+     */
+    public boolean isAssociative() {
+        return true;
+    }
+
+
+    /**
+     * Query if this ring is a field.
+     * @return true if module is prime, else false.
+     */
+    public boolean isField() {
+        if (isField > 0) {
+            return true;
+        }
+        if (isField == 0) {
+            return false;
+        }
+        java.math.BigInteger m = getModul();
+        if (m.isProbablePrime(m.bitLength())) {
+            isField = 1;
+            return true;
+        }
+        isField = 0;
+        return false;
+    }
+
+
+    /**
+     * Characteristic of this ring.
+     * @return characteristic of this ring.
+     */
+    public java.math.BigInteger characteristic() {
+        return getModul();
+    }
+
+
+    /**
+     * Get a ModLongMontgomery element from a BigInteger value.
+     * @param a BigInteger.
+     * @return a ModLongMontgomery.
+     */
+    public ModLongMontgomery fromInteger(java.math.BigInteger a) {
+        return new ModLongMontgomery(this, a);
+    }
+
+
+    /**
+     * Get a ModLongMontgomery element from a long value.
+     * @param a long.
+     * @return a ModLongMontgomery.
+     */
+    public ModLongMontgomery fromInteger(long a) {
+        return new ModLongMontgomery(this, a);
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return " mod(" + modul + ")";
+    }
+
+
+    /**
+     * Get a scripting compatible string representation.
+     * @return script compatible representation for this ElemFactory.
+     * @see edu.jas.structure.ElemFactory#toScript()
+     */
+    @Override
+    public String toScript() {
+        // Python and Ruby case
+        if (isField()) {
+            return "GF(" + modul + ")";
+        }
+        return "ZM(" + modul + ")";
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object b) {
+        if (!(b instanceof ModLongMontgomeryRing)) {
+            return false;
+        }
+        ModLongMontgomeryRing m = (ModLongMontgomeryRing) b;
+        return (modul == m.modul);
+    }
+
+
+    /**
+     * Hash code for this ModLongMontgomeryRing.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return (int) (modul ^ (modul >>> 32));
+    }
+
+
+    /**
+     * ModLongMontgomery random.
+     * @param n such that 0 &le; v &le; (2<sup>n</sup>-1).
+     * @return a random integer mod modul.
+     */
+    public ModLongMontgomery random(int n) {
+        return random(n, random);
+    }
+
+
+    /**
+     * ModLongMontgomery random.
+     * @param n such that 0 &le; v &le; (2<sup>n</sup>-1).
+     * @param rnd is a source for random bits.
+     * @return a random integer mod modul.
+     */
+    public ModLongMontgomery random(int n, Random rnd) {
+        java.math.BigInteger v = new java.math.BigInteger(n, rnd);
+        return new ModLongMontgomery(this, v);
+    }
+
+
+    /**
+     * Parse ModLongMontgomery from String.
+     * @param s String.
+     * @return ModLongMontgomery from s.
+     */
+    public ModLongMontgomery parse(String s) {
+        return new ModLongMontgomery(this, s);
+    }
+
+
+    /**
+     * Parse ModLongMontgomery from Reader.
+     * @param r Reader.
+     * @return next ModLongMontgomery from r.
+     */
+    public ModLongMontgomery parse(Reader r) {
+        return parse(StringUtil.nextString(r));
+    }
+
+
+    /**
+     * ModLongMontgomery chinese remainder algorithm. This is a factory
+     * method. Assert c.modul >= a.modul and c.modul * a.modul = this.modul.
+     * @param c ModLongMontgomery.
+     * @param ci inverse of c.modul in ring of a.
+     * @param a other ModLongMontgomery.
+     * @return S, with S mod c.modul == c and S mod a.modul == a.
+     */
+    public ModLongMontgomery chineseRemainder(ModLongMontgomery c, ModLongMontgomery ci,
+                    ModLongMontgomery a) {
+        ModLongMontgomery b = a.ring.fromInteger(c.val); // c mod a.modul
+        ModLongMontgomery d = a.subtract(b); // a-c mod a.modul
+        if (d.isZERO()) {
+            return new ModLongMontgomery(this, c.val);
+        }
+        b = d.multiply(ci); // b = (a-c)*ci mod a.modul
+        // c.modul * b + c < c.modul * a.modul = this.modul
+        long s = c.ring.modul * b.val;
+        s = s + c.val;
+        return new ModLongMontgomery(this, s);
+    }
+
+
+    /**
+     * Get a ModLongMontgomery iterator.
+     * @return a iterator over all modular integers in this ring.
+     */
+    public Iterator<ModLongMontgomery> iterator() {
+        return new ModLongMontgomeryIterator(this);
+    }
+
+}
+
+
+/**
+ * Modular integer iterator.
+ * @author agent
+ */
+class ModLongMontgomeryIterator implements Iterator<ModLongMontgomery> {
+
+
+    /**
+     * data structure.
+     */
+    long curr;
+
+
+    final ModLongMontgomeryRing ring;
+
+
+    /**
+     * ModLongMontgomery iterator constructor.
+     * @param fac modular integer factory;
+     */
+    public ModLongMontgomeryIterator(ModLongMontgomeryRing fac) {
+        curr = 0L;
+        ring = fac;
+    }
+
+
+    /**
+     * Test for availability of a next element.
+     * @return true if the iteration has more elements, else false.
+     */
+    public synchronized boolean hasNext() {
+        return curr < ring.modul;
+    }
+
+
+    /**
+     * Get next integer.
+     * @return next integer.
+     */
+    public synchronized ModLongMontgomery next() {
+        ModLongMontgomery i = new ModLongMontgomery(ring, curr);
+        curr++;
+        return i;
+    }
+
+
+    /**
+     * Remove an element if allowed.
+     */
+    public void remove() {
+        throw new UnsupportedOperationException("cannnot remove elements");
+    }
+}
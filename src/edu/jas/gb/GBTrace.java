@@ -0,0 +1,222 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+
+
+/**
+ * Trace of a Groebner base computation. Records the leading terms of the
+ * input polynomials and the critical pairs which reduced to non-zero
+ * polynomials, together with the leading terms of the reduced polynomials.
+ * A learned trace can be replayed for polynomials with the same structure and
+ * other coefficients, for example for other primes, then only the recorded
+ * pairs are reduced and the known zero reductions are skipped. See C.
+ * Traverso, "Gr&ouml;bner trace algorithms", 1989.
+ * <p>
+ * A trace must not be shared by concurrent learning computations, a learned
+ * trace may be replayed concurrently.
+ * @author agent
+ * @see edu.jas.gb.GroebnerBaseSeq#GB(int,java.util.List,GBTrace)
+ */
+
+public class GBTrace implements Serializable {
+
+
+    /**
+     * Leading exponent vectors of the input polynomials.
+     */
+    protected final List<ExpVector> input;
+
+
+    /**
+     * Number of terms of the input polynomials.
+     */
+    protected final List<Integer> lengths;
+
+
+    /**
+     * Recorded steps.
+     */
+    protected final List<Step> steps;
+
+
+    /**
+     * Indicator if the trace is complete.
+     */
+    protected volatile boolean learned;
+
+
+    /**
+     * Constructor for an empty trace to be learned.
+     */
+    public GBTrace() {
+        input = new ArrayList<ExpVector>();
+        lengths = new ArrayList<Integer>();
+        steps = new ArrayList<Step>();
+        learned = false;
+    }
+
+
+    /**
+     * Test if the trace is complete.
+     * @return true, if the trace is learned, else false.
+     */
+    public boolean isLearned() {
+        return learned;
+    }
+
+
+    /**
+     * Number of recorded steps.
+     * @return number of recorded pairs with non-zero reduction.
+     */
+    public int size() {
+        return steps.size();
+    }
+
+
+    /**
+     * Get the recorded steps.
+     * @return unmodifiable list of recorded steps.
+     */
+    public List<Step> getSteps() {
+        return Collections.<Step> unmodifiableList(steps);
+    }
+
+
+    /**
+     * Get the leading exponent vectors of the input.
+     * @return unmodifiable list of leading exponent vectors.
+     */
+    public List<ExpVector> getInput() {
+        return Collections.<ExpVector> unmodifiableList(input);
+    }
+
+
+    /**
+     * Test if the trace was learned for polynomials with the structure of F.
+     * @param F polynomial list.
+     * @return true, if the trace is learned and F has the recorded number of
+     *         polynomials, leading exponent vectors and numbers of terms,
+     *         else false.
+     */
+    public boolean isInput(List<? extends GenPolynomial<?>> F) {
+        if (!learned || F.size() != input.size()) {
+            return false;
+        }
+        for (int k = 0; k < F.size(); k++) {
+            GenPolynomial<?> f = F.get(k);
+            if (f.length() != lengths.get(k) || !f.leadingExpVector().equals(input.get(k))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Start learning, record the input.
+     * @param F input polynomials.
+     */
+    protected void start(List<? extends GenPolynomial<?>> F) {
+        if (learned) {
+            throw new IllegalStateException("trace already learned");
+        }
+        input.clear();
+        lengths.clear();
+        steps.clear();
+        for (GenPolynomial<?> f : F) {
+            input.add(f.leadingExpVector());
+            lengths.add(f.length());
+        }
+    }
+
+
+    /**
+     * Record a step.
+     * @param i index of the first polynomial of the pair.
+     * @param j index of the second polynomial of the pair.
+     * @param e leading exponent vector of the reduced S-polynomial.
+     */
+    protected void add(int i, int j, ExpVector e) {
+        steps.add(new Step(i, j, e));
+    }
+
+
+    /**
+     * Finish learning.
+     */
+    protected void finish() {
+        learned = true;
+    }
+
+
+    /**
+     * String representation of the trace.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "GBTrace(#input = " + input.size() + ", #steps = " + steps.size() + ", learned = " + learned
+                        + ")";
+    }
+
+
+    /**
+     * Step of a trace, a critical pair with non-zero reduction.
+     */
+    public static class Step implements Serializable {
+
+
+        /**
+         * Index of the first polynomial.
+         */
+        public final int i;
+
+
+        /**
+         * Index of the second polynomial.
+         */
+        public final int j;
+
+
+        /**
+         * Leading exponent vector of the reduced S-polynomial.
+         */
+        public final ExpVector e;
+
+
+        /**
+         * Constructor.
+         * @param i index of the first polynomial.
+         * @param j index of the second polynomial.
+         * @param e leading exponent vector of the reduced S-polynomial.
+         */
+        public Step(int i, int j, ExpVector e) {
+            this.i = i;
+            this.j = j;
+            this.e = e;
+        }
+
+
+        /**
+         * String representation of the step.
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            return "(" + i + ", " + j + ") -> " + e;
+        }
+    }
+
+}
@@ -0,0 +1,492 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.arith.ModInt;
+import edu.jas.arith.ModIntRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.arith.ModularRingFactory;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.ExpVectorIndex;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialBuilder;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.PolyUtil;
+import edu.jas.poly.TermOrder;
+import edu.jas.structure.RingElem;
+import edu.jas.vector.SparseModMatrix;
+
+
+/**
+ * Groebner Base sequential F4 algorithm. All critical pairs with minimal
+ * degree of the least common multiple of the leading terms are reduced
+ * together. For graded term orders these pairs are taken from the front of
+ * the pair list, for other term orders all pairs are removed from the pair
+ * list and the pairs of larger degree are kept for the next rounds. The multiples of the pair polynomials and the reducers found by
+ * symbolic preprocessing form a Macaulay matrix, which is reduced with sparse
+ * Gaussian elimination. The rows with new leading terms are added to the
+ * base. The critical pairs are managed by the pair list, so the Buchberger
+ * criteria are the same as in GroebnerBaseSeq. For <code>ModLong</code> and
+ * <code>ModInt</code> coefficients the matrix is reduced with
+ * <code>SparseModMatrix</code>. See J.-C. Faug&egrave;re, "A
+ * new efficient algorithm for computing Gr&ouml;bner bases (F4)", 1999.
+ * @param <C> coefficient type
+ * @author agent
+ *
+ * @see edu.jas.application.GBAlgorithmBuilder
+ * @see edu.jas.gbufd.GBFactory
+ */
+
+public class GroebnerBaseF4<C extends RingElem<C>> extends GroebnerBaseAbstract<C> {
+
+
+    private static final Logger logger = LogManager.getLogger(GroebnerBaseF4.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Constructor.
+     */
+    public GroebnerBaseF4() {
+        super();
+    }
+
+
+    /**
+     * Constructor.
+     * @param pl pair selection strategy
+     */
+    public GroebnerBaseF4(PairList<C> pl) {
+        super(pl);
+    }
+
+
+    /**
+     * Constructor.
+     * @param red Reduction engine, used for the minimal Groebner base
+     * @param pl pair selection strategy
+     */
+    public GroebnerBaseF4(Reduction<C> red, PairList<C> pl) {
+        super(red, pl);
+    }
+
+
+    /**
+     * Groebner base using F4 reduction of sets of critical pairs.
+     * @param modv module variable number.
+     * @param F polynomial list.
+     * @return GB(F) a Groebner base of F.
+     */
+    public List<GenPolynomial<C>> GB(int modv, List<GenPolynomial<C>> F) {
+        List<GenPolynomial<C>> G = normalizeZerosOnes(F);
+        G = PolyUtil.<C> monic(G);
+        if (G.size() <= 1) {
+            return G;
+        }
+        GenPolynomialRing<C> ring = G.get(0).ring;
+        if (!ring.coFac.isField()) {
+            throw new IllegalArgumentException("coefficients not from a field");
+        }
+        PairList<C> pairlist = strategy.create(modv, ring);
+        pairlist.put(G);
+        logger.info("start " + pairlist);
+        ExpVectorIndex index = new ExpVectorIndex();
+        for (GenPolynomial<C> g : G) {
+            index.add(g.leadingExpVector());
+        }
+
+        boolean graded = isGraded(ring.tord);
+        List<Pair<C>> pending = new ArrayList<Pair<C>>();
+        while (!pending.isEmpty() || pairlist.hasNext()) {
+            // select the pairs with lcm of minimal degree
+            long d = Long.MAX_VALUE;
+            for (Pair<C> pair : pending) {
+                d = Math.min(d, pair.e.totalDeg());
+            }
+            while (pairlist.hasNext()) {
+                Pair<C> pair = pairlist.removeNext();
+                if (pair == null) {
+                    continue;
+                }
+                pending.add(pair);
+                long dp = pair.e.totalDeg();
+                if (graded && dp > d) { // the other pairs have larger degree
+                    break;
+                }
+                d = Math.min(d, dp);
+            }
+            List<Pair<C>> pairs = new ArrayList<Pair<C>>();
+            List<Pair<C>> rest = new ArrayList<Pair<C>>();
+            for (Pair<C> pair : pending) {
+                if (pair.e.totalDeg() == d) {
+                    pairs.add(pair);
+                } else { // keep for next round
+                    rest.add(pair);
+                }
+            }
+            pending = rest;
+            if (pairs.isEmpty()) {
+                break;
+            }
+            List<GenPolynomial<C>> H = reduction(pairs, G, index);
+            if (debug) {
+                logger.info("degree = " + d + ", #pairs = " + pairs.size() + ", #new = " + H.size());
+            }
+            for (GenPolynomial<C> h : H) {
+                if (h.isONE()) {
+                    G.clear();
+                    G.add(h);
+                    pairlist.putOne();
+                    logger.info("end " + pairlist);
+                    return G;
+                }
+                G.add(h);
+                index.add(h.leadingExpVector());
+                pairlist.put(h);
+            }
+        }
+        logger.debug("#sequential list = " + G.size());
+        G = minimalGB(G);
+        logger.info("end " + pairlist);
+        return G;
+    }
+
+
+    /**
+     * Test if a term order is graded. Then the pair list returns the pairs
+     * by ascending degree of the lcm and the pairs of minimal degree can be
+     * taken from the front of the pair list.
+     * @param to term order.
+     * @return true if the ascending comparator of to compares the total
+     *         degree first, else false.
+     */
+    static boolean isGraded(TermOrder to) {
+        long[][] w = to.getWeight();
+        if (w != null) {
+            if (w.length == 0 || w[0].length == 0) {
+                return false;
+            }
+            for (long wi : w[0]) {
+                if (wi != w[0][0]) {
+                    return false;
+                }
+            }
+            return w[0][0] > 0L;
+        }
+        if (to.isSplit()) {
+            return false;
+        }
+        switch (to.getEvord()) {
+        case TermOrder.IGRLEX:
+        case TermOrder.REVITDG:
+        case TermOrder.ITDEGLEX:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+
+    /**
+     * F4 reduction of a set of critical pairs. Builds the Macaulay matrix of
+     * the pair multiples and the reducers from symbolic preprocessing and
+     * computes a row echelon form. Pairs are marked as reduced to zero, if all
+     * their rows reduce to zero, or for word size prime fields, if no new
+     * polynomials are found.
+     * @param pairs list of critical pairs.
+     * @param G monic polynomial list.
+     * @param index divisibility index of the leading exponent vectors of G.
+     * @return list of monic polynomials with leading terms which are not
+     *         multiples of leading terms of G.
+     */
+    protected List<GenPolynomial<C>> reduction(List<Pair<C>> pairs, List<GenPolynomial<C>> G,
+                    ExpVectorIndex index) {
+        GenPolynomialRing<C> ring = G.get(0).ring;
+        Comparator<ExpVector> cmp = ring.tord.getDescendComparator();
+        // pivot rows by leading exponent, rows to be reduced
+        Map<ExpVector, GenPolynomial<C>> pivots = new HashMap<ExpVector, GenPolynomial<C>>();
+        List<GenPolynomial<C>> rows = new ArrayList<GenPolynomial<C>>();
+        List<Pair<C>> rowPairs = new ArrayList<Pair<C>>();
+        Map<Pair<C>, Integer> openRows = new IdentityHashMap<Pair<C>, Integer>();
+        SortedSet<ExpVector> monomials = new TreeSet<ExpVector>(cmp);
+        List<ExpVector> todo = new ArrayList<ExpVector>();
+        Map<GenPolynomial<C>, Set<ExpVector>> multiples = new IdentityHashMap<GenPolynomial<C>, Set<ExpVector>>();
+        for (Pair<C> pair : pairs) {
+            List<GenPolynomial<C>> pp = new ArrayList<GenPolynomial<C>>(2);
+            pp.add(pair.pi);
+            pp.add(pair.pj);
+            for (GenPolynomial<C> p : pp) {
+                ExpVector u = pair.e.subtract(p.leadingExpVector());
+                Set<ExpVector> mp = multiples.get(p);
+                if (mp == null) {
+                    mp = new HashSet<ExpVector>();
+                    multiples.put(p, mp);
+                }
+                if (!mp.add(u)) { // same row from other pair
+                    continue;
+                }
+                GenPolynomial<C> m = p.multiply(u);
+                if (pivots.containsKey(pair.e)) {
+                    rows.add(m);
+                    rowPairs.add(pair);
+                    Integer k = openRows.get(pair);
+                    openRows.put(pair, (k == null) ? 1 : k + 1);
+                } else {
+                    pivots.put(pair.e, m);
+                }
+                for (ExpVector f : m.getMap().keySet()) {
+                    if (monomials.add(f)) {
+                        todo.add(f);
+                    }
+                }
+            }
+        }
+        // symbolic preprocessing
+        while (!todo.isEmpty()) {
+            ExpVector f = todo.remove(todo.size() - 1);
+            if (pivots.containsKey(f)) {
+                continue;
+            }
+            int k = index.firstDivisor(f);
+            if (k < 0) {
+                continue;
+            }
+            GenPolynomial<C> g = G.get(k);
+            GenPolynomial<C> m = g.multiply(f.subtract(g.leadingExpVector()));
+            pivots.put(f, m);
+            for (ExpVector h : m.getMap().keySet()) {
+                if (monomials.add(h)) {
+                    todo.add(h);
+                }
+            }
+        }
+        // columns in descending term order
+        int n = monomials.size();
+        List<ExpVector> cols = new ArrayList<ExpVector>(monomials);
+        Map<ExpVector, Integer> colIndex = new HashMap<ExpVector, Integer>(2 * n);
+        for (int j = 0; j < n; j++) {
+            colIndex.put(cols.get(j), j);
+        }
+        if (debug) {
+            logger.info("matrix " + (pivots.size() + rows.size()) + " x " + n + ", #rows = " + rows.size());
+        }
+        if (ring.coFac instanceof ModLongRing || ring.coFac instanceof ModIntRing) {
+            List<GenPolynomial<C>> H = reductionModular(ring, pivots.values(), rows, cols, colIndex);
+            if (H.isEmpty()) { // all S-polynomials reduced to zero
+                for (Pair<C> pair : pairs) {
+                    pair.setZero();
+                }
+            }
+            return H;
+        }
+        List<Row<C>> piv = new ArrayList<Row<C>>(n);
+        for (int j = 0; j < n; j++) {
+            piv.add(null);
+        }
+        for (Map.Entry<ExpVector, GenPolynomial<C>> me : pivots.entrySet()) {
+            Row<C> r = new Row<C>(me.getValue(), colIndex);
+            piv.set(r.col[0], r);
+        }
+        // sparse Gaussian elimination with a dense accumulator
+        List<GenPolynomial<C>> H = new ArrayList<GenPolynomial<C>>();
+        @SuppressWarnings("unchecked")
+        C[] acc = (C[]) new RingElem[n];
+        for (int ri = 0; ri < rows.size(); ri++) {
+            Row<C> r = new Row<C>(rows.get(ri), colIndex);
+            for (int t = 0; t < r.col.length; t++) {
+                acc[r.col[t]] = r.val[t];
+            }
+            int len = 0;
+            for (int j = r.col[0]; j < n; j++) {
+                C a = acc[j];
+                if (a == null) {
+                    continue;
+                }
+                if (a.isZERO()) {
+                    acc[j] = null;
+                    continue;
+                }
+                Row<C> s = piv.get(j);
+                if (s == null) {
+                    len++;
+                    continue;
+                }
+                // acc = acc - a * s, s is monic
+                acc[j] = null;
+                for (int t = 1; t < s.col.length; t++) {
+                    int k = s.col[t];
+                    C b = a.multiply(s.val[t]);
+                    C c = acc[k];
+                    acc[k] = (c == null) ? b.negate() : c.subtract(b);
+                }
+            }
+            if (len == 0) { // reduced to zero
+                Pair<C> pair = rowPairs.get(ri);
+                int k = openRows.get(pair) - 1;
+                openRows.put(pair, k);
+                if (k == 0) { // all rows of the pair reduced to zero
+                    pair.setZero();
+                }
+                continue;
+            }
+            // new row, made monic
+            int[] col = new int[len];
+            @SuppressWarnings("unchecked")
+            C[] val = (C[]) new RingElem[len];
+            C li = null;
+            int i = 0;
+            GenPolynomialBuilder<C> hb = new GenPolynomialBuilder<C>(ring, len);
+            for (int j = r.col[0]; j < n; j++) {
+                C a = acc[j];
+                if (a == null) {
+                    continue;
+                }
+                acc[j] = null;
+                if (a.isZERO()) {
+                    continue;
+                }
+                if (li == null) {
+                    li = a.inverse();
+                }
+                a = a.multiply(li);
+                col[i] = j;
+                val[i] = a;
+                i++;
+                hb.addTerm(a, cols.get(j));
+            }
+            piv.set(col[0], new Row<C>(col, val));
+            H.add(hb.build());
+        }
+        return H;
+    }
+
+
+    /**
+     * Reduction of the Macaulay matrix over a prime field with word size
+     * modul.
+     * @param ring polynomial ring with ModLong or ModInt coefficients.
+     * @param pivots reducers with pairwise distinct leading terms.
+     * @param rows rows to be reduced.
+     * @param cols exponent vectors of the columns.
+     * @param colIndex column indexes of the exponent vectors.
+     * @return list of monic polynomials with leading terms which are not
+     *         leading terms of the pivots.
+     */
+    protected List<GenPolynomial<C>> reductionModular(GenPolynomialRing<C> ring,
+                    Collection<GenPolynomial<C>> pivots, List<GenPolynomial<C>> rows, List<ExpVector> cols,
+                    Map<ExpVector, Integer> colIndex) {
+        SparseModMatrix M = new SparseModMatrix((ModularRingFactory<?>) ring.coFac, cols.size());
+        for (GenPolynomial<C> p : pivots) {
+            addRow(M, p, colIndex);
+        }
+        for (GenPolynomial<C> p : rows) {
+            addRow(M, p, colIndex);
+        }
+        List<GenPolynomial<C>> H = new ArrayList<GenPolynomial<C>>();
+        for (SparseModMatrix.Row r : M.newPivots()) {
+            GenPolynomialBuilder<C> hb = new GenPolynomialBuilder<C>(ring, r.length());
+            for (int t = 0; t < r.col.length; t++) {
+                hb.addTerm(ring.coFac.fromInteger(r.val[t]), cols.get(r.col[t]));
+            }
+            H.add(hb.build());
+        }
+        return H;
+    }
+
+
+    /**
+     * Append a polynomial as row to a modular matrix.
+     * @param M modular sparse matrix.
+     * @param p polynomial with ModLong or ModInt coefficients.
+     * @param colIndex column indexes of the exponent vectors.
+     */
+    void addRow(SparseModMatrix M, GenPolynomial<C> p, Map<ExpVector, Integer> colIndex) {
+        int l = p.length();
+        int[] col = new int[l];
+        long[] val = new long[l];
+        int i = 0;
+        for (Map.Entry<ExpVector, C> me : p.getMap().entrySet()) { // descending = ascending columns
+            col[i] = colIndex.get(me.getKey());
+            C c = me.getValue();
+            if (c instanceof ModLong) {
+                val[i] = ((ModLong) c).val;
+            } else {
+                val[i] = ((ModInt) c).val;
+            }
+            i++;
+        }
+        M.addRow(col, val);
+    }
+
+
+    /**
+     * Sparse row of the Macaulay matrix.
+     * @param <C> coefficient type
+     */
+    static final class Row<C extends RingElem<C>> {
+
+
+        /**
+         * Ascending column indexes.
+         */
+        final int[] col;
+
+
+        /**
+         * Coefficients of the columns.
+         */
+        final C[] val;
+
+
+        /**
+         * Constructor.
+         * @param col ascending column indexes.
+         * @param val coefficients.
+         */
+        Row(int[] col, C[] val) {
+            this.col = col;
+            this.val = val;
+        }
+
+
+        /**
+         * Constructor.
+         * @param p polynomial.
+         * @param colIndex column indexes of the exponent vectors.
+         */
+        @SuppressWarnings("unchecked")
+        Row(GenPolynomial<C> p, Map<ExpVector, Integer> colIndex) {
+            int l = p.length();
+            col = new int[l];
+            val = (C[]) new RingElem[l];
+            int i = 0;
+            for (Map.Entry<ExpVector, C> me : p.getMap().entrySet()) { // descending = ascending columns
+                col[i] = colIndex.get(me.getKey());
+                val[i] = me.getValue();
+                i++;
+            }
+        }
+    }
+
+}
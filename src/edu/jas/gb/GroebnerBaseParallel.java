@@ -345,37 +345,15 @@ class Reducer<C extends RingElem<C>> implements Runnable {
         GenPolynomial<C> pi, pj, S, H;
         //boolean set = false;
         int reduction = 0;
-        int sleeps = 0;
         while (pairlist.hasNext() || fin.hasJobs()) {
-            while (!pairlist.hasNext()) {
-                // wait
-                //fin.beIdle(); set = true;
-                try {
-                    sleeps++;
-                    if (sleeps % 10 == 0) {
-                        logger.info(" reducer is sleeping");
-                    } else {
-                        logger.debug("r");
-                    }
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    fin.allIdle();
-                    logger.info("shutdown " + fin + " after: " + e);
-                    //throw new RuntimeException("interrupt 1 in pairlist.hasNext loop");
+            try {
+                // wait for new pairs or termination, no polling
+                if (!fin.waitJobs(pairlist::hasNext)) {
                     break;
                 }
-                if (Thread.currentThread().isInterrupted()) {
-                    //fin.initIdle(1);
-                    fin.allIdle();
-                    logger.info("shutdown after .isInterrupted(): " + fin);
-                    //throw new RuntimeException("interrupt 2 in pairlist.hasNext loop");
-                    break;
-                }
-                if (!fin.hasJobs()) {
-                    break;
-                }
-            }
-            if (!pairlist.hasNext() && !fin.hasJobs()) {
+            } catch (InterruptedException e) {
+                fin.allIdle();
+                logger.info("shutdown " + fin + " after: " + e);
                 break;
             }
             //if ( set ) {
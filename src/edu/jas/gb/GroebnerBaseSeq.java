@@ -78,9 +78,44 @@ public class GroebnerBaseSeq<C extends RingElem<C>>
      * @return GB(F) a Groebner base of F.
      */
     public List<GenPolynomial<C>> GB( int modv, List<GenPolynomial<C>> F ) {  
+        return GB( modv, F, null );
+    }
+
+
+    /**
+     * Groebner base using pairlist class, with trace learning or replay.
+     * If the trace is not learned, the critical pairs with non-zero
+     * reductions are recorded in the trace. If the trace is learned, only
+     * the recorded pairs are reduced and the known zero reductions are
+     * skipped. If the number of polynomials, their leading terms or numbers
+     * of terms, or the leading terms of the reduced polynomials differ from
+     * the recorded ones, the Groebner base is computed without the trace.
+     * Note, the skipped reductions are not checked, so a replayed result is a
+     * Groebner base only if the trace is valid for F, for example for images
+     * of the same polynomials modulo lucky primes.
+     * @param modv module variable number.
+     * @param F polynomial list.
+     * @param trace trace to learn or to replay, or null.
+     * @return GB(F) a Groebner base of F.
+     */
+    public List<GenPolynomial<C>> GB( int modv, List<GenPolynomial<C>> F, GBTrace trace ) {  
         List<GenPolynomial<C>> G = normalizeZerosOnes(F);
         G = PolyUtil.<C> monic(G);
+        if ( trace != null && trace.isLearned() ) {
+            List<GenPolynomial<C>> R = replayGB( G, trace );
+            if ( R != null ) {
+                return R;
+            }
+            logger.warn("trace replay failed, computing GB without trace");
+            trace = null;
+        }
+        if ( trace != null ) {
+            trace.start( G );
+        }
         if ( G.size() <= 1 ) {
+            if ( trace != null ) {
+                trace.finish();
+            }
             return G;
         }
         GenPolynomialRing<C> ring = G.get(0).ring;
@@ -131,9 +166,15 @@ public class GroebnerBaseSeq<C extends RingElem<C>>
             }
 
             H = H.monic();
+            if ( trace != null ) {
+                trace.add( pair.i, pair.j, H.leadingExpVector() );
+            }
             if ( H.isONE() ) {
                 G.clear(); G.add( H );
                 pairlist.putOne();
+                if ( trace != null ) {
+                    trace.finish();
+                }
                 logger.info("end " + pairlist); 
                 return G; // since no threads are activated
             }
@@ -148,11 +189,64 @@ public class GroebnerBaseSeq<C extends RingElem<C>>
         }
         logger.debug("#sequential list = " + G.size());
         G = minimalGB(G);
+        if ( trace != null ) {
+            trace.finish();
+            logger.info("learned " + trace); 
+        }
         logger.info("end " + pairlist); 
         return G;
     }
 
 
+    /**
+     * Replay a learned trace.
+     * @param F monic polynomial list without zeros.
+     * @param trace learned trace.
+     * @return GB(F) a Groebner base of F, or null if F or the leading terms
+     *         differ from the trace.
+     */
+    protected List<GenPolynomial<C>> replayGB( List<GenPolynomial<C>> F, GBTrace trace ) {  
+        if ( ! trace.isInput( F ) ) {
+            logger.info("input differs from trace " + trace); 
+            return null;
+        }
+        List<GenPolynomial<C>> G = new ArrayList<GenPolynomial<C>>( F.size() + trace.size() );
+        G.addAll( F );
+        if ( G.size() <= 1 ) {
+            return G;
+        }
+        if ( ! G.get(0).ring.coFac.isField() ) {
+            throw new IllegalArgumentException("coefficients not from a field");
+        }
+        logger.info("replay " + trace); 
+        GenPolynomial<C> S, H;
+        for ( GBTrace.Step st : trace.getSteps() ) {
+            if ( st.i >= G.size() || st.j >= G.size() ) {
+                return null;
+            }
+            S = red.SPolynomial( G.get(st.i), G.get(st.j) );
+            if ( S.isZERO() ) {
+                return null;
+            }
+            H = red.normalform( G, S );
+            if ( H.isZERO() || ! H.leadingExpVector().equals( st.e ) ) {
+                if ( debug ) {
+                    logger.debug("step " + st + " differs from trace: " + H.leadingExpVector() );
+                }
+                return null;
+            }
+            H = H.monic();
+            if ( H.isONE() ) {
+                G.clear(); G.add( H );
+                return G;
+            }
+            G.add( H );
+        }
+        G = minimalGB(G);
+        return G;
+    }
+
+
     /**
      * Extended Groebner base using critical pair class.
      * @param modv module variable number.
@@ -217,12 +217,10 @@ public class OrderedMinPairlist<C extends RingElem<C>> extends OrderedPairlist<C
         }
         s = true;
         boolean m;
-        GenPolynomial<C> A;
         ExpVector ek;
-        for (int k = 0; k < P.size(); k++) {
-            A = P.get(k);
-            ek = A.leadingExpVector();
-            m = eij.multipleOf(ek) && eij.compareTo(ek) != 0;
+        for (int k : leadingIndex().divisors(eij)) { // ascending k with eij multiple of ek
+            ek = P.get(k).leadingExpVector();
+            m = eij.compareTo(ek) != 0;
             if (m) {
                 if (k < i) {
                     // System.out.println("k < i "+k+" "+i); 
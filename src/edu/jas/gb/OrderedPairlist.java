@@ -18,6 +18,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import edu.jas.poly.ExpVector;
+import edu.jas.poly.ExpVectorIndex;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.structure.RingElem;
@@ -48,6 +49,12 @@ public class OrderedPairlist<C extends RingElem<C>> implements PairList<C> {
     protected final Reduction<C> reduction;
 
 
+    /**
+     * Divisibility index of the leading exponent vectors of P.
+     */
+    protected final ExpVectorIndex hindex;
+
+
     protected boolean oneInGB = false;
 
 
@@ -76,6 +83,7 @@ public class OrderedPairlist<C extends RingElem<C>> implements PairList<C> {
         pairlist = null;
         red = null;
         reduction = null;
+        hindex = null;
         putCount = 0;
         remCount = 0;
     }
@@ -102,6 +110,7 @@ public class OrderedPairlist<C extends RingElem<C>> implements PairList<C> {
         pairlist = new TreeMap<ExpVector, LinkedList<Pair<C>>>(ring.tord.getAscendComparator());
         //pairlist = new TreeMap( to.getSugarComparator() );
         red = new ArrayList<BitSet>();
+        hindex = new ExpVectorIndex();
         putCount = 0;
         remCount = 0;
         if (!ring.isCommutative()) {//ring instanceof GenSolvablePolynomialRing ) {
@@ -355,11 +364,28 @@ public class OrderedPairlist<C extends RingElem<C>> implements PairList<C> {
         P.clear();
         P.add(ring.getONE());
         red.clear();
+        hindex.clear();
         logger.info("outOne " + this.toString());
         return P.size() - 1;
     }
 
 
+    /**
+     * Divisibility index of the leading exponent vectors of P. The index is
+     * extended as P grows.
+     * @return index for the leading exponent vectors of P.
+     */
+    protected synchronized ExpVectorIndex leadingIndex() {
+        if (hindex.size() > P.size()) {
+            hindex.clear();
+        }
+        for (int k = hindex.size(); k < P.size(); k++) {
+            hindex.add(P.get(k).leadingExpVector());
+        }
+        return hindex;
+    }
+
+
     /**
      * GB criterium 3.
      * @return true if the S-polynomial(i,j) is required.
@@ -372,27 +398,22 @@ public class OrderedPairlist<C extends RingElem<C>> implements PairList<C> {
             return s;
         }
         // now s = true;
-        for (int k = 0; k < P.size(); k++) {
+        for (int k : leadingIndex().divisors(eij)) { // ascending k with eij multiple of ek
             // System.out.println("i , k , j "+i+" "+k+" "+j); 
             if (i != k && j != k) {
-                GenPolynomial<C> A = P.get(k);
-                ExpVector ek = A.leadingExpVector();
-                boolean m = eij.multipleOf(ek);
-                if (m) {
-                    if (k < i) {
-                        // System.out.println("k < i "+k+" "+i); 
-                        s = red.get(i).get(k) || red.get(j).get(k);
-                    } else if (i < k && k < j) {
-                        // System.out.println("i < k < j "+i+" "+k+" "+j); 
-                        s = red.get(k).get(i) || red.get(j).get(k);
-                    } else if (j < k) {
-                        //System.out.println("j < k "+j+" "+k); 
-                        s = red.get(k).get(i) || red.get(k).get(j);
-                    }
-                    //System.out.println("s."+k+" = " + s); 
-                    if (!s) {
-                        return s;
-                    }
+                if (k < i) {
+                    // System.out.println("k < i "+k+" "+i); 
+                    s = red.get(i).get(k) || red.get(j).get(k);
+                } else if (i < k && k < j) {
+                    // System.out.println("i < k < j "+i+" "+k+" "+j); 
+                    s = red.get(k).get(i) || red.get(j).get(k);
+                } else if (j < k) {
+                    //System.out.println("j < k "+j+" "+k); 
+                    s = red.get(k).get(i) || red.get(k).get(j);
+                }
+                //System.out.println("s."+k+" = " + s); 
+                if (!s) {
+                    return s;
                 }
             }
         }
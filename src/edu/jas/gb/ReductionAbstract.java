@@ -14,6 +14,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager; 
 
 import edu.jas.poly.ExpVector;
+import edu.jas.poly.ExpVectorIndex;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.Monomial;
@@ -38,10 +39,44 @@ public abstract class ReductionAbstract<C extends RingElem<C>> implements Reduct
     private static final boolean debug = logger.isDebugEnabled();
 
 
+    /**
+     * Flag if a geobucket is used to accumulate the reduced polynomial in
+     * normalform.
+     */
+    protected final boolean geobucket;
+
+
+    /**
+     * Index of the leading exponent vectors of the reducers, one per thread,
+     * extended as the list of reducers grows.
+     */
+    protected final ExpVectorIndex.Cache leadingIndex = new ExpVectorIndex.Cache();
+
+
     /**
      * Constructor.
      */
     public ReductionAbstract() {
+        this(false);
+    }
+
+
+    /**
+     * Constructor.
+     * @param geobucket if true, use a geobucket for the polynomial under
+     *            reduction in normalform.
+     */
+    public ReductionAbstract(boolean geobucket) {
+        this.geobucket = geobucket;
+    }
+
+
+    /**
+     * Test if a geobucket is used in normalform.
+     * @return true, if normalform uses a geobucket, else false.
+     */
+    public boolean isGeobucket() {
+        return geobucket;
     }
 
 
@@ -10,6 +10,7 @@ import java.util.Map;
 
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GeoBucket;
 import edu.jas.structure.RingElem;
 
 
@@ -29,6 +30,17 @@ public class ReductionPar<C extends RingElem<C>> extends ReductionAbstract<C> {
      * Constructor.
      */
     public ReductionPar() {
+        super();
+    }
+
+
+    /**
+     * Constructor.
+     * @param geobucket if true, use a geobucket for the polynomial under
+     *            reduction in normalform.
+     */
+    public ReductionPar(boolean geobucket) {
+        super(geobucket);
     }
 
 
@@ -46,6 +58,9 @@ public class ReductionPar<C extends RingElem<C>> extends ReductionAbstract<C> {
         if (Ap == null || Ap.isZERO()) {
             return Ap;
         }
+        if (geobucket) {
+            return normalformGeoBucket(Pp, Ap);
+        }
         int l;
         GenPolynomial<C>[] P;
         synchronized (Pp) { // required, ok in dist
@@ -119,6 +134,70 @@ public class ReductionPar<C extends RingElem<C>> extends ReductionAbstract<C> {
     }
 
 
+    /**
+     * Normalform using a geobucket for the polynomial under reduction. Allows
+     * concurrent modification of the list.
+     * @param Ap polynomial.
+     * @param Pp polynomial list, concurrent modification allowed.
+     * @return nf(Ap) with respect to Pp.
+     */
+    @SuppressWarnings("unchecked")
+    protected GenPolynomial<C> normalformGeoBucket(List<GenPolynomial<C>> Pp, GenPolynomial<C> Ap) {
+        int l;
+        GenPolynomial<C>[] P;
+        synchronized (Pp) { // required, ok in dist
+            l = Pp.size();
+            P = (GenPolynomial<C>[]) new GenPolynomial[l];
+            for (int i = 0; i < Pp.size(); i++) {
+                P[i] = Pp.get(i);
+            }
+        }
+        Map.Entry<ExpVector, C> m;
+        ExpVector e;
+        ExpVector f = null;
+        C a;
+        boolean mt = false;
+        GenPolynomial<C> Rz = Ap.ring.getZERO();
+        GenPolynomial<C> R = Rz.copy();
+        GenPolynomial<C> p = null;
+        GeoBucket<C> S = new GeoBucket<C>(Ap);
+        while ((m = S.leadingMonomial()) != null) {
+            if (Pp.size() != l) {
+                synchronized (Pp) { // required, bad in parallel
+                    l = Pp.size();
+                    P = (GenPolynomial<C>[]) new GenPolynomial[l];
+                    for (int i = 0; i < Pp.size(); i++) {
+                        P[i] = Pp.get(i);
+                    }
+                }
+                S = new GeoBucket<C>(Ap); // restart reduction
+                R = Rz.copy();
+                continue;
+            }
+            e = m.getKey();
+            a = m.getValue();
+            for (int i = 0; i < P.length; i++) {
+                p = P[i];
+                f = p.leadingExpVector();
+                if (f != null) {
+                    mt = e.multipleOf(f);
+                    if (mt)
+                        break;
+                }
+            }
+            if (!mt) {
+                R.doPutToMap(e, a);
+                S.removeLeadingMonomial();
+            } else {
+                e = e.subtract(f);
+                a = a.divide(p.leadingBaseCoefficient());
+                S.subtractMultiple(a, e, p);
+            }
+        }
+        return R;
+    }
+
+
     /**
      * Normalform with recording.
      * @param row recording matrix, is modified.
@@ -12,7 +12,10 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager; 
 
 import edu.jas.poly.ExpVector;
+import edu.jas.poly.ExpVectorIndex;
 import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialBuilder;
+import edu.jas.poly.GeoBucket;
 import edu.jas.poly.Monomial;
 import edu.jas.structure.RingElem;
 
@@ -34,6 +37,17 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
      * Constructor.
      */
     public ReductionSeq() {
+        super();
+    }
+
+
+    /**
+     * Constructor.
+     * @param geobucket if true, use a geobucket for the polynomial under
+     *            reduction in normalform.
+     */
+    public ReductionSeq(boolean geobucket) {
+        super(geobucket);
     }
 
 
@@ -54,6 +68,9 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
         if (!Ap.ring.coFac.isField()) {
             throw new IllegalArgumentException("coefficients not from a field");
         }
+        if (geobucket) {
+            return normalformGeoBucket(Pp, Ap);
+        }
         Map.Entry<ExpVector, C> m;
         int l;
         GenPolynomial<C>[] P;
@@ -81,10 +98,11 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             }
         }
         l = j;
+        ExpVectorIndex index = leadingIndex.get(htl, l);
         ExpVector e;
         C a;
         boolean mt = false;
-        GenPolynomial<C> R = Ap.ring.getZERO().copy();
+        GenPolynomialBuilder<C> R = new GenPolynomialBuilder<C>(Ap.ring);
 
         //GenPolynomial<C> T = null;
         //GenPolynomial<C> Q = null;
@@ -93,16 +111,13 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             m = S.leadingMonomial();
             e = m.getKey();
             a = m.getValue();
-            for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
-                if (mt)
-                    break;
-            }
+            i = index.firstDivisor(e);
+            mt = (i >= 0);
             if (!mt) {
                 logger.debug("irred");
                 //R = R.sum( a, e );
                 //S = S.subtract( a, e ); 
-                R.doPutToMap(e, a);
+                R.addTerm(a, e);
                 S.doRemoveFromMap(e, a);
                 // System.out.println(" S = " + S);
             } else {
@@ -114,7 +129,68 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
                 S = S.subtractMultiple(a, e, p[i]);
             }
         }
-        return R;
+        leadingIndex.release(index);
+        return R.build();
+    }
+
+
+    /**
+     * Normalform using a geobucket for the polynomial under reduction. The
+     * reducers are selected as in normalform, so the result is the same.
+     * @param Ap polynomial.
+     * @param Pp polynomial list.
+     * @return nf(Ap) with respect to Pp.
+     */
+    @SuppressWarnings("unchecked")
+    protected GenPolynomial<C> normalformGeoBucket(List<GenPolynomial<C>> Pp, GenPolynomial<C> Ap) {
+        Map.Entry<ExpVector, C> m;
+        int l;
+        GenPolynomial<C>[] P;
+        synchronized (Pp) {
+            l = Pp.size();
+            P = new GenPolynomial[l];
+            for (int i = 0; i < Pp.size(); i++) {
+                P[i] = Pp.get(i);
+            }
+        }
+        ExpVector[] htl = new ExpVector[l];
+        Object[] lbc = new Object[l]; // want C[]
+        GenPolynomial<C>[] p = new GenPolynomial[l];
+        int i;
+        int j = 0;
+        for (i = 0; i < l; i++) {
+            p[i] = P[i];
+            m = p[i].leadingMonomial();
+            if (m != null) {
+                p[j] = p[i];
+                htl[j] = m.getKey();
+                lbc[j] = m.getValue();
+                j++;
+            }
+        }
+        l = j;
+        ExpVectorIndex index = leadingIndex.get(htl, l);
+        ExpVector e;
+        C a;
+        boolean mt = false;
+        GenPolynomialBuilder<C> R = new GenPolynomialBuilder<C>(Ap.ring);
+        GeoBucket<C> S = new GeoBucket<C>(Ap);
+        while ((m = S.leadingMonomial()) != null) {
+            e = m.getKey();
+            a = m.getValue();
+            i = index.firstDivisor(e);
+            mt = (i >= 0);
+            if (!mt) {
+                R.addTerm(a, e);
+                S.removeLeadingMonomial();
+            } else {
+                e = e.subtract(htl[i]);
+                a = a.divide((C) lbc[i]);
+                S.subtractMultiple(a, e, p[i]);
+            }
+        }
+        leadingIndex.release(index);
+        return R.build();
     }
 
 
@@ -173,25 +249,22 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             }
         }
         l = j;
+        ExpVectorIndex index = leadingIndex.get(htl, l);
         ExpVector e, f;
         C a, b;
         boolean mt = false;
-        GenPolynomial<C> R = Ap.ring.getZERO().copy();
+        GenPolynomialBuilder<C> R = new GenPolynomialBuilder<C>(Ap.ring);
         GenPolynomial<C> S = Ap.copy();
         while (S.length() > 0) {
             m = S.leadingMonomial();
             e = m.getKey();
             a = m.getValue();
             //System.out.println("NF a = " + a + ", e = " + e);
-            for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
-                if (mt)
-                    break;
-            }
+            i = index.firstDivisor(e);
+            mt = (i >= 0);
             if (!mt) {
                 logger.debug("irred");
-                R.doAddTo(a, e); // needed, or sum
-                //R.doPutToMap(e, a); // not here
+                R.addTerm(a, e); // needed, or sum
                 //S = S.subtract( a, e ); 
                 S.doRemoveFromMap(e, a);
                 // System.out.println(" S = " + S);
@@ -214,7 +287,8 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             //System.out.println("NF R = " + R + ", S = " + S);
         }
         //System.out.println("NF Ap = " + Ap + " ==> " + R);
-        return R;
+        leadingIndex.release(index);
+        return R.build();
     }
 
 
@@ -262,13 +336,14 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             }
         }
         l = j;
+        ExpVectorIndex index = leadingIndex.get(htl, l);
         ExpVector e;
         C a;
         boolean mt = false;
-        GenPolynomial<C> zero = Ap.ring.getZERO();
-        GenPolynomial<C> R = Ap.ring.getZERO().copy();
+        GenPolynomialBuilder<C> R = new GenPolynomialBuilder<C>(Ap.ring);
+        GenPolynomialBuilder<C>[] rowb = new GenPolynomialBuilder[l];
 
-        GenPolynomial<C> fac = null;
+        GenPolynomialBuilder<C> fac = null;
         // GenPolynomial<C> T = null;
         //GenPolynomial<C> Q = null;
         GenPolynomial<C> S = Ap.copy();
@@ -276,16 +351,13 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
             m = S.leadingMonomial();
             e = m.getKey();
             a = m.getValue();
-            for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
-                if (mt)
-                    break;
-            }
+            i = index.firstDivisor(e);
+            mt = (i >= 0);
             if (!mt) {
                 //logger.debug("irred");
                 //R = R.sum( a, e );
                 //S = S.subtract( a, e ); 
-                R.doPutToMap(e, a);
+                R.addTerm(a, e);
                 S.doRemoveFromMap(e, a);
                 // System.out.println(" S = " + S);
             } else {
@@ -296,16 +368,22 @@ public class ReductionSeq<C extends RingElem<C>> // should be FieldElem<C>>
                 //Q = p[i].multiply( a, e );
                 //S = S.subtract( Q );
                 S = S.subtractMultiple(a, e, p[i]);
-                fac = row.get(i);
+                fac = rowb[i];
                 if (fac == null) {
-                    fac = zero.sum(a, e);
-                } else {
-                    fac = fac.sum(a, e);
+                    GenPolynomial<C> r = row.get(i);
+                    fac = (r == null) ? new GenPolynomialBuilder<C>(Ap.ring) : new GenPolynomialBuilder<C>(r);
+                    rowb[i] = fac;
                 }
-                row.set(i, fac);
+                fac.addTerm(a, e);
+            }
+        }
+        for (i = 0; i < l; i++) {
+            if (rowb[i] != null) {
+                row.set(i, rowb[i].build());
             }
         }
-        return R;
+        leadingIndex.release(index);
+        return R.build();
     }
 
 }
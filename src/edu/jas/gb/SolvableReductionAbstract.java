@@ -16,6 +16,7 @@ import org.apache.logging.log4j.LogManager;
 import edu.jas.poly.ModuleList;
 import edu.jas.poly.PolynomialList;
 import edu.jas.poly.ExpVector;
+import edu.jas.poly.ExpVectorIndex;
 import edu.jas.poly.GenSolvablePolynomial;
 import edu.jas.poly.GenSolvablePolynomialRing;
 import edu.jas.structure.RingElem;
@@ -37,6 +38,13 @@ public abstract class SolvableReductionAbstract<C extends RingElem<C>> implement
     private static final boolean debug = logger.isDebugEnabled();
 
 
+    /**
+     * Index of the leading exponent vectors of the reducers, one per thread,
+     * extended as the list of reducers grows.
+     */
+    protected final ExpVectorIndex.Cache leadingIndex = new ExpVectorIndex.Cache();
+
+
     /**
      * Constructor.
      */
@@ -12,6 +12,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager; 
 
 import edu.jas.poly.ExpVector;
+import edu.jas.poly.ExpVectorIndex;
 import edu.jas.poly.GenSolvablePolynomial;
 import edu.jas.structure.RingElem;
 
@@ -75,6 +76,7 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
             }
         }
         l = j;
+        ExpVectorIndex index = leadingIndex.get(htl, l);
         ExpVector e; //, f;
         C a, b;
         boolean mt = false;
@@ -89,11 +91,8 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
                 logger.debug("red, e = " + e);
             }
             a = m.getValue();
-            for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
-                if (mt)
-                    break;
-            }
+            i = index.firstDivisor(e);
+            mt = (i >= 0);
             if (!mt) {
                 //logger.debug("irred");
                 //R = (GenSolvablePolynomial<C>) R.sum(a, e);
@@ -127,6 +126,7 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
                 }
             }
         }
+        leadingIndex.release(index);
         return R;
     }
 
@@ -169,6 +169,7 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
             }
         }
         l = j;
+        ExpVectorIndex index = leadingIndex.get(htl, l);
         ExpVector e;
         C a;
         boolean mt = false;
@@ -182,11 +183,8 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
             m = S.leadingMonomial();
             e = m.getKey();
             a = m.getValue();
-            for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
-                if (mt)
-                    break;
-            }
+            i = index.firstDivisor(e);
+            mt = (i >= 0);
             if (!mt) {
                 //logger.debug("irred");
                 //R = (GenSolvablePolynomial<C>) R.sum(a, e);
@@ -221,6 +219,7 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
                 row.set(i, fac);
             }
         }
+        leadingIndex.release(index);
         return R;
     }
 
@@ -267,6 +266,7 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
             }
         }
         l = j;
+        ExpVectorIndex index = leadingIndex.get(htl, l);
         ExpVector e;
         C a;
         boolean mt = false;
@@ -280,11 +280,8 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
             e = m.getKey();
             //logger.info("red = " + e);
             a = m.getValue();
-            for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
-                if (mt)
-                    break;
-            }
+            i = index.firstDivisor(e);
+            mt = (i >= 0);
             if (!mt) {
                 //logger.debug("irred");
                 //R = (GenSolvablePolynomial<C>) R.sum(a, e);
@@ -309,6 +306,7 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
                 }
             }
         }
+        leadingIndex.release(index);
         return R;
     }
 
@@ -354,6 +352,7 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
             }
         }
         l = j;
+        ExpVectorIndex index = leadingIndex.get(htl, l);
         ExpVector e;
         C a;
         boolean mt = false;
@@ -368,11 +367,8 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
             m = S.leadingMonomial();
             e = m.getKey();
             a = m.getValue();
-            for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
-                if (mt)
-                    break;
-            }
+            i = index.firstDivisor(e);
+            mt = (i >= 0);
             if (!mt) {
                 //logger.debug("irred");
                 //R = (GenSolvablePolynomial<C>) R.sum(a, e);
@@ -406,6 +402,7 @@ public class SolvableReductionSeq<C extends RingElem<C>> extends SolvableReducti
                 row.set(i, fac);
             }
         }
+        leadingIndex.release(index);
         return R;
     }
 
@@ -15,6 +15,8 @@ import edu.jas.arith.ModIntRing;
 import edu.jas.arith.ModInteger;
 import edu.jas.arith.ModIntegerRing;
 import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongMontgomery;
+import edu.jas.arith.ModLongMontgomeryRing;
 import edu.jas.arith.ModLongRing;
 import edu.jas.arith.Product;
 import edu.jas.arith.ProductRing;
@@ -22,6 +24,7 @@ import edu.jas.gb.DGroebnerBaseSeq;
 import edu.jas.gb.EGroebnerBaseSeq;
 import edu.jas.gb.GBProxy;
 import edu.jas.gb.GroebnerBaseAbstract;
+import edu.jas.gb.GroebnerBaseF4;
 import edu.jas.gb.GroebnerBaseParallel;
 import edu.jas.gb.GroebnerBaseSeq;
 import edu.jas.gb.OrderedMinPairlist;
@@ -80,10 +83,11 @@ public class GBFactory {
 
     /**
      * Algorithm indicators: igb = integerGB, egb = e-GB, dgb = d-GB, qgb =
-     * fraction coefficients GB, ffgb = fraction free GB.
+     * fraction coefficients GB, ffgb = fraction free GB, f4gb = F4 linear
+     * algebra GB, mgb = multi-modular GB.
      */
     public static enum Algo {
-        igb, egb, dgb, qgb, ffgb
+        igb, egb, dgb, qgb, ffgb, f4gb, mgb
     };
 
 
@@ -132,6 +136,76 @@ public class GBFactory {
     }
 
 
+    /**
+     * Determine suitable implementation of GB algorithms, case ModLong.
+     * @param fac ModLongRing.
+     * @param a algorithm, a = qgb, f4gb.
+     * @return GB algorithm implementation.
+     */
+    public static GroebnerBaseAbstract<ModLong> getImplementation(ModLongRing fac, Algo a) {
+        return getImplementation(fac, a, new OrderedPairlist<ModLong>());
+    }
+
+
+    /**
+     * Determine suitable implementation of GB algorithms, case ModLong.
+     * @param fac ModLongRing.
+     * @param a algorithm, a = qgb, f4gb.
+     * @param pl pair selection strategy
+     * @return GB algorithm implementation.
+     */
+    public static GroebnerBaseAbstract<ModLong> getImplementation(ModLongRing fac, Algo a,
+                    PairList<ModLong> pl) {
+        GroebnerBaseAbstract<ModLong> bba;
+        switch (a) {
+        case qgb:
+            bba = getImplementation(fac, pl);
+            break;
+        case f4gb:
+            if (!fac.isField()) {
+                throw new IllegalArgumentException(
+                                "algorithm not available for " + fac.toScript() + ", Algo = " + a);
+            }
+            bba = new GroebnerBaseF4<ModLong>(pl);
+            break;
+        default:
+            throw new IllegalArgumentException(
+                            "algorithm not available for " + fac.toScript() + ", Algo = " + a);
+        }
+        return bba;
+    }
+
+
+    /**
+     * Determine suitable implementation of GB algorithms, case
+     * ModLongMontgomery.
+     * @param fac ModLongMontgomeryRing.
+     * @return GB algorithm implementation.
+     */
+    public static GroebnerBaseAbstract<ModLongMontgomery> getImplementation(ModLongMontgomeryRing fac) {
+        return getImplementation(fac, new OrderedPairlist<ModLongMontgomery>());
+    }
+
+
+    /**
+     * Determine suitable implementation of GB algorithms, case
+     * ModLongMontgomery.
+     * @param fac ModLongMontgomeryRing.
+     * @param pl pair selection strategy
+     * @return GB algorithm implementation.
+     */
+    public static GroebnerBaseAbstract<ModLongMontgomery> getImplementation(ModLongMontgomeryRing fac,
+                    PairList<ModLongMontgomery> pl) {
+        GroebnerBaseAbstract<ModLongMontgomery> bba;
+        if (fac.isField()) {
+            bba = new GroebnerBaseSeq<ModLongMontgomery>(pl);
+        } else {
+            bba = new GroebnerBasePseudoSeq<ModLongMontgomery>(fac, pl);
+        }
+        return bba;
+    }
+
+
     /**
      * Determine suitable implementation of GB algorithms, case ModInt.
      * @param fac ModIntRing.
@@ -260,7 +334,7 @@ public class GBFactory {
     /**
      * Determine suitable implementation of GB algorithms, case BigRational.
      * @param fac BigRational.
-     * @param a algorithm, a = qgb, ffgb.
+     * @param a algorithm, a = qgb, ffgb, f4gb, mgb.
      * @return GB algorithm implementation.
      */
     public static GroebnerBaseAbstract<BigRational> getImplementation(BigRational fac, Algo a) {
@@ -283,7 +357,7 @@ public class GBFactory {
     /**
      * Determine suitable implementation of GB algorithms, case BigRational.
      * @param fac BigRational.
-     * @param a algorithm, a = qgb, ffgb.
+     * @param a algorithm, a = qgb, ffgb, f4gb, mgb.
      * @param pl pair selection strategy
      * @return GB algorithm implementation.
      */
@@ -305,6 +379,20 @@ public class GBFactory {
             }
             bba = new GroebnerBaseRational<BigRational>(pli); // pl not possible
             break;
+        case f4gb:
+            bba = new GroebnerBaseF4<BigRational>(pl);
+            break;
+        case mgb:
+            PairList<ModLong> plm;
+            if (pl instanceof OrderedMinPairlist) {
+                plm = new OrderedMinPairlist<ModLong>();
+            } else if (pl instanceof OrderedSyzPairlist) {
+                plm = new OrderedSyzPairlist<ModLong>();
+            } else {
+                plm = new OrderedPairlist<ModLong>();
+            }
+            bba = new GroebnerBaseModular(ComputerThreads.N_CPUS, new GroebnerBaseF4<ModLong>(plm)); // pl not possible
+            break;
         default:
             throw new IllegalArgumentException(
                             "algorithm not available for " + fac.toScriptFactory() + ", Algo = " + a);
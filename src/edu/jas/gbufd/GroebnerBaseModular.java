@@ -0,0 +1,786 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gbufd;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.gb.GroebnerBaseAbstract;
+import edu.jas.gb.GBTrace;
+import edu.jas.gb.GroebnerBaseF4;
+import edu.jas.gb.GroebnerBaseSeq;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.Monomial;
+import edu.jas.poly.PolyUtil;
+import edu.jas.poly.RationalReconstruction;
+import edu.jas.poly.TermOrder;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Groebner Base multi-modular algorithm for rational coefficients. The
+ * reduced Groebner bases of the images modulo word size primes are computed
+ * in parallel. The images are grouped by their leading terms, so images
+ * modulo unlucky primes do not spoil the images modulo lucky primes. Groups
+ * which are unlucky by Arnold's comparison of the leading terms are
+ * discarded together with their primes. The images of a group are combined
+ * by the chinese remainder algorithm and rational reconstruction, until the
+ * reconstruction is confirmed by a further prime. Finally the reconstruction
+ * is verified to be a Groebner base of the ideal of the input polynomials.
+ * The input polynomials must reduce to zero modulo the reconstruction. For
+ * homogeneous input the Hilbert functions of both ideals are then equal, since
+ * the leading terms are those of a Groebner base modulo a prime. Other input
+ * is homogenized, the Groebner base of the homogenized ideal is computed and
+ * verified in this way and is then dehomogenized. The homogenized term order
+ * compares the total degree and then the dehomogenized terms by the given
+ * term order, so the dehomogenized polynomials are a Groebner base. Only for
+ * modules and for term orders, which are not INVLEX, IGRLEX or weight orders,
+ * the reconstruction must reduce to zero modulo a Groebner base of the input
+ * over the integers. The reductions are fraction free pseudo reductions over
+ * the integers. See E. A. Arnold, "Modular algorithms for computing
+ * Gr&ouml;bner bases", 2003.
+ * Without verification the input polynomials must still reduce to zero
+ * modulo the reconstruction. Optionally the trace of the first image is
+ * learned and only the recorded reductions are replayed for the other
+ * images. A reconstruction which fails the verification or the reduction of
+ * the input polynomials is treated as premature and further primes are
+ * added. If no reconstruction is found after MAX_PRIMES primes, the Groebner
+ * base is computed with GroebnerBaseRational.
+ * @author agent
+ * @see edu.jas.poly.RationalReconstruction
+ * @see edu.jas.gb.GBTrace
+ */
+
+public class GroebnerBaseModular extends GroebnerBaseAbstract<BigRational> {
+
+
+    private static final Logger logger = LogManager.getLogger(GroebnerBaseModular.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Groebner base algorithm for the modular images.
+     */
+    public final GroebnerBaseAbstract<ModLong> mbb;
+
+
+    /**
+     * Maximal number of primes, then the Groebner base is computed with
+     * GroebnerBaseRational.
+     */
+    public static final int MAX_PRIMES = 1000;
+
+
+    /**
+     * Number of primes used in parallel.
+     */
+    public final int threads;
+
+
+    /**
+     * If true, the result is verified, else it is only confirmed by a further
+     * prime and checked to contain the input polynomials.
+     */
+    public final boolean verify;
+
+
+    /**
+     * If true, the trace of the first image is learned and replayed for the
+     * other images, requires a GroebnerBaseSeq for the modular images.
+     */
+    public final boolean useTrace;
+
+
+    /**
+     * Constructor.
+     */
+    public GroebnerBaseModular() {
+        this(ComputerThreads.N_CPUS);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of primes used in parallel.
+     */
+    public GroebnerBaseModular(int threads) {
+        this(threads, new GroebnerBaseF4<ModLong>());
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of primes used in parallel.
+     * @param mbb Groebner base algorithm for ModLong coefficients, which
+     *            returns reduced Groebner bases.
+     */
+    public GroebnerBaseModular(int threads, GroebnerBaseAbstract<ModLong> mbb) {
+        this(threads, mbb, true);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of primes used in parallel.
+     * @param mbb Groebner base algorithm for ModLong coefficients, which
+     *            returns reduced Groebner bases.
+     * @param verify if true, the result is verified, else the result is
+     *            only probably correct.
+     */
+    public GroebnerBaseModular(int threads, GroebnerBaseAbstract<ModLong> mbb, boolean verify) {
+        this(threads, mbb, verify, false);
+    }
+
+
+    /**
+     * Constructor.
+     * @param threads number of primes used in parallel.
+     * @param mbb Groebner base algorithm for ModLong coefficients, which
+     *            returns reduced Groebner bases.
+     * @param verify if true, the result is verified, else the result is
+     *            only probably correct.
+     * @param useTrace if true, the trace of the first image is replayed for
+     *            the other images, mbb must be a GroebnerBaseSeq.
+     */
+    public GroebnerBaseModular(int threads, GroebnerBaseAbstract<ModLong> mbb, boolean verify,
+                    boolean useTrace) {
+        super();
+        if (threads < 1) {
+            threads = 1;
+        }
+        if (useTrace && !(mbb instanceof GroebnerBaseSeq)) {
+            throw new IllegalArgumentException("trace requires GroebnerBaseSeq, not " + mbb);
+        }
+        this.threads = threads;
+        this.mbb = mbb;
+        this.verify = verify;
+        this.useTrace = useTrace;
+    }
+
+
+    /**
+     * Get the String representation with GB engines.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "(" + threads + ", " + mbb.toString() + ", " + verify + ", "
+                        + useTrace + ")";
+    }
+
+
+    /**
+     * Groebner base using modular images.
+     * @param modv module variable number.
+     * @param F polynomial list.
+     * @return GB(F) a reduced Groebner base of F.
+     */
+    @Override
+    public List<GenPolynomial<BigRational>> GB(int modv, List<GenPolynomial<BigRational>> F) {
+        List<GenPolynomial<BigRational>> G = normalizeZerosOnes(F);
+        if (G.size() <= 1) {
+            return PolyUtil.<BigRational> monic(G);
+        }
+        GenPolynomialRing<BigRational> rring = G.get(0).ring;
+        if (verify && modv == 0 && !isHomogeneous(G)) {
+            GenPolynomialRing<BigRational> hring = homogenizedRing(rring);
+            if (hring != null) {
+                return homogenizedGB(hring, G);
+            }
+            logger.info("no homogenized term order for " + rring.tord);
+        }
+        GenPolynomialRing<BigInteger> iring = new GenPolynomialRing<BigInteger>(new BigInteger(), rring);
+        List<GenPolynomial<BigInteger>> Fi = PolyUtil.integerFromRationalCoefficients(iring, G);
+        Comparator<ExpVector> cmp = rring.tord.getAscendComparator();
+        Map<List<ExpVector>, RationalReconstruction<ModLong>> groups = new HashMap<List<ExpVector>, RationalReconstruction<ModLong>>();
+        List<GenPolynomial<BigRational>> failed = null;
+        GBTrace trace = null;
+        long p = ModLongRing.MAX_LONG.longValue() + 1L; // primes below 2^31
+        int primes = 0;
+        while (primes < MAX_PRIMES) {
+            // select next primes, skip primes dividing a leading coefficient
+            List<GenPolynomialRing<ModLong>> facs = new ArrayList<GenPolynomialRing<ModLong>>(threads);
+            while (facs.size() < threads) {
+                p = previousPrime(p);
+                java.math.BigInteger bp = java.math.BigInteger.valueOf(p);
+                boolean unlucky = false;
+                for (GenPolynomial<BigInteger> f : Fi) {
+                    if (f.leadingBaseCoefficient().getVal().mod(bp).signum() == 0) {
+                        unlucky = true;
+                        break;
+                    }
+                }
+                if (unlucky) {
+                    logger.info("prime " + p + " divides a leading coefficient");
+                    continue;
+                }
+                facs.add(new GenPolynomialRing<ModLong>(new ModLongRing(p, true), rring));
+            }
+            List<List<GenPolynomial<ModLong>>> Fp = PolyUtil.<ModLong> modularImages(facs, Fi);
+            if (useTrace && trace == null) {
+                trace = new GBTrace();
+            }
+            List<List<GenPolynomial<ModLong>>> Gp = modularGB(modv, Fp, trace);
+            // group images by leading terms, unlucky groups are removed before reconstruction
+            List<List<GenPolynomial<ModLong>>> Hs = new ArrayList<List<GenPolynomial<ModLong>>>(Gp.size());
+            List<List<ExpVector>> lts = new ArrayList<List<ExpVector>>(Gp.size());
+            for (List<GenPolynomial<ModLong>> Gm : Gp) {
+                primes++;
+                List<GenPolynomial<ModLong>> H = new ArrayList<GenPolynomial<ModLong>>(Gm);
+                Collections.sort(H, new LeadingTermComparator<ModLong>(cmp));
+                List<ExpVector> lt = new ArrayList<ExpVector>(H.size());
+                for (GenPolynomial<ModLong> h : H) {
+                    lt.add(h.leadingExpVector());
+                }
+                if (!groups.containsKey(lt)) {
+                    if (!groups.isEmpty()) {
+                        logger.info("leading terms differ for prime " + H.get(0).ring.coFac);
+                        if (!removeUnlucky(lt, groups, cmp)) {
+                            continue; // unlucky prime
+                        }
+                    }
+                    groups.put(lt, new RationalReconstruction<ModLong>(rring));
+                }
+                Hs.add(H);
+                lts.add(lt);
+            }
+            for (int i = 0; i < Hs.size(); i++) {
+                RationalReconstruction<ModLong> rr = groups.get(lts.get(i));
+                if (rr == null) { // removed by a later image
+                    continue;
+                }
+                if (!rr.addImages(Hs.get(i))) {
+                    continue;
+                }
+                G = rr.getResult();
+                if (G == failed) { // same reconstruction
+                    continue;
+                }
+                logger.info("#primes = " + primes + ", #groups = " + groups.size() + ", modul bits = "
+                                + rr.getModul().bitLength());
+                if (!verify) {
+                    if (isReductionZero(PolyUtil.integerFromRationalCoefficients(iring, G), Fi)) {
+                        return G;
+                    }
+                    logger.warn("input not in the ideal of the reconstruction with " + primes + " primes");
+                } else {
+                    if (isVerified(modv, Fi, G, true)) {
+                        return G;
+                    }
+                    logger.warn("reconstruction with " + primes + " primes is not a Groebner base");
+                }
+                failed = G;
+                trace = null; // learn again
+            }
+        }
+        logger.warn("no reconstruction with " + primes + " primes, using GroebnerBaseRational");
+        return new GroebnerBaseRational<BigRational>().GB(modv, F);
+    }
+
+
+    /**
+     * Groebner base using the homogenized polynomials.
+     * @param hring homogenized polynomial ring.
+     * @param F polynomial list, not homogeneous.
+     * @return GB(F) a reduced Groebner base of F.
+     */
+    List<GenPolynomial<BigRational>> homogenizedGB(GenPolynomialRing<BigRational> hring,
+                    List<GenPolynomial<BigRational>> F) {
+        GenPolynomialRing<BigRational> rring = F.get(0).ring;
+        List<GenPolynomial<BigRational>> Fh = new ArrayList<GenPolynomial<BigRational>>(F.size());
+        for (GenPolynomial<BigRational> f : F) {
+            Fh.add(homogenize(hring, f));
+        }
+        List<GenPolynomial<BigRational>> Gh = GB(0, Fh);
+        List<GenPolynomial<BigRational>> G = new ArrayList<GenPolynomial<BigRational>>(Gh.size());
+        for (GenPolynomial<BigRational> g : Gh) {
+            G.add(deHomogenize(rring, g));
+        }
+        logger.info("#GB(homogenized) = " + Gh.size());
+        return PolyUtil.<BigRational> monic(minimalGB(G));
+    }
+
+
+    /**
+     * Polynomial ring with a homogenizing variable. The homogenizing variable
+     * is the lowest variable and the term order is a weight order, which
+     * compares the total degree, then the terms without the homogenizing
+     * variable by the term order of the ring. For homogeneous polynomials the
+     * leading terms are the homogenized leading terms of the dehomogenized
+     * polynomials.
+     * @param ring polynomial ring.
+     * @return homogenized polynomial ring, or null if the term order of ring
+     *         is not supported.
+     */
+    static <C extends RingElem<C>> GenPolynomialRing<C> homogenizedRing(GenPolynomialRing<C> ring) {
+        TermOrder to = ring.tord;
+        int n = ring.nvar;
+        long[][] w = to.getWeight();
+        if (w == null) {
+            if (to.isSplit()) {
+                return null;
+            }
+            if (to.getEvord() == TermOrder.IGRLEX) {
+                w = new long[][] { ones(n) };
+            } else if (to.getEvord() == TermOrder.INVLEX) {
+                w = new long[0][];
+            } else {
+                return null;
+            }
+        }
+        long[][] wh = new long[w.length + 1][];
+        wh[0] = ones(n + 1);
+        for (int k = 0; k < w.length; k++) {
+            if (w[k].length != n) {
+                return null;
+            }
+            wh[k + 1] = Arrays.copyOf(w[k], n + 1); // weight 0 for the homogenizing variable
+        }
+        GenPolynomialRing<C> ering = ring.extendLower(1);
+        return new GenPolynomialRing<C>(ring.coFac, n + 1, new TermOrder(wh), ering.getVars(),
+                        ring.getStorUnit());
+    }
+
+
+    /**
+     * Weight vector of ones.
+     * @param n length.
+     * @return array of n ones.
+     */
+    static long[] ones(int n) {
+        long[] w = new long[n];
+        Arrays.fill(w, 1L);
+        return w;
+    }
+
+
+    /**
+     * Homogenize with the lowest variable.
+     * @param hring homogenized polynomial ring.
+     * @param f polynomial.
+     * @return homogeneous polynomial in hring.
+     */
+    static <C extends RingElem<C>> GenPolynomial<C> homogenize(GenPolynomialRing<C> hring,
+                    GenPolynomial<C> f) {
+        GenPolynomial<C> h = hring.getZERO().copy();
+        long deg = f.totalDegree();
+        for (Monomial<C> m : f) {
+            ExpVector e = m.exponent();
+            h.doPutToMap(e.extendLower(1, 0, deg - e.totalDeg()), m.coefficient());
+        }
+        return h;
+    }
+
+
+    /**
+     * Dehomogenize the lowest variable.
+     * @param ring polynomial ring without the homogenizing variable.
+     * @param h polynomial in the homogenized ring.
+     * @return dehomogenized polynomial in ring.
+     */
+    static <C extends RingElem<C>> GenPolynomial<C> deHomogenize(GenPolynomialRing<C> ring,
+                    GenPolynomial<C> h) {
+        GenPolynomial<C> f = ring.getZERO().copy();
+        for (Monomial<C> m : h) {
+            f.doPutToMap(m.exponent().contract(0, ring.nvar), m.coefficient());
+        }
+        return f;
+    }
+
+
+    /**
+     * Remove the groups of images modulo unlucky primes.
+     * @param lt leading exponent vectors of a new image.
+     * @param groups groups of images by leading exponent vectors, the groups
+     *            which are unlucky compared to lt are removed.
+     * @param cmp ascending term order comparator.
+     * @return false, if lt is unlucky compared to a group, else true.
+     */
+    static <T> boolean removeUnlucky(List<ExpVector> lt, Map<List<ExpVector>, T> groups,
+                    Comparator<ExpVector> cmp) {
+        boolean lucky = true;
+        Iterator<List<ExpVector>> it = groups.keySet().iterator();
+        while (it.hasNext()) {
+            List<ExpVector> g = it.next();
+            int s = compareLeadingTerms(lt, g, cmp);
+            if (s < 0) {
+                lucky = false;
+            } else if (s > 0) {
+                logger.info("unlucky group removed, leading terms " + g);
+                it.remove();
+            }
+        }
+        return lucky;
+    }
+
+
+    /**
+     * Compare the leading terms of Groebner bases modulo different primes by
+     * E. A. Arnold's rule. For homogeneous ideals the leading term ideal
+     * modulo an unlucky prime is properly contained in the leading term ideal
+     * modulo a lucky prime, or, if the ideals are not comparable, the largest
+     * term in which the leading terms differ belongs to the lucky prime. For
+     * other ideals the rule is a heuristic.
+     * @param a leading exponent vectors of a reduced Groebner base.
+     * @param b leading exponent vectors of a reduced Groebner base.
+     * @param cmp ascending term order comparator.
+     * @return 1 if b is unlucky compared to a, -1 if a is unlucky compared to
+     *         b, 0 if the leading terms are equal.
+     */
+    static int compareLeadingTerms(List<ExpVector> a, List<ExpVector> b, Comparator<ExpVector> cmp) {
+        boolean ab = isIdealContained(a, b);
+        boolean ba = isIdealContained(b, a);
+        if (ab != ba) {
+            return ab ? -1 : 1;
+        }
+        // largest term of the symmetric difference
+        ExpVector m = null;
+        int s = 0;
+        for (ExpVector e : a) {
+            if (!b.contains(e) && (m == null || cmp.compare(e, m) > 0)) {
+                m = e;
+                s = 1;
+            }
+        }
+        for (ExpVector e : b) {
+            if (!a.contains(e) && (m == null || cmp.compare(e, m) > 0)) {
+                m = e;
+                s = -1;
+            }
+        }
+        return s;
+    }
+
+
+    /**
+     * Test containment of monomial ideals.
+     * @param a list of exponent vectors.
+     * @param b list of exponent vectors.
+     * @return true, if ideal(a) is contained in ideal(b), else false.
+     */
+    static boolean isIdealContained(List<ExpVector> a, List<ExpVector> b) {
+        for (ExpVector e : a) {
+            boolean mt = false;
+            for (ExpVector f : b) {
+                if (e.multipleOf(f)) {
+                    mt = true;
+                    break;
+                }
+            }
+            if (!mt) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Groebner bases of modular images, in parallel if threads &gt; 1.
+     * @param modv module variable number.
+     * @param Fp list of polynomial lists modulo different primes.
+     * @param trace trace to learn from the first image and to replay for the
+     *            other images, or null.
+     * @return list of the Groebner bases of Fp.
+     */
+    protected List<List<GenPolynomial<ModLong>>> modularGB(final int modv,
+                    List<List<GenPolynomial<ModLong>>> Fp, final GBTrace trace) {
+        List<List<GenPolynomial<ModLong>>> Gp = new ArrayList<List<GenPolynomial<ModLong>>>(Fp.size());
+        int s = 0;
+        if (trace != null && !trace.isLearned()) { // learn sequentially
+            Gp.add(imageGB(modv, Fp.get(0), trace));
+            s = 1;
+        }
+        if (threads <= 1 || Fp.size() - s <= 1 || ComputerThreads.NO_THREADS) {
+            for (List<GenPolynomial<ModLong>> F : Fp.subList(s, Fp.size())) {
+                Gp.add(imageGB(modv, F, trace));
+            }
+            return Gp;
+        }
+        List<Callable<List<GenPolynomial<ModLong>>>> cs = new ArrayList<Callable<List<GenPolynomial<ModLong>>>>(
+                        Fp.size());
+        for (final List<GenPolynomial<ModLong>> F : Fp.subList(s, Fp.size())) {
+            cs.add(new Callable<List<GenPolynomial<ModLong>>>() {
+
+
+                public List<GenPolynomial<ModLong>> call() {
+                    return imageGB(modv, F, trace);
+                }
+            });
+        }
+        ExecutorService pool = ComputerThreads.getPool();
+        try {
+            List<Future<List<GenPolynomial<ModLong>>>> fs = pool.invokeAll(cs);
+            for (Future<List<GenPolynomial<ModLong>>> f : fs) {
+                Gp.add(f.get());
+            }
+        } catch (InterruptedException e) {
+            logger.info("InterruptedException " + e);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("modular GB interrupted", e);
+        } catch (ExecutionException e) {
+            logger.info("ExecutionException " + e);
+            throw new RuntimeException("modular GB failed", e.getCause());
+        }
+        return Gp;
+    }
+
+
+    /**
+     * Groebner base of a modular image.
+     * @param modv module variable number.
+     * @param F polynomial list modulo a prime.
+     * @param trace trace to learn or to replay, or null.
+     * @return GB(F).
+     */
+    List<GenPolynomial<ModLong>> imageGB(int modv, List<GenPolynomial<ModLong>> F, GBTrace trace) {
+        if (trace == null) {
+            return mbb.GB(modv, F);
+        }
+        return ((GroebnerBaseSeq<ModLong>) mbb).GB(modv, F, trace);
+    }
+
+
+    /**
+     * Verify a reconstructed Groebner base.
+     * @param modv module variable number.
+     * @param Fi polynomial list with integer coefficients.
+     * @param G reconstructed polynomial list.
+     * @return true if G is a Groebner base of the ideal generated by Fi, else
+     *         false.
+     */
+    public boolean isVerified(int modv, List<GenPolynomial<BigInteger>> Fi, List<GenPolynomial<BigRational>> G) {
+        return isVerified(modv, Fi, G, false);
+    }
+
+
+    /**
+     * Verify a reconstructed Groebner base.
+     * @param modv module variable number.
+     * @param Fi polynomial list with integer coefficients.
+     * @param G reconstructed polynomial list.
+     * @param modular if true, the leading terms of G are the leading terms of
+     *            a Groebner base of Fi modulo a prime.
+     * @return true if G is a Groebner base of the ideal generated by Fi, else
+     *         false.
+     */
+    protected boolean isVerified(int modv, List<GenPolynomial<BigInteger>> Fi,
+                    List<GenPolynomial<BigRational>> G, boolean modular) {
+        if (G.isEmpty()) {
+            return Fi.isEmpty();
+        }
+        GenPolynomialRing<BigInteger> iring = new GenPolynomialRing<BigInteger>(new BigInteger(), G.get(0).ring);
+        List<GenPolynomial<BigInteger>> Gi = PolyUtil.integerFromRationalCoefficients(iring, G);
+        if (!isReductionZero(Gi, Fi)) {
+            return false;
+        }
+        if (!isIntegerGB(modv, Gi)) {
+            return false;
+        }
+        // ideal(Fi) is contained in ideal(Gi), test the converse
+        if (modular && modv == 0 && isHomogeneous(Fi) && isHomogeneous(Gi)) {
+            // the ideal of Fi modulo p has the Hilbert function of ideal(Gi)
+            // and is not larger than ideal(Fi) in any degree
+            return true;
+        }
+        return isReductionZero(integerGB(modv, Fi), Gi);
+    }
+
+
+    /**
+     * Groebner base over the integers, used for the verification of modules
+     * and term orders without homogenized term order.
+     * @param modv module variable number.
+     * @param Fi polynomial list with integer coefficients.
+     * @return GB(Fi) a Groebner base of Fi over the integers.
+     */
+    protected List<GenPolynomial<BigInteger>> integerGB(int modv, List<GenPolynomial<BigInteger>> Fi) {
+        logger.warn("verification with a Groebner base over the integers");
+        return new GroebnerBasePseudoSeq<BigInteger>(new BigInteger()).GB(modv, Fi);
+    }
+
+
+    /**
+     * Groebner base test over the integers, the S-polynomials are reduced in
+     * parallel if threads &gt; 1.
+     * @param modv module variable number.
+     * @param G polynomial list with integer coefficients.
+     * @return true if G is a Groebner base, else false.
+     */
+    boolean isIntegerGB(int modv, final List<GenPolynomial<BigInteger>> G) {
+        final PseudoReduction<BigInteger> pred = new PseudoReductionSeq<BigInteger>();
+        final List<int[]> pairs = new ArrayList<int[]>();
+        for (int i = 0; i < G.size(); i++) {
+            ExpVector ei = G.get(i).leadingExpVector();
+            for (int j = i + 1; j < G.size(); j++) {
+                ExpVector ej = G.get(j).leadingExpVector();
+                if (!pred.moduleCriterion(modv, ei, ej)) {
+                    continue;
+                }
+                ExpVector eij = ei.lcm(ej);
+                if (!pred.criterion4(ei, ej, eij)) {
+                    continue;
+                }
+                boolean chain = false;
+                for (int k = 0; k < i; k++) {
+                    if (eij.multipleOf(G.get(k).leadingExpVector())) {
+                        chain = true;
+                        break;
+                    }
+                }
+                if (!chain) {
+                    pairs.add(new int[] { i, j });
+                }
+            }
+        }
+        int t = threads;
+        if (ComputerThreads.NO_THREADS || pairs.size() < 2 * t) {
+            t = 1;
+        }
+        List<Callable<Boolean>> cs = new ArrayList<Callable<Boolean>>(t);
+        for (int r = 0; r < t; r++) {
+            final int start = r;
+            final int step = t;
+            cs.add(new Callable<Boolean>() {
+
+
+                public Boolean call() {
+                    for (int k = start; k < pairs.size(); k += step) {
+                        int[] ij = pairs.get(k);
+                        GenPolynomial<BigInteger> sp = pred.SPolynomial(G.get(ij[0]), G.get(ij[1]));
+                        if (!pred.normalform(G, sp).isZERO()) {
+                            logger.info("no GB: S-polynomial " + ij[0] + ", " + ij[1]);
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            });
+        }
+        try {
+            if (t == 1) {
+                return cs.get(0).call();
+            }
+            for (Future<Boolean> f : ComputerThreads.getPool().invokeAll(cs)) {
+                if (!f.get()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            logger.info("InterruptedException " + e);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("GB test interrupted", e);
+        } catch (ExecutionException e) {
+            logger.info("ExecutionException " + e);
+            throw new RuntimeException("GB test failed", e.getCause());
+        } catch (Exception e) {
+            throw new RuntimeException("GB test failed", e);
+        }
+    }
+
+
+    /**
+     * Test if polynomials are contained in an ideal.
+     * @param G polynomial list with integer coefficients.
+     * @param F polynomial list with integer coefficients.
+     * @return true if each polynomial of F reduces to zero modulo G, else
+     *         false.
+     */
+    boolean isReductionZero(List<GenPolynomial<BigInteger>> G, List<GenPolynomial<BigInteger>> F) {
+        PseudoReduction<BigInteger> pred = new PseudoReductionSeq<BigInteger>();
+        for (GenPolynomial<BigInteger> f : F) {
+            if (!pred.normalform(G, f).isZERO()) {
+                if (debug) {
+                    logger.debug("f not in ideal(G): " + f);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Test if all polynomials are homogeneous.
+     * @param F polynomial list.
+     * @return true if each polynomial of F is homogeneous, else false.
+     */
+    static <C extends RingElem<C>> boolean isHomogeneous(List<GenPolynomial<C>> F) {
+        for (GenPolynomial<C> f : F) {
+            if (!f.isHomogeneous()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Cleanup and terminate ThreadPool.
+     */
+    @Override
+    public void terminate() {
+        mbb.terminate();
+    }
+
+
+    /**
+     * Largest prime below a bound.
+     * @param p bound.
+     * @return largest prime less than p.
+     */
+    static long previousPrime(long p) {
+        do {
+            p--;
+        } while (!java.math.BigInteger.valueOf(p).isProbablePrime(30));
+        return p;
+    }
+
+
+    /**
+     * Comparator for polynomials by leading exponent vectors.
+     * @param <C> coefficient type
+     */
+    static class LeadingTermComparator<C extends RingElem<C>> implements Comparator<GenPolynomial<C>> {
+
+
+        final Comparator<ExpVector> cmp;
+
+
+        LeadingTermComparator(Comparator<ExpVector> cmp) {
+            this.cmp = cmp;
+        }
+
+
+        public int compare(GenPolynomial<C> a, GenPolynomial<C> b) {
+            return cmp.compare(a.leadingExpVector(), b.leadingExpVector());
+        }
+    }
+
+}
@@ -13,7 +13,9 @@ import org.apache.logging.log4j.LogManager;
 
 import edu.jas.gb.ReductionAbstract;
 import edu.jas.poly.ExpVector;
+import edu.jas.poly.ExpVectorIndex;
 import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GeoBucket;
 import edu.jas.poly.PolyUtil;
 import edu.jas.structure.RingElem;
 
@@ -40,6 +42,17 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
      * Constructor.
      */
     public PseudoReductionSeq() {
+        super();
+    }
+
+
+    /**
+     * Constructor.
+     * @param geobucket if true, use a geobucket for the polynomial under
+     *            reduction in normalform.
+     */
+    public PseudoReductionSeq(boolean geobucket) {
+        super(geobucket);
     }
 
 
@@ -57,6 +70,9 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
         if (Ap == null || Ap.isZERO()) {
             return Ap;
         }
+        if (geobucket) {
+            return normalformGeoBucket(Pp, Ap);
+        }
         Map.Entry<ExpVector, C> m;
         GenPolynomial<C>[] P = new GenPolynomial[0];
         synchronized (Pp) {
@@ -82,6 +98,7 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
             }
         }
         l = j;
+        ExpVectorIndex index = leadingIndex.get(htl, l);
         ExpVector e, f;
         C a, b;
         boolean mt = false;
@@ -92,11 +109,8 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
             m = S.leadingMonomial();
             e = m.getKey();
             a = m.getValue();
-            for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
-                if (mt)
-                    break;
-            }
+            i = index.firstDivisor(e);
+            mt = (i >= 0);
             if (!mt) {
                 //logger.debug("irred");
                 //R = R.sum(a, e);
@@ -128,6 +142,78 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
                 //S = S.subtract(Q);
             }
         }
+        leadingIndex.release(index);
+        return R;
+    }
+
+
+    /**
+     * Normalform using a geobucket for the polynomial under reduction. The
+     * reducers and scaling factors are selected as in normalform, so the
+     * result is the same.
+     * @param Ap polynomial.
+     * @param Pp polynomial list.
+     * @return nf(Ap) with respect to Pp.
+     */
+    @SuppressWarnings("unchecked")
+    protected GenPolynomial<C> normalformGeoBucket(List<GenPolynomial<C>> Pp, GenPolynomial<C> Ap) {
+        Map.Entry<ExpVector, C> m;
+        GenPolynomial<C>[] P = new GenPolynomial[0];
+        synchronized (Pp) {
+            P = Pp.toArray(P);
+        }
+        int l = P.length;
+        ExpVector[] htl = new ExpVector[l];
+        C[] lbc = (C[]) new RingElem[l];
+        GenPolynomial<C>[] p = new GenPolynomial[l];
+        int i;
+        int j = 0;
+        for (i = 0; i < l; i++) {
+            if (P[i] == null) {
+                continue;
+            }
+            p[i] = P[i];
+            m = p[i].leadingMonomial();
+            if (m != null) {
+                p[j] = p[i];
+                htl[j] = m.getKey();
+                lbc[j] = m.getValue();
+                j++;
+            }
+        }
+        l = j;
+        ExpVectorIndex index = leadingIndex.get(htl, l);
+        ExpVector e, f;
+        C a, b;
+        boolean mt = false;
+        GenPolynomial<C> R = Ap.ring.getZERO().copy();
+        GeoBucket<C> S = new GeoBucket<C>(Ap);
+        while ((m = S.leadingMonomial()) != null) {
+            e = m.getKey();
+            a = m.getValue();
+            i = index.firstDivisor(e);
+            mt = (i >= 0);
+            if (!mt) {
+                R.doPutToMap(e, a);
+                S.removeLeadingMonomial();
+            } else {
+                f = e.subtract(htl[i]);
+                C c = lbc[i];
+                if (a.remainder(c).isZERO()) {
+                    b = a.divide(c);
+                    // the leading term cancels iff a == b c
+                    if (a.subtract(b.multiply(c)).isZERO()) {
+                        S.subtractMultiple(b, f, p[i]);
+                        continue;
+                    }
+                    logger.info("degree not descending: a = {}, b = {}, c = {}", a, b, c);
+                }
+                R = R.multiply(c);
+                S.multiply(c);
+                S.subtractMultiple(a, f, p[i]);
+            }
+        }
+        leadingIndex.release(index);
         return R;
     }
 
@@ -172,6 +258,7 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
             }
         }
         l = j;
+        ExpVectorIndex index = leadingIndex.get(htl, l);
         ExpVector e, f;
         GenPolynomial<C> a, b;
         boolean mt = false;
@@ -182,11 +269,8 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
             m = S.leadingMonomial();
             e = m.getKey();
             a = m.getValue();
-            for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
-                if (mt)
-                    break;
-            }
+            i = index.firstDivisor(e);
+            mt = (i >= 0);
             if (!mt) {
                 //logger.debug("irred");
                 //R = R.sum(a, e);
@@ -226,6 +310,7 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
                 //S = S.subtract(Q);
             }
         }
+        leadingIndex.release(index);
         return R;
     }
 
@@ -271,6 +356,7 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
             }
         }
         l = j;
+        ExpVectorIndex index = leadingIndex.get(htl, l);
         ExpVector e;
         C a;
         boolean mt = false;
@@ -282,11 +368,8 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
             m = S.leadingMonomial();
             e = m.getKey();
             a = m.getValue();
-            for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
-                if (mt)
-                    break;
-            }
+            i = index.firstDivisor(e);
+            mt = (i >= 0);
             if (!mt) {
                 //logger.debug("irred");
                 //R = R.sum(a, e);
@@ -319,6 +402,7 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
                 row.set(i, fac);
             }
         }
+        leadingIndex.release(index);
         return R;
     }
 
@@ -368,6 +452,7 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
             }
         }
         l = j;
+        ExpVectorIndex index = leadingIndex.get(htl, l);
         ExpVector e;
         C a;
         boolean mt = false;
@@ -378,11 +463,8 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
             m = S.leadingMonomial();
             e = m.getKey();
             a = m.getValue();
-            for (i = 0; i < l; i++) {
-                mt = e.multipleOf(htl[i]);
-                if (mt)
-                    break;
-            }
+            i = index.firstDivisor(e);
+            mt = (i >= 0);
             if (!mt) {
                 //logger.debug("irred");
                 //R = R.sum(a, e);
@@ -411,6 +493,7 @@ public class PseudoReductionSeq<C extends RingElem<C>> extends ReductionAbstract
             logger.info("multiplicative factor = " + mfac);
         }
         pf = new PseudoReductionEntry<C>(R, mfac);
+        leadingIndex.release(index);
         return pf;
     }
 
@@ -0,0 +1,286 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import edu.jas.poly.TermOrder.EVComparator;
+
+
+/**
+ * Factory for specialized ExpVector comparators. The comparators are used by
+ * <code>TermOrder</code> for the most common term orders. Graded and weighted
+ * comparators use the total degree and weighted degree stored in the exponent
+ * vectors, so the degrees are computed only once per exponent vector.
+ * Exponent vectors of type <code>ExpVectorLong</code> are compared directly on
+ * the exponent arrays, other storage units use the methods of
+ * <code>ExpVector</code>. All comparators order descending, i.e. as
+ * <code>TermOrder.getDescendComparator()</code>.
+ * @author agent
+ */
+
+public class EVComparatorFactory {
+
+
+    private EVComparatorFactory() {
+    }
+
+
+    /**
+     * Comparator for the inverse graded lexicographical term order IGRLEX.
+     * @return descending comparator for IGRLEX.
+     */
+    public static EVComparator getIGRLEXComparator() {
+        return new IGRLEXComparator();
+    }
+
+
+    /**
+     * Comparator for the inverse lexicographical term order INVLEX.
+     * @return descending comparator for INVLEX.
+     */
+    public static EVComparator getINVLEXComparator() {
+        return new INVLEXComparator();
+    }
+
+
+    /**
+     * Comparator for a weight term order.
+     * @param w weight array.
+     * @return descending comparator for the weight order w.
+     */
+    public static EVComparator getWeightComparator(long[][] w) {
+        if (w == null || w.length == 0) {
+            throw new IllegalArgumentException("invalid term order weight");
+        }
+        return new WeightComparator(w);
+    }
+
+
+    /**
+     * Comparator for a split term order of IGRLEX and INVLEX blocks with
+     * position over term.
+     * @param ev1 term order indicator for first block, IGRLEX or INVLEX.
+     * @param ev2 term order indicator for second block, IGRLEX or INVLEX.
+     * @param beg1 begin of the first block.
+     * @param end1 end of the first block, excluded.
+     * @param beg2 begin of the second block.
+     * @param end2 end of the second block, excluded.
+     * @return descending comparator for the split order, or null if the block
+     *         orders are not supported.
+     */
+    public static EVComparator getSplitComparator(int ev1, int ev2, int beg1, int end1, int beg2,
+                    int end2) {
+        if (!isSupportedBlock(ev1) || !isSupportedBlock(ev2)) {
+            return null;
+        }
+        return new SplitComparator(ev1 == TermOrder.IGRLEX, ev2 == TermOrder.IGRLEX, beg1, end1, beg2,
+                        end2);
+    }
+
+
+    /**
+     * Test if a block order is supported by the split comparators.
+     * @param ev term order indicator.
+     * @return true if ev is IGRLEX or INVLEX.
+     */
+    static boolean isSupportedBlock(int ev) {
+        return ev == TermOrder.IGRLEX || ev == TermOrder.INVLEX;
+    }
+
+
+    /**
+     * Inverse lexicographical comparison on exponent arrays.
+     * @param u exponent array.
+     * @param v exponent array.
+     * @param beg begin index.
+     * @param end end index, excluded.
+     * @return 0 if u == v, -1 if u &lt; v, 1 if u &gt; v on the range.
+     */
+    static int invLex(long[] u, long[] v, int beg, int end) {
+        for (int i = beg; i < end; i++) {
+            if (u[i] != v[i]) {
+                return (u[i] > v[i]) ? 1 : -1;
+            }
+        }
+        return 0;
+    }
+
+
+    /**
+     * Inverse graded lexicographical comparison on exponent arrays.
+     * @param u exponent array.
+     * @param v exponent array.
+     * @param beg begin index.
+     * @param end end index, excluded.
+     * @return 0 if u == v, -1 if u &lt; v, 1 if u &gt; v on the range.
+     */
+    static int invGrad(long[] u, long[] v, int beg, int end) {
+        int i = beg;
+        while (i < end && u[i] == v[i]) {
+            i++;
+        }
+        if (i == end) {
+            return 0;
+        }
+        int t = (u[i] > v[i]) ? 1 : -1;
+        long up = 0;
+        long vp = 0;
+        for (int j = i; j < end; j++) {
+            up += u[j];
+            vp += v[j];
+        }
+        if (up > vp) {
+            return 1;
+        }
+        if (up < vp) {
+            return -1;
+        }
+        return t;
+    }
+
+
+    /**
+     * Inverse lexicographical comparison.
+     * @param e1 exponent vector.
+     * @param e2 exponent vector.
+     * @return 0 if e1 == e2, -1 if e1 &lt; e2, 1 if e1 &gt; e2.
+     */
+    static int invLex(ExpVector e1, ExpVector e2) {
+        if (e1 instanceof ExpVectorLong && e2 instanceof ExpVectorLong) {
+            long[] u = ((ExpVectorLong) e1).val;
+            long[] v = ((ExpVectorLong) e2).val;
+            return invLex(u, v, 0, u.length);
+        }
+        return e1.invLexCompareTo(e2);
+    }
+
+
+    /**
+     * Descending comparator for IGRLEX.
+     */
+    static final class IGRLEXComparator extends EVComparator {
+
+
+        @Override
+        public int compare(ExpVector e1, ExpVector e2) {
+            if (e1.length() != e2.length()) { // let the ExpVector method fail
+                return -e1.invGradCompareTo(e2);
+            }
+            long d1 = e1.cachedTotalDeg();
+            long d2 = e2.cachedTotalDeg();
+            if (d1 != d2) {
+                return (d1 > d2) ? -1 : 1;
+            }
+            return -invLex(e1, e2);
+        }
+    }
+
+
+    /**
+     * Descending comparator for INVLEX.
+     */
+    static final class INVLEXComparator extends EVComparator {
+
+
+        @Override
+        public int compare(ExpVector e1, ExpVector e2) {
+            return -invLex(e1, e2);
+        }
+    }
+
+
+    /**
+     * Descending comparator for weight orders. The weighted degree for the
+     * first weight vector is stored in the exponent vectors.
+     */
+    static final class WeightComparator extends EVComparator {
+
+
+        final long[][] weight;
+
+
+        final long[] w0;
+
+
+        WeightComparator(long[][] w) {
+            weight = w;
+            w0 = w[0];
+        }
+
+
+        @Override
+        public int compare(ExpVector e1, ExpVector e2) {
+            if (e1.length() != e2.length()) { // let the ExpVector method fail
+                return -e1.invWeightCompareTo(weight, e2);
+            }
+            long d1 = e1.cachedWeightDeg(w0);
+            long d2 = e2.cachedWeightDeg(w0);
+            if (d1 != d2) {
+                return (d1 > d2) ? -1 : 1;
+            }
+            return -e1.invWeightCompareTo(weight, e2);
+        }
+    }
+
+
+    /**
+     * Descending comparator for split orders of IGRLEX and INVLEX blocks,
+     * position over term.
+     */
+    static final class SplitComparator extends EVComparator {
+
+
+        final boolean grad1;
+
+
+        final boolean grad2;
+
+
+        final int beg1;
+
+
+        final int end1;
+
+
+        final int beg2;
+
+
+        final int end2;
+
+
+        SplitComparator(boolean grad1, boolean grad2, int beg1, int end1, int beg2, int end2) {
+            this.grad1 = grad1;
+            this.grad2 = grad2;
+            this.beg1 = beg1;
+            this.end1 = end1;
+            this.beg2 = beg2;
+            this.end2 = end2;
+        }
+
+
+        @Override
+        public int compare(ExpVector e1, ExpVector e2) {
+            if (e1 instanceof ExpVectorLong && e2 instanceof ExpVectorLong) {
+                long[] u = ((ExpVectorLong) e1).val;
+                long[] v = ((ExpVectorLong) e2).val;
+                int e = Math.min(end1, u.length);
+                int t = grad1 ? invGrad(u, v, beg1, e) : invLex(u, v, beg1, e);
+                if (t != 0) {
+                    return -t;
+                }
+                e = Math.min(end2, u.length);
+                t = grad2 ? invGrad(u, v, beg2, e) : invLex(u, v, beg2, e);
+                return -t;
+            }
+            int t = grad1 ? e1.invGradCompareTo(e2, beg1, end1) : e1.invLexCompareTo(e2, beg1, end1);
+            if (t != 0) {
+                return -t;
+            }
+            t = grad2 ? e1.invGradCompareTo(e2, beg2, end2) : e1.invLexCompareTo(e2, beg2, end2);
+            return -t;
+        }
+    }
+
+}
@@ -25,7 +25,10 @@ import edu.jas.structure.RingFactory;
  * but exponents can be set (during construction); also the hash code is only
  * computed once, when needed. The different storage unit implementations are
  * <code>ExpVectorLong</code> <code>ExpVectorInteger</code>,
- * <code>ExpVectorShort</code> and <code>ExpVectorByte</code>. The static
+ * <code>ExpVectorShort</code>, <code>ExpVectorByte</code> and
+ * <code>ExpVectorPacked</code>. The packed storage unit is used for at most 16
+ * variables with exponents up to 255, other exponent vectors are stored as
+ * <code>ExpVectorLong</code>. The static
  * factory methods <code>create()</code> of <code>ExpVector</code> select the
  * respective storage unit. The selection of the desired storage unit is
  * internally done via the static variable <code>storunit</code>. This varaible
@@ -37,7 +40,7 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
 
 
     /**
-     * Stored hash code.
+     * Stored hash code, non negative, or -1 if not yet computed.
      */
     transient protected int hash = -1;
 
@@ -48,6 +51,44 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
     transient protected long blen = -1;
 
 
+    /**
+     * Stored total degree minus Long.MIN_VALUE, 0 if not computed. The offset
+     * lets the default value of the transient field mean unknown.
+     */
+    transient protected long tdegree = 0L;
+
+
+    /**
+     * Stored weighted degree for the first row of a weight array.
+     */
+    transient protected WeightDegree wdegree = null;
+
+
+    /**
+     * Stored divisibility mask with the highest bit set, 0 if not computed.
+     */
+    transient protected long dmask = 0L;
+
+
+    /**
+     * Weighted degree together with the weights it was computed for.
+     */
+    protected static final class WeightDegree {
+
+
+        final long[] weight;
+
+
+        final long degree;
+
+
+        WeightDegree(long[] weight, long degree) {
+            this.weight = weight;
+            this.degree = degree;
+        }
+    }
+
+
     /**
      * Random number generator.
      */
@@ -58,13 +99,15 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
      * Storage representation of exponent arrays.
      */
     public static enum StorUnit {
-        LONG, INT, SHORT, BYTE
+        LONG, INT, SHORT, BYTE, PACKED
     };
 
 
     /**
      * Used storage representation of exponent arrays. <b>Note:</b> Set this
-     * only statically and not dynamically.
+     * only statically and not dynamically. Polynomial rings may select a
+     * different storage unit, see
+     * <code>GenPolynomialRing(ring, su)</code>.
      */
     public final static StorUnit storunit = StorUnit.LONG;
 
@@ -73,7 +116,7 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
      * Constructor for ExpVector.
      */
     public ExpVector() {
-        hash = 0;
+        hash = -1;
     }
 
 
@@ -82,7 +125,60 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
      * @param n length of exponent vector.
      */
     public final static ExpVector create(int n) {
+        return create(storunit, n);
+    }
+
+
+    /**
+     * Factory constructor for ExpVector. Sets exponent i to e.
+     * @param n length of exponent vector.
+     * @param i index of exponent to be set.
+     * @param e exponent to be set.
+     */
+    public final static ExpVector create(int n, int i, long e) {
+        return create(storunit, n, i, e);
+    }
+
+
+    /**
+     * Internal factory constructor for ExpVector. Sets val.
+     * @param v internal representation array.
+     */
+    public final static ExpVector create(long[] v) {
+        return create(storunit, v);
+    }
+
+
+    /**
+     * Factory constructor for ExpVector. Converts a String representation to an
+     * ExpVector. Accepted format = (1,2,3,4,5,6,7).
+     * @param s String representation.
+     */
+    public final static ExpVector create(String s) {
         switch (storunit) {
+        case INT:
+            return new ExpVectorInteger(s);
+        case LONG:
+            return new ExpVectorLong(s);
+        case SHORT:
+            return new ExpVectorShort(s);
+        case BYTE:
+            return new ExpVectorByte(s);
+        case PACKED:
+            return ExpVectorPacked.valueOf(ExpVectorLong.parse(s).val);
+        default:
+            return new ExpVectorInteger(s);
+        }
+    }
+
+
+    /**
+     * Factory constructor for ExpVector with given storage unit.
+     * @param su storage unit.
+     * @param n length of exponent vector.
+     */
+    public final static ExpVector create(StorUnit su, int n) {
+        switch (su) {
         case INT:
             return new ExpVectorInteger(n);
         case LONG:
@@ -91,6 +187,11 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
             return new ExpVectorShort(n);
         case BYTE:
             return new ExpVectorByte(n);
+        case PACKED:
+            if (n <= ExpVectorPacked.MAX_VARS) {
+                return new ExpVectorPacked(n);
+            }
+            return new ExpVectorLong(n);
         default:
             return new ExpVectorInteger(n);
         }
@@ -98,65 +199,126 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
 
 
     /**
-     * Factory constructor for ExpVector. Sets exponent i to e.
+     * Factory constructor for ExpVector with given storage unit. Sets exponent
+     * i to e. If e does not fit into the storage unit, a wider storage unit is
+     * used.
+     * @param su storage unit.
      * @param n length of exponent vector.
      * @param i index of exponent to be set.
      * @param e exponent to be set.
      */
-    public final static ExpVector create(int n, int i, long e) {
-        switch (storunit) {
+    public final static ExpVector create(StorUnit su, int n, int i, long e) {
+        if (su == StorUnit.PACKED) {
+            if (n <= ExpVectorPacked.MAX_VARS && e >= 0L && e <= ExpVectorPacked.MAX_EXP) {
+                return new ExpVectorPacked(n, i, e);
+            }
+            return new ExpVectorLong(n, i, e);
+        }
+        switch (wider(su, storUnit(e))) {
         case INT:
             return new ExpVectorInteger(n, i, e);
-        case LONG:
-            return new ExpVectorLong(n, i, e);
         case SHORT:
             return new ExpVectorShort(n, i, e);
         case BYTE:
             return new ExpVectorByte(n, i, e);
+        case LONG:
         default:
-            return new ExpVectorInteger(n, i, e);
+            return new ExpVectorLong(n, i, e);
         }
     }
 
 
     /**
-     * Internal factory constructor for ExpVector. Sets val.
-     * @param v internal representation array.
+     * Factory constructor for ExpVector with given storage unit. Sets val. If
+     * the exponents do not fit into the storage unit, the narrowest wider
+     * storage unit is used.
+     * @param su storage unit.
+     * @param v exponent array, is not modified.
      */
-    public final static ExpVector create(long[] v) {
-        switch (storunit) {
+    public final static ExpVector create(StorUnit su, long[] v) {
+        if (su == StorUnit.PACKED) {
+            return ExpVectorPacked.valueOf(v);
+        }
+        switch (wider(su, storUnit(v))) {
         case INT:
             return new ExpVectorInteger(v);
-        case LONG:
-            return new ExpVectorLong(v);
         case SHORT:
             return new ExpVectorShort(v);
         case BYTE:
             return new ExpVectorByte(v);
+        case LONG:
         default:
-            return new ExpVectorInteger(v);
+            return new ExpVectorLong(v);
         }
     }
 
 
     /**
-     * Factory constructor for ExpVector. Converts a String representation to an
-     * ExpVector. Accepted format = (1,2,3,4,5,6,7).
-     * @param s String representation.
+     * Narrowest storage unit for an exponent. The packed storage unit is not
+     * considered.
+     * @param e exponent or exponent bound.
+     * @return narrowest storage unit of BYTE, SHORT, INT and LONG which can
+     *         store e.
      */
-    public final static ExpVector create(String s) {
-        switch (storunit) {
-        case INT:
-            return new ExpVectorInteger(s);
-        case LONG:
-            return new ExpVectorLong(s);
-        case SHORT:
-            return new ExpVectorShort(s);
-        case BYTE:
-            return new ExpVectorByte(s);
-        default:
-            return new ExpVectorInteger(s);
+    public final static StorUnit storUnit(long e) {
+        if (e < ExpVectorByte.maxByte && e > ExpVectorByte.minByte) {
+            return StorUnit.BYTE;
+        }
+        if (e < ExpVectorShort.maxShort && e > ExpVectorShort.minShort) {
+            return StorUnit.SHORT;
+        }
+        if (e < ExpVectorInteger.maxInt && e > ExpVectorInteger.minInt) {
+            return StorUnit.INT;
+        }
+        return StorUnit.LONG;
+    }
+
+
+    /**
+     * Narrowest storage unit for exponents. The packed storage unit is not
+     * considered.
+     * @param v exponent array.
+     * @return narrowest storage unit of BYTE, SHORT, INT and LONG which can
+     *         store all exponents of v.
+     */
+    public final static StorUnit storUnit(long[] v) {
+        long max = 0L;
+        long min = 0L;
+        for (int i = 0; i < v.length; i++) {
+            if (v[i] > max) {
+                max = v[i];
+            } else if (v[i] < min) {
+                min = v[i];
+            }
+        }
+        return wider(storUnit(max), storUnit(min));
+    }
+
+
+    /**
+     * Wider storage unit. The packed storage unit is considered as wide as
+     * the byte storage unit.
+     * @param a storage unit.
+     * @param b storage unit.
+     * @return the wider storage unit of a and b.
+     */
+    public final static StorUnit wider(StorUnit a, StorUnit b) {
+        if (a == StorUnit.PACKED) {
+            a = StorUnit.BYTE;
+        }
+        if (b == StorUnit.PACKED) {
+            b = StorUnit.BYTE;
         }
+        return (a.ordinal() <= b.ordinal()) ? a : b;
+    }
+
+
+    /**
+     * Convert to long storage unit.
+     * @return this as ExpVectorLong.
+     */
+    public ExpVectorLong toExpVectorLong() {
+        return new ExpVectorLong(getVal(), true);
     }
 
 
@@ -539,7 +701,7 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
             for (int i = 0; i < length(); i++) {
                 h = (h << 4) + (int) getVal(i);
             }
-            hash = h;
+            hash = h & Integer.MAX_VALUE; // non negative, so it is computed once
         }
         return hash;
     }
@@ -839,6 +1001,32 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
     public abstract long totalDeg();
 
 
+    /**
+     * ExpVector total degree, computed once and then stored. Used by the
+     * comparators of <code>EVComparatorFactory</code>.
+     * @return sum of all exponents.
+     */
+    public final long cachedTotalDeg() {
+        long t = tdegree;
+        if (t == 0L) {
+            t = totalDeg() - Long.MIN_VALUE;
+            tdegree = t; // beware of race condition
+        }
+        return t + Long.MIN_VALUE;
+    }
+
+
+    /**
+     * Reset the stored degrees and the divisibility mask, to be called if an
+     * exponent is modified.
+     */
+    protected final void clearDegrees() {
+        tdegree = 0L;
+        wdegree = null;
+        dmask = 0L;
+    }
+
+
     /**
      * ExpVector maximal degree.
      * @param U
@@ -900,6 +1088,22 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
     public abstract long weightDeg(long[] w);
 
 
+    /**
+     * ExpVector weighted degree, the degree for the most recently used weight
+     * vector is stored.
+     * @param w weights.
+     * @return weighted sum of all exponents.
+     */
+    public final long cachedWeightDeg(long[] w) {
+        WeightDegree wd = wdegree;
+        if (wd == null || wd.weight != w) {
+            wd = new WeightDegree(w, weightDeg(w));
+            wdegree = wd;
+        }
+        return wd.degree;
+    }
+
+
     /**
      * ExpVector least common multiple.
      * @param U
@@ -983,6 +1187,50 @@ public abstract class ExpVector implements AbelianGroupElem<ExpVector> {
     public abstract boolean multipleOf(ExpVector V);
 
 
+    /**
+     * ExpVector divisibility mask. The 63 low bits are distributed over the
+     * variables, for a variable with b bits the j-th bit is set if the
+     * exponent is greater than j. If U is a multiple of V, then every bit of
+     * the mask of V is also set in the mask of U. The mask is computed once
+     * and then stored, the highest bit marks a computed mask.
+     * @return divisibility mask of this.
+     */
+    public final long divMask() {
+        long m = dmask;
+        if (m == 0L) {
+            int n = length();
+            int b = (n == 0 || n > 63) ? 1 : 63 / n;
+            m = Long.MIN_VALUE;
+            for (int i = 0; i < n; i++) {
+                long e = getVal(i);
+                if (e <= 0L) {
+                    continue;
+                }
+                int k = (int) ((i * (long) b) % 63);
+                for (int j = 0; j < b && j < e; j++) {
+                    m |= 1L << (k + j);
+                }
+            }
+            dmask = m; // beware of race condition
+        }
+        return m;
+    }
+
+
+    /**
+     * ExpVector divisibility mask test. Test if this can be a multiple of V.
+     * @param V
+     * @return false if this is not a multiple of V, true if this may be a
+     *         multiple of V.
+     */
+    public final boolean divMaskMultipleOf(ExpVector V) {
+        if (length() != V.length()) {
+            return true;
+        }
+        return (V.divMask() & ~divMask()) == 0L;
+    }
+
+
     /**
      * ExpVector divides test. Test if V is component wise greater or equal to
      * this.
@@ -193,7 +193,8 @@ public final class ExpVectorByte extends ExpVector
             throw new IllegalArgumentException("exponent to large: " + e);
         }
         val[i] = (byte) e;
-        hash = 0; // beware of race condition
+        hash = -1; // beware of race condition
+        clearDegrees();
         return x;
     }
 
@@ -207,7 +208,8 @@ public final class ExpVectorByte extends ExpVector
     protected byte setVal(int i, byte e) {
         byte x = val[i];
         val[i] = e;
-        hash = 0; // beware of race condition
+        hash = -1; // beware of race condition
+        clearDegrees();
         return x;
     }
 
@@ -231,7 +233,10 @@ public final class ExpVectorByte extends ExpVector
      * @return extended exponent vector.
      */
     @Override
-    public ExpVectorByte extend(int i, int j, long e) {
+    public ExpVector extend(int i, int j, long e) {
+        if (e >= maxByte || e <= minByte) {
+            return ExpVector.create(StorUnit.SHORT, toExpVectorLong().extend(i, j, e).val);
+        }
         byte[] w = new byte[val.length + i];
         System.arraycopy(val, 0, w, i, val.length);
         if (j >= i) {
@@ -254,7 +259,10 @@ public final class ExpVectorByte extends ExpVector
      * @return extended exponent vector.
      */
     @Override
-    public ExpVectorByte extendLower(int i, int j, long e) {
+    public ExpVector extendLower(int i, int j, long e) {
+        if (e >= maxByte || e <= minByte) {
+            return ExpVector.create(StorUnit.SHORT, toExpVectorLong().extendLower(i, j, e).val);
+        }
         byte[] w = new byte[val.length + i];
         System.arraycopy(val, 0, w, 0, val.length);
         if (j >= i) {
@@ -325,10 +333,13 @@ public final class ExpVectorByte extends ExpVector
      * @return combined exponent vector.
      */
     @Override
-    public ExpVectorByte combine(ExpVector V) {
+    public ExpVector combine(ExpVector V) {
         if (V == null || V.length() == 0) {
             return this;
         }
+        if (!(V instanceof ExpVectorByte)) {
+            return ExpVector.create(StorUnit.BYTE, toExpVectorLong().combine(V).val);
+        }
         ExpVectorByte Vi = (ExpVectorByte) V;
         if (val.length == 0) {
             return Vi;
@@ -372,10 +383,13 @@ public final class ExpVectorByte extends ExpVector
      */
     @Override
     public boolean equals(Object B) {
-        if (!(B instanceof ExpVectorByte) || B == null) {
+        if (!(B instanceof ExpVector) || B == null) {
+            return false;
+        }
+        ExpVector b = (ExpVector) B;
+        if (b.length() != val.length) {
             return false;
         }
-        ExpVectorByte b = (ExpVectorByte) B;
         int t = this.invLexCompareTo(b);
         //System.out.println("equals: this = " + this + " B = " + B + " t = " + t);
         return (0 == t);
@@ -434,12 +448,19 @@ public final class ExpVectorByte extends ExpVector
      * @return this+V.
      */
     @Override
-    public ExpVectorByte sum(ExpVector V) {
+    public ExpVector sum(ExpVector V) {
         byte[] u = val;
+        if (!(V instanceof ExpVectorByte)) {
+            return ExpVector.create(StorUnit.BYTE, toExpVectorLong().sum(V).val);
+        }
         byte[] v = ((ExpVectorByte) V).val;
         byte[] w = new byte[u.length];
         for (int i = 0; i < u.length; i++) {
-            w[i] = (byte) (u[i] + v[i]);
+            int x = u[i] + v[i];
+            if (x >= maxByte || x <= minByte) {
+                return ExpVector.create(StorUnit.SHORT, toExpVectorLong().sum(V).val);
+            }
+            w[i] = (byte) x;
         }
         return new ExpVectorByte(w);
         // return EVSUM(this, V);
@@ -452,12 +473,19 @@ public final class ExpVectorByte extends ExpVector
      * @return this-V.
      */
     @Override
-    public ExpVectorByte subtract(ExpVector V) {
+    public ExpVector subtract(ExpVector V) {
         byte[] u = val;
+        if (!(V instanceof ExpVectorByte)) {
+            return ExpVector.create(StorUnit.BYTE, toExpVectorLong().subtract(V).val);
+        }
         byte[] v = ((ExpVectorByte) V).val;
         byte[] w = new byte[u.length];
         for (int i = 0; i < u.length; i++) {
-            w[i] = (byte) (u[i] - v[i]);
+            int x = u[i] - v[i];
+            if (x >= maxByte || x <= minByte) {
+                return ExpVector.create(StorUnit.SHORT, toExpVectorLong().subtract(V).val);
+            }
+            w[i] = (byte) x;
         }
         return new ExpVectorByte(w);
         //return EVDIF(this, V);
@@ -470,15 +498,15 @@ public final class ExpVectorByte extends ExpVector
      * @return s*this.
      */
     @Override
-    public ExpVectorByte scalarMultiply(long s) {
-        if (s >= maxByte || s <= minByte) {
-            throw new IllegalArgumentException("scalar to large: " + s);
-        }
+    public ExpVector scalarMultiply(long s) {
         byte[] u = val;
         byte[] w = new byte[u.length];
-        byte sb = (byte) s;
         for (int i = 0; i < u.length; i++) {
-            w[i] = (byte) (sb * u[i]);
+            long x = s * u[i];
+            if (x >= maxByte || x <= minByte) {
+                return ExpVector.create(StorUnit.SHORT, toExpVectorLong().scalarMultiply(s).val);
+            }
+            w[i] = (byte) x;
         }
         return new ExpVectorByte(w);
     }
@@ -506,7 +534,10 @@ public final class ExpVectorByte extends ExpVector
      * @return substituted ExpVector.
      */
     @Override
-    public ExpVectorByte subst(int i, long d) {
+    public ExpVector subst(int i, long d) {
+        if (d >= maxByte || d <= minByte) {
+            return ExpVector.create(StorUnit.SHORT, toExpVectorLong().subst(i, d).val);
+        }
         ExpVectorByte V = this.copy();
         //long e = 
         V.setVal(i, d);
@@ -635,8 +666,11 @@ public final class ExpVectorByte extends ExpVector
      * @return component wise maximum of this and V.
      */
     @Override
-    public ExpVectorByte lcm(ExpVector V) {
+    public ExpVector lcm(ExpVector V) {
         byte[] u = val;
+        if (!(V instanceof ExpVectorByte)) {
+            return ExpVector.create(StorUnit.BYTE, toExpVectorLong().lcm(V).val);
+        }
         byte[] v = ((ExpVectorByte) V).val;
         byte[] w = new byte[u.length];
         for (int i = 0; i < u.length; i++) {
@@ -653,8 +687,11 @@ public final class ExpVectorByte extends ExpVector
      * @return component wise minimum of this and V.
      */
     @Override
-    public ExpVectorByte gcd(ExpVector V) {
+    public ExpVector gcd(ExpVector V) {
         byte[] u = val;
+        if (!(V instanceof ExpVectorByte)) {
+            return ExpVector.create(StorUnit.BYTE, toExpVectorLong().gcd(V).val);
+        }
         byte[] v = ((ExpVectorByte) V).val;
         byte[] w = new byte[u.length];
         for (int i = 0; i < u.length; i++) {
@@ -711,7 +748,13 @@ public final class ExpVectorByte extends ExpVector
      */
     @Override
     public boolean multipleOf(ExpVector V) {
+        if (!divMaskMultipleOf(V)) {
+            return false;
+        }
         byte[] u = val;
+        if (!(V instanceof ExpVectorByte)) {
+            return toExpVectorLong().multipleOf(V);
+        }
         byte[] v = ((ExpVectorByte) V).val;
         boolean t = true;
         for (int i = 0; i < u.length; i++) {
@@ -743,6 +786,9 @@ public final class ExpVectorByte extends ExpVector
     @Override
     public int invLexCompareTo(ExpVector V) {
         byte[] u = val;
+        if (!(V instanceof ExpVectorByte)) {
+            return toExpVectorLong().invLexCompareTo(V);
+        }
         byte[] v = ((ExpVectorByte) V).val;
         int t = 0;
         for (int i = 0; i < u.length; i++) {
@@ -766,6 +812,9 @@ public final class ExpVectorByte extends ExpVector
     @Override
     public int invLexCompareTo(ExpVector V, int begin, int end) {
         byte[] u = val;
+        if (!(V instanceof ExpVectorByte)) {
+            return toExpVectorLong().invLexCompareTo(V, begin, end);
+        }
         byte[] v = ((ExpVectorByte) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -793,6 +842,9 @@ public final class ExpVectorByte extends ExpVector
     @Override
     public int invGradCompareTo(ExpVector V) {
         byte[] u = val;
+        if (!(V instanceof ExpVectorByte)) {
+            return toExpVectorLong().invGradCompareTo(V);
+        }
         byte[] v = ((ExpVectorByte) V).val;
         int t = 0;
         int i;
@@ -837,6 +889,9 @@ public final class ExpVectorByte extends ExpVector
     @Override
     public int invGradCompareTo(ExpVector V, int begin, int end) {
         byte[] u = val;
+        if (!(V instanceof ExpVectorByte)) {
+            return toExpVectorLong().invGradCompareTo(V, begin, end);
+        }
         byte[] v = ((ExpVectorByte) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -885,6 +940,9 @@ public final class ExpVectorByte extends ExpVector
     @Override
     public int revInvLexCompareTo(ExpVector V) {
         byte[] u = val;
+        if (!(V instanceof ExpVectorByte)) {
+            return toExpVectorLong().revInvLexCompareTo(V);
+        }
         byte[] v = ((ExpVectorByte) V).val;
         int t = 0;
         for (int i = u.length - 1; i >= 0; i--) {
@@ -908,6 +966,9 @@ public final class ExpVectorByte extends ExpVector
     @Override
     public int revInvLexCompareTo(ExpVector V, int begin, int end) {
         byte[] u = val;
+        if (!(V instanceof ExpVectorByte)) {
+            return toExpVectorLong().revInvLexCompareTo(V, begin, end);
+        }
         byte[] v = ((ExpVectorByte) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -935,6 +996,9 @@ public final class ExpVectorByte extends ExpVector
     @Override
     public int revInvGradCompareTo(ExpVector V) {
         byte[] u = val;
+        if (!(V instanceof ExpVectorByte)) {
+            return toExpVectorLong().revInvGradCompareTo(V);
+        }
         byte[] v = ((ExpVectorByte) V).val;
         int t = 0;
         int i;
@@ -979,6 +1043,9 @@ public final class ExpVectorByte extends ExpVector
     @Override
     public int revInvGradCompareTo(ExpVector V, int begin, int end) {
         byte[] u = val;
+        if (!(V instanceof ExpVectorByte)) {
+            return toExpVectorLong().revInvGradCompareTo(V, begin, end);
+        }
         byte[] v = ((ExpVectorByte) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -1050,6 +1117,9 @@ public final class ExpVectorByte extends ExpVector
     @Override
     public int invWeightCompareTo(long[][] w, ExpVector V) {
         byte[] u = val;
+        if (!(V instanceof ExpVectorByte)) {
+            return toExpVectorLong().invWeightCompareTo(w, V);
+        }
         byte[] v = ((ExpVectorByte) V).val;
         int t = 0;
         int i;
@@ -1096,6 +1166,9 @@ public final class ExpVectorByte extends ExpVector
     @Override
     public int invWeightCompareTo(long[][] w, ExpVector V, int begin, int end) {
         byte[] u = val;
+        if (!(V instanceof ExpVectorByte)) {
+            return toExpVectorLong().invWeightCompareTo(w, V, begin, end);
+        }
         byte[] v = ((ExpVectorByte) V).val;
         if (begin < 0) {
             begin = 0;;
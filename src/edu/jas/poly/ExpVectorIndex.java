@@ -0,0 +1,455 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Divisibility index for a list of exponent vectors. The exponent vectors are
+ * stored in a trie, where level d branches on the exponent of variable d. A
+ * query for the divisors of an exponent vector e only descends into branches
+ * with exponent at most the exponent of e and prunes subtrees which can not
+ * contain a smaller list index than the best one found. The index can be
+ * extended as the list grows. Small lists are searched linearly, the trie is
+ * built when the list reaches <code>THRESHOLD</code> elements. The results
+ * are the same as for a linear search with <code>multipleOf()</code>, in
+ * particular <code>firstDivisor()</code> returns the minimal list index. <b>Note:</b>
+ * this class is not thread safe, use a <code>Cache</code> to keep one index
+ * per thread for a growing list.
+ * @author agent
+ */
+
+public class ExpVectorIndex {
+
+
+    private static final Logger logger = LogManager.getLogger(ExpVectorIndex.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Minimal list size for the trie.
+     */
+    public static final int THRESHOLD = 8;
+
+
+    /**
+     * The indexed exponent vectors, may contain null.
+     */
+    protected final List<ExpVector> list;
+
+
+    /**
+     * Root of the trie or null if the list is searched linearly.
+     */
+    protected Node root;
+
+
+    /**
+     * Length of the exponent vectors in the trie.
+     */
+    protected int depth;
+
+
+    /**
+     * True, if exponent vectors of different lengths have been added.
+     */
+    protected boolean mixed;
+
+
+    /**
+     * Constructor.
+     */
+    public ExpVectorIndex() {
+        list = new ArrayList<ExpVector>();
+        root = null;
+        depth = -1;
+        mixed = false;
+    }
+
+
+    /**
+     * Constructor.
+     * @param htl array of exponent vectors.
+     * @param l number of exponent vectors to be used from htl.
+     */
+    public ExpVectorIndex(ExpVector[] htl, int l) {
+        this();
+        for (int i = 0; i < l; i++) {
+            add(htl[i]);
+        }
+    }
+
+
+    /**
+     * Constructor.
+     * @param L list of exponent vectors.
+     */
+    public ExpVectorIndex(List<ExpVector> L) {
+        this();
+        for (ExpVector e : L) {
+            add(e);
+        }
+    }
+
+
+    /**
+     * String representation of the index.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ExpVectorIndex(" + list.size() + (root == null ? ", linear)" : ", trie)");
+    }
+
+
+    /**
+     * Number of indexed exponent vectors.
+     * @return size of the list.
+     */
+    public int size() {
+        return list.size();
+    }
+
+
+    /**
+     * Get an indexed exponent vector.
+     * @param i list index.
+     * @return the i-th exponent vector.
+     */
+    public ExpVector get(int i) {
+        return list.get(i);
+    }
+
+
+    /**
+     * Remove all exponent vectors.
+     */
+    public void clear() {
+        list.clear();
+        root = null;
+        depth = -1;
+        mixed = false;
+    }
+
+
+    /**
+     * Add an exponent vector to the index.
+     * @param e exponent vector, null is allowed and never a divisor.
+     * @return the list index of e.
+     */
+    public int add(ExpVector e) {
+        int i = list.size();
+        list.add(e);
+        if (e == null) {
+            return i;
+        }
+        if (depth < 0) {
+            depth = e.length();
+        } else if (depth != e.length()) {
+            mixed = true;
+            root = null;
+        }
+        if (mixed) {
+            return i;
+        }
+        if (root != null) {
+            insert(e, i);
+        } else if (list.size() >= THRESHOLD) {
+            root = new Node();
+            for (int k = 0; k < list.size(); k++) {
+                ExpVector f = list.get(k);
+                if (f != null) {
+                    insert(f, k);
+                }
+            }
+            if (debug) {
+                logger.debug("trie built for {} exponent vectors", list.size());
+            }
+        }
+        return i;
+    }
+
+
+    /**
+     * Update the index to the first l exponent vectors of htl. If the indexed
+     * list is a prefix of htl, only the new exponent vectors are added,
+     * otherwise the index is rebuilt.
+     * @param htl array of exponent vectors.
+     * @param l number of exponent vectors to be used from htl.
+     * @return this index of htl[0], ..., htl[l-1].
+     */
+    public ExpVectorIndex update(ExpVector[] htl, int l) {
+        int s = list.size();
+        boolean prefix = (s <= l);
+        for (int i = 0; prefix && i < s; i++) {
+            ExpVector f = list.get(i);
+            prefix = (f == htl[i] || (f != null && f.equals(htl[i])));
+        }
+        if (!prefix) {
+            clear();
+            s = 0;
+        }
+        for (int i = s; i < l; i++) {
+            add(htl[i]);
+        }
+        return this;
+    }
+
+
+    /**
+     * Insert an exponent vector into the trie.
+     * @param e exponent vector.
+     * @param i list index of e.
+     */
+    protected void insert(ExpVector e, int i) {
+        Node n = root;
+        n.setMin(i);
+        for (int d = 0; d < depth; d++) {
+            n = n.child(e.getVal(d));
+            n.setMin(i);
+        }
+        n.addLeaf(i);
+    }
+
+
+    /**
+     * Test if the trie can be used for a query.
+     * @param e exponent vector.
+     * @return true if e can be searched in the trie, else false.
+     */
+    protected boolean useTrie(ExpVector e) {
+        return root != null && e.length() == depth;
+    }
+
+
+    /**
+     * First divisor.
+     * @param e exponent vector.
+     * @return the minimal list index i such that e is a multiple of the i-th
+     *         exponent vector, or -1 if no such index exists.
+     */
+    public int firstDivisor(ExpVector e) {
+        if (!useTrie(e)) {
+            for (int i = 0; i < list.size(); i++) {
+                ExpVector f = list.get(i);
+                if (f != null && e.multipleOf(f)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int b = root.first(e.getVal(), 0, depth, Integer.MAX_VALUE);
+        return (b == Integer.MAX_VALUE) ? -1 : b;
+    }
+
+
+    /**
+     * Test for a divisor.
+     * @param e exponent vector.
+     * @return true if e is a multiple of some indexed exponent vector, else
+     *         false.
+     */
+    public boolean hasDivisor(ExpVector e) {
+        return firstDivisor(e) >= 0;
+    }
+
+
+    /**
+     * All divisors.
+     * @param e exponent vector.
+     * @return ascending list of all list indexes i such that e is a multiple of
+     *         the i-th exponent vector.
+     */
+    public List<Integer> divisors(ExpVector e) {
+        List<Integer> D = new ArrayList<Integer>();
+        if (!useTrie(e)) {
+            for (int i = 0; i < list.size(); i++) {
+                ExpVector f = list.get(i);
+                if (f != null && e.multipleOf(f)) {
+                    D.add(i);
+                }
+            }
+            return D;
+        }
+        root.collect(e.getVal(), 0, depth, D);
+        Collections.sort(D);
+        return D;
+    }
+
+
+    /**
+     * Trie node. The children are sorted by exponent, leaves carry the list
+     * indexes in ascending order.
+     */
+    protected static final class Node {
+
+
+        long[] keys = new long[2];
+
+
+        Node[] next = new Node[2];
+
+
+        int size = 0;
+
+
+        int min = Integer.MAX_VALUE;
+
+
+        int[] leaf = null;
+
+
+        int leafSize = 0;
+
+
+        void setMin(int i) {
+            if (i < min) {
+                min = i;
+            }
+        }
+
+
+        /**
+         * Child for an exponent, created if not existing.
+         */
+        Node child(long k) {
+            int p = Arrays.binarySearch(keys, 0, size, k);
+            if (p >= 0) {
+                return next[p];
+            }
+            p = -p - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, 2 * size);
+                next = Arrays.copyOf(next, 2 * size);
+            }
+            System.arraycopy(keys, p, keys, p + 1, size - p);
+            System.arraycopy(next, p, next, p + 1, size - p);
+            Node n = new Node();
+            keys[p] = k;
+            next[p] = n;
+            size++;
+            return n;
+        }
+
+
+        void addLeaf(int i) {
+            if (leaf == null) {
+                leaf = new int[1];
+            } else if (leafSize == leaf.length) {
+                leaf = Arrays.copyOf(leaf, 2 * leafSize);
+            }
+            leaf[leafSize++] = i;
+        }
+
+
+        /**
+         * Minimal divisor index below this node.
+         * @param ev exponents.
+         * @param d level of this node.
+         * @param depth number of levels.
+         * @param best minimal index found so far.
+         * @return minimal index of a divisor or best.
+         */
+        int first(long[] ev, int d, int depth, int best) {
+            if (min >= best) {
+                return best;
+            }
+            if (d == depth) {
+                return min;
+            }
+            long x = ev[d];
+            for (int c = 0; c < size && keys[c] <= x; c++) {
+                best = next[c].first(ev, d + 1, depth, best);
+            }
+            return best;
+        }
+
+
+        /**
+         * Collect all divisor indexes below this node.
+         */
+        void collect(long[] ev, int d, int depth, List<Integer> D) {
+            if (d == depth) {
+                for (int k = 0; k < leafSize; k++) {
+                    D.add(leaf[k]);
+                }
+                return;
+            }
+            long x = ev[d];
+            for (int c = 0; c < size && keys[c] <= x; c++) {
+                next[c].collect(ev, d + 1, depth, D);
+            }
+        }
+    }
+
+
+
+    /**
+     * Cache of one index per thread for a list of exponent vectors which grows
+     * between the queries, like the leading exponent vectors of a Groebner
+     * base under construction. An index obtained with <code>get()</code> is
+     * owned by the caller until it is given back with
+     * <code>release()</code>, so nested computations in the same thread get a
+     * new index.
+     */
+    public static class Cache implements Serializable {
+
+
+        private transient volatile ThreadLocal<ExpVectorIndex> local;
+
+
+        /**
+         * Get an index for exponent vectors.
+         * @param htl array of exponent vectors.
+         * @param l number of exponent vectors to be used from htl.
+         * @return index of htl[0], ..., htl[l-1].
+         */
+        public ExpVectorIndex get(ExpVector[] htl, int l) {
+            ThreadLocal<ExpVectorIndex> t = threadLocal();
+            ExpVectorIndex x = t.get();
+            if (x == null) {
+                return new ExpVectorIndex(htl, l);
+            }
+            t.set(null);
+            return x.update(htl, l);
+        }
+
+
+        /**
+         * Give back an index for later updates in this thread.
+         * @param x index obtained from get().
+         */
+        public void release(ExpVectorIndex x) {
+            threadLocal().set(x);
+        }
+
+
+        private ThreadLocal<ExpVectorIndex> threadLocal() {
+            ThreadLocal<ExpVectorIndex> t = local;
+            if (t == null) {
+                synchronized (this) {
+                    t = local;
+                    if (t == null) {
+                        t = new ThreadLocal<ExpVectorIndex>();
+                        local = t;
+                    }
+                }
+            }
+            return t;
+        }
+    }
+
+}
@@ -193,7 +193,8 @@ public final class ExpVectorInteger extends ExpVector
             throw new IllegalArgumentException("exponent to large: " + e);
         }
         val[i] = (int) e;
-        hash = 0; // beware of race condition
+        hash = -1; // beware of race condition
+        clearDegrees();
         return x;
     }
 
@@ -207,7 +208,8 @@ public final class ExpVectorInteger extends ExpVector
     protected int setVal(int i, int e) {
         int x = val[i];
         val[i] = e;
-        hash = 0; // beware of race condition
+        hash = -1; // beware of race condition
+        clearDegrees();
         return x;
     }
 
@@ -231,7 +233,10 @@ public final class ExpVectorInteger extends ExpVector
      * @return extended exponent vector.
      */
     @Override
-    public ExpVectorInteger extend(int i, int j, long e) {
+    public ExpVector extend(int i, int j, long e) {
+        if (e >= maxInt || e <= minInt) {
+            return ExpVector.create(StorUnit.LONG, toExpVectorLong().extend(i, j, e).val);
+        }
         int[] w = new int[val.length + i];
         System.arraycopy(val, 0, w, i, val.length);
         if (j >= i) {
@@ -254,7 +259,10 @@ public final class ExpVectorInteger extends ExpVector
      * @return extended exponent vector.
      */
     @Override
-    public ExpVectorInteger extendLower(int i, int j, long e) {
+    public ExpVector extendLower(int i, int j, long e) {
+        if (e >= maxInt || e <= minInt) {
+            return ExpVector.create(StorUnit.LONG, toExpVectorLong().extendLower(i, j, e).val);
+        }
         int[] w = new int[val.length + i];
         System.arraycopy(val, 0, w, 0, val.length);
         if (j >= i) {
@@ -326,10 +334,13 @@ public final class ExpVectorInteger extends ExpVector
      * @return combined exponent vector.
      */
     @Override
-    public ExpVectorInteger combine(ExpVector V) {
+    public ExpVector combine(ExpVector V) {
         if (V == null || V.length() == 0) {
             return this;
         }
+        if (!(V instanceof ExpVectorInteger)) {
+            return ExpVector.create(StorUnit.INT, toExpVectorLong().combine(V).val);
+        }
         ExpVectorInteger Vi = (ExpVectorInteger) V;
         if (val.length == 0) {
             return Vi;
@@ -373,10 +384,13 @@ public final class ExpVectorInteger extends ExpVector
      */
     @Override
     public boolean equals(Object B) {
-        if (!(B instanceof ExpVectorInteger) || B == null) {
+        if (!(B instanceof ExpVector) || B == null) {
+            return false;
+        }
+        ExpVector b = (ExpVector) B;
+        if (b.length() != val.length) {
             return false;
         }
-        ExpVectorInteger b = (ExpVectorInteger) B;
         int t = this.invLexCompareTo(b);
         //System.out.println("equals: this = " + this + " B = " + B + " t = " + t);
         return (0 == t);
@@ -435,12 +449,19 @@ public final class ExpVectorInteger extends ExpVector
      * @return this+V.
      */
     @Override
-    public ExpVectorInteger sum(ExpVector V) {
+    public ExpVector sum(ExpVector V) {
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return ExpVector.create(StorUnit.INT, toExpVectorLong().sum(V).val);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         int[] w = new int[u.length];
         for (int i = 0; i < u.length; i++) {
-            w[i] = u[i] + v[i];
+            long x = (long) u[i] + v[i];
+            if (x >= maxInt || x <= minInt) {
+                return ExpVector.create(StorUnit.LONG, toExpVectorLong().sum(V).val);
+            }
+            w[i] = (int) x;
         }
         return new ExpVectorInteger(w);
         // return EVSUM(this, V);
@@ -453,12 +474,19 @@ public final class ExpVectorInteger extends ExpVector
      * @return this-V.
      */
     @Override
-    public ExpVectorInteger subtract(ExpVector V) {
+    public ExpVector subtract(ExpVector V) {
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return ExpVector.create(StorUnit.INT, toExpVectorLong().subtract(V).val);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         int[] w = new int[u.length];
         for (int i = 0; i < u.length; i++) {
-            w[i] = u[i] - v[i];
+            long x = (long) u[i] - v[i];
+            if (x >= maxInt || x <= minInt) {
+                return ExpVector.create(StorUnit.LONG, toExpVectorLong().subtract(V).val);
+            }
+            w[i] = (int) x;
         }
         return new ExpVectorInteger(w);
     }
@@ -470,15 +498,15 @@ public final class ExpVectorInteger extends ExpVector
      * @return s*this.
      */
     @Override
-    public ExpVectorInteger scalarMultiply(long s) {
-        if (s >= maxInt || s <= minInt) {
-            throw new IllegalArgumentException("scalar to large: " + s);
-        }
+    public ExpVector scalarMultiply(long s) {
         int[] u = val;
         int[] w = new int[u.length];
-        int si = (int)s;
         for (int i = 0; i < u.length; i++) {
-            w[i] = si * u[i];
+            long x = s * u[i];
+            if (x >= maxInt || x <= minInt) {
+                return ExpVector.create(StorUnit.LONG, toExpVectorLong().scalarMultiply(s).val);
+            }
+            w[i] = (int) x;
         }
         return new ExpVectorInteger(w);
     }
@@ -491,7 +519,10 @@ public final class ExpVectorInteger extends ExpVector
      * @return substituted ExpVector.
      */
     @Override
-    public ExpVectorInteger subst(int i, long d) {
+    public ExpVector subst(int i, long d) {
+        if (d >= maxInt || d <= minInt) {
+            return ExpVector.create(StorUnit.LONG, toExpVectorLong().subst(i, d).val);
+        }
         ExpVectorInteger V = this.copy();
         //long e = 
         V.setVal(i, d);
@@ -635,8 +666,11 @@ public final class ExpVectorInteger extends ExpVector
      * @return component wise maximum of this and V.
      */
     @Override
-    public ExpVectorInteger lcm(ExpVector V) {
+    public ExpVector lcm(ExpVector V) {
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return ExpVector.create(StorUnit.INT, toExpVectorLong().lcm(V).val);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         int[] w = new int[u.length];
         for (int i = 0; i < u.length; i++) {
@@ -653,8 +687,11 @@ public final class ExpVectorInteger extends ExpVector
      * @return component wise minimum of this and V.
      */
     @Override
-    public ExpVectorInteger gcd(ExpVector V) {
+    public ExpVector gcd(ExpVector V) {
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return ExpVector.create(StorUnit.INT, toExpVectorLong().gcd(V).val);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         int[] w = new int[u.length];
         for (int i = 0; i < u.length; i++) {
@@ -711,7 +748,13 @@ public final class ExpVectorInteger extends ExpVector
      */
     @Override
     public boolean multipleOf(ExpVector V) {
+        if (!divMaskMultipleOf(V)) {
+            return false;
+        }
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return toExpVectorLong().multipleOf(V);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         boolean t = true;
         for (int i = 0; i < u.length; i++) {
@@ -743,6 +786,9 @@ public final class ExpVectorInteger extends ExpVector
     @Override
     public int invLexCompareTo(ExpVector V) {
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return toExpVectorLong().invLexCompareTo(V);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         int t = 0;
         for (int i = 0; i < u.length; i++) {
@@ -766,6 +812,9 @@ public final class ExpVectorInteger extends ExpVector
     @Override
     public int invLexCompareTo(ExpVector V, int begin, int end) {
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return toExpVectorLong().invLexCompareTo(V, begin, end);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -793,6 +842,9 @@ public final class ExpVectorInteger extends ExpVector
     @Override
     public int invGradCompareTo(ExpVector V) {
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return toExpVectorLong().invGradCompareTo(V);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         int t = 0;
         int i;
@@ -837,6 +889,9 @@ public final class ExpVectorInteger extends ExpVector
     @Override
     public int invGradCompareTo(ExpVector V, int begin, int end) {
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return toExpVectorLong().invGradCompareTo(V, begin, end);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -885,6 +940,9 @@ public final class ExpVectorInteger extends ExpVector
     @Override
     public int revInvLexCompareTo(ExpVector V) {
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return toExpVectorLong().revInvLexCompareTo(V);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         int t = 0;
         for (int i = u.length - 1; i >= 0; i--) {
@@ -908,6 +966,9 @@ public final class ExpVectorInteger extends ExpVector
     @Override
     public int revInvLexCompareTo(ExpVector V, int begin, int end) {
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return toExpVectorLong().revInvLexCompareTo(V, begin, end);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -935,6 +996,9 @@ public final class ExpVectorInteger extends ExpVector
     @Override
     public int revInvGradCompareTo(ExpVector V) {
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return toExpVectorLong().revInvGradCompareTo(V);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         int t = 0;
         int i;
@@ -979,6 +1043,9 @@ public final class ExpVectorInteger extends ExpVector
     @Override
     public int revInvGradCompareTo(ExpVector V, int begin, int end) {
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return toExpVectorLong().revInvGradCompareTo(V, begin, end);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -1027,6 +1094,9 @@ public final class ExpVectorInteger extends ExpVector
     @Override
     public int invTdegCompareTo(ExpVector V) {
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return toExpVectorLong().invTdegCompareTo(V);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         int t = 0;
         int i;
@@ -1068,6 +1138,9 @@ public final class ExpVectorInteger extends ExpVector
     @Override
     public int revLexInvTdegCompareTo(ExpVector V) {
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return toExpVectorLong().revLexInvTdegCompareTo(V);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         int t = 0;
         int i;
@@ -1110,6 +1183,9 @@ public final class ExpVectorInteger extends ExpVector
     @Override
     public int invWeightCompareTo(long[][] w, ExpVector V) {
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return toExpVectorLong().invWeightCompareTo(w, V);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         int t = 0;
         int i;
@@ -1156,6 +1232,9 @@ public final class ExpVectorInteger extends ExpVector
     @Override
     public int invWeightCompareTo(long[][] w, ExpVector V, int begin, int end) {
         int[] u = val;
+        if (!(V instanceof ExpVectorInteger)) {
+            return toExpVectorLong().invWeightCompareTo(w, V, begin, end);
+        }
         int[] v = ((ExpVectorInteger) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -138,6 +138,30 @@ public final class ExpVectorLong extends ExpVector
     }
 
 
+    /**
+     * Get the exponents of an exponent vector. Exponent vectors with other
+     * storage units, e.g. packed exponent vectors, are converted.
+     * @param V exponent vector.
+     * @return the exponent array of V, must not be modified.
+     */
+    static long[] longVal(ExpVector V) {
+        if (V instanceof ExpVectorLong) {
+            return ((ExpVectorLong) V).val;
+        }
+        return V.getVal();
+    }
+
+
+    /**
+     * Convert to long storage unit.
+     * @return this.
+     */
+    @Override
+    public ExpVectorLong toExpVectorLong() {
+        return this;
+    }
+
+
     /**
      * Get the exponent vector.
      * @return val.
@@ -172,7 +196,8 @@ public final class ExpVectorLong extends ExpVector
     protected long setVal(int i, long e) {
         long x = val[i];
         val[i] = e;
-        hash = 0; // beware of race condition
+        hash = -1; // beware of race condition
+        clearDegrees();
         return x;
     }
 
@@ -317,13 +342,13 @@ public final class ExpVectorLong extends ExpVector
         if (V == null || V.length() == 0) {
             return this;
         }
-        ExpVectorLong Vl = (ExpVectorLong) V;
+        long[] v = longVal(V);
         if (val.length == 0) {
-            return Vl;
+            return new ExpVectorLong(v, false);
         }
-        long[] w = new long[val.length + Vl.val.length];
+        long[] w = new long[val.length + v.length];
         System.arraycopy(val, 0, w, 0, val.length);
-        System.arraycopy(Vl.val, 0, w, val.length, Vl.val.length);
+        System.arraycopy(v, 0, w, val.length, v.length);
         return new ExpVectorLong(w, true);
     }
 
@@ -360,10 +385,13 @@ public final class ExpVectorLong extends ExpVector
      */
     @Override
     public boolean equals(Object B) {
-        if (!(B instanceof ExpVectorLong) || B == null) {
+        if (!(B instanceof ExpVector) || B == null) {
+            return false;
+        }
+        ExpVector b = (ExpVector) B;
+        if (b.length() != val.length) {
             return false;
         }
-        ExpVectorLong b = (ExpVectorLong) B;
         int t = this.invLexCompareTo(b);
         //System.out.println("equals: this = " + this + " B = " + B + " t = " + t);
         return (0 == t);
@@ -422,7 +450,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public ExpVectorLong sum(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         long[] w = new long[u.length];
         for (int i = 0; i < u.length; i++) {
             w[i] = u[i] + v[i];
@@ -439,7 +467,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public ExpVectorLong subtract(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         long[] w = new long[u.length];
         for (int i = 0; i < u.length; i++) {
             w[i] = u[i] - v[i];
@@ -598,7 +626,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public ExpVectorLong lcm(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         long[] w = new long[u.length];
         for (int i = 0; i < u.length; i++) {
             w[i] = (u[i] >= v[i] ? u[i] : v[i]);
@@ -615,7 +643,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public ExpVectorLong gcd(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         long[] w = new long[u.length];
         for (int i = 0; i < u.length; i++) {
             w[i] = (u[i] <= v[i] ? u[i] : v[i]);
@@ -670,8 +698,11 @@ public final class ExpVectorLong extends ExpVector
      */
     @Override
     public boolean multipleOf(ExpVector V) {
+        if (!divMaskMultipleOf(V)) {
+            return false;
+        }
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         for (int i = 0; i < u.length; i++) {
             if (u[i] < v[i]) {
                 return false;
@@ -700,7 +731,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int invLexCompareTo(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         int t = 0;
         for (int i = 0; i < u.length; i++) {
             if (u[i] > v[i])
@@ -722,7 +753,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int invLexCompareTo(ExpVector V, int begin, int end) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         if (begin < 0) {
             begin = 0;;
         }
@@ -748,7 +779,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int invGradCompareTo(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         int t = 0;
         int i;
         for (i = 0; i < u.length; i++) {
@@ -791,7 +822,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int invGradCompareTo(ExpVector V, int begin, int end) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         if (begin < 0) {
             begin = 0;;
         }
@@ -838,7 +869,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int revInvLexCompareTo(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         int t = 0;
         for (int i = u.length - 1; i >= 0; i--) {
             if (u[i] > v[i])
@@ -860,7 +891,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int revInvLexCompareTo(ExpVector V, int begin, int end) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         if (begin < 0) {
             begin = 0;;
         }
@@ -886,7 +917,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int revInvGradCompareTo(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         int t = 0;
         int i;
         for (i = u.length - 1; i >= 0; i--) {
@@ -929,7 +960,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int revInvGradCompareTo(ExpVector V, int begin, int end) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         if (begin < 0) {
             begin = 0;;
         }
@@ -976,7 +1007,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int invTdegCompareTo(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         int t = 0;
         int i;
         for (i = 0; i < u.length; i++) {
@@ -1017,7 +1048,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int revLexInvTdegCompareTo(ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         int t = 0;
         int i;
         for (i = u.length - 1; i >= 0; i--) {
@@ -1059,7 +1090,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int invWeightCompareTo(long[][] w, ExpVector V) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         int t = 0;
         int i;
         for (i = 0; i < u.length; i++) {
@@ -1104,7 +1135,7 @@ public final class ExpVectorLong extends ExpVector
     @Override
     public int invWeightCompareTo(long[][] w, ExpVector V, int begin, int end) {
         long[] u = val;
-        long[] v = ((ExpVectorLong) V).val;
+        long[] v = longVal(V);
         if (begin < 0) {
             begin = 0;;
         }
@@ -0,0 +1,1017 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * ExpVectorPacked implements exponent vectors for polynomials with at most 16
+ * variables and exponents in the range 0 to 255. The exponents are packed as
+ * unsigned bytes into two longs, exponent i is stored in byte 7-(i mod 8) of
+ * word i/8, so that the unsigned comparison of the words is the inverse
+ * lexicographical comparison. Summation, subtraction, multiple test, lcm, gcd
+ * and total degree are computed on all exponents in parallel (SWAR).
+ * Operations with results outside the packed range, e.g. overflow of a sum or
+ * negative exponents of a difference, return an <code>ExpVectorLong</code>.
+ * This class is used by ExpVector internally, there is no need to use this
+ * class directly.
+ * @see ExpVector
+ * @author agent
+ */
+
+public final class ExpVectorPacked extends ExpVector {
+
+
+    /**
+     * Maximal number of variables.
+     */
+    public static final int MAX_VARS = 16;
+
+
+    /**
+     * Maximal exponent.
+     */
+    public static final long MAX_EXP = 255L;
+
+
+    /**
+     * Highest bits of the bytes.
+     */
+    private static final long H = 0x8080808080808080L;
+
+
+    /**
+     * Lower 7 bits of the bytes.
+     */
+    private static final long L = 0x7F7F7F7F7F7F7F7FL;
+
+
+    /**
+     * Exponents 0 to 7.
+     */
+    /*package*/long w0;
+
+
+    /**
+     * Exponents 8 to 15.
+     */
+    /*package*/long w1;
+
+
+    /**
+     * Number of exponents.
+     */
+    /*package*/final int n;
+
+
+    /**
+     * Constructor for ExpVector.
+     * @param n length of exponent vector.
+     */
+    public ExpVectorPacked(int n) {
+        this(n, 0L, 0L);
+    }
+
+
+    /**
+     * Constructor for ExpVector. Sets exponent i to e.
+     * @param n length of exponent vector.
+     * @param i index of exponent to be set.
+     * @param e exponent to be set.
+     */
+    public ExpVectorPacked(int n, int i, long e) {
+        this(n, 0L, 0L);
+        if (i < 0 || i >= n) {
+            throw new ArrayIndexOutOfBoundsException(i);
+        }
+        setVal(i, e);
+    }
+
+
+    /**
+     * Constructor for ExpVector. Sets val.
+     * @param v representation array.
+     */
+    public ExpVectorPacked(long[] v) {
+        this(v.length, pack(v, 0), pack(v, 8));
+        if (!isPackable(v)) {
+            throw new IllegalArgumentException("exponents not packable " + Arrays.toString(v));
+        }
+    }
+
+
+    /**
+     * Constructor for ExpVector. Converts a String representation to an
+     * ExpVector. Accepted format = (1,2,3,4,5,6,7).
+     * @param s String representation.
+     */
+    public ExpVectorPacked(String s) throws NumberFormatException {
+        this(ExpVectorLong.parse(s).val);
+    }
+
+
+    /**
+     * Internal constructor for ExpVector.
+     * @param n length of exponent vector.
+     * @param w0 packed exponents 0 to 7.
+     * @param w1 packed exponents 8 to 15.
+     */
+    protected ExpVectorPacked(int n, long w0, long w1) {
+        super();
+        if (n < 0 || n > MAX_VARS) {
+            throw new IllegalArgumentException("too many variables for packed exponents " + n);
+        }
+        this.n = n;
+        this.w0 = w0;
+        this.w1 = w1;
+    }
+
+
+    /**
+     * Test if exponents can be packed.
+     * @param v exponent array.
+     * @return true, if v.length &le; 16 and all exponents are in 0..255,
+     *         else false.
+     */
+    public static boolean isPackable(long[] v) {
+        if (v.length > MAX_VARS) {
+            return false;
+        }
+        for (int i = 0; i < v.length; i++) {
+            if (v[i] < 0L || v[i] > MAX_EXP) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Factory method for packed or long exponent vectors.
+     * @param v exponent array, is not modified.
+     * @return a packed exponent vector if v is packable, else an
+     *         ExpVectorLong.
+     */
+    public static ExpVector valueOf(long[] v) {
+        if (isPackable(v)) {
+            return new ExpVectorPacked(v.length, pack(v, 0), pack(v, 8));
+        }
+        return new ExpVectorLong(v);
+    }
+
+
+    /**
+     * Pack 8 exponents.
+     * @param v exponent array.
+     * @param b first index.
+     * @return exponents b to b+7 packed into a long.
+     */
+    private static long pack(long[] v, int b) {
+        long w = 0L;
+        int e = Math.min(b + 8, v.length);
+        for (int i = b; i < e; i++) {
+            w |= (v[i] & 0xFFL) << shift(i);
+        }
+        return w;
+    }
+
+
+    /**
+     * Bit position of exponent i in its word.
+     * @param i index.
+     * @return shift.
+     */
+    private static int shift(int i) {
+        return 56 - ((i & 7) << 3);
+    }
+
+
+    /**
+     * Sum of the bytes of a word.
+     * @param x packed exponents.
+     * @return sum of the 8 bytes of x.
+     */
+    private static long byteSum(long x) {
+        x = (x & 0x00FF00FF00FF00FFL) + ((x >>> 8) & 0x00FF00FF00FF00FFL);
+        x = (x & 0x0000FFFF0000FFFFL) + ((x >>> 16) & 0x0000FFFF0000FFFFL);
+        return (x & 0xFFFFFFFFL) + (x >>> 32);
+    }
+
+
+    /**
+     * Byte wise sum without carry between the bytes.
+     * @param a packed exponents.
+     * @param b packed exponents.
+     * @return bytes (a+b) mod 256.
+     */
+    private static long byteAdd(long a, long b) {
+        return ((a & L) + (b & L)) ^ ((a ^ b) & H);
+    }
+
+
+    /**
+     * Carries out of the bytes of a sum.
+     * @param a packed exponents.
+     * @param b packed exponents.
+     * @param s byteAdd(a,b).
+     * @return highest bit of a byte is set iff the byte sum overflows.
+     */
+    private static long carries(long a, long b, long s) {
+        return ((a & b) | ((a | b) & ~s)) & H;
+    }
+
+
+    /**
+     * Byte wise difference without borrow between the bytes.
+     * @param a packed exponents.
+     * @param b packed exponents.
+     * @return bytes (a-b) mod 256.
+     */
+    private static long byteSub(long a, long b) {
+        return ((a | H) - (b & L)) ^ ((a ^ ~b) & H);
+    }
+
+
+    /**
+     * Borrows out of the bytes of a difference.
+     * @param a packed exponents.
+     * @param b packed exponents.
+     * @param d byteSub(a,b).
+     * @return highest bit of a byte is set iff the byte of a is less than the
+     *         byte of b.
+     */
+    private static long borrows(long a, long b, long d) {
+        return ((~a & b) | (~(a ^ b) & d)) & H;
+    }
+
+
+    /**
+     * Byte mask from highest bits.
+     * @param m highest bits of bytes.
+     * @return 0xFF in each byte with highest bit set in m.
+     */
+    private static long byteMask(long m) {
+        return (m >>> 7) * 0xFFL;
+    }
+
+
+    /**
+     * Unsigned comparison.
+     * @param a long.
+     * @param b long.
+     * @return 0 if a == b, -1 if a &lt; b, 1 if a &gt; b as unsigned longs.
+     */
+    private static int unsignedCompare(long a, long b) {
+        a ^= Long.MIN_VALUE;
+        b ^= Long.MIN_VALUE;
+        return (a < b) ? -1 : ((a == b) ? 0 : 1);
+    }
+
+
+    /**
+     * Test for packed exponent vector of the same length.
+     * @param V exponent vector.
+     * @return V as ExpVectorPacked or null.
+     */
+    private ExpVectorPacked packed(ExpVector V) {
+        if (V instanceof ExpVectorPacked) {
+            ExpVectorPacked P = (ExpVectorPacked) V;
+            if (P.n == n) {
+                return P;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Clone this.
+     * @see java.lang.Object#clone()
+     */
+    @Override
+    public ExpVectorPacked copy() {
+        return new ExpVectorPacked(n, w0, w1);
+    }
+
+
+    /**
+     * Get the exponent vector.
+     * @return val.
+     */
+    @Override
+    public long[] getVal() {
+        long[] w = new long[n];
+        for (int i = 0; i < n; i++) {
+            w[i] = getVal(i);
+        }
+        return w;
+    }
+
+
+    /**
+     * Get the exponent at position i.
+     * @param i position.
+     * @return val[i].
+     */
+    @Override
+    public long getVal(int i) {
+        if (i < 0 || i >= n) {
+            throw new ArrayIndexOutOfBoundsException(i);
+        }
+        long w = (i < 8) ? w0 : w1;
+        return (w >>> shift(i)) & 0xFFL;
+    }
+
+
+    /**
+     * Set the exponent at position i to e.
+     * @param i
+     * @param e
+     * @return old val[i].
+     */
+    @Override
+    protected long setVal(int i, long e) {
+        if (e < 0L || e > MAX_EXP) {
+            throw new IllegalArgumentException("exponent not packable " + e);
+        }
+        long x = getVal(i);
+        long m = 0xFFL << shift(i);
+        long b = e << shift(i);
+        if (i < 8) {
+            w0 = (w0 & ~m) | b;
+        } else {
+            w1 = (w1 & ~m) | b;
+        }
+        hash = -1; // beware of race condition
+        clearDegrees();
+        return x;
+    }
+
+
+    /**
+     * Get the length of this exponent vector.
+     * @return val.length.
+     */
+    @Override
+    public int length() {
+        return n;
+    }
+
+
+    /**
+     * Extend variables. Used e.g. in module embedding. Extend this by i
+     * elements and set val[j] to e.
+     * @param i number of elements to extend.
+     * @param j index of element to be set.
+     * @param e new exponent for val[j].
+     * @return extended exponent vector.
+     */
+    @Override
+    public ExpVector extend(int i, int j, long e) {
+        long[] w = new long[n + i];
+        System.arraycopy(getVal(), 0, w, i, n);
+        if (j >= i) {
+            throw new IllegalArgumentException("i " + i + " <= j " + j + " invalid");
+        }
+        w[j] = e;
+        return valueOf(w);
+    }
+
+
+    /**
+     * Extend lower variables. Extend this by i lower elements and set val[j] to
+     * e.
+     * @param i number of elements to extend.
+     * @param j index of element to be set.
+     * @param e new exponent for val[j].
+     * @return extended exponent vector.
+     */
+    @Override
+    public ExpVector extendLower(int i, int j, long e) {
+        long[] w = new long[n + i];
+        System.arraycopy(getVal(), 0, w, 0, n);
+        if (j >= i) {
+            throw new IllegalArgumentException("i " + i + " <= j " + j + " invalid");
+        }
+        w[n + j] = e;
+        return valueOf(w);
+    }
+
+
+    /**
+     * Contract variables. Used e.g. in module embedding. Contract this to len
+     * elements.
+     * @param i position of first element to be copied.
+     * @param len new length.
+     * @return contracted exponent vector.
+     */
+    @Override
+    public ExpVector contract(int i, int len) {
+        if (i + len > n) {
+            throw new IllegalArgumentException("len " + len + " > val.len " + n);
+        }
+        long[] w = new long[len];
+        System.arraycopy(getVal(), i, w, 0, len);
+        return valueOf(w);
+    }
+
+
+    /**
+     * Reverse variables. Used e.g. in opposite rings.
+     * @return reversed exponent vector.
+     */
+    @Override
+    public ExpVector reverse() {
+        return valueOf(toExpVectorLong().reverse().val);
+    }
+
+
+    /**
+     * Reverse lower j variables. Used e.g. in opposite rings. Reverses the
+     * first j-1 variables, the rest is unchanged.
+     * @param j index of first variable reversed.
+     * @return reversed exponent vector.
+     */
+    @Override
+    public ExpVector reverse(int j) {
+        if (j <= 0 || j > n) {
+            return this;
+        }
+        return valueOf(toExpVectorLong().reverse(j).val);
+    }
+
+
+    /**
+     * Combine with ExpVector. Combine this with the other ExpVector V.
+     * @param V the other exponent vector.
+     * @return combined exponent vector.
+     */
+    @Override
+    public ExpVector combine(ExpVector V) {
+        if (V == null || V.length() == 0) {
+            return this;
+        }
+        if (n == 0) {
+            return V;
+        }
+        return valueOf(toExpVectorLong().combine(V).val);
+    }
+
+
+    /**
+     * Permutation of exponent vector.
+     * @param P permutation.
+     * @return P(e).
+     */
+    @Override
+    public ExpVector permutation(List<Integer> P) {
+        return valueOf(toExpVectorLong().permutation(P).val);
+    }
+
+
+    /**
+     * Get the string representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return super.toString() + ":packed";
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object B) {
+        if (!(B instanceof ExpVector) || B == null) {
+            return false;
+        }
+        if (B instanceof ExpVectorPacked) {
+            ExpVectorPacked b = (ExpVectorPacked) B;
+            return n == b.n && w0 == b.w0 && w1 == b.w1;
+        }
+        ExpVector b = (ExpVector) B;
+        if (b.length() != n) {
+            return false;
+        }
+        return 0 == this.invLexCompareTo(b);
+    }
+
+
+    /**
+     * hashCode for this exponent vector.
+     * @see java.lang.Object#hashCode() Only for findbugs.
+     */
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+
+    /**
+     * ExpVector absolute value.
+     * @return abs(this).
+     */
+    @Override
+    public ExpVectorPacked abs() {
+        return this;
+    }
+
+
+    /**
+     * ExpVector negate.
+     * @return -this.
+     */
+    @Override
+    public ExpVector negate() {
+        if (w0 == 0L && w1 == 0L) {
+            return this;
+        }
+        return toExpVectorLong().negate();
+    }
+
+
+    /**
+     * ExpVector summation.
+     * @param V
+     * @return this+V.
+     */
+    @Override
+    public ExpVector sum(ExpVector V) {
+        ExpVectorPacked P = packed(V);
+        if (P != null) {
+            long s0 = byteAdd(w0, P.w0);
+            long s1 = byteAdd(w1, P.w1);
+            if ((carries(w0, P.w0, s0) | carries(w1, P.w1, s1)) == 0L) {
+                return new ExpVectorPacked(n, s0, s1);
+            }
+        }
+        return toExpVectorLong().sum(V);
+    }
+
+
+    /**
+     * ExpVector subtract. Result may have negative entries.
+     * @param V
+     * @return this-V.
+     */
+    @Override
+    public ExpVector subtract(ExpVector V) {
+        ExpVectorPacked P = packed(V);
+        if (P != null) {
+            long d0 = byteSub(w0, P.w0);
+            long d1 = byteSub(w1, P.w1);
+            if ((borrows(w0, P.w0, d0) | borrows(w1, P.w1, d1)) == 0L) {
+                return new ExpVectorPacked(n, d0, d1);
+            }
+        }
+        return toExpVectorLong().subtract(V);
+    }
+
+
+    /**
+     * ExpVector multiply by scalar.
+     * @param s scalar
+     * @return s*this.
+     */
+    @Override
+    public ExpVector scalarMultiply(long s) {
+        return valueOf(toExpVectorLong().scalarMultiply(s).val);
+    }
+
+
+    /**
+     * ExpVector substitution. Clone and set exponent to d at position i.
+     * @param i position.
+     * @param d new exponent.
+     * @return substituted ExpVector.
+     */
+    @Override
+    public ExpVector subst(int i, long d) {
+        if (d < 0L || d > MAX_EXP) {
+            return toExpVectorLong().subst(i, d);
+        }
+        ExpVectorPacked V = this.copy();
+        V.setVal(i, d);
+        return V;
+    }
+
+
+    /**
+     * ExpVector signum.
+     * @return 0 if this is zero, 1 if at least one entry is positive.
+     */
+    @Override
+    public int signum() {
+        return ((w0 | w1) == 0L) ? 0 : 1;
+    }
+
+
+    /**
+     * ExpVector total degree.
+     * @return sum of all exponents.
+     */
+    @Override
+    public long totalDeg() {
+        return byteSum(w0) + byteSum(w1);
+    }
+
+
+    /**
+     * ExpVector maximal degree.
+     * @return maximal exponent.
+     */
+    @Override
+    public long maxDeg() {
+        long t = 0;
+        for (int i = 0; i < n; i++) {
+            long e = getVal(i);
+            if (e > t) {
+                t = e;
+            }
+        }
+        return t;
+    }
+
+
+    /**
+     * ExpVector minimal degree.
+     * @return minimal exponent.
+     */
+    @Override
+    public long minDeg() {
+        long t = Long.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            long e = getVal(i);
+            if (e < t) {
+                t = e;
+            }
+        }
+        return t;
+    }
+
+
+    /**
+     * ExpVector weighted degree.
+     * @param w weights.
+     * @return weighted sum of all exponents.
+     */
+    @Override
+    public long weightDeg(long[][] w) {
+        if (w == null || w.length == 0) {
+            return totalDeg(); // assume weight 1
+        }
+        long t = 0;
+        for (int j = 0; j < w.length; j++) {
+            long[] wj = w[j];
+            for (int i = 0; i < n; i++) {
+                t += wj[i] * getVal(i);
+            }
+        }
+        return t;
+    }
+
+
+    /**
+     * ExpVector weighted degree.
+     * @param w weights.
+     * @return weighted sum of all exponents.
+     */
+    @Override
+    public long weightDeg(long[] w) {
+        if (w == null || w.length == 0) {
+            return totalDeg(); // assume weight 1
+        }
+        long t = 0;
+        for (int i = 0; i < w.length; i++) {
+            t += w[i] * getVal(i);
+        }
+        return t;
+    }
+
+
+    /**
+     * ExpVector least common multiple.
+     * @param V
+     * @return component wise maximum of this and V.
+     */
+    @Override
+    public ExpVector lcm(ExpVector V) {
+        ExpVectorPacked P = packed(V);
+        if (P == null) {
+            return toExpVectorLong().lcm(V);
+        }
+        long m0 = byteMask(borrows(w0, P.w0, byteSub(w0, P.w0)));
+        long m1 = byteMask(borrows(w1, P.w1, byteSub(w1, P.w1)));
+        return new ExpVectorPacked(n, (w0 & ~m0) | (P.w0 & m0), (w1 & ~m1) | (P.w1 & m1));
+    }
+
+
+    /**
+     * ExpVector greatest common divisor.
+     * @param V
+     * @return component wise minimum of this and V.
+     */
+    @Override
+    public ExpVector gcd(ExpVector V) {
+        ExpVectorPacked P = packed(V);
+        if (P == null) {
+            return toExpVectorLong().gcd(V);
+        }
+        long m0 = byteMask(borrows(w0, P.w0, byteSub(w0, P.w0)));
+        long m1 = byteMask(borrows(w1, P.w1, byteSub(w1, P.w1)));
+        return new ExpVectorPacked(n, (w0 & m0) | (P.w0 & ~m0), (w1 & m1) | (P.w1 & ~m1));
+    }
+
+
+    /**
+     * ExpVector dependent variables.
+     * @return number of indices where val has positive exponents.
+     */
+    @Override
+    public int dependentVariables() {
+        return Long.bitCount((((w0 & L) + L) | w0) & H) + Long.bitCount((((w1 & L) + L) | w1) & H);
+    }
+
+
+    /**
+     * ExpVector dependency on variables.
+     * @return array of indices where val has positive exponents.
+     */
+    @Override
+    public int[] dependencyOnVariables() {
+        int[] dep = new int[dependentVariables()];
+        int j = 0;
+        for (int i = 0; i < n && j < dep.length; i++) {
+            if (getVal(i) > 0) {
+                dep[j++] = i;
+            }
+        }
+        return dep;
+    }
+
+
+    /**
+     * ExpVector multiple test. Test if this is component wise greater or equal
+     * to V.
+     * @param V
+     * @return true if this is a multiple of V, else false.
+     */
+    @Override
+    public boolean multipleOf(ExpVector V) {
+        ExpVectorPacked P = packed(V);
+        if (P == null) {
+            return toExpVectorLong().multipleOf(V);
+        }
+        return (borrows(w0, P.w0, byteSub(w0, P.w0)) | borrows(w1, P.w1, byteSub(w1, P.w1))) == 0L;
+    }
+
+
+    /**
+     * ExpVector compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int compareTo(ExpVector V) {
+        return this.invLexCompareTo(V);
+    }
+
+
+    /**
+     * Inverse lexicographical comparison of packed exponents.
+     * @param P packed exponent vector.
+     * @return 0 if U == P, -1 if U &lt; P, 1 if U &gt; P.
+     */
+    private int invLexCompare(ExpVectorPacked P) {
+        if (w0 != P.w0) {
+            return unsignedCompare(w0, P.w0);
+        }
+        return unsignedCompare(w1, P.w1);
+    }
+
+
+    /**
+     * Reverse inverse lexicographical comparison of packed exponents.
+     * @param P packed exponent vector.
+     * @return 0 if U == P, -1 if U &lt; P, 1 if U &gt; P.
+     */
+    private int revInvLexCompare(ExpVectorPacked P) {
+        if (w1 != P.w1) {
+            return unsignedCompare(Long.reverseBytes(w1), Long.reverseBytes(P.w1));
+        }
+        return unsignedCompare(Long.reverseBytes(w0), Long.reverseBytes(P.w0));
+    }
+
+
+    /**
+     * Total degree comparison, for exponent vectors equal up to the first
+     * difference the comparison of the remaining exponent sums is the
+     * comparison of the total degrees.
+     * @param P packed exponent vector.
+     * @param t result if the total degrees are equal.
+     * @return sign(tdeg(U)-tdeg(P)) or t if the total degrees are equal.
+     */
+    private int totalDegCompare(ExpVectorPacked P, int t) {
+        long up = totalDeg();
+        long vp = P.totalDeg();
+        if (up > vp) {
+            return 1;
+        } else if (up < vp) {
+            return -1;
+        }
+        return t;
+    }
+
+
+    /**
+     * ExpVector inverse lexicographical compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invLexCompareTo(ExpVector V) {
+        ExpVectorPacked P = packed(V);
+        if (P == null) {
+            return toExpVectorLong().invLexCompareTo(V);
+        }
+        return invLexCompare(P);
+    }
+
+
+    /**
+     * ExpVector inverse lexicographical compareTo.
+     * @param V
+     * @param begin
+     * @param end
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invLexCompareTo(ExpVector V, int begin, int end) {
+        return toExpVectorLong().invLexCompareTo(V, begin, end);
+    }
+
+
+    /**
+     * ExpVector inverse graded lexicographical compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invGradCompareTo(ExpVector V) {
+        ExpVectorPacked P = packed(V);
+        if (P == null) {
+            return toExpVectorLong().invGradCompareTo(V);
+        }
+        int t = invLexCompare(P);
+        if (t == 0) {
+            return t;
+        }
+        return totalDegCompare(P, t);
+    }
+
+
+    /**
+     * ExpVector inverse graded lexicographical compareTo.
+     * @param V
+     * @param begin
+     * @param end
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invGradCompareTo(ExpVector V, int begin, int end) {
+        return toExpVectorLong().invGradCompareTo(V, begin, end);
+    }
+
+
+    /**
+     * ExpVector reverse inverse lexicographical compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revInvLexCompareTo(ExpVector V) {
+        ExpVectorPacked P = packed(V);
+        if (P == null) {
+            return toExpVectorLong().revInvLexCompareTo(V);
+        }
+        return revInvLexCompare(P);
+    }
+
+
+    /**
+     * ExpVector reverse inverse lexicographical compareTo.
+     * @param V
+     * @param begin
+     * @param end
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revInvLexCompareTo(ExpVector V, int begin, int end) {
+        return toExpVectorLong().revInvLexCompareTo(V, begin, end);
+    }
+
+
+    /**
+     * ExpVector reverse inverse graded compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revInvGradCompareTo(ExpVector V) {
+        ExpVectorPacked P = packed(V);
+        if (P == null) {
+            return toExpVectorLong().revInvGradCompareTo(V);
+        }
+        int t = revInvLexCompare(P);
+        if (t == 0) {
+            return t;
+        }
+        return totalDegCompare(P, t);
+    }
+
+
+    /**
+     * ExpVector reverse inverse graded compareTo.
+     * @param V
+     * @param begin
+     * @param end
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revInvGradCompareTo(ExpVector V, int begin, int end) {
+        return toExpVectorLong().revInvGradCompareTo(V, begin, end);
+    }
+
+
+    /**
+     * ExpVector inverse total degree lexicographical compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invTdegCompareTo(ExpVector V) {
+        ExpVectorPacked P = packed(V);
+        if (P == null) {
+            return toExpVectorLong().invTdegCompareTo(V);
+        }
+        int t = -invLexCompare(P);
+        if (t == 0) {
+            return t;
+        }
+        return totalDegCompare(P, t);
+    }
+
+
+    /**
+     * ExpVector reverse lexicographical inverse total degree compareTo.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int revLexInvTdegCompareTo(ExpVector V) {
+        ExpVectorPacked P = packed(V);
+        if (P == null) {
+            return toExpVectorLong().revLexInvTdegCompareTo(V);
+        }
+        int t = -revInvLexCompare(P);
+        if (t == 0) {
+            return t;
+        }
+        return totalDegCompare(P, t);
+    }
+
+
+    /**
+     * ExpVector inverse weighted lexicographical compareTo.
+     * @param w weight array.
+     * @param V
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invWeightCompareTo(long[][] w, ExpVector V) {
+        return toExpVectorLong().invWeightCompareTo(w, V);
+    }
+
+
+    /**
+     * ExpVector inverse weighted lexicographical compareTo.
+     * @param w weight array.
+     * @param V
+     * @param begin
+     * @param end
+     * @return 0 if U == V, -1 if U &lt; V, 1 if U &gt; V.
+     */
+    @Override
+    public int invWeightCompareTo(long[][] w, ExpVector V, int begin, int end) {
+        return toExpVectorLong().invWeightCompareTo(w, V, begin, end);
+    }
+
+}
@@ -193,7 +193,8 @@ public final class ExpVectorShort extends ExpVector
             throw new IllegalArgumentException("exponent to large: " + e);
         }
         val[i] = (short) e;
-        hash = 0; // beware of race condition
+        hash = -1; // beware of race condition
+        clearDegrees();
         return x;
     }
 
@@ -207,7 +208,8 @@ public final class ExpVectorShort extends ExpVector
     protected short setVal(int i, short e) {
         short x = val[i];
         val[i] = e;
-        hash = 0; // beware of race condition
+        hash = -1; // beware of race condition
+        clearDegrees();
         return x;
     }
 
@@ -231,7 +233,10 @@ public final class ExpVectorShort extends ExpVector
      * @return extended exponent vector.
      */
     @Override
-    public ExpVectorShort extend(int i, int j, long e) {
+    public ExpVector extend(int i, int j, long e) {
+        if (e >= maxShort || e <= minShort) {
+            return ExpVector.create(StorUnit.INT, toExpVectorLong().extend(i, j, e).val);
+        }
         short[] w = new short[val.length + i];
         System.arraycopy(val, 0, w, i, val.length);
         if (j >= i) {
@@ -254,7 +259,10 @@ public final class ExpVectorShort extends ExpVector
      * @return extended exponent vector.
      */
     @Override
-    public ExpVectorShort extendLower(int i, int j, long e) {
+    public ExpVector extendLower(int i, int j, long e) {
+        if (e >= maxShort || e <= minShort) {
+            return ExpVector.create(StorUnit.INT, toExpVectorLong().extendLower(i, j, e).val);
+        }
         short[] w = new short[val.length + i];
         System.arraycopy(val, 0, w, 0, val.length);
         if (j >= i) {
@@ -326,10 +334,13 @@ public final class ExpVectorShort extends ExpVector
      * @return combined exponent vector.
      */
     @Override
-    public ExpVectorShort combine(ExpVector V) {
+    public ExpVector combine(ExpVector V) {
         if (V == null || V.length() == 0) {
             return this;
         }
+        if (!(V instanceof ExpVectorShort)) {
+            return ExpVector.create(StorUnit.SHORT, toExpVectorLong().combine(V).val);
+        }
         ExpVectorShort Vi = (ExpVectorShort) V;
         if (val.length == 0) {
             return Vi;
@@ -373,10 +384,13 @@ public final class ExpVectorShort extends ExpVector
      */
     @Override
     public boolean equals(Object B) {
-        if (!(B instanceof ExpVectorShort) || B == null) {
+        if (!(B instanceof ExpVector) || B == null) {
+            return false;
+        }
+        ExpVector b = (ExpVector) B;
+        if (b.length() != val.length) {
             return false;
         }
-        ExpVectorShort b = (ExpVectorShort) B;
         int t = this.invLexCompareTo(b);
         //System.out.println("equals: this = " + this + " B = " + B + " t = " + t);
         return (0 == t);
@@ -435,12 +449,19 @@ public final class ExpVectorShort extends ExpVector
      * @return this+V.
      */
     @Override
-    public ExpVectorShort sum(ExpVector V) {
+    public ExpVector sum(ExpVector V) {
         short[] u = val;
+        if (!(V instanceof ExpVectorShort)) {
+            return ExpVector.create(StorUnit.SHORT, toExpVectorLong().sum(V).val);
+        }
         short[] v = ((ExpVectorShort) V).val;
         short[] w = new short[u.length];
         for (int i = 0; i < u.length; i++) {
-            w[i] = (short) (u[i] + v[i]);
+            int x = u[i] + v[i];
+            if (x >= maxShort || x <= minShort) {
+                return ExpVector.create(StorUnit.INT, toExpVectorLong().sum(V).val);
+            }
+            w[i] = (short) x;
         }
         return new ExpVectorShort(w);
         // return EVSUM(this, V);
@@ -453,12 +474,19 @@ public final class ExpVectorShort extends ExpVector
      * @return this-V.
      */
     @Override
-    public ExpVectorShort subtract(ExpVector V) {
+    public ExpVector subtract(ExpVector V) {
         short[] u = val;
+        if (!(V instanceof ExpVectorShort)) {
+            return ExpVector.create(StorUnit.SHORT, toExpVectorLong().subtract(V).val);
+        }
         short[] v = ((ExpVectorShort) V).val;
         short[] w = new short[u.length];
         for (int i = 0; i < u.length; i++) {
-            w[i] = (short) (u[i] - v[i]);
+            int x = u[i] - v[i];
+            if (x >= maxShort || x <= minShort) {
+                return ExpVector.create(StorUnit.INT, toExpVectorLong().subtract(V).val);
+            }
+            w[i] = (short) x;
         }
         return new ExpVectorShort(w);
         //return EVDIF(this, V);
@@ -471,15 +499,15 @@ public final class ExpVectorShort extends ExpVector
      * @return s*this.
      */
     @Override
-    public ExpVectorShort scalarMultiply(long s) {
-        if (s >= maxShort || s <= minShort) {
-            throw new IllegalArgumentException("scalar to large: " + s);
-        }
+    public ExpVector scalarMultiply(long s) {
         short[] u = val;
         short[] w = new short[u.length];
-        short ss = (short) s;
         for (int i = 0; i < u.length; i++) {
-            w[i] = (short) (ss * u[i]);
+            long x = s * u[i];
+            if (x >= maxShort || x <= minShort) {
+                return ExpVector.create(StorUnit.INT, toExpVectorLong().scalarMultiply(s).val);
+            }
+            w[i] = (short) x;
         }
         return new ExpVectorShort(w);
     }
@@ -507,7 +535,10 @@ public final class ExpVectorShort extends ExpVector
      * @return substituted ExpVector.
      */
     @Override
-    public ExpVectorShort subst(int i, long d) {
+    public ExpVector subst(int i, long d) {
+        if (d >= maxShort || d <= minShort) {
+            return ExpVector.create(StorUnit.INT, toExpVectorLong().subst(i, d).val);
+        }
         ExpVectorShort V = this.copy();
         //long e = 
         V.setVal(i, d);
@@ -637,8 +668,11 @@ public final class ExpVectorShort extends ExpVector
      * @return component wise maximum of this and V.
      */
     @Override
-    public ExpVectorShort lcm(ExpVector V) {
+    public ExpVector lcm(ExpVector V) {
         short[] u = val;
+        if (!(V instanceof ExpVectorShort)) {
+            return ExpVector.create(StorUnit.SHORT, toExpVectorLong().lcm(V).val);
+        }
         short[] v = ((ExpVectorShort) V).val;
         short[] w = new short[u.length];
         for (int i = 0; i < u.length; i++) {
@@ -655,8 +689,11 @@ public final class ExpVectorShort extends ExpVector
      * @return component wise minimum of this and V.
      */
     @Override
-    public ExpVectorShort gcd(ExpVector V) {
+    public ExpVector gcd(ExpVector V) {
         short[] u = val;
+        if (!(V instanceof ExpVectorShort)) {
+            return ExpVector.create(StorUnit.SHORT, toExpVectorLong().gcd(V).val);
+        }
         short[] v = ((ExpVectorShort) V).val;
         short[] w = new short[u.length];
         for (int i = 0; i < u.length; i++) {
@@ -713,7 +750,13 @@ public final class ExpVectorShort extends ExpVector
      */
     @Override
     public boolean multipleOf(ExpVector V) {
+        if (!divMaskMultipleOf(V)) {
+            return false;
+        }
         short[] u = val;
+        if (!(V instanceof ExpVectorShort)) {
+            return toExpVectorLong().multipleOf(V);
+        }
         short[] v = ((ExpVectorShort) V).val;
         boolean t = true;
         for (int i = 0; i < u.length; i++) {
@@ -745,6 +788,9 @@ public final class ExpVectorShort extends ExpVector
     @Override
     public int invLexCompareTo(ExpVector V) {
         short[] u = val;
+        if (!(V instanceof ExpVectorShort)) {
+            return toExpVectorLong().invLexCompareTo(V);
+        }
         short[] v = ((ExpVectorShort) V).val;
         int t = 0;
         for (int i = 0; i < u.length; i++) {
@@ -768,6 +814,9 @@ public final class ExpVectorShort extends ExpVector
     @Override
     public int invLexCompareTo(ExpVector V, int begin, int end) {
         short[] u = val;
+        if (!(V instanceof ExpVectorShort)) {
+            return toExpVectorLong().invLexCompareTo(V, begin, end);
+        }
         short[] v = ((ExpVectorShort) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -795,6 +844,9 @@ public final class ExpVectorShort extends ExpVector
     @Override
     public int invGradCompareTo(ExpVector V) {
         short[] u = val;
+        if (!(V instanceof ExpVectorShort)) {
+            return toExpVectorLong().invGradCompareTo(V);
+        }
         short[] v = ((ExpVectorShort) V).val;
         int t = 0;
         int i;
@@ -839,6 +891,9 @@ public final class ExpVectorShort extends ExpVector
     @Override
     public int invGradCompareTo(ExpVector V, int begin, int end) {
         short[] u = val;
+        if (!(V instanceof ExpVectorShort)) {
+            return toExpVectorLong().invGradCompareTo(V, begin, end);
+        }
         short[] v = ((ExpVectorShort) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -887,6 +942,9 @@ public final class ExpVectorShort extends ExpVector
     @Override
     public int revInvLexCompareTo(ExpVector V) {
         short[] u = val;
+        if (!(V instanceof ExpVectorShort)) {
+            return toExpVectorLong().revInvLexCompareTo(V);
+        }
         short[] v = ((ExpVectorShort) V).val;
         int t = 0;
         for (int i = u.length - 1; i >= 0; i--) {
@@ -910,6 +968,9 @@ public final class ExpVectorShort extends ExpVector
     @Override
     public int revInvLexCompareTo(ExpVector V, int begin, int end) {
         short[] u = val;
+        if (!(V instanceof ExpVectorShort)) {
+            return toExpVectorLong().revInvLexCompareTo(V, begin, end);
+        }
         short[] v = ((ExpVectorShort) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -937,6 +998,9 @@ public final class ExpVectorShort extends ExpVector
     @Override
     public int revInvGradCompareTo(ExpVector V) {
         short[] u = val;
+        if (!(V instanceof ExpVectorShort)) {
+            return toExpVectorLong().revInvGradCompareTo(V);
+        }
         short[] v = ((ExpVectorShort) V).val;
         int t = 0;
         int i;
@@ -981,6 +1045,9 @@ public final class ExpVectorShort extends ExpVector
     @Override
     public int revInvGradCompareTo(ExpVector V, int begin, int end) {
         short[] u = val;
+        if (!(V instanceof ExpVectorShort)) {
+            return toExpVectorLong().revInvGradCompareTo(V, begin, end);
+        }
         short[] v = ((ExpVectorShort) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -1052,6 +1119,9 @@ public final class ExpVectorShort extends ExpVector
     @Override
     public int invWeightCompareTo(long[][] w, ExpVector V) {
         short[] u = val;
+        if (!(V instanceof ExpVectorShort)) {
+            return toExpVectorLong().invWeightCompareTo(w, V);
+        }
         short[] v = ((ExpVectorShort) V).val;
         int t = 0;
         int i;
@@ -1098,6 +1168,9 @@ public final class ExpVectorShort extends ExpVector
     @Override
     public int invWeightCompareTo(long[][] w, ExpVector V, int begin, int end) {
         short[] u = val;
+        if (!(V instanceof ExpVectorShort)) {
+            return toExpVectorLong().invWeightCompareTo(w, V, begin, end);
+        }
         short[] v = ((ExpVectorShort) V).val;
         if (begin < 0) {
             begin = 0;;
@@ -10,6 +10,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.Spliterator;
 import java.util.List;
@@ -69,7 +70,7 @@ public class GenPolynomial<C extends RingElem<C>>
 
 
     /**
-     * Stored hash code.
+     * Stored hash code, -1 if not computed.
      */
     transient protected int hash = -1;
 
@@ -80,6 +81,12 @@ public class GenPolynomial<C extends RingElem<C>>
     transient protected long blen = -1;
 
 
+    /**
+     * Stored leading monomial, null if not computed.
+     */
+    transient protected Map.Entry<ExpVector, C> lead = null;
+
+
     private static final Logger logger = LogManager.getLogger(GenPolynomial.class);
 
 
@@ -229,10 +236,9 @@ public class GenPolynomial<C extends RingElem<C>>
             if (a != null) {
                 logger.error("map entry exists " + e + " to " + a + " new " + c);
             }
-            hash = -1;
-            blen = -1;
         }
         if (!c.isZERO()) {
+            clearCache();
             val.put(e, c);
         }
     }
@@ -248,9 +254,8 @@ public class GenPolynomial<C extends RingElem<C>>
      */
     public void doRemoveFromMap(ExpVector e, C c) {
         C b = val.remove(e);
+        clearCache();
         if (true) { //||debug
-            hash = -1;
-            blen = -1;
             if (c == null) { // ignore b
                 return;
             }
@@ -266,10 +271,16 @@ public class GenPolynomial<C extends RingElem<C>>
      * Put an a sorted map of exponents to coefficients into the internal map of
      * this GenPolynomial. <b>Note:</b> Do not use this method unless you are
      * constructing a new polynomial. this is modified and breaks the
-     * immutability promise of this class.
+     * immutability promise of this class. If this is zero and vals is a
+     * SortedTermMap of the term order, the map is copied in linear time.
      * @param vals sorted map of exponents and coefficients.
      */
     public void doPutToMap(SortedMap<ExpVector, C> vals) {
+        clearCache();
+        if (val.isEmpty() && vals instanceof SortedTermMap) { // no zero coefficients
+            val.putAll(vals);
+            return;
+        }
         for (Map.Entry<ExpVector, C> me : vals.entrySet()) {
             ExpVector e = me.getKey();
             if (debug) {
@@ -277,8 +288,6 @@ public class GenPolynomial<C extends RingElem<C>>
                 if (a != null) {
                     logger.error("map entry exists " + e + " to " + a + " new " + me.getValue());
                 }
-                hash = -1;
-                blen = -1;
             }
             C c = me.getValue();
             if (!c.isZERO()) {
@@ -288,6 +297,17 @@ public class GenPolynomial<C extends RingElem<C>>
     }
 
 
+    /**
+     * Clear the stored hash code, bitLength and leading monomial. To be
+     * called by the destructive methods which modify the internal map.
+     */
+    private void clearCache() {
+        hash = -1;
+        blen = -1;
+        lead = null;
+    }
+
+
     /**
      * String representation of GenPolynomial.
      * @see java.lang.Object#toString()
@@ -563,10 +583,35 @@ public class GenPolynomial<C extends RingElem<C>>
             return false;
         }
         GenPolynomial<C> a = (GenPolynomial<C>) B;
+        if (this == a) {
+            return true;
+        }
+        if (val.size() != a.val.size()) { // cheap pre-check
+            return false;
+        }
         return this.compareTo(a) == 0;
     }
 
 
+    /**
+     * Cheap test for inequality with the stored hash codes. Does not compute
+     * hash codes, so it is only conclusive if the hash codes of both
+     * polynomials have been computed before, e.g. as keys of hash maps.
+     * <b>Note:</b> requires hash codes of the coefficients which are
+     * compatible with equals(), which is not the case for approximate
+     * coefficients like BigDecimal.
+     * @param b GenPolynomial.
+     * @return true if this != b is known from the length or the stored hash
+     *         codes, false if this == b is possible.
+     */
+    public boolean isKnownUnequal(GenPolynomial<C> b) {
+        if (b == null || val.size() != b.val.size()) {
+            return true;
+        }
+        return hash != -1 && b.hash != -1 && ring == b.ring && hash != b.hash;
+    }
+
+
     /**
      * Hash code for this polynomial.
      * @see java.lang.Object#hashCode()
@@ -574,7 +619,7 @@ public class GenPolynomial<C extends RingElem<C>>
     @Override
     public int hashCode() {
         int h = hash;
-        if (h < 0) {
+        if (h == -1) {
             h = (ring.hashCode() << 27);
             h += val.hashCode();
             hash = h;
@@ -658,13 +703,18 @@ public class GenPolynomial<C extends RingElem<C>>
      * @return first map entry.
      */
     public Map.Entry<ExpVector, C> leadingMonomial() {
-        if (val.isEmpty()) {
-            return null;
+        Map.Entry<ExpVector, C> m = lead;
+        if (m == null) {
+            if (val.isEmpty()) {
+                return null;
+            }
+            //Iterator<Map.Entry<ExpVector, C>> ai = val.entrySet().iterator();
+            //return ai.next();
+            ExpVector e = val.firstKey();
+            m = new MapEntry<ExpVector, C>(e, val.get(e));
+            lead = m;
         }
-        //Iterator<Map.Entry<ExpVector, C>> ai = val.entrySet().iterator();
-        //return ai.next();
-        ExpVector e = val.firstKey();
-        return new MapEntry<ExpVector, C>(e, val.get(e));
+        return m;
     }
 
 
@@ -673,10 +723,11 @@ public class GenPolynomial<C extends RingElem<C>>
      * @return first exponent.
      */
     public ExpVector leadingExpVector() {
-        if (val.isEmpty()) {
+        Map.Entry<ExpVector, C> m = leadingMonomial();
+        if (m == null) {
             return null; // ring.evzero? needs many changes 
         }
-        return val.firstKey();
+        return m.getKey();
     }
 
 
@@ -697,10 +748,11 @@ public class GenPolynomial<C extends RingElem<C>>
      * @return first coefficient.
      */
     public C leadingBaseCoefficient() {
-        if (val.isEmpty()) {
+        Map.Entry<ExpVector, C> m = leadingMonomial();
+        if (m == null) {
             return ring.coFac.getZERO();
         }
-        return val.get(val.firstKey());
+        return m.getValue();
     }
 
 
@@ -1042,29 +1094,8 @@ public class GenPolynomial<C extends RingElem<C>>
         if (this.isZERO()) {
             return S;
         }
-        if (this.length() < (3*S.length())/5) {
-            return S.sum(this); // performance
-        }
         assert (ring.nvar == S.ring.nvar);
-        GenPolynomial<C> n = this.copy();
-        SortedMap<ExpVector, C> nv = n.val;
-        SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
-            ExpVector e = me.getKey();
-            C y = me.getValue(); // assert y != null
-            C x = nv.get(e);
-            if (x != null) {
-                x = x.sum(y);
-                if (!x.isZERO()) {
-                    nv.put(e, x);
-                } else {
-                    nv.remove(e);
-                }
-            } else {
-                nv.put(e, y);
-            }
-        }
-        return n;
+        return mergeMultiple(null, null, S, false);
     }
 
 
@@ -1130,6 +1161,7 @@ public class GenPolynomial<C extends RingElem<C>>
         if (S == null || S.isZERO()) {
             return;
         }
+        clearCache();
         if (this.isZERO()) {
             this.val.putAll(S.val);
             return;
@@ -1165,6 +1197,7 @@ public class GenPolynomial<C extends RingElem<C>>
         if (a == null || a.isZERO()) {
             return;
         }
+        clearCache();
         SortedMap<ExpVector, C> nv = this.val;
         C x = nv.get(e);
         if (x != null) {
@@ -1206,25 +1239,7 @@ public class GenPolynomial<C extends RingElem<C>>
             return S.negate();
         }
         assert (ring.nvar == S.ring.nvar);
-        GenPolynomial<C> n = this.copy(); 
-        SortedMap<ExpVector, C> nv = n.val;
-        SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
-            ExpVector e = me.getKey();
-            C y = me.getValue(); // assert y != null
-            C x = nv.get(e);
-            if (x != null) {
-                x = x.subtract(y);
-                if (!x.isZERO()) {
-                    nv.put(e, x);
-                } else {
-                    nv.remove(e);
-                }
-            } else {
-                nv.put(e, y.negate());
-            }
-        }
-        return n;
+        return mergeMultiple(null, null, S, true);
     }
 
 
@@ -1295,26 +1310,7 @@ public class GenPolynomial<C extends RingElem<C>>
             return S.multiply(a.negate());
         }
         assert (ring.nvar == S.ring.nvar);
-        GenPolynomial<C> n = this.copy();
-        SortedMap<ExpVector, C> nv = n.val;
-        SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
-            ExpVector f = me.getKey();
-            C y = me.getValue(); // assert y != null
-            y = a.multiply(y);
-            C x = nv.get(f);
-            if (x != null) {
-                x = x.subtract(y);
-                if (!x.isZERO()) {
-                    nv.put(f, x);
-                } else {
-                    nv.remove(f);
-                }
-            } else if (!y.isZERO()) {
-                nv.put(f, y.negate());
-            }
-        }
-        return n;
+        return mergeMultiple(a, null, S, true);
     }
 
 
@@ -1336,27 +1332,7 @@ public class GenPolynomial<C extends RingElem<C>>
             return S.multiply(a.negate(), e);
         }
         assert (ring.nvar == S.ring.nvar);
-        GenPolynomial<C> n = this.copy();
-        SortedMap<ExpVector, C> nv = n.val;
-        SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
-            ExpVector f = me.getKey();
-            f = e.sum(f);
-            C y = me.getValue(); // assert y != null
-            y = a.multiply(y);
-            C x = nv.get(f);
-            if (x != null) {
-                x = x.subtract(y);
-                if (!x.isZERO()) {
-                    nv.put(f, x);
-                } else {
-                    nv.remove(f);
-                }
-            } else if (!y.isZERO()) {
-                nv.put(f, y.negate());
-            }
-        }
-        return n;
+        return mergeMultiple(a, e, S, true);
     }
 
 
@@ -1382,26 +1358,7 @@ public class GenPolynomial<C extends RingElem<C>>
         }
         assert (ring.nvar == S.ring.nvar);
         GenPolynomial<C> n = this.multiply(b);
-        SortedMap<ExpVector, C> nv = n.val;
-        SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
-            ExpVector f = me.getKey();
-            //f = e.sum(f);
-            C y = me.getValue(); // assert y != null
-            y = a.multiply(y); // now y can be zero
-            C x = nv.get(f);
-            if (x != null) {
-                x = x.subtract(y);
-                if (!x.isZERO()) {
-                    nv.put(f, x);
-                } else {
-                    nv.remove(f);
-                }
-            } else if (!y.isZERO()) {
-                nv.put(f, y.negate());
-            }
-        }
-        return n;
+        return n.mergeMultiple(a, null, S, true);
     }
 
 
@@ -1428,26 +1385,7 @@ public class GenPolynomial<C extends RingElem<C>>
         }
         assert (ring.nvar == S.ring.nvar);
         GenPolynomial<C> n = this.multiply(b);
-        SortedMap<ExpVector, C> nv = n.val;
-        SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
-            ExpVector f = me.getKey();
-            f = e.sum(f);
-            C y = me.getValue(); // assert y != null
-            y = a.multiply(y); // now y can be zero
-            C x = nv.get(f);
-            if (x != null) {
-                x = x.subtract(y);
-                if (!x.isZERO()) {
-                    nv.put(f, x);
-                } else {
-                    nv.remove(f);
-                }
-            } else if (!y.isZERO()) {
-                nv.put(f, y.negate());
-            }
-        }
-        return n;
+        return n.mergeMultiple(a, e, S, true);
     }
 
 
@@ -1475,25 +1413,68 @@ public class GenPolynomial<C extends RingElem<C>>
         }
         assert (ring.nvar == S.ring.nvar);
         GenPolynomial<C> n = this.multiply(b, g);
-        SortedMap<ExpVector, C> nv = n.val;
-        SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
-            ExpVector f = me.getKey();
-            f = e.sum(f);
-            C y = me.getValue(); // assert y != null
-            y = a.multiply(y); // y can be zero now
-            C x = nv.get(f);
-            if (x != null) {
-                x = x.subtract(y);
-                if (!x.isZERO()) {
-                    nv.put(f, x);
+        return n.mergeMultiple(a, e, S, true);
+    }
+
+
+    /**
+     * GenPolynomial sum or difference with a multiple. The terms of this and
+     * of the multiple of S are merged in descending term order, so the result
+     * is built in linear time and no TreeMap insertions are required. The
+     * exponent vector e is added to the exponents of S, i.e. the commutative
+     * product is used, and a is multiplied from the left to the coefficients
+     * of S.
+     * @param a coefficient, null for 1.
+     * @param e exponent, null for 1.
+     * @param S GenPolynomial.
+     * @param subtract true for the difference, false for the sum.
+     * @return this + a x<sup>e</sup> S or this - a x<sup>e</sup> S, the type
+     *         is the type of <code>ring.getZERO()</code>.
+     */
+    protected GenPolynomial<C> mergeMultiple(C a, ExpVector e, GenPolynomial<C> S, boolean subtract) {
+        final Comparator<ExpVector> cmp = ring.tord.getDescendComparator();
+        SortedTermMap<C> nv = new SortedTermMap<C>(cmp, this.val.size() + S.val.size());
+        Iterator<Map.Entry<ExpVector, C>> ai = this.val.entrySet().iterator();
+        Iterator<Map.Entry<ExpVector, C>> bi = S.val.entrySet().iterator();
+        Map.Entry<ExpVector, C> x = ai.hasNext() ? ai.next() : null;
+        ExpVector f = null;
+        C y = null;
+        if (bi.hasNext()) {
+            Map.Entry<ExpVector, C> me = bi.next();
+            f = (e == null) ? me.getKey() : e.sum(me.getKey());
+            y = (a == null) ? me.getValue() : a.multiply(me.getValue()); // y can be zero
+        }
+        while (x != null || f != null) {
+            int s;
+            if (x == null) {
+                s = 1;
+            } else if (f == null) {
+                s = -1;
+            } else {
+                s = cmp.compare(x.getKey(), f);
+            }
+            if (s > 0) { // f before x
+                nv.append(f, subtract ? y.negate() : y);
+            } else if (s < 0) {
+                nv.append(x.getKey(), x.getValue());
+            } else {
+                nv.append(f, subtract ? x.getValue().subtract(y) : x.getValue().sum(y));
+            }
+            if (s <= 0) {
+                x = ai.hasNext() ? ai.next() : null;
+            }
+            if (s >= 0) {
+                if (bi.hasNext()) {
+                    Map.Entry<ExpVector, C> me = bi.next();
+                    f = (e == null) ? me.getKey() : e.sum(me.getKey());
+                    y = (a == null) ? me.getValue() : a.multiply(me.getValue());
                 } else {
-                    nv.remove(f);
+                    f = null;
                 }
-            } else if (!y.isZERO()) {
-                nv.put(f, y.negate());
             }
         }
+        GenPolynomial<C> n = ring.getZERO().copy();
+        n.val.putAll(nv); // linear time, same comparator
         return n;
     }
 
@@ -1541,7 +1522,15 @@ public class GenPolynomial<C extends RingElem<C>>
 
 
     /**
-     * GenPolynomial multiplication.
+     * GenPolynomial multiplication. Dense univariate polynomials with word
+     * size modular coefficients are multiplied by number theoretic
+     * transforms, see <code>NTTUtil</code>, dense polynomials with
+     * BigInteger coefficients by Kronecker substitution, see
+     * <code>PolyUtil.kroneckerMultiply()</code>, and other dense univariate
+     * polynomials by the Karatsuba method, see
+     * <code>PolyUtil.karatsubaMultiply()</code>. Other polynomials, which are
+     * not solvable, are multiplied by <code>multiplyHeap()</code>, if the
+     * ring is constructed for heap based multiplication.
      * @param S GenPolynomial.
      * @return this*S.
      */
@@ -1563,6 +1552,19 @@ public class GenPolynomial<C extends RingElem<C>>
             GenSolvablePolynomial<C> Sp = (GenSolvablePolynomial<C>) S;
             return T.multiply(Sp);
         }
+        if (ring.nvar == 1 && NTTUtil.isApplicable(this, S)) {
+            return NTTUtil.multiply(this, S);
+        }
+        if (PolyUtil.isKroneckerApplicable(this, S)) {
+            return PolyUtil.kroneckerMultiply(this, S);
+        }
+        if (ring.nvar == 1 && PolyUtil.isKaratsubaApplicable(this, S)) {
+            return PolyUtil.karatsubaMultiply(this, S);
+        }
+        if (ring.heapMultiply && !(this instanceof GenSolvablePolynomial)
+                        && !(S instanceof GenSolvablePolynomial)) {
+            return multiplyHeap(S);
+        }
         GenPolynomial<C> p = ring.getZERO().copy();
         SortedMap<ExpVector, C> pv = p.val;
         for (Map.Entry<ExpVector, C> m1 : val.entrySet()) {
@@ -1592,6 +1594,149 @@ public class GenPolynomial<C extends RingElem<C>>
     }
 
 
+    /**
+     * GenPolynomial heap based multiplication. The terms of the product are
+     * generated in descending term order by a merge of the rows
+     * this<sub>i</sub> * S with a binary heap (Johnson, Monagan and Pearce).
+     * The heap contains at most one entry per term of the shorter
+     * polynomial. Equal exponents are combined before they are stored, so the
+     * result map is built in linear time. For solvable polynomials the
+     * respective multiplication is used.
+     * @param S GenPolynomial.
+     * @return this*S.
+     */
+    @SuppressWarnings("unchecked")
+    public GenPolynomial<C> multiplyHeap(GenPolynomial<C> S) {
+        if (S == null || S.isZERO()) {
+            return ring.getZERO();
+        }
+        if (this.isZERO()) {
+            return this;
+        }
+        if (this instanceof GenSolvablePolynomial || S instanceof GenSolvablePolynomial) {
+            logger.debug("no heap multiplication for solvable polynomials");
+            return multiply(S);
+        }
+        assert (ring.nvar == S.ring.nvar);
+        final int n = this.val.size();
+        final int m = S.val.size();
+        ExpVector[] ae = new ExpVector[n];
+        C[] ac = (C[]) new RingElem[n];
+        int k = 0;
+        for (Map.Entry<ExpVector, C> me : this.val.entrySet()) {
+            ae[k] = me.getKey();
+            ac[k] = me.getValue();
+            k++;
+        }
+        ExpVector[] be = new ExpVector[m];
+        C[] bc = (C[]) new RingElem[m];
+        k = 0;
+        for (Map.Entry<ExpVector, C> me : S.val.entrySet()) {
+            be[k] = me.getKey();
+            bc[k] = me.getValue();
+            k++;
+        }
+        // rows are the terms of the shorter polynomial
+        final boolean rowsA = (n <= m);
+        final int r = rowsA ? n : m;
+        final int s = rowsA ? m : n;
+        final ExpVector[] re = rowsA ? ae : be;
+        final ExpVector[] se = rowsA ? be : ae;
+        // heap of row indexes with keys, column position per row
+        final Comparator<ExpVector> cmp = ring.tord.getDescendComparator();
+        final int[] col = new int[r];
+        final int[] heap = new int[r];
+        final ExpVector[] hkey = new ExpVector[r];
+        long cap = (long) n * (long) m;
+        if (cap > 4L * (n + m)) {
+            cap = 4L * (n + m);
+        }
+        SortedTermMap<C> pv = new SortedTermMap<C>(cmp, (int) cap);
+        int hs = 0;
+        heap[0] = 0;
+        hkey[0] = re[0].sum(se[0]);
+        col[0] = 0;
+        hs = 1;
+        while (hs > 0) {
+            ExpVector e = hkey[0];
+            C c = null;
+            while (hs > 0 && cmp.compare(hkey[0], e) == 0) {
+                // extract maximum
+                int i = heap[0];
+                int j = col[i];
+                hs--;
+                if (hs > 0) {
+                    heapSiftDown(heap, hkey, hs, heap[hs], hkey[hs], cmp);
+                }
+                C x = rowsA ? ac[i].multiply(bc[j]) : ac[j].multiply(bc[i]);
+                if (c == null) {
+                    c = x;
+                } else {
+                    c = c.sum(x);
+                }
+                // successors are strictly smaller than e
+                if (j == 0 && i + 1 < r) {
+                    col[i + 1] = 0;
+                    hs = heapInsert(heap, hkey, hs, i + 1, re[i + 1].sum(se[0]), cmp);
+                }
+                if (j + 1 < s) {
+                    col[i] = j + 1;
+                    hs = heapInsert(heap, hkey, hs, i, re[i].sum(se[j + 1]), cmp);
+                }
+            }
+            pv.append(e, c); // zero coefficients are dropped
+        }
+        return new GenPolynomial<C>(ring, pv);
+    }
+
+
+    /*
+     * Insert a row with key into the heap.
+     * @return new heap size.
+     */
+    private static int heapInsert(int[] heap, ExpVector[] hkey, int hs, int row, ExpVector key,
+                    Comparator<ExpVector> cmp) {
+        int i = hs;
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (cmp.compare(hkey[p], key) <= 0) {
+                break;
+            }
+            heap[i] = heap[p];
+            hkey[i] = hkey[p];
+            i = p;
+        }
+        heap[i] = row;
+        hkey[i] = key;
+        return hs + 1;
+    }
+
+
+    /*
+     * Place a row with key at the root of the heap of size hs and restore the
+     * heap property.
+     */
+    private static void heapSiftDown(int[] heap, ExpVector[] hkey, int hs, int row, ExpVector key,
+                    Comparator<ExpVector> cmp) {
+        int i = 0;
+        int c;
+        while ((c = 2 * i + 1) < hs) {
+            if (c + 1 < hs && cmp.compare(hkey[c + 1], hkey[c]) < 0) {
+                c++;
+            }
+            if (cmp.compare(key, hkey[c]) <= 0) {
+                break;
+            }
+            heap[i] = heap[c];
+            hkey[i] = hkey[c];
+            i = c;
+        }
+        heap[i] = row;
+        hkey[i] = key;
+        hkey[hs] = null;
+    }
+
+
     /**
      * GenPolynomial multiplication. Product with coefficient ring element.
      * @param s coefficient.
@@ -2316,7 +2461,7 @@ public class GenPolynomial<C extends RingElem<C>>
             ExpVector e = y.getKey();
             long n = e.getVal(0);
             C a = y.getValue();
-            ExpVector f = ExpVector.create(pfac.nvar, j, n);
+            ExpVector f = ExpVector.create(pfac.storunit, pfac.nvar, j, n);
             C.put(f, a); // assert not contained
         }
         return Cp;
@@ -2584,7 +2729,6 @@ public class GenPolynomial<C extends RingElem<C>>
 
     private void readObject(java.io.ObjectInputStream in) throws IOException, ClassNotFoundException {
         in.defaultReadObject();
-        blen = -1;
-        hash = -1;
+        clearCache();
     }
 }
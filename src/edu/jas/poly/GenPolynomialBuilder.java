@@ -0,0 +1,399 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Mutable accumulator for the construction of polynomials. Terms and
+ * multiples of polynomials are added in place, the final polynomial is
+ * obtained by <code>build()</code> without copying the accumulated terms. As
+ * long as the terms are added in descending term order, they are appended to
+ * arrays and the polynomial is built in linear time. Otherwise the builder
+ * switches to the sorted map of a new polynomial. Coefficient multiplications
+ * of polynomials are from the left, like in
+ * <code>GenPolynomial.subtractMultiple()</code>, the scaling of the builder
+ * is from the right, like in <code>GenPolynomial.multiply(C)</code>. The
+ * exponents are added, i.e. the commutative product is used. <b>Note:</b>
+ * this class is mutable and not thread safe.
+ * @param <C> coefficient type
+ * @author agent
+ */
+
+public class GenPolynomialBuilder<C extends RingElem<C>> {
+
+
+    private static final Logger logger = LogManager.getLogger(GenPolynomialBuilder.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * The factory for the polynomial.
+     */
+    public final GenPolynomialRing<C> ring;
+
+
+    /**
+     * The descending term order comparator.
+     */
+    protected final Comparator<ExpVector> cmp;
+
+
+    /**
+     * Exponents of the terms in descending order, if not in map mode.
+     */
+    protected ExpVector[] keys;
+
+
+    /**
+     * Coefficients of the terms, if not in map mode.
+     */
+    protected Object[] vals;
+
+
+    /**
+     * Number of terms in the arrays.
+     */
+    protected int size;
+
+
+    /**
+     * The polynomial under construction in map mode, or null.
+     */
+    protected GenPolynomial<C> poly;
+
+
+    /**
+     * Constructor.
+     * @param ring polynomial factory.
+     */
+    public GenPolynomialBuilder(GenPolynomialRing<C> ring) {
+        this(ring, 8);
+    }
+
+
+    /**
+     * Constructor.
+     * @param ring polynomial factory.
+     * @param capacity expected number of terms.
+     */
+    public GenPolynomialBuilder(GenPolynomialRing<C> ring, int capacity) {
+        this.ring = ring;
+        cmp = ring.tord.getDescendComparator();
+        if (capacity < 2) {
+            capacity = 2;
+        }
+        keys = new ExpVector[capacity];
+        vals = new Object[capacity];
+        size = 0;
+        poly = null;
+    }
+
+
+    /**
+     * Constructor.
+     * @param p initial polynomial, p is not modified.
+     */
+    public GenPolynomialBuilder(GenPolynomial<C> p) {
+        this(p.ring, p.length() + 8);
+        add(p);
+    }
+
+
+    /**
+     * String representation of the builder.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "GenPolynomialBuilder(" + length() + (poly == null ? ", sorted)" : ", map)");
+    }
+
+
+    /**
+     * Number of terms.
+     * @return number of terms of the accumulated polynomial.
+     */
+    public int length() {
+        if (poly != null) {
+            return poly.val.size();
+        }
+        return size;
+    }
+
+
+    /**
+     * Test if the accumulated polynomial is zero.
+     * @return true, if no terms are accumulated, else false.
+     */
+    public boolean isZERO() {
+        return length() == 0;
+    }
+
+
+    /**
+     * Add a term.
+     * @param a coefficient.
+     * @param e exponent.
+     */
+    public void addTerm(C a, ExpVector e) {
+        if (a == null || a.isZERO()) {
+            return;
+        }
+        if (poly == null) {
+            if (size == 0 || cmp.compare(keys[size - 1], e) < 0) {
+                append(e, a);
+                return;
+            }
+            toMap();
+        }
+        SortedMap<ExpVector, C> nv = poly.val;
+        C x = nv.get(e);
+        if (x != null) {
+            x = x.sum(a);
+            if (!x.isZERO()) {
+                nv.put(e, x);
+            } else {
+                nv.remove(e);
+            }
+        } else {
+            nv.put(e, a);
+        }
+    }
+
+
+    /**
+     * Subtract a term.
+     * @param a coefficient.
+     * @param e exponent.
+     */
+    public void subtractTerm(C a, ExpVector e) {
+        if (a == null || a.isZERO()) {
+            return;
+        }
+        addTerm(a.negate(), e);
+    }
+
+
+    /**
+     * Add a polynomial.
+     * @param p polynomial, p is not modified.
+     */
+    public void add(GenPolynomial<C> p) {
+        addMultiple(null, null, p, false);
+    }
+
+
+    /**
+     * Subtract a polynomial.
+     * @param p polynomial, p is not modified.
+     */
+    public void subtract(GenPolynomial<C> p) {
+        addMultiple(null, null, p, true);
+    }
+
+
+    /**
+     * Add a multiple of a polynomial.
+     * @param a coefficient.
+     * @param e exponent, null for 1.
+     * @param p polynomial, p is not modified.
+     */
+    public void addMultiple(C a, ExpVector e, GenPolynomial<C> p) {
+        if (a == null || a.isZERO()) {
+            return;
+        }
+        addMultiple(a, e, p, false);
+    }
+
+
+    /**
+     * Subtract a multiple of a polynomial.
+     * @param a coefficient.
+     * @param e exponent, null for 1.
+     * @param p polynomial, p is not modified.
+     */
+    public void subtractMultiple(C a, ExpVector e, GenPolynomial<C> p) {
+        if (a == null || a.isZERO()) {
+            return;
+        }
+        addMultiple(a, e, p, true);
+    }
+
+
+    /**
+     * Add or subtract a multiple of a polynomial.
+     * @param a coefficient, null for 1.
+     * @param e exponent, null for 1.
+     * @param p polynomial, p is not modified.
+     * @param negate true for subtraction.
+     */
+    protected void addMultiple(C a, ExpVector e, GenPolynomial<C> p, boolean negate) {
+        if (p == null || p.isZERO()) {
+            return;
+        }
+        boolean inOrder = (poly == null && (size == 0 || cmp.compare(keys[size - 1], lead(e, p)) < 0));
+        if (inOrder) {
+            ensureCapacity(size + p.val.size());
+        }
+        for (Map.Entry<ExpVector, C> me : p.val.entrySet()) {
+            ExpVector f = (e == null) ? me.getKey() : e.sum(me.getKey());
+            C y = (a == null) ? me.getValue() : a.multiply(me.getValue());
+            if (negate) {
+                y = y.negate();
+            }
+            if (!inOrder) {
+                addTerm(y, f);
+            } else if (!y.isZERO()) { // terms of p are in order
+                keys[size] = f;
+                vals[size] = y;
+                size++;
+            }
+        }
+    }
+
+
+    /**
+     * Multiply the accumulated polynomial by a coefficient from the right.
+     * @param c coefficient.
+     */
+    public void multiply(C c) {
+        if (c == null || c.isZERO()) {
+            clear();
+            return;
+        }
+        if (c.isONE()) {
+            return;
+        }
+        if (poly != null) {
+            Iterator<Map.Entry<ExpVector, C>> it = poly.val.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<ExpVector, C> me = it.next();
+                C y = me.getValue().multiply(c);
+                if (!y.isZERO()) {
+                    me.setValue(y);
+                } else { // zero divisors
+                    it.remove();
+                }
+            }
+            return;
+        }
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            @SuppressWarnings("unchecked")
+            C y = ((C) vals[i]).multiply(c);
+            if (!y.isZERO()) { // zero divisors
+                keys[k] = keys[i];
+                vals[k] = y;
+                k++;
+            }
+        }
+        Arrays.fill(keys, k, size, null);
+        Arrays.fill(vals, k, size, null);
+        size = k;
+    }
+
+
+    /**
+     * Remove all terms.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(vals, 0, size, null);
+        size = 0;
+        poly = null;
+    }
+
+
+    /**
+     * Build the polynomial. The accumulated terms are handed over to the
+     * polynomial and this builder is cleared, so it can be reused.
+     * @return the accumulated polynomial.
+     */
+    public GenPolynomial<C> build() {
+        if (poly == null) {
+            toMap();
+        }
+        GenPolynomial<C> p = poly;
+        poly = null;
+        if (debug) {
+            logger.debug("build {} terms", p.length());
+        }
+        return p;
+    }
+
+
+    /**
+     * Leading exponent of a multiple.
+     * @param e exponent, null for 1.
+     * @param p nonzero polynomial.
+     * @return e + lt(p).
+     */
+    private ExpVector lead(ExpVector e, GenPolynomial<C> p) {
+        ExpVector f = p.leadingExpVector();
+        return (e == null) ? f : e.sum(f);
+    }
+
+
+    /**
+     * Append a term in descending order.
+     * @param e exponent.
+     * @param a nonzero coefficient.
+     */
+    private void append(ExpVector e, C a) {
+        ensureCapacity(size + 1);
+        keys[size] = e;
+        vals[size] = a;
+        size++;
+    }
+
+
+    /**
+     * Ensure capacity of the term arrays.
+     * @param n required number of terms.
+     */
+    private void ensureCapacity(int n) {
+        if (n > keys.length) {
+            int cap = Math.max(n, keys.length + (keys.length >> 1) + 1);
+            keys = Arrays.copyOf(keys, cap);
+            vals = Arrays.copyOf(vals, cap);
+        }
+    }
+
+
+    /**
+     * Switch to map mode. The terms of the arrays are moved to a new
+     * polynomial in linear time.
+     */
+    @SuppressWarnings("unchecked")
+    private void toMap() {
+        GenPolynomial<C> p = ring.getZERO().copy();
+        if (size > 0) {
+            SortedTermMap<C> tm = new SortedTermMap<C>(cmp, size);
+            for (int i = 0; i < size; i++) {
+                tm.append(keys[i], (C) vals[i]);
+            }
+            p.doPutToMap(tm);
+        }
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(vals, 0, size, null);
+        size = 0;
+        poly = p;
+    }
+
+}
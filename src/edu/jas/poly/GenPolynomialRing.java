@@ -11,9 +11,11 @@ import java.io.StringReader;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
@@ -101,6 +103,19 @@ public class GenPolynomialRing<C extends RingElem<C>> implements RingFactory<Gen
     public final ExpVector evzero;
 
 
+    /**
+     * The storage unit of the exponent vectors created by this ring.
+     */
+    protected final ExpVector.StorUnit storunit;
+
+
+    /**
+     * Flag to select the heap based multiplication of polynomials. If false
+     * the TreeMap based multiplication is used.
+     */
+    protected final boolean heapMultiply;
+
+
     /**
      * A default random sequence generator.
      */
@@ -204,10 +219,41 @@ public class GenPolynomialRing<C extends RingElem<C>> implements RingFactory<Gen
      * @param v names for the variables.
      */
     public GenPolynomialRing(RingFactory<C> cf, int n, TermOrder t, String[] v) {
+        this(cf, n, t, v, ExpVector.storunit);
+    }
+
+
+    /**
+     * The constructor creates a polynomial factory object.
+     * @param cf factory for coefficients of type C.
+     * @param n number of variables.
+     * @param t a term order.
+     * @param v names for the variables.
+     * @param su storage unit for the exponent vectors of this ring.
+     */
+    public GenPolynomialRing(RingFactory<C> cf, int n, TermOrder t, String[] v, ExpVector.StorUnit su) {
+        this(cf, n, t, v, su, true);
+    }
+
+
+    /**
+     * The constructor creates a polynomial factory object.
+     * @param cf factory for coefficients of type C.
+     * @param n number of variables.
+     * @param t a term order.
+     * @param v names for the variables.
+     * @param su storage unit for the exponent vectors of this ring.
+     * @param heap true for heap based multiplication, false for the TreeMap
+     *            based multiplication.
+     */
+    public GenPolynomialRing(RingFactory<C> cf, int n, TermOrder t, String[] v, ExpVector.StorUnit su,
+                    boolean heap) {
         coFac = cf;
         nvar = n;
         tord = t;
         partial = false;
+        storunit = su;
+        heapMultiply = heap;
         if (v == null) {
             vars = null;
         } else {
@@ -215,7 +261,7 @@ public class GenPolynomialRing<C extends RingElem<C>> implements RingFactory<Gen
         }
         ZERO = new GenPolynomial<C>(this);
         C coeff = coFac.getONE();
-        evzero = ExpVector.create(nvar);
+        evzero = ExpVector.create(storunit, nvar);
         ONE = new GenPolynomial<C>(this, coeff, evzero);
         if (vars == null) {
             if (PrettyPrint.isTrue()) {
@@ -238,7 +284,7 @@ public class GenPolynomialRing<C extends RingElem<C>> implements RingFactory<Gen
      * @param o other polynomial ring.
      */
     public GenPolynomialRing(RingFactory<C> cf, GenPolynomialRing o) {
-        this(cf, o.nvar, o.tord, o.vars);
+        this(cf, o.nvar, o.tord, o.vars, o.storunit, o.heapMultiply);
     }
 
 
@@ -250,7 +296,34 @@ public class GenPolynomialRing<C extends RingElem<C>> implements RingFactory<Gen
      * @param o other polynomial ring.
      */
     public GenPolynomialRing(GenPolynomialRing<C> o, TermOrder to) {
-        this(o.coFac, o.nvar, to, o.vars);
+        this(o.coFac, o.nvar, to, o.vars, o.storunit, o.heapMultiply);
+    }
+
+
+    /**
+     * The constructor creates a polynomial factory object with the the same
+     * coefficient factory, number of variables, term order and variable names
+     * as the given polynomial factory, only the storage unit of the exponent
+     * vectors differs.
+     * @param o other polynomial ring.
+     * @param su storage unit for the exponent vectors.
+     */
+    public GenPolynomialRing(GenPolynomialRing<C> o, ExpVector.StorUnit su) {
+        this(o.coFac, o.nvar, o.tord, o.vars, su, o.heapMultiply);
+    }
+
+
+    /**
+     * The constructor creates a polynomial factory object with the the same
+     * coefficient factory, number of variables, term order, variable names
+     * and storage unit as the given polynomial factory, only the
+     * multiplication algorithm differs.
+     * @param o other polynomial ring.
+     * @param heap true for heap based multiplication, false for the TreeMap
+     *            based multiplication.
+     */
+    public GenPolynomialRing(GenPolynomialRing<C> o, boolean heap) {
+        this(o.coFac, o.nvar, o.tord, o.vars, o.storunit, heap);
     }
 
 
@@ -431,6 +504,127 @@ public class GenPolynomialRing<C extends RingElem<C>> implements RingFactory<Gen
     }
 
 
+    /**
+     * Get the storage unit of the exponent vectors.
+     * @return the storage unit used for new exponent vectors of this ring.
+     */
+    public ExpVector.StorUnit getStorUnit() {
+        return storunit;
+    }
+
+
+    /**
+     * Query if heap based multiplication is used.
+     * @return true if polynomials of this ring are multiplied with the heap
+     *         based algorithm, else false.
+     */
+    public boolean isHeapMultiply() {
+        return heapMultiply;
+    }
+
+
+    /**
+     * Storage unit of the exponent vectors for a degree bound. The packed
+     * storage unit is selected for at most 16 variables and exponents up to
+     * 255, otherwise the narrowest of byte, short, int and long. Exponents
+     * which do not fit into the storage unit are stored in a wider storage
+     * unit.
+     * @param d maximal exponent of any variable.
+     * @return storage unit for d, use it with
+     *         <code>GenPolynomialRing(ring, su)</code>.
+     */
+    public ExpVector.StorUnit degreeStorUnit(long d) {
+        return degreeStorUnit(nvar, d);
+    }
+
+
+    /**
+     * Storage unit of the exponent vectors for a number of variables and a
+     * degree bound.
+     * @param n number of variables.
+     * @param d maximal exponent of any variable.
+     * @return storage unit for n and d.
+     */
+    static ExpVector.StorUnit degreeStorUnit(int n, long d) {
+        ExpVector.StorUnit su;
+        if (n <= ExpVectorPacked.MAX_VARS && d >= 0L && d <= ExpVectorPacked.MAX_EXP) {
+            su = ExpVector.StorUnit.PACKED;
+        } else {
+            su = ExpVector.storUnit(d);
+        }
+        logger.debug("storage unit {} for degree bound {}", su, d);
+        return su;
+    }
+
+
+    /**
+     * Storage unit of the exponent vectors for a ring with n variables, which
+     * is derived from this ring. The storage unit of this ring is kept, the
+     * packed storage unit is recomputed for a different number of variables.
+     * @param n number of variables of the derived ring.
+     * @return storage unit for the derived ring.
+     */
+    ExpVector.StorUnit derivedStorUnit(int n) {
+        if (n == nvar || storunit != ExpVector.StorUnit.PACKED) {
+            return storunit;
+        }
+        return degreeStorUnit(n, ExpVectorPacked.MAX_EXP);
+    }
+
+
+    /**
+     * Storage unit of the exponent vectors for the degrees of given
+     * polynomials.
+     * @param L list of polynomials of this ring.
+     * @return storage unit for L, use it with
+     *         <code>GenPolynomialRing(ring, su)</code>.
+     */
+    public ExpVector.StorUnit selectStorUnit(Collection<? extends GenPolynomial<C>> L) {
+        long d = 0L;
+        for (GenPolynomial<C> p : L) {
+            if (p == null) {
+                continue;
+            }
+            for (ExpVector e : p.val.keySet()) {
+                long m = e.maxDeg();
+                if (m > d) {
+                    d = m;
+                }
+                m = -e.minDeg();
+                if (m > d) { // negative exponents
+                    d = Long.MAX_VALUE;
+                }
+            }
+        }
+        return degreeStorUnit(d);
+    }
+
+
+    /**
+     * Create an exponent vector with the storage unit of this ring.
+     * @param v exponents.
+     * @return exponent vector of v.
+     */
+    public ExpVector createExpVector(long[] v) {
+        return ExpVector.create(storunit, v);
+    }
+
+
+    /**
+     * Convert the exponent vectors of a polynomial to the storage unit of
+     * this ring.
+     * @param c polynomial of this ring.
+     * @return c with exponent vectors of the storage unit of this ring.
+     */
+    public GenPolynomial<C> toStorUnit(GenPolynomial<C> c) {
+        GenPolynomial<C> p = getZERO().copy();
+        for (Map.Entry<ExpVector, C> me : c.val.entrySet()) {
+            p.doPutToMap(createExpVector(me.getKey().getVal()), me.getValue());
+        }
+        return p;
+    }
+
+
     /**
      * Get the variable names.
      * @return vars.
@@ -689,6 +883,9 @@ public class GenPolynomialRing<C extends RingElem<C>> implements RingFactory<Gen
         // add l random coeffs and exponents
         for (int i = 0; i < l; i++) {
             e = ExpVector.random(nvar, d, q, rnd);
+            if (storunit != ExpVector.storunit) {
+                e = createExpVector(e.getVal());
+            }
             a = coFac.random(k, rnd);
             r = r.sum(a, e); // somewhat inefficient but clean
             //System.out.println("e = " + e + " a = " + a);
@@ -828,7 +1025,7 @@ public class GenPolynomialRing<C extends RingElem<C>> implements RingFactory<Gen
         int r = nvar - modv;
         if (0 <= i && i < r) {
             C one = coFac.getONE();
-            ExpVector f = ExpVector.create(r, i, e);
+            ExpVector f = ExpVector.create(storunit, r, i, e);
             if (modv > 0) {
                 f = f.extend(modv, 0, 0l);
             }
@@ -989,7 +1186,8 @@ public class GenPolynomialRing<C extends RingElem<C>> implements RingFactory<Gen
             v[vars.length + k] = vn[k];
         }
         TermOrder to = tord.extend(nvar, i, top);
-        GenPolynomialRing<C> pfac = new GenPolynomialRing<C>(coFac, nvar + i, to, v);
+        GenPolynomialRing<C> pfac = new GenPolynomialRing<C>(coFac, nvar + i, to, v,
+                        derivedStorUnit(nvar + i), heapMultiply);
         return pfac;
     }
 
@@ -1023,7 +1221,8 @@ public class GenPolynomialRing<C extends RingElem<C>> implements RingFactory<Gen
             v[vn.length + k] = vars[k];
         }
         TermOrder to = tord.extendLower(nvar, i);
-        GenPolynomialRing<C> pfac = new GenPolynomialRing<C>(coFac, nvar + i, to, v);
+        GenPolynomialRing<C> pfac = new GenPolynomialRing<C>(coFac, nvar + i, to, v,
+                        derivedStorUnit(nvar + i), heapMultiply);
         return pfac;
     }
 
@@ -1043,7 +1242,8 @@ public class GenPolynomialRing<C extends RingElem<C>> implements RingFactory<Gen
             }
         }
         TermOrder to = tord.contract(i, nvar - i);
-        GenPolynomialRing<C> pfac = new GenPolynomialRing<C>(coFac, nvar - i, to, v);
+        GenPolynomialRing<C> pfac = new GenPolynomialRing<C>(coFac, nvar - i, to, v,
+                        derivedStorUnit(nvar - i), heapMultiply);
         return pfac;
     }
 
@@ -1067,7 +1267,8 @@ public class GenPolynomialRing<C extends RingElem<C>> implements RingFactory<Gen
             }
         }
         TermOrder to = tord.contract(0, i); // ??
-        GenPolynomialRing<GenPolynomial<C>> pfac = new GenPolynomialRing<GenPolynomial<C>>(cfac, i, to, v);
+        GenPolynomialRing<GenPolynomial<C>> pfac = new GenPolynomialRing<GenPolynomial<C>>(cfac, i, to, v,
+                        derivedStorUnit(i), heapMultiply);
         return pfac;
     }
 
@@ -1133,7 +1334,7 @@ public class GenPolynomialRing<C extends RingElem<C>> implements RingFactory<Gen
             //System.out.println("v    = " + Arrays.toString(v));
         }
         TermOrder to = tord.reverse(partial);
-        GenPolynomialRing<C> pfac = new GenPolynomialRing<C>(coFac, nvar, to, v);
+        GenPolynomialRing<C> pfac = new GenPolynomialRing<C>(coFac, nvar, to, v, storunit, heapMultiply);
         pfac.partial = partial;
         return pfac;
     }
@@ -1249,7 +1450,7 @@ public class GenPolynomialRing<C extends RingElem<C>> implements RingFactory<Gen
         }
         TermOrder tp = tord.permutation(P);
         if (vars == null) {
-            return new GenPolynomialRing<C>(coFac, nvar, tp);
+            return new GenPolynomialRing<C>(coFac, nvar, tp, null, storunit, heapMultiply);
         }
         String[] v1 = new String[vars.length];
         for (int i = 0; i < v1.length; i++) {
@@ -1260,7 +1461,7 @@ public class GenPolynomialRing<C extends RingElem<C>> implements RingFactory<Gen
         for (int i = 0; i < vp.length; i++) {
             v2[i] = vp[vp.length - 1 - i];
         }
-        return new GenPolynomialRing<C>(coFac, nvar, tp, v2);
+        return new GenPolynomialRing<C>(coFac, nvar, tp, v2, storunit, heapMultiply);
     }
 
 
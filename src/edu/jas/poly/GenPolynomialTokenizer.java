@@ -503,7 +503,7 @@ public class GenPolynomialTokenizer {
                         //  System.out.println("ix: " + ix);
                         ie = nextExponent();
                         //  System.out.println("ie: " + ie);
-                        e = ExpVector.create(vars.length, ix, ie);
+                        e = ExpVector.create(pfac.getStorUnit(), vars.length, ix, ie);
                         b = b.multiply(e);
                     }
                     tt = tok.nextToken();
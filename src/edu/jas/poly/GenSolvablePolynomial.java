@@ -537,26 +537,7 @@ public class GenSolvablePolynomial<C extends RingElem<C>> extends GenPolynomial<
             return S.multiplyLeft(a.negate());
         }
         assert (ring.nvar == S.ring.nvar);
-        GenSolvablePolynomial<C> n = this.copy();
-        SortedMap<ExpVector, C> nv = n.val;
-        SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
-            ExpVector f = me.getKey();
-            C y = me.getValue(); // assert y != null
-            y = a.multiply(y);
-            C x = nv.get(f);
-            if (x != null) {
-                x = x.subtract(y);
-                if (!x.isZERO()) {
-                    nv.put(f, x);
-                } else {
-                    nv.remove(f);
-                }
-            } else if (!y.isZERO()) {
-                nv.put(f, y.negate());
-            }
-        }
-        return n;
+        return (GenSolvablePolynomial<C>) this.mergeMultiple(a, null, S, true);
     }
 
 
@@ -578,28 +559,8 @@ public class GenSolvablePolynomial<C extends RingElem<C>> extends GenPolynomial<
             return S.multiplyLeft(a.negate(), e);
         }
         assert (ring.nvar == S.ring.nvar);
-        GenSolvablePolynomial<C> n = this.copy();
-        SortedMap<ExpVector, C> nv = n.val;
         GenSolvablePolynomial<C> s = S.multiplyLeft(e);
-        SortedMap<ExpVector, C> sv = s.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
-            ExpVector f = me.getKey();
-            //f = e.sum(f);
-            C y = me.getValue(); // assert y != null
-            y = a.multiply(y);
-            C x = nv.get(f);
-            if (x != null) {
-                x = x.subtract(y);
-                if (!x.isZERO()) {
-                    nv.put(f, x);
-                } else {
-                    nv.remove(f);
-                }
-            } else if (!y.isZERO()) {
-                nv.put(f, y.negate());
-            }
-        }
-        return n;
+        return (GenSolvablePolynomial<C>) this.mergeMultiple(a, null, s, true);
     }
 
 
@@ -625,26 +586,7 @@ public class GenSolvablePolynomial<C extends RingElem<C>> extends GenPolynomial<
         }
         assert (ring.nvar == S.ring.nvar);
         GenSolvablePolynomial<C> n = this.multiplyLeft(b);
-        SortedMap<ExpVector, C> nv = n.val;
-        SortedMap<ExpVector, C> sv = S.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
-            ExpVector f = me.getKey();
-            //f = e.sum(f);
-            C y = me.getValue(); // assert y != null
-            y = a.multiply(y); // now y can be zero
-            C x = nv.get(f);
-            if (x != null) {
-                x = x.subtract(y);
-                if (!x.isZERO()) {
-                    nv.put(f, x);
-                } else {
-                    nv.remove(f);
-                }
-            } else if (!y.isZERO()) {
-                nv.put(f, y.negate());
-            }
-        }
-        return n;
+        return (GenSolvablePolynomial<C>) n.mergeMultiple(a, null, S, true);
     }
 
 
@@ -671,27 +613,8 @@ public class GenSolvablePolynomial<C extends RingElem<C>> extends GenPolynomial<
         }
         assert (ring.nvar == S.ring.nvar);
         GenSolvablePolynomial<C> n = this.multiplyLeft(b);
-        SortedMap<ExpVector, C> nv = n.val;
         GenSolvablePolynomial<C> s = S.multiplyLeft(e);
-        SortedMap<ExpVector, C> sv = s.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
-            ExpVector f = me.getKey();
-            //f = e.sum(f);
-            C y = me.getValue(); // assert y != null
-            y = a.multiply(y); // now y can be zero
-            C x = nv.get(f);
-            if (x != null) {
-                x = x.subtract(y);
-                if (!x.isZERO()) {
-                    nv.put(f, x);
-                } else {
-                    nv.remove(f);
-                }
-            } else if (!y.isZERO()) {
-                nv.put(f, y.negate());
-            }
-        }
-        return n;
+        return (GenSolvablePolynomial<C>) n.mergeMultiple(a, null, s, true);
     }
 
 
@@ -720,27 +643,8 @@ public class GenSolvablePolynomial<C extends RingElem<C>> extends GenPolynomial<
         }
         assert (ring.nvar == S.ring.nvar);
         GenSolvablePolynomial<C> n = this.multiplyLeft(b, g);
-        SortedMap<ExpVector, C> nv = n.val;
         GenSolvablePolynomial<C> s = S.multiplyLeft(e);
-        SortedMap<ExpVector, C> sv = s.val;
-        for (Map.Entry<ExpVector, C> me : sv.entrySet()) {
-            ExpVector f = me.getKey();
-            //f = e.sum(f);
-            C y = me.getValue(); // assert y != null
-            y = a.multiply(y); // y can be zero now
-            C x = nv.get(f);
-            if (x != null) {
-                x = x.subtract(y);
-                if (!x.isZERO()) {
-                    nv.put(f, x);
-                } else {
-                    nv.remove(f);
-                }
-            } else if (!y.isZERO()) {
-                nv.put(f, y.negate());
-            }
-        }
-        return n;
+        return (GenSolvablePolynomial<C>) n.mergeMultiple(a, null, s, true);
     }
 
 
@@ -0,0 +1,354 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.structure.RingElem;
+import edu.jas.util.MapEntry;
+
+
+/**
+ * Geobucket accumulator for polynomials. A geobucket represents a polynomial
+ * as a sum of polynomials of geometrically growing lengths. Adding a
+ * polynomial of length l costs amortized O(l log(n)) instead of O(n), where n
+ * is the length of the accumulated polynomial. The leading monomial is
+ * determined by combining the leading terms of the buckets. Geobuckets are
+ * intended for reduction algorithms, where many short polynomials are
+ * subtracted from a long polynomial. See T. Yan, "The geobucket data
+ * structure for polynomials", J. Symb. Comp. 25 (1998).
+ * <b>Note:</b> this class is mutable and not thread safe. Coefficient
+ * multiplications are from the left, like in
+ * <code>GenPolynomial.subtractMultiple()</code>.
+ * @param <C> coefficient type
+ * @author agent
+ */
+
+public class GeoBucket<C extends RingElem<C>> {
+
+
+    private static final Logger logger = LogManager.getLogger(GeoBucket.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * The factory for the polynomials.
+     */
+    public final GenPolynomialRing<C> ring;
+
+
+    /**
+     * The descending term order comparator.
+     */
+    protected final Comparator<ExpVector> cmp;
+
+
+    /**
+     * The buckets, the i-th bucket has at most base<sup>i+1</sup> terms.
+     */
+    protected final List<GenPolynomial<C>> bucket;
+
+
+    /**
+     * The base of the geometric bucket lengths.
+     */
+    protected final int base;
+
+
+    /**
+     * Index of the bucket containing the combined leading monomial, or -1 if
+     * the leading monomial is not computed.
+     */
+    protected int lead;
+
+
+    /**
+     * Constructor.
+     * @param ring polynomial factory.
+     */
+    public GeoBucket(GenPolynomialRing<C> ring) {
+        this(ring, 4);
+    }
+
+
+    /**
+     * Constructor.
+     * @param ring polynomial factory.
+     * @param base base of the geometric bucket lengths, at least 2.
+     */
+    public GeoBucket(GenPolynomialRing<C> ring, int base) {
+        this.ring = ring;
+        if (base < 2) {
+            throw new IllegalArgumentException("base must be at least 2: " + base);
+        }
+        this.base = base;
+        cmp = ring.tord.getDescendComparator();
+        bucket = new ArrayList<GenPolynomial<C>>();
+        lead = -1;
+    }
+
+
+    /**
+     * Constructor.
+     * @param p initial polynomial, p is not modified.
+     */
+    public GeoBucket(GenPolynomial<C> p) {
+        this(p.ring);
+        add(p);
+    }
+
+
+    /**
+     * String representation of the geobucket.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "GeoBucket" + bucket;
+    }
+
+
+    /**
+     * Test if the geobucket represents the zero polynomial.
+     * @return true, if the sum of the buckets is 0, else false.
+     */
+    public boolean isZERO() {
+        return leadingMonomial() == null;
+    }
+
+
+    /**
+     * Upper bound for the number of terms.
+     * @return sum of the lengths of all buckets.
+     */
+    public int length() {
+        int l = 0;
+        for (GenPolynomial<C> b : bucket) {
+            l += b.length();
+        }
+        return l;
+    }
+
+
+    /**
+     * Add a polynomial to this geobucket.
+     * @param p polynomial, p is not modified.
+     */
+    public void add(GenPolynomial<C> p) {
+        if (p == null || p.isZERO()) {
+            return;
+        }
+        addOwned(p.copy());
+    }
+
+
+    /**
+     * Subtract a polynomial from this geobucket.
+     * @param p polynomial, p is not modified.
+     */
+    public void subtract(GenPolynomial<C> p) {
+        if (p == null || p.isZERO()) {
+            return;
+        }
+        addOwned(p.negate());
+    }
+
+
+    /**
+     * Subtract a multiple of a polynomial from this geobucket.
+     * @param a coefficient.
+     * @param e exponent.
+     * @param p polynomial, p is not modified.
+     */
+    public void subtractMultiple(C a, ExpVector e, GenPolynomial<C> p) {
+        if (a == null || a.isZERO() || p == null || p.isZERO()) {
+            return;
+        }
+        SortedTermMap<C> tm = new SortedTermMap<C>(cmp, p.length());
+        for (Map.Entry<ExpVector, C> me : p.val.entrySet()) {
+            C y = a.multiply(me.getValue()).negate();
+            tm.append(e.sum(me.getKey()), y); // zeros are dropped
+        }
+        if (tm.size() == 0) {
+            return;
+        }
+        addOwned(new GenPolynomial<C>(ring, tm));
+    }
+
+
+    /**
+     * Multiply this geobucket by a coefficient from the right.
+     * @param c coefficient.
+     */
+    public void multiply(C c) {
+        for (int i = 0; i < bucket.size(); i++) {
+            GenPolynomial<C> b = bucket.get(i);
+            if (!b.isZERO()) {
+                bucket.set(i, b.multiply(c));
+            }
+        }
+        lead = -1;
+    }
+
+
+    /**
+     * Add a polynomial owned by this geobucket.
+     * @param p polynomial which is not referenced elsewhere.
+     */
+    protected void addOwned(GenPolynomial<C> p) {
+        lead = -1;
+        int i = bucketIndex(p.length());
+        while (bucket.size() <= i) {
+            bucket.add(ring.getZERO());
+        }
+        GenPolynomial<C> b = bucket.get(i);
+        if (!b.isZERO()) {
+            p = b.sum(p);
+        }
+        // propagate overflowing buckets
+        while (bucketIndex(p.length()) > i) {
+            bucket.set(i, ring.getZERO());
+            i++;
+            if (bucket.size() <= i) {
+                bucket.add(p);
+                return;
+            }
+            b = bucket.get(i);
+            if (!b.isZERO()) {
+                p = b.sum(p);
+            }
+        }
+        bucket.set(i, p);
+    }
+
+
+    /**
+     * Bucket index for a polynomial length.
+     * @param l length.
+     * @return minimal i with l &le; base<sup>i+1</sup>.
+     */
+    protected int bucketIndex(int l) {
+        int i = 0;
+        long c = base;
+        while (l > c) {
+            c *= base;
+            i++;
+        }
+        return i;
+    }
+
+
+    /**
+     * Leading monomial. The leading terms of the buckets are combined, such
+     * that the leading monomial is contained in exactly one bucket.
+     * @return first map entry or null if this geobucket represents 0.
+     */
+    public Map.Entry<ExpVector, C> leadingMonomial() {
+        while (true) {
+            int k = -1;
+            ExpVector e = null;
+            for (int i = 0; i < bucket.size(); i++) {
+                GenPolynomial<C> b = bucket.get(i);
+                if (b.isZERO()) {
+                    continue;
+                }
+                ExpVector f = b.val.firstKey();
+                if (e == null || cmp.compare(f, e) < 0) {
+                    e = f;
+                    k = i;
+                }
+            }
+            if (k < 0) {
+                lead = -1;
+                return null;
+            }
+            GenPolynomial<C> bk = bucket.get(k);
+            C c = bk.val.get(e);
+            boolean merged = false;
+            for (int i = k + 1; i < bucket.size(); i++) {
+                GenPolynomial<C> b = bucket.get(i);
+                if (b.isZERO()) {
+                    continue;
+                }
+                if (e.equals(b.val.firstKey())) {
+                    c = c.sum(b.val.get(e));
+                    b.doRemoveFromMap(e, null);
+                    merged = true;
+                }
+            }
+            if (merged) {
+                bk.doRemoveFromMap(e, null);
+                if (c.isZERO()) {
+                    continue;
+                }
+                bk.doPutToMap(e, c);
+            }
+            lead = k;
+            return new MapEntry<ExpVector, C>(e, c);
+        }
+    }
+
+
+    /**
+     * Leading exponent vector.
+     * @return first exponent or null if this geobucket represents 0.
+     */
+    public ExpVector leadingExpVector() {
+        Map.Entry<ExpVector, C> m = leadingMonomial();
+        if (m == null) {
+            return null;
+        }
+        return m.getKey();
+    }
+
+
+    /**
+     * Remove the leading monomial.
+     * @return the removed leading monomial or null if this geobucket
+     *         represents 0.
+     */
+    public Map.Entry<ExpVector, C> removeLeadingMonomial() {
+        Map.Entry<ExpVector, C> m = leadingMonomial();
+        if (m == null) {
+            return null;
+        }
+        bucket.get(lead).doRemoveFromMap(m.getKey(), null);
+        lead = -1;
+        return m;
+    }
+
+
+    /**
+     * Sum of all buckets.
+     * @return the polynomial represented by this geobucket.
+     */
+    public GenPolynomial<C> getPolynomial() {
+        GenPolynomial<C> p = ring.getZERO();
+        for (GenPolynomial<C> b : bucket) {
+            if (b.isZERO()) {
+                continue;
+            }
+            if (p.isZERO()) {
+                p = b.copy(); // buckets are modified later
+            } else {
+                p = p.sum(b);
+            }
+        }
+        if (debug) {
+            logger.debug("buckets = {}, length = {}", bucket.size(), p.length());
+        }
+        return p;
+    }
+
+}
@@ -0,0 +1,765 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import edu.jas.arith.Modular;
+import edu.jas.structure.NotInvertibleException;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Polynomial with word size modular coefficients stored in arrays. The terms
+ * are stored in parallel arrays of exponent vectors and int residues, sorted
+ * descending with respect to the term order of the ring. Compared to
+ * GenPolynomial there are no TreeMap nodes and no coefficient objects, which
+ * reduces the memory per term considerably. Conversion from and to
+ * GenPolynomial is provided by <code>ModArrayPolynomialRing</code> and
+ * <code>toGenPolynomial()</code>. Objects of this class are immutable.
+ * @param <C> coefficient type, ModLong or ModInt
+ * @author agent
+ */
+
+public final class ModArrayPolynomial<C extends RingElem<C> & Modular>
+                implements RingElem<ModArrayPolynomial<C>> {
+
+
+    /**
+     * The factory for the polynomial.
+     */
+    public final ModArrayPolynomialRing<C> ring;
+
+
+    /**
+     * The exponent vectors, sorted descending.
+     */
+    final ExpVector[] exps;
+
+
+    /**
+     * The residues of the coefficients, nonzero and less than the modulus.
+     */
+    final int[] coef;
+
+
+    /**
+     * Cached hash code, 0 if not computed.
+     */
+    private int hash = 0;
+
+
+    /**
+     * Constructor. The terms must be sorted descending and the coefficients
+     * must be reduced and nonzero.
+     * @param ring polynomial factory.
+     * @param e exponent vectors.
+     * @param c coefficient residues.
+     * @param len number of terms.
+     */
+    ModArrayPolynomial(ModArrayPolynomialRing<C> ring, ExpVector[] e, int[] c, int len) {
+        this.ring = ring;
+        if (e.length != len) {
+            e = Arrays.copyOf(e, len);
+            c = Arrays.copyOf(c, len);
+        }
+        exps = e;
+        coef = c;
+    }
+
+
+    /**
+     * Get the corresponding element factory.
+     * @return factory for this Element.
+     * @see edu.jas.structure.Element#factory()
+     */
+    public ModArrayPolynomialRing<C> factory() {
+        return ring;
+    }
+
+
+    /**
+     * Copy this polynomial.
+     * @return this, since polynomials are immutable.
+     */
+    public ModArrayPolynomial<C> copy() {
+        return this;
+    }
+
+
+    /**
+     * Conversion to GenPolynomial.
+     * @return this as GenPolynomial.
+     */
+    public GenPolynomial<C> toGenPolynomial() {
+        if (exps.length == 0) {
+            return ring.ring.getZERO();
+        }
+        SortedTermMap<C> tm = new SortedTermMap<C>(ring.cmp, exps.length);
+        for (int i = 0; i < exps.length; i++) {
+            tm.append(exps[i], ring.coefficient(coef[i]));
+        }
+        return new GenPolynomial<C>(ring.ring, tm);
+    }
+
+
+    /**
+     * Number of terms.
+     * @return number of terms of this polynomial.
+     */
+    public int length() {
+        return exps.length;
+    }
+
+
+    /**
+     * Exponent vector of a term.
+     * @param i term index, 0 is the leading term.
+     * @return i-th exponent vector.
+     */
+    public ExpVector getExpVector(int i) {
+        return exps[i];
+    }
+
+
+    /**
+     * Residue of a coefficient.
+     * @param i term index, 0 is the leading term.
+     * @return i-th coefficient residue.
+     */
+    public long getResidue(int i) {
+        return coef[i];
+    }
+
+
+    /**
+     * Leading exponent vector.
+     * @return first exponent or null if this is 0.
+     */
+    public ExpVector leadingExpVector() {
+        if (exps.length == 0) {
+            return null;
+        }
+        return exps[0];
+    }
+
+
+    /**
+     * Leading base coefficient.
+     * @return first coefficient.
+     */
+    public C leadingBaseCoefficient() {
+        if (exps.length == 0) {
+            return ring.ring.coFac.getZERO();
+        }
+        return ring.coefficient(coef[0]);
+    }
+
+
+    /**
+     * Is this polynomial zero.
+     * @return true if this is 0, else false.
+     */
+    public boolean isZERO() {
+        return exps.length == 0;
+    }
+
+
+    /**
+     * Is this polynomial one.
+     * @return true if this is 1, else false.
+     */
+    public boolean isONE() {
+        return exps.length == 1 && coef[0] == 1 && exps[0].isZERO();
+    }
+
+
+    /**
+     * Is this polynomial a constant.
+     * @return true if this is constant, else false.
+     */
+    public boolean isConstant() {
+        return exps.length == 0 || (exps.length == 1 && exps[0].isZERO());
+    }
+
+
+    /**
+     * Is this polynomial a unit.
+     * @return true if this is a constant unit, else false.
+     */
+    public boolean isUnit() {
+        return exps.length == 1 && exps[0].isZERO() && ring.coefficient(coef[0]).isUnit();
+    }
+
+
+    /**
+     * Signum.
+     * @return sign of the leading coefficient.
+     */
+    public int signum() {
+        return (exps.length == 0) ? 0 : 1;
+    }
+
+
+    /**
+     * Absolute value.
+     * @return this, since the coefficients are nonnegative residues.
+     */
+    public ModArrayPolynomial<C> abs() {
+        return this;
+    }
+
+
+    /**
+     * Negation.
+     * @return -this.
+     */
+    public ModArrayPolynomial<C> negate() {
+        int n = exps.length;
+        int[] c = new int[n];
+        for (int i = 0; i < n; i++) {
+            c[i] = (int) (ring.modul - coef[i]);
+        }
+        return new ModArrayPolynomial<C>(ring, exps, c, n);
+    }
+
+
+    /**
+     * Sum.
+     * @param S polynomial.
+     * @return this+S.
+     */
+    public ModArrayPolynomial<C> sum(ModArrayPolynomial<C> S) {
+        if (S.isZERO()) {
+            return this;
+        }
+        if (this.isZERO()) {
+            return S;
+        }
+        return merge(exps, coef, 0, 1L, null, S);
+    }
+
+
+    /**
+     * Difference.
+     * @param S polynomial.
+     * @return this-S.
+     */
+    public ModArrayPolynomial<C> subtract(ModArrayPolynomial<C> S) {
+        if (S.isZERO()) {
+            return this;
+        }
+        return merge(exps, coef, 0, ring.modul - 1L, null, S);
+    }
+
+
+    /**
+     * Linear merge of a term range and a monomial multiple of S.
+     * @param ae exponent vectors.
+     * @param ac coefficient residues.
+     * @param a0 start index in ae and ac.
+     * @param a coefficient residue of the multiple.
+     * @param g exponent vector of the multiple, null for 1.
+     * @param S polynomial.
+     * @return ae[a0..] + a x<sup>g</sup> S.
+     */
+    ModArrayPolynomial<C> merge(ExpVector[] ae, int[] ac, int a0, long a, ExpVector g,
+                    ModArrayPolynomial<C> S) {
+        final long m = ring.modul;
+        final Comparator<ExpVector> cmp = ring.cmp;
+        ExpVector[] be = S.exps;
+        int[] bc = S.coef;
+        int n = ae.length - a0 + be.length;
+        ExpVector[] e = new ExpVector[n];
+        int[] c = new int[n];
+        int k = 0;
+        int i = a0;
+        int j = 0;
+        ExpVector f = null;
+        while (i < ae.length && j < be.length) {
+            if (f == null) {
+                f = (g == null) ? be[j] : g.sum(be[j]);
+            }
+            int s = cmp.compare(ae[i], f);
+            if (s < 0) {
+                e[k] = ae[i];
+                c[k++] = ac[i++];
+            } else if (s > 0) {
+                long r = (a * bc[j++]) % m;
+                if (r != 0L) {
+                    e[k] = f;
+                    c[k++] = (int) r;
+                }
+                f = null;
+            } else {
+                long r = (ac[i] + a * bc[j++]) % m;
+                if (r != 0L) {
+                    e[k] = ae[i];
+                    c[k++] = (int) r;
+                }
+                i++;
+                f = null;
+            }
+        }
+        while (i < ae.length) {
+            e[k] = ae[i];
+            c[k++] = ac[i++];
+        }
+        while (j < be.length) {
+            if (f == null) {
+                f = (g == null) ? be[j] : g.sum(be[j]);
+            }
+            long r = (a * bc[j++]) % m;
+            if (r != 0L) {
+                e[k] = f;
+                c[k++] = (int) r;
+            }
+            f = null;
+        }
+        return new ModArrayPolynomial<C>(ring, e, c, k);
+    }
+
+
+    /**
+     * Multiplication by a coefficient.
+     * @param s coefficient.
+     * @return this*s.
+     */
+    public ModArrayPolynomial<C> multiply(C s) {
+        return multiply(s, null);
+    }
+
+
+    /**
+     * Multiplication by a monomial.
+     * @param s coefficient.
+     * @param g exponent vector, null for 1.
+     * @return this * s x<sup>g</sup>.
+     */
+    public ModArrayPolynomial<C> multiply(C s, ExpVector g) {
+        long a = ring.residue(s);
+        if (a == 0L || this.isZERO()) {
+            return ring.getZERO();
+        }
+        final long m = ring.modul;
+        int n = exps.length;
+        ExpVector[] e = (g == null) ? exps : new ExpVector[n];
+        int[] c = new int[n];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            long r = (a * coef[i]) % m;
+            if (r != 0L) { // zero divisors
+                if (g != null) {
+                    e[k] = g.sum(exps[i]);
+                } else if (k != i) {
+                    e = (e == exps) ? Arrays.copyOf(exps, n) : e;
+                    e[k] = exps[i];
+                }
+                c[k++] = (int) r;
+            }
+        }
+        return new ModArrayPolynomial<C>(ring, e, c, k);
+    }
+
+
+    /**
+     * Monic polynomial.
+     * @return this with leading coefficient 1.
+     */
+    public ModArrayPolynomial<C> monic() {
+        if (this.isZERO() || coef[0] == 1) {
+            return this;
+        }
+        return multiply(ring.coefficient(ring.inverse(coef[0])));
+    }
+
+
+    /**
+     * Multiplication. The product is computed with a heap of the term
+     * products, so the terms of the result are generated in descending order.
+     * @param S polynomial.
+     * @return this*S.
+     */
+    public ModArrayPolynomial<C> multiply(ModArrayPolynomial<C> S) {
+        if (this.isZERO() || S.isZERO()) {
+            return ring.getZERO();
+        }
+        ModArrayPolynomial<C> A = this;
+        ModArrayPolynomial<C> B = S;
+        if (A.length() > B.length()) { // commutative
+            A = S;
+            B = this;
+        }
+        final long m = ring.modul;
+        final Comparator<ExpVector> cmp = ring.cmp;
+        final int n = A.exps.length;
+        final ExpVector[] be = B.exps;
+        final int[] bc = B.coef;
+        ExpVector[] key = new ExpVector[n];
+        int[] pos = new int[n];
+        int[] heap = new int[n];
+        int hs = 0;
+        for (int i = 0; i < n; i++) {
+            key[i] = A.exps[i].sum(be[0]);
+            hs = heapPush(heap, hs, key, i, cmp);
+        }
+        ExpVector[] e = new ExpVector[Math.max(n, be.length)];
+        int[] c = new int[e.length];
+        int k = 0;
+        while (hs > 0) {
+            int i = heap[0];
+            ExpVector f = key[i];
+            long r = 0L;
+            do {
+                i = heap[0];
+                hs = heapPop(heap, hs, key, cmp);
+                r = (r + (long) A.coef[i] * bc[pos[i]]) % m;
+                pos[i]++;
+                if (pos[i] < be.length) {
+                    key[i] = A.exps[i].sum(be[pos[i]]);
+                    hs = heapPush(heap, hs, key, i, cmp);
+                }
+            } while (hs > 0 && cmp.compare(key[heap[0]], f) == 0);
+            if (r != 0L) {
+                if (k == e.length) {
+                    e = Arrays.copyOf(e, 2 * k);
+                    c = Arrays.copyOf(c, 2 * k);
+                }
+                e[k] = f;
+                c[k++] = (int) r;
+            }
+        }
+        return new ModArrayPolynomial<C>(ring, e, c, k);
+    }
+
+
+    /**
+     * Insert into a binary heap of indexes ordered by their keys.
+     * @return new heap size.
+     */
+    private static int heapPush(int[] heap, int hs, ExpVector[] key, int i, Comparator<ExpVector> cmp) {
+        int p = hs++;
+        while (p > 0) {
+            int q = (p - 1) >> 1;
+            if (cmp.compare(key[heap[q]], key[i]) <= 0) {
+                break;
+            }
+            heap[p] = heap[q];
+            p = q;
+        }
+        heap[p] = i;
+        return hs;
+    }
+
+
+    /**
+     * Remove the top of a binary heap of indexes ordered by their keys.
+     * @return new heap size.
+     */
+    private static int heapPop(int[] heap, int hs, ExpVector[] key, Comparator<ExpVector> cmp) {
+        int x = heap[--hs];
+        int p = 0;
+        while (true) {
+            int q = 2 * p + 1;
+            if (q >= hs) {
+                break;
+            }
+            if (q + 1 < hs && cmp.compare(key[heap[q + 1]], key[heap[q]]) < 0) {
+                q++;
+            }
+            if (cmp.compare(key[x], key[heap[q]]) <= 0) {
+                break;
+            }
+            heap[p] = heap[q];
+            p = q;
+        }
+        heap[p] = x;
+        return hs;
+    }
+
+
+    /**
+     * Quotient and remainder by division of this by S, as for GenPolynomial.
+     * The leading coefficient of S must be invertible.
+     * @param S nonzero polynomial.
+     * @return [ quotient , remainder ] with this = quotient * S + remainder
+     *         and the leading term of the remainder is not a multiple of the
+     *         leading term of S.
+     */
+    @SuppressWarnings("unchecked")
+    public ModArrayPolynomial<C>[] quotientRemainder(ModArrayPolynomial<C> S) {
+        if (S == null || S.isZERO()) {
+            throw new ArithmeticException("division by zero");
+        }
+        C c = S.leadingBaseCoefficient();
+        if (!c.isUnit()) {
+            throw new ArithmeticException("lbcf not invertible " + c);
+        }
+        final long m = ring.modul;
+        long ci = ring.residue(c.inverse());
+        ExpVector e = S.exps[0];
+        ModArrayPolynomial<C> Sn = S.reductum().negate(); // leading terms cancel
+        ExpVector[] qe = new ExpVector[4];
+        int[] qc = new int[4];
+        int k = 0;
+        ModArrayPolynomial<C> r = this;
+        while (!r.isZERO()) {
+            ExpVector f = r.exps[0];
+            if (!f.multipleOf(e)) {
+                break;
+            }
+            ExpVector g = f.subtract(e);
+            long a = (r.coef[0] * ci) % m;
+            if (k == qe.length) {
+                qe = Arrays.copyOf(qe, 2 * k);
+                qc = Arrays.copyOf(qc, 2 * k);
+            }
+            qe[k] = g;
+            qc[k++] = (int) a;
+            r = merge(r.exps, r.coef, 1, a, g, Sn);
+        }
+        ModArrayPolynomial<C>[] ret = new ModArrayPolynomial[2];
+        ret[0] = new ModArrayPolynomial<C>(ring, qe, qc, k);
+        ret[1] = r;
+        return ret;
+    }
+
+
+    /**
+     * Reductum.
+     * @return this without the leading term.
+     */
+    public ModArrayPolynomial<C> reductum() {
+        int n = exps.length;
+        if (n <= 1) {
+            return ring.getZERO();
+        }
+        return new ModArrayPolynomial<C>(ring, Arrays.copyOfRange(exps, 1, n),
+                        Arrays.copyOfRange(coef, 1, n), n - 1);
+    }
+
+
+    /**
+     * Division.
+     * @param S polynomial.
+     * @return quotient of this by S.
+     */
+    public ModArrayPolynomial<C> divide(ModArrayPolynomial<C> S) {
+        return quotientRemainder(S)[0];
+    }
+
+
+    /**
+     * Remainder.
+     * @param S polynomial.
+     * @return remainder of this by S.
+     */
+    public ModArrayPolynomial<C> remainder(ModArrayPolynomial<C> S) {
+        return quotientRemainder(S)[1];
+    }
+
+
+    /**
+     * Inverse.
+     * @return 1/this if this is a unit.
+     */
+    public ModArrayPolynomial<C> inverse() {
+        if (isUnit()) {
+            return ring.getONE().multiply(ring.coefficient(ring.inverse(coef[0])));
+        }
+        throw new NotInvertibleException("element not invertible " + this + " :: " + ring);
+    }
+
+
+    /**
+     * Greatest common divisor. Only for univariate polynomials over fields.
+     * @param S polynomial.
+     * @return monic gcd(this,S).
+     */
+    public ModArrayPolynomial<C> gcd(ModArrayPolynomial<C> S) {
+        if (S == null || S.isZERO()) {
+            return this;
+        }
+        if (this.isZERO()) {
+            return S;
+        }
+        if (ring.ring.nvar != 1) {
+            throw new IllegalArgumentException("not univariate polynomials" + ring);
+        }
+        ModArrayPolynomial<C> x;
+        ModArrayPolynomial<C> q = this;
+        ModArrayPolynomial<C> r = S;
+        while (!r.isZERO()) {
+            x = q.remainder(r);
+            q = r;
+            r = x;
+        }
+        return q.monic(); // normalize
+    }
+
+
+    /**
+     * Extended greatest common divisor. Only for univariate polynomials over
+     * fields.
+     * @param S polynomial.
+     * @return [ gcd(this,S), a, b ] with a*this + b*S = gcd(this,S).
+     */
+    @SuppressWarnings("unchecked")
+    public ModArrayPolynomial<C>[] egcd(ModArrayPolynomial<C> S) {
+        ModArrayPolynomial<C>[] ret = new ModArrayPolynomial[3];
+        if (S == null || S.isZERO()) {
+            ret[0] = this;
+            ret[1] = ring.getONE();
+            ret[2] = ring.getZERO();
+            return ret;
+        }
+        if (this.isZERO()) {
+            ret[0] = S;
+            ret[1] = ring.getZERO();
+            ret[2] = ring.getONE();
+            return ret;
+        }
+        if (ring.ring.nvar != 1) {
+            throw new IllegalArgumentException("not univariate polynomials" + ring);
+        }
+        ModArrayPolynomial<C>[] qr;
+        ModArrayPolynomial<C> q = this;
+        ModArrayPolynomial<C> r = S;
+        ModArrayPolynomial<C> c1 = ring.getONE();
+        ModArrayPolynomial<C> d1 = ring.getZERO();
+        ModArrayPolynomial<C> c2 = ring.getZERO();
+        ModArrayPolynomial<C> d2 = ring.getONE();
+        ModArrayPolynomial<C> x1;
+        ModArrayPolynomial<C> x2;
+        while (!r.isZERO()) {
+            qr = q.quotientRemainder(r);
+            q = qr[0];
+            x1 = c1.subtract(q.multiply(d1));
+            x2 = c2.subtract(q.multiply(d2));
+            c1 = d1;
+            c2 = d2;
+            d1 = x1;
+            d2 = x2;
+            q = r;
+            r = qr[1];
+        }
+        // normalize ldcf(q) to 1, i.e. make monic
+        C g = q.leadingBaseCoefficient();
+        if (g.isUnit()) {
+            C h = g.inverse();
+            q = q.multiply(h);
+            c1 = c1.multiply(h);
+            c2 = c2.multiply(h);
+        }
+        ret[0] = q;
+        ret[1] = c1;
+        ret[2] = c2;
+        return ret;
+    }
+
+
+    /**
+     * Comparison, as for GenPolynomial.
+     * @param b polynomial.
+     * @return sign(this-b).
+     */
+    public int compareTo(ModArrayPolynomial<C> b) {
+        if (b == null) {
+            return 1;
+        }
+        int n = Math.min(exps.length, b.exps.length);
+        int c = 0;
+        for (int i = 0; i < n; i++) {
+            int s = exps[i].compareTo(b.exps[i]);
+            if (s != 0) {
+                return s;
+            }
+            if (c == 0 && coef[i] != b.coef[i]) {
+                c = (coef[i] < b.coef[i]) ? -1 : 1;
+            }
+        }
+        if (exps.length > n) {
+            return 1;
+        }
+        if (b.exps.length > n) {
+            return -1;
+        }
+        return c;
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean equals(Object B) {
+        if (this == B) {
+            return true;
+        }
+        if (!(B instanceof ModArrayPolynomial)) {
+            return false;
+        }
+        ModArrayPolynomial<C> b = (ModArrayPolynomial<C>) B;
+        if (!ring.equals(b.ring)) {
+            return false;
+        }
+        return Arrays.equals(coef, b.coef) && Arrays.equals(exps, b.exps);
+    }
+
+
+    /**
+     * Hash code for this polynomial.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = 31 * Arrays.hashCode(coef) + exps.length;
+            for (ExpVector e : exps) {
+                h = 31 * h + (int) e.totalDeg();
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+
+    /**
+     * String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return toGenPolynomial().toString();
+    }
+
+
+    /**
+     * Get a scripting compatible string representation.
+     * @return script compatible representation for this Element.
+     * @see edu.jas.structure.Element#toScript()
+     */
+    @Override
+    public String toScript() {
+        return toGenPolynomial().toScript();
+    }
+
+
+    /**
+     * Get a scripting compatible string representation of the factory.
+     * @return script compatible representation for this ElemFactory.
+     * @see edu.jas.structure.Element#toScriptFactory()
+     */
+    @Override
+    public String toScriptFactory() {
+        return ring.toScript();
+    }
+
+}
@@ -0,0 +1,397 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import edu.jas.arith.ModInt;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.Modular;
+import edu.jas.arith.ModularRingFactory;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Factory for polynomials with word size modular coefficients stored in
+ * arrays. The polynomials are elements of a commutative GenPolynomialRing
+ * over ModLongRing or ModIntRing with modulus less than 2<sup>31</sup>. The
+ * terms are stored in parallel arrays of exponent vectors and int residues,
+ * instead of a TreeMap with coefficient objects. The exponent vectors are
+ * created by the polynomial ring, so a packed storage unit of the ring is
+ * used, see <code>GenPolynomialRing(ring, su)</code>. Objects of this
+ * class are immutable.
+ * @param <C> coefficient type, ModLong or ModInt
+ * @author agent
+ */
+
+public class ModArrayPolynomialRing<C extends RingElem<C> & Modular>
+                implements RingFactory<ModArrayPolynomial<C>> {
+
+
+    /**
+     * The corresponding GenPolynomial factory.
+     */
+    public final GenPolynomialRing<C> ring;
+
+
+    /**
+     * The modulus of the coefficients.
+     */
+    public final long modul;
+
+
+    /**
+     * The descending comparator of the term order.
+     */
+    protected final Comparator<ExpVector> cmp;
+
+
+    /**
+     * The constant polynomial 0.
+     */
+    public final ModArrayPolynomial<C> ZERO;
+
+
+    /**
+     * The constant polynomial 1.
+     */
+    public final ModArrayPolynomial<C> ONE;
+
+
+    /**
+     * The constructor creates a factory for polynomials stored in arrays.
+     * @param ring commutative polynomial factory with ModLongRing or
+     *            ModIntRing coefficients.
+     */
+    @SuppressWarnings("unchecked")
+    public ModArrayPolynomialRing(GenPolynomialRing<C> ring) {
+        if (!(ring.coFac instanceof ModularRingFactory)) {
+            throw new IllegalArgumentException("coefficients not modular: " + ring.coFac);
+        }
+        if (ring instanceof GenSolvablePolynomialRing) {
+            throw new IllegalArgumentException("only commutative polynomial rings allowed: " + ring);
+        }
+        java.math.BigInteger m = ((ModularRingFactory<C>) ring.coFac).getIntegerModul().getVal();
+        if (m.signum() <= 0 || m.bitLength() > 31) {
+            throw new IllegalArgumentException("modulus not word size: " + m);
+        }
+        this.ring = ring;
+        modul = m.longValue();
+        cmp = ring.tord.getDescendComparator();
+        ZERO = new ModArrayPolynomial<C>(this, new ExpVector[0], new int[0], 0);
+        if (modul == 1L) {
+            ONE = ZERO;
+        } else {
+            ONE = new ModArrayPolynomial<C>(this, new ExpVector[] { ring.evzero }, new int[] { 1 }, 1);
+        }
+    }
+
+
+    /**
+     * Get the residue of a coefficient.
+     * @param c coefficient.
+     * @return residue of c in [0,modul).
+     */
+    public int residue(C c) {
+        long v;
+        if (c instanceof ModLong) {
+            v = ((ModLong) c).val;
+        } else if (c instanceof ModInt) {
+            v = ((ModInt) c).val;
+        } else {
+            v = c.getInteger().getVal().longValue();
+        }
+        v %= modul;
+        if (v < 0L) {
+            v += modul;
+        }
+        return (int) v;
+    }
+
+
+    /**
+     * Get the coefficient of a residue.
+     * @param r residue.
+     * @return r as coefficient.
+     */
+    public C coefficient(long r) {
+        return ring.coFac.fromInteger(r);
+    }
+
+
+    /**
+     * Inverse of a residue.
+     * @param r residue.
+     * @return residue s with r s = 1 mod modul.
+     */
+    public int inverse(long r) {
+        return residue(coefficient(r).inverse());
+    }
+
+
+    /**
+     * Conversion from GenPolynomial.
+     * @param A GenPolynomial.
+     * @return A as polynomial stored in arrays.
+     */
+    public ModArrayPolynomial<C> fromGenPolynomial(GenPolynomial<C> A) {
+        if (A == null || A.isZERO()) {
+            return ZERO;
+        }
+        int n = A.length();
+        ExpVector[] e = new ExpVector[n];
+        int[] c = new int[n];
+        int i = 0;
+        for (Monomial<C> m : A) {
+            int r = residue(m.c);
+            if (r != 0) {
+                e[i] = m.e;
+                c[i] = r;
+                i++;
+            }
+        }
+        return new ModArrayPolynomial<C>(this, e, c, i);
+    }
+
+
+    /**
+     * Conversion from a list of GenPolynomials.
+     * @param L list of GenPolynomials.
+     * @return list of polynomials stored in arrays.
+     */
+    public List<ModArrayPolynomial<C>> fromGenPolynomial(List<GenPolynomial<C>> L) {
+        List<ModArrayPolynomial<C>> M = new ArrayList<ModArrayPolynomial<C>>(L.size());
+        for (GenPolynomial<C> A : L) {
+            M.add(fromGenPolynomial(A));
+        }
+        return M;
+    }
+
+
+    /**
+     * Conversion to a list of GenPolynomials.
+     * @param L list of polynomials stored in arrays.
+     * @return list of GenPolynomials.
+     */
+    public List<GenPolynomial<C>> toGenPolynomial(List<ModArrayPolynomial<C>> L) {
+        List<GenPolynomial<C>> M = new ArrayList<GenPolynomial<C>>(L.size());
+        for (ModArrayPolynomial<C> A : L) {
+            M.add(A.toGenPolynomial());
+        }
+        return M;
+    }
+
+
+    /**
+     * Copy polynomial c.
+     * @param c polynomial, immutable.
+     * @return c.
+     */
+    public ModArrayPolynomial<C> copy(ModArrayPolynomial<C> c) {
+        return c;
+    }
+
+
+    /**
+     * Get the zero element.
+     * @return 0 as polynomial.
+     */
+    public ModArrayPolynomial<C> getZERO() {
+        return ZERO;
+    }
+
+
+    /**
+     * Get the one element.
+     * @return 1 as polynomial.
+     */
+    public ModArrayPolynomial<C> getONE() {
+        return ONE;
+    }
+
+
+    /**
+     * Get a list of the generating elements.
+     * @return list of generators for the algebraic structure.
+     * @see edu.jas.structure.ElemFactory#generators()
+     */
+    public List<ModArrayPolynomial<C>> generators() {
+        return fromGenPolynomial(ring.generators());
+    }
+
+
+    /**
+     * Is this structure finite or infinite.
+     * @return true if this structure is finite, else false.
+     * @see edu.jas.structure.ElemFactory#isFinite()
+     */
+    public boolean isFinite() {
+        return ring.isFinite();
+    }
+
+
+    /**
+     * Query if this ring is commutative.
+     * @return true.
+     */
+    public boolean isCommutative() {
+        return true;
+    }
+
+
+    /**
+     * Query if this ring is associative.
+     * @return true.
+     */
+    public boolean isAssociative() {
+        return true;
+    }
+
+
+    /**
+     * Query if this ring is a field.
+     * @return true if the ring has no variables and the coefficients are a
+     *         field, else false.
+     */
+    public boolean isField() {
+        return ring.isField();
+    }
+
+
+    /**
+     * Characteristic of this ring.
+     * @return characteristic of this ring.
+     */
+    public java.math.BigInteger characteristic() {
+        return ring.characteristic();
+    }
+
+
+    /**
+     * Get a polynomial element from a long value.
+     * @param a long.
+     * @return a polynomial.
+     */
+    public ModArrayPolynomial<C> fromInteger(long a) {
+        return fromGenPolynomial(ring.fromInteger(a));
+    }
+
+
+    /**
+     * Get a polynomial element from a BigInteger value.
+     * @param a BigInteger.
+     * @return a polynomial.
+     */
+    public ModArrayPolynomial<C> fromInteger(java.math.BigInteger a) {
+        return fromGenPolynomial(ring.fromInteger(a));
+    }
+
+
+    /**
+     * Random polynomial.
+     * @param n number of terms.
+     * @return a random polynomial.
+     */
+    public ModArrayPolynomial<C> random(int n) {
+        return fromGenPolynomial(ring.random(n));
+    }
+
+
+    /**
+     * Random polynomial.
+     * @param n number of terms.
+     * @param rnd is a source for random bits.
+     * @return a random polynomial.
+     */
+    public ModArrayPolynomial<C> random(int n, Random rnd) {
+        return fromGenPolynomial(ring.random(n, rnd));
+    }
+
+
+    /**
+     * Random polynomial.
+     * @param k bitsize of random coefficients.
+     * @param l number of terms.
+     * @param d maximal degree in each variable.
+     * @param q density of nozero exponents.
+     * @return a random polynomial.
+     */
+    public ModArrayPolynomial<C> random(int k, int l, int d, float q) {
+        return fromGenPolynomial(ring.random(k, l, d, q));
+    }
+
+
+    /**
+     * Parse polynomial from String.
+     * @param s String.
+     * @return polynomial from s.
+     */
+    public ModArrayPolynomial<C> parse(String s) {
+        return fromGenPolynomial(ring.parse(s));
+    }
+
+
+    /**
+     * Parse polynomial from Reader.
+     * @param r Reader.
+     * @return next polynomial from r.
+     */
+    public ModArrayPolynomial<C> parse(Reader r) {
+        return fromGenPolynomial(ring.parse(r));
+    }
+
+
+    /**
+     * Get the String representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ModArrayPolynomialRing[ " + ring.toString() + " ]";
+    }
+
+
+    /**
+     * Get a scripting compatible string representation.
+     * @return script compatible representation for this ElemFactory.
+     * @see edu.jas.structure.ElemFactory#toScript()
+     */
+    @Override
+    public String toScript() {
+        return ring.toScript();
+    }
+
+
+    /**
+     * Comparison with any other object.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean equals(Object other) {
+        if (!(other instanceof ModArrayPolynomialRing)) {
+            return false;
+        }
+        ModArrayPolynomialRing<C> a = (ModArrayPolynomialRing<C>) other;
+        return ring.equals(a.ring);
+    }
+
+
+    /**
+     * Hash code for this polynomial ring.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return 37 * ring.hashCode() + 1;
+    }
+
+}
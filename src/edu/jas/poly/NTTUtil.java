@@ -0,0 +1,409 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.arith.ModInt;
+import edu.jas.arith.ModIntRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * Number theoretic transform (NTT) multiplication of univariate polynomials
+ * with word size modular coefficients. The coefficients are converted to
+ * dense arrays, transformed with respect to NTT friendly primes p = k
+ * 2<sup>s</sup> + 1, multiplied pointwise and transformed back. If the
+ * modulus is itself such a prime and the transform length is supported, a
+ * single transform is used, otherwise the exact integer convolution is
+ * computed with three NTT primes and reconstructed by Garner's algorithm. The
+ * complexity is O(n log(n)) instead of O(n<sup>2</sup>) for the schoolbook
+ * method. <code>GenPolynomial.multiply()</code> dispatches to this class for
+ * univariate polynomials over <code>ModLongRing</code> or
+ * <code>ModIntRing</code> above a degree threshold.
+ * @author agent
+ */
+
+public class NTTUtil {
+
+
+    private static final Logger logger = LogManager.getLogger(NTTUtil.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * NTT primes p = k 2<sup>s</sup> + 1 with primitive root 3.
+     */
+    public static final long[] PRIMES = { 998244353L, 167772161L, 469762049L };
+
+
+    /**
+     * Two-adic orders s of p-1 for the primes.
+     */
+    protected static final int[] ORDERS = { 23, 25, 26 };
+
+
+    /**
+     * Primitive root of the primes.
+     */
+    protected static final long ROOT = 3L;
+
+
+    /**
+     * Maximal transform length for three primes.
+     */
+    public static final int MAX_LENGTH = 1 << 23;
+
+
+    /**
+     * Minimal degree of both factors for the automatic dispatch.
+     */
+    public static final int DEGREE_THRESHOLD = 64;
+
+
+    /**
+     * Test if NTT multiplication is applicable and profitable. The
+     * polynomials must be univariate and commutative with
+     * <code>ModLongRing</code> or <code>ModIntRing</code> coefficients, the
+     * degrees must be at least <code>DEGREE_THRESHOLD</code> and the
+     * polynomials must be dense enough, so that the number of term products
+     * exceeds the cost of the transforms.
+     * @param A univariate polynomial.
+     * @param B univariate polynomial.
+     * @return true, if multiply(A,B) should be used, else false.
+     */
+    public static <C extends RingElem<C>> boolean isApplicable(GenPolynomial<C> A, GenPolynomial<C> B) {
+        if (A == null || B == null || A.ring.nvar != 1 || B.ring.nvar != 1) {
+            return false;
+        }
+        RingFactory<C> cf = A.ring.coFac;
+        if (!(cf instanceof ModLongRing) && !(cf instanceof ModIntRing)) {
+            return false;
+        }
+        if (A instanceof GenSolvablePolynomial || B instanceof GenSolvablePolynomial) {
+            return false;
+        }
+        long da = A.degree(0);
+        long db = B.degree(0);
+        if (da < DEGREE_THRESHOLD || db < DEGREE_THRESHOLD || da + db + 1 > MAX_LENGTH) {
+            return false;
+        }
+        int n = transformLength(da + db + 1);
+        long products = (long) A.length() * (long) B.length();
+        long transforms = (long) n * Long.numberOfTrailingZeros(n) * numberOfPrimes(modul(cf), n);
+        return products > transforms;
+    }
+
+
+    /**
+     * Univariate polynomial multiplication with number theoretic transforms.
+     * @param A univariate polynomial with ModLong or ModInt coefficients.
+     * @param B univariate polynomial with ModLong or ModInt coefficients.
+     * @return A*B.
+     */
+    public static <C extends RingElem<C>> GenPolynomial<C> multiply(GenPolynomial<C> A, GenPolynomial<C> B) {
+        if (A == null || B == null || A.isZERO() || B.isZERO()) {
+            return A.ring.getZERO();
+        }
+        if (A.ring.nvar != 1) {
+            throw new IllegalArgumentException("only univariate polynomials allowed: " + A.ring);
+        }
+        long m = modul(A.ring.coFac);
+        long[] a = toArray(A, m);
+        long[] b = (A == B) ? a : toArray(B, m);
+        long[] c = multiply(a, b, m);
+        return fromArray(A.ring, c);
+    }
+
+
+    /**
+     * Convolution of coefficient arrays modulo m.
+     * @param a coefficients, 0 &le; a[i] &lt; m.
+     * @param b coefficients, 0 &le; b[i] &lt; m.
+     * @param m modulus with m &lt; 2<sup>31</sup>.
+     * @return c with c[k] = sum_{i+j=k} a[i] b[j] mod m.
+     */
+    public static long[] multiply(long[] a, long[] b, long m) {
+        if (a.length == 0 || b.length == 0) {
+            return new long[0];
+        }
+        int len = a.length + b.length - 1;
+        if (len > MAX_LENGTH) {
+            throw new IllegalArgumentException("transform length to large: " + len);
+        }
+        int n = transformLength(len);
+        int k = numberOfPrimes(m, n);
+        if (debug) {
+            logger.debug("NTT length = {}, primes = {}, modul = {}", n, k, m);
+        }
+        if (k == 1) { // m is NTT prime
+            long[] c = convolution(a, b, n, m);
+            return trim(c, len);
+        }
+        long[] c0 = convolution(a, b, n, PRIMES[0]);
+        long[] c1 = convolution(a, b, n, PRIMES[1]);
+        long[] c2 = convolution(a, b, n, PRIMES[2]);
+        return garner(c0, c1, c2, len, m);
+    }
+
+
+    /**
+     * Cyclic convolution of length n modulo an NTT prime.
+     * @param a coefficients.
+     * @param b coefficients.
+     * @param n transform length, a power of 2 with n &ge; a.length +
+     *            b.length - 1.
+     * @param p NTT prime.
+     * @return a*b mod p, array of length n.
+     */
+    static long[] convolution(long[] a, long[] b, int n, long p) {
+        long[] fa = new long[n];
+        for (int i = 0; i < a.length; i++) {
+            fa[i] = a[i] % p;
+        }
+        transform(fa, p, false);
+        if (a == b) { // squaring
+            for (int i = 0; i < n; i++) {
+                fa[i] = fa[i] * fa[i] % p;
+            }
+        } else {
+            long[] fb = new long[n];
+            for (int i = 0; i < b.length; i++) {
+                fb[i] = b[i] % p;
+            }
+            transform(fb, p, false);
+            for (int i = 0; i < n; i++) {
+                fa[i] = fa[i] * fb[i] % p;
+            }
+        }
+        transform(fa, p, true);
+        return fa;
+    }
+
+
+    /**
+     * In place iterative radix-2 transform. The inverse transform includes
+     * the scaling by 1/n.
+     * @param f array of length n = 2<sup>s</sup>, 0 &le; f[i] &lt; p.
+     * @param p NTT prime with primitive root 3.
+     * @param inverse true for the inverse transform.
+     */
+    static void transform(long[] f, long p, boolean inverse) {
+        int n = f.length;
+        for (int i = 1, j = 0; i < n; i++) { // bit reversal permutation
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                long t = f[i];
+                f[i] = f[j];
+                f[j] = t;
+            }
+        }
+        for (int len = 2; len <= n; len <<= 1) {
+            long w = power(ROOT, (p - 1) / len, p);
+            if (inverse) {
+                w = power(w, p - 2, p);
+            }
+            int half = len >> 1;
+            long[] ws = new long[half];
+            ws[0] = 1L;
+            for (int i = 1; i < half; i++) {
+                ws[i] = ws[i - 1] * w % p;
+            }
+            for (int i = 0; i < n; i += len) {
+                for (int j = 0; j < half; j++) {
+                    long u = f[i + j];
+                    long v = f[i + j + half] * ws[j] % p;
+                    long s = u + v;
+                    f[i + j] = (s >= p) ? s - p : s;
+                    long d = u - v;
+                    f[i + j + half] = (d < 0L) ? d + p : d;
+                }
+            }
+        }
+        if (inverse) {
+            long ni = power(n, p - 2, p);
+            for (int i = 0; i < n; i++) {
+                f[i] = f[i] * ni % p;
+            }
+        }
+    }
+
+
+    /**
+     * Garner's algorithm for the three NTT primes. The exact convolution
+     * coefficients are less than the product of the primes, so they are
+     * uniquely determined by the residues.
+     * @param c0 residues modulo PRIMES[0].
+     * @param c1 residues modulo PRIMES[1].
+     * @param c2 residues modulo PRIMES[2].
+     * @param len number of coefficients.
+     * @param m modulus of the result.
+     * @return exact convolution modulo m.
+     */
+    static long[] garner(long[] c0, long[] c1, long[] c2, int len, long m) {
+        final long p0 = PRIMES[0];
+        final long p1 = PRIMES[1];
+        final long p2 = PRIMES[2];
+        final long i01 = power(p0 % p1, p1 - 2, p1); // 1/p0 mod p1
+        final long p01 = (p0 % p2) * (p1 % p2) % p2;
+        final long i012 = power(p01, p2 - 2, p2); // 1/(p0 p1) mod p2
+        final long p0m = p0 % m;
+        final long p01m = p0m * (p1 % m) % m;
+        long[] c = new long[len];
+        for (int i = 0; i < len; i++) {
+            long v0 = c0[i];
+            long v1 = (c1[i] - v0 % p1 + p1) % p1 * i01 % p1;
+            long x = (v0 + p0 % p2 * v1) % p2; // v0 + p0 v1 mod p2
+            long v2 = (c2[i] - x + p2) % p2 * i012 % p2;
+            long r = (v0 % m + p0m * v1 % m + p01m * v2 % m) % m;
+            c[i] = r;
+        }
+        return c;
+    }
+
+
+    /**
+     * Number of NTT primes required.
+     * @param m modulus, m &lt; 2<sup>31</sup>.
+     * @param n transform length.
+     * @return 1 if m is an NTT prime supporting length n, else 3.
+     */
+    static int numberOfPrimes(long m, int n) {
+        int s = Integer.numberOfTrailingZeros(n);
+        for (int i = 0; i < PRIMES.length; i++) {
+            if (m == PRIMES[i] && s <= ORDERS[i]) {
+                return 1;
+            }
+        }
+        return PRIMES.length;
+    }
+
+
+    /**
+     * Transform length.
+     * @param len number of coefficients of the product.
+     * @return least power of 2 &ge; len.
+     */
+    static int transformLength(long len) {
+        int n = 1;
+        while (n < len) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+
+    /**
+     * Modular exponentiation.
+     * @param b base, 0 &le; b &lt; p.
+     * @param e exponent &ge; 0.
+     * @param p modulus &lt; 2<sup>31</sup>.
+     * @return b<sup>e</sup> mod p.
+     */
+    static long power(long b, long e, long p) {
+        long r = 1L;
+        b %= p;
+        while (e > 0L) {
+            if ((e & 1L) != 0L) {
+                r = r * b % p;
+            }
+            b = b * b % p;
+            e >>= 1;
+        }
+        return r;
+    }
+
+
+    /**
+     * Shorten an array.
+     * @param c array.
+     * @param len new length &le; c.length.
+     * @return c[0..len-1].
+     */
+    private static long[] trim(long[] c, int len) {
+        if (c.length == len) {
+            return c;
+        }
+        long[] d = new long[len];
+        System.arraycopy(c, 0, d, 0, len);
+        return d;
+    }
+
+
+    /**
+     * Modulus of a coefficient factory.
+     * @param cf ModLongRing or ModIntRing.
+     * @return modulus as long.
+     */
+    static <C extends RingElem<C>> long modul(RingFactory<C> cf) {
+        if (cf instanceof ModLongRing) {
+            return ((ModLongRing) cf).modul;
+        }
+        if (cf instanceof ModIntRing) {
+            return ((ModIntRing) cf).modul;
+        }
+        throw new IllegalArgumentException("coefficients not ModLong or ModInt: " + cf);
+    }
+
+
+    /**
+     * Dense coefficient array of a univariate polynomial.
+     * @param A univariate polynomial.
+     * @param m modulus.
+     * @return array a with a[i] the coefficient of x<sup>i</sup> in [0,m).
+     */
+    static <C extends RingElem<C>> long[] toArray(GenPolynomial<C> A, long m) {
+        long[] a = new long[(int) A.degree(0) + 1];
+        for (Monomial<C> mo : A) {
+            C c = mo.c;
+            long v;
+            if (c instanceof ModLong) {
+                v = ((ModLong) c).val;
+            } else if (c instanceof ModInt) {
+                v = ((ModInt) c).val;
+            } else {
+                throw new IllegalArgumentException("coefficient not ModLong or ModInt: " + c);
+            }
+            v %= m;
+            if (v < 0L) {
+                v += m;
+            }
+            a[(int) mo.e.getVal(0)] = v;
+        }
+        return a;
+    }
+
+
+    /**
+     * Univariate polynomial from a dense coefficient array.
+     * @param fac univariate polynomial ring.
+     * @param c array with c[i] the coefficient of x<sup>i</sup>.
+     * @return sum_i c[i] x<sup>i</sup>.
+     */
+    static <C extends RingElem<C>> GenPolynomial<C> fromArray(GenPolynomialRing<C> fac, long[] c) {
+        GenPolynomial<C> p = fac.getZERO().copy();
+        SortedTermMap<C> tm = new SortedTermMap<C>(fac.tord.getDescendComparator(), c.length);
+        ExpVector e0 = fac.evzero;
+        for (int i = c.length - 1; i >= 0; i--) {
+            if (c[i] != 0L) {
+                tm.append(e0.subst(0, i), fac.coFac.fromInteger(c[i]));
+            }
+        }
+        p.doPutToMap(tm);
+        return p;
+    }
+
+}
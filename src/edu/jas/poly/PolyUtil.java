@@ -6,6 +6,8 @@ package edu.jas.poly;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
@@ -67,19 +69,24 @@ public class PolyUtil {
             return B;
         }
         int i = rfac.nvar;
-        GenPolynomial<C> zero = rfac.getZEROCoefficient();
+        GenPolynomialRing<C> cfac = rfac.getZEROCoefficient().ring;
         Map<ExpVector, GenPolynomial<C>> Bv = B.val; //getMap();
+        Map<ExpVector, GenPolynomialBuilder<C>> Bb = new TreeMap<ExpVector, GenPolynomialBuilder<C>>(
+                        rfac.tord.getDescendComparator());
         for (Map.Entry<ExpVector, C> y : A.getMap().entrySet()) {
             ExpVector e = y.getKey();
             C a = y.getValue();
             ExpVector f = e.contract(0, i);
             ExpVector g = e.contract(i, e.length() - i);
-            GenPolynomial<C> p = Bv.get(f);
+            GenPolynomialBuilder<C> p = Bb.get(f);
             if (p == null) {
-                p = zero;
+                p = new GenPolynomialBuilder<C>(cfac);
+                Bb.put(f, p);
             }
-            p = p.sum(a, g);
-            Bv.put(f, p);
+            p.addTerm(a, g);
+        }
+        for (Map.Entry<ExpVector, GenPolynomialBuilder<C>> y : Bb.entrySet()) {
+            Bv.put(y.getKey(), y.getValue().build());
         }
         return B;
     }
@@ -591,6 +598,318 @@ public class PolyUtil {
     }
 
 
+    /**
+     * Bit length of coefficients from which on the remainder tree is used in
+     * modularImages(), smaller coefficients are reduced modulo each modul
+     * separately.
+     */
+    public static final int REMAINDER_TREE_BITS = 256;
+
+
+    /**
+     * Modular images of a BigInteger polynomial. The polynomial is traversed
+     * once and each coefficient is reduced modulo all moduli, coefficients
+     * with more than <code>REMAINDER_TREE_BITS</code> bits by a remainder
+     * tree over the product tree of the moduli.
+     * @param <C> modular coefficient type.
+     * @param facs list of polynomial factories with pairwise coprime moduli
+     *            and the same term order as A.ring.
+     * @param A polynomial with BigInteger coefficients.
+     * @return list of A mod facs.get(i).coFac.modul, i = 0, ..., k-1.
+     */
+    public static <C extends RingElem<C> & Modular> List<GenPolynomial<C>> modularImages(
+                    List<GenPolynomialRing<C>> facs, GenPolynomial<BigInteger> A) {
+        int k = facs.size();
+        List<GenPolynomial<C>> P = new ArrayList<GenPolynomial<C>>(k);
+        if (k == 0) {
+            return P;
+        }
+        java.math.BigInteger[][] tree = productTree(facs);
+        List<SortedTermMap<C>> tm = new ArrayList<SortedTermMap<C>>(k);
+        for (GenPolynomialRing<C> fac : facs) {
+            tm.add(new SortedTermMap<C>(fac.tord.getDescendComparator(), A.length()));
+        }
+        for (Map.Entry<ExpVector, BigInteger> me : A.val.entrySet()) {
+            ExpVector e = me.getKey();
+            java.math.BigInteger c = me.getValue().getVal();
+            if (c.bitLength() > REMAINDER_TREE_BITS && k > 1) {
+                java.math.BigInteger[] r = remainderTree(tree, c);
+                for (int i = 0; i < k; i++) {
+                    tm.get(i).append(e, facs.get(i).coFac.fromInteger(r[i]));
+                }
+            } else {
+                for (int i = 0; i < k; i++) {
+                    tm.get(i).append(e, facs.get(i).coFac.fromInteger(c));
+                }
+            }
+        }
+        for (int i = 0; i < k; i++) {
+            GenPolynomial<C> p = facs.get(i).getZERO().copy();
+            p.doPutToMap(tm.get(i));
+            P.add(p);
+        }
+        return P;
+    }
+
+
+    /**
+     * Modular images of a list of BigInteger polynomials.
+     * @param <C> modular coefficient type.
+     * @param facs list of polynomial factories with pairwise coprime moduli
+     *            and the same term order as the polynomials in L.
+     * @param L list of polynomials with BigInteger coefficients.
+     * @return list of lists, the i-th list contains the polynomials of L mod
+     *         facs.get(i).coFac.modul.
+     */
+    public static <C extends RingElem<C> & Modular> List<List<GenPolynomial<C>>> modularImages(
+                    List<GenPolynomialRing<C>> facs, List<GenPolynomial<BigInteger>> L) {
+        List<List<GenPolynomial<C>>> P = new ArrayList<List<GenPolynomial<C>>>(facs.size());
+        for (int i = 0; i < facs.size(); i++) {
+            P.add(new ArrayList<GenPolynomial<C>>(L.size()));
+        }
+        for (GenPolynomial<BigInteger> A : L) {
+            List<GenPolynomial<C>> Ap = modularImages(facs, A);
+            for (int i = 0; i < facs.size(); i++) {
+                P.get(i).add(Ap.get(i));
+            }
+        }
+        return P;
+    }
+
+
+    /**
+     * BigInteger polynomial from modular images, symmetric. Chinese remainder
+     * algorithm on the coefficients with a tree over the pairwise coprime
+     * moduli, the result coefficients are symmetric to 0 modulo the product
+     * of the moduli.
+     * @param <C> modular coefficient type.
+     * @param fac result polynomial factory.
+     * @param P list of polynomials P.get(i) over modul m_i.
+     * @return S with S mod m_i == P.get(i) and |S| &le; prod(m_i)/2.
+     */
+    public static <C extends RingElem<C> & Modular> GenPolynomial<BigInteger> integerFromModularImages(
+                    GenPolynomialRing<BigInteger> fac, List<GenPolynomial<C>> P) {
+        int k = P.size();
+        if (k == 0) {
+            return fac.getZERO();
+        }
+        List<GenPolynomialRing<C>> facs = new ArrayList<GenPolynomialRing<C>>(k);
+        for (GenPolynomial<C> p : P) {
+            facs.add(p.ring);
+        }
+        java.math.BigInteger[][] tree = productTree(facs);
+        java.math.BigInteger[][] inv = crtInverses(tree);
+        SortedMap<ExpVector, java.math.BigInteger[]> rs = new TreeMap<ExpVector, java.math.BigInteger[]>(
+                        fac.tord.getDescendComparator());
+        for (int i = 0; i < k; i++) {
+            for (Map.Entry<ExpVector, C> me : P.get(i).val.entrySet()) {
+                java.math.BigInteger[] r = rs.get(me.getKey());
+                if (r == null) {
+                    r = new java.math.BigInteger[k];
+                    Arrays.fill(r, java.math.BigInteger.ZERO);
+                    rs.put(me.getKey(), r);
+                }
+                r[i] = me.getValue().getInteger().getVal();
+            }
+        }
+        java.math.BigInteger M = tree[tree.length - 1][0];
+        GenPolynomial<BigInteger> S = fac.getZERO().copy();
+        SortedTermMap<BigInteger> tm = new SortedTermMap<BigInteger>(fac.tord.getDescendComparator(), rs.size());
+        for (Map.Entry<ExpVector, java.math.BigInteger[]> me : rs.entrySet()) {
+            java.math.BigInteger x = chineseRemainderTree(tree, inv, me.getValue());
+            if (x.shiftLeft(1).compareTo(M) > 0) {
+                x = x.subtract(M);
+            }
+            tm.append(me.getKey(), new BigInteger(x));
+        }
+        S.doPutToMap(tm);
+        return S;
+    }
+
+
+    /**
+     * BigRational from BigInteger coefficients modulo M by rational
+     * reconstruction. The numerators and denominators are bounded by
+     * sqrt((M-1)/2).
+     * @param fac result polynomial factory.
+     * @param A polynomial with BigInteger coefficients modulo M.
+     * @param M modulus.
+     * @return polynomial with BigRational coefficients congruent to A modulo
+     *         M, or null if a coefficient can not be reconstructed.
+     */
+    public static GenPolynomial<BigRational> rationalReconstruction(GenPolynomialRing<BigRational> fac,
+                    GenPolynomial<BigInteger> A, BigInteger M) {
+        java.math.BigInteger m = M.getVal();
+        return rationalReconstruction(fac, A, m, BigRational.reconstructionBound(m));
+    }
+
+
+    /**
+     * BigRational from BigInteger coefficients modulo M by rational
+     * reconstruction.
+     * @param fac result polynomial factory.
+     * @param A polynomial with BigInteger coefficients modulo m.
+     * @param m modulus.
+     * @param N numerator and denominator bound with 2 N<sup>2</sup> &lt; m.
+     * @return polynomial with BigRational coefficients congruent to A modulo
+     *         m, or null if a coefficient can not be reconstructed.
+     */
+    static GenPolynomial<BigRational> rationalReconstruction(GenPolynomialRing<BigRational> fac,
+                    GenPolynomial<BigInteger> A, java.math.BigInteger m, java.math.BigInteger N) {
+        GenPolynomial<BigRational> p = fac.getZERO().copy();
+        SortedTermMap<BigRational> tm = new SortedTermMap<BigRational>(fac.tord.getDescendComparator(),
+                        A.length());
+        for (Map.Entry<ExpVector, BigInteger> me : A.val.entrySet()) {
+            BigRational c = BigRational.rationalReconstruction(me.getValue().getVal(), m, N);
+            if (c == null) {
+                return null;
+            }
+            tm.append(me.getKey(), c);
+        }
+        p.doPutToMap(tm);
+        return p;
+    }
+
+
+    /**
+     * BigRational from BigInteger coefficients modulo M by rational
+     * reconstruction for a list of polynomials.
+     * @param fac result polynomial factory.
+     * @param L list of polynomials with BigInteger coefficients modulo M.
+     * @param M modulus.
+     * @return list of polynomials with BigRational coefficients congruent to
+     *         L modulo M, or null if a coefficient can not be reconstructed.
+     */
+    public static List<GenPolynomial<BigRational>> rationalReconstruction(GenPolynomialRing<BigRational> fac,
+                    List<GenPolynomial<BigInteger>> L, BigInteger M) {
+        java.math.BigInteger m = M.getVal();
+        java.math.BigInteger N = BigRational.reconstructionBound(m);
+        List<GenPolynomial<BigRational>> R = new ArrayList<GenPolynomial<BigRational>>(L.size());
+        for (GenPolynomial<BigInteger> A : L) {
+            GenPolynomial<BigRational> p = rationalReconstruction(fac, A, m, N);
+            if (p == null) {
+                return null;
+            }
+            R.add(p);
+        }
+        return R;
+    }
+
+
+    /**
+     * BigRational from modular coefficients by rational reconstruction.
+     * @param fac result polynomial factory.
+     * @param A polynomial with modular coefficients.
+     * @return polynomial with BigRational coefficients congruent to A modulo
+     *         A.ring.coFac.modul, or null if a coefficient can not be
+     *         reconstructed.
+     */
+    public static <C extends RingElem<C> & Modular> GenPolynomial<BigRational> rationalFromModularCoefficients(
+                    GenPolynomialRing<BigRational> fac, GenPolynomial<C> A) {
+        ModularRingFactory<C> cfac = (ModularRingFactory<C>) A.ring.coFac;
+        GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(), fac);
+        return rationalReconstruction(fac, PolyUtil.<C> integerFromModularCoefficientsPositive(ifac, A),
+                        cfac.getIntegerModul());
+    }
+
+
+    /**
+     * Product tree of the moduli of polynomial factories.
+     * @param facs list of polynomial factories with modular coefficients.
+     * @return tree with tree[0] the moduli and tree[l+1][j] =
+     *         tree[l][2j]*tree[l][2j+1], the last level contains the product
+     *         of all moduli.
+     */
+    static <C extends RingElem<C> & Modular> java.math.BigInteger[][] productTree(
+                    List<GenPolynomialRing<C>> facs) {
+        java.math.BigInteger[] m = new java.math.BigInteger[facs.size()];
+        for (int i = 0; i < m.length; i++) {
+            ModularRingFactory<C> cfac = (ModularRingFactory<C>) facs.get(i).coFac;
+            m[i] = cfac.getIntegerModul().getVal();
+        }
+        List<java.math.BigInteger[]> levels = new ArrayList<java.math.BigInteger[]>();
+        levels.add(m);
+        while (m.length > 1) {
+            java.math.BigInteger[] n = new java.math.BigInteger[(m.length + 1) / 2];
+            for (int j = 0; j < n.length; j++) {
+                n[j] = (2 * j + 1 < m.length) ? m[2 * j].multiply(m[2 * j + 1]) : m[2 * j];
+            }
+            levels.add(n);
+            m = n;
+        }
+        return levels.toArray(new java.math.BigInteger[levels.size()][]);
+    }
+
+
+    /**
+     * Remainder tree. Reduces c modulo the product of all moduli and then
+     * descends the product tree.
+     * @param tree product tree of the moduli.
+     * @param c integer.
+     * @return array of c mod tree[0][i], i = 0, ..., k-1.
+     */
+    static java.math.BigInteger[] remainderTree(java.math.BigInteger[][] tree, java.math.BigInteger c) {
+        java.math.BigInteger[] r = new java.math.BigInteger[] { c.mod(tree[tree.length - 1][0]) };
+        for (int l = tree.length - 2; l >= 0; l--) {
+            java.math.BigInteger[] m = tree[l];
+            java.math.BigInteger[] s = new java.math.BigInteger[m.length];
+            for (int j = 0; j < m.length; j++) {
+                s[j] = r[j / 2].mod(m[j]);
+            }
+            r = s;
+        }
+        return r;
+    }
+
+
+    /**
+     * Inverses for the chinese remainder tree.
+     * @param tree product tree of pairwise coprime moduli.
+     * @return inv with inv[l+1][j] = tree[l][2j]<sup>-1</sup> mod
+     *         tree[l][2j+1], or null if there is no right child.
+     */
+    static java.math.BigInteger[][] crtInverses(java.math.BigInteger[][] tree) {
+        java.math.BigInteger[][] inv = new java.math.BigInteger[tree.length][];
+        for (int l = 0; l + 1 < tree.length; l++) {
+            java.math.BigInteger[] m = tree[l];
+            inv[l + 1] = new java.math.BigInteger[tree[l + 1].length];
+            for (int j = 0; 2 * j + 1 < m.length; j++) {
+                inv[l + 1][j] = m[2 * j].modInverse(m[2 * j + 1]);
+            }
+        }
+        return inv;
+    }
+
+
+    /**
+     * Chinese remainder tree. Combines the residues pairwise up the product
+     * tree.
+     * @param tree product tree of pairwise coprime moduli.
+     * @param inv inverses from crtInverses(tree).
+     * @param r array of residues 0 &le; r[i] &lt; tree[0][i].
+     * @return x with x mod tree[0][i] == r[i] and 0 &le; x &lt; prod(tree[0]).
+     */
+    static java.math.BigInteger chineseRemainderTree(java.math.BigInteger[][] tree,
+                    java.math.BigInteger[][] inv, java.math.BigInteger[] r) {
+        java.math.BigInteger[] x = r;
+        for (int l = 0; l + 1 < tree.length; l++) {
+            java.math.BigInteger[] m = tree[l];
+            java.math.BigInteger[] y = new java.math.BigInteger[tree[l + 1].length];
+            for (int j = 0; j < y.length; j++) {
+                if (2 * j + 1 < m.length) { // x = x1 + m1 * ((x2 - x1) / m1 mod m2)
+                    java.math.BigInteger t = x[2 * j + 1].subtract(x[2 * j]).multiply(inv[l + 1][j])
+                                    .mod(m[2 * j + 1]);
+                    y[j] = x[2 * j].add(m[2 * j].multiply(t));
+                } else {
+                    y[j] = x[2 * j];
+                }
+            }
+            x = y;
+        }
+        return x[0];
+    }
+
+
     /**
      * GenPolynomial monic, i.e. leadingBaseCoefficient == 1. If
      * leadingBaseCoefficient is not invertible returns this unmodified.
@@ -998,12 +1317,12 @@ public class PolyUtil {
         long n = S.degree(0);
         C c = S.leadingBaseCoefficient();
         ExpVector e = S.leadingExpVector();
-        GenPolynomial<C> q = P.ring.getZERO();
+        GenPolynomialBuilder<C> q = new GenPolynomialBuilder<C>(P.ring);
         GenPolynomial<C> h;
         GenPolynomial<C> r = P;
         for (long i = m; i >= n; i--) {
             if (r.isZERO()) {
-                return q;
+                return q.build();
             }
             long k = r.degree(0);
             if (i == k) {
@@ -1014,14 +1333,14 @@ public class PolyUtil {
                 r = r.multiply(c); // coeff ac
                 h = S.multiply(a, f); // coeff ac
                 r = r.subtract(h);
-                q = q.multiply(c);
-                q = q.sum(a, f);
+                q.multiply(c);
+                q.addTerm(a, f);
             } else {
-                q = q.multiply(c);
+                q.multiply(c);
                 r = r.multiply(c);
             }
         }
-        return q;
+        return q.build();
     }
 
 
@@ -1052,7 +1371,7 @@ public class PolyUtil {
         ExpVector e = S.leadingExpVector();
         GenPolynomial<C> h;
         GenPolynomial<C> r = P;
-        GenPolynomial<C> q = S.ring.getZERO().copy();
+        GenPolynomialBuilder<C> q = new GenPolynomialBuilder<C>(S.ring);
 
         while (!r.isZERO()) {
             ExpVector f = r.leadingExpVector();
@@ -1062,11 +1381,11 @@ public class PolyUtil {
                 C x = a.remainder(c);
                 if (x.isZERO()) {
                     C y = a.divide(c);
-                    q = q.sum(y, f);
+                    q.addTerm(y, f);
                     h = S.multiply(y, f); // coeff a
                 } else {
-                    q = q.multiply(c);
-                    q = q.sum(a, f);
+                    q.multiply(c);
+                    q.addTerm(a, f);
                     r = r.multiply(c); // coeff ac
                     h = S.multiply(a, f); // coeff ac
                 }
@@ -1075,7 +1394,7 @@ public class PolyUtil {
                 break;
             }
         }
-        return q;
+        return q.build();
     }
 
 
@@ -1112,7 +1431,7 @@ public class PolyUtil {
         ExpVector e = S.leadingExpVector();
         GenPolynomial<C> h;
         GenPolynomial<C> r = P;
-        GenPolynomial<C> q = S.ring.getZERO().copy();
+        GenPolynomialBuilder<C> q = new GenPolynomialBuilder<C>(S.ring);
 
         while (!r.isZERO()) {
             ExpVector f = r.leadingExpVector();
@@ -1122,11 +1441,11 @@ public class PolyUtil {
                 C x = a.remainder(c);
                 if (x.isZERO()) {
                     C y = a.divide(c);
-                    q = q.sum(y, f);
+                    q.addTerm(y, f);
                     h = S.multiply(y, f); // coeff a
                 } else {
-                    q = q.multiply(c);
-                    q = q.sum(a, f);
+                    q.multiply(c);
+                    q.addTerm(a, f);
                     r = r.multiply(c); // coeff a c
                     h = S.multiply(a, f); // coeff c a
                 }
@@ -1137,7 +1456,7 @@ public class PolyUtil {
         }
         //GenPolynomial<C> rhs = q.multiply(S).sum(r);
         //GenPolynomial<C> lhs = P;
-        ret[0] = q;
+        ret[0] = q.build();
         ret[1] = r;
         return ret;
     }
@@ -1448,7 +1767,7 @@ public class PolyUtil {
         ExpVector e = S.leadingExpVector();
         GenPolynomial<GenPolynomial<C>> h;
         GenPolynomial<GenPolynomial<C>> r = P;
-        GenPolynomial<GenPolynomial<C>> q = S.ring.getZERO().copy();
+        GenPolynomialBuilder<GenPolynomial<C>> q = new GenPolynomialBuilder<GenPolynomial<C>>(S.ring);
         while (!r.isZERO()) {
             ExpVector f = r.leadingExpVector();
             if (f.multipleOf(e)) {
@@ -1457,11 +1776,11 @@ public class PolyUtil {
                 GenPolynomial<C> x = PolyUtil.<C> baseSparsePseudoRemainder(a, c);
                 if (x.isZERO() && !c.isConstant()) {
                     GenPolynomial<C> y = PolyUtil.<C> basePseudoDivide(a, c);
-                    q = q.sum(y, f);
+                    q.addTerm(y, f);
                     h = S.multiply(y, f); // coeff a
                 } else {
-                    q = q.multiply(c);
-                    q = q.sum(a, f);
+                    q.multiply(c);
+                    q.addTerm(a, f);
                     r = r.multiply(c); // coeff ac
                     h = S.multiply(a, f); // coeff ac
                 }
@@ -1470,7 +1789,7 @@ public class PolyUtil {
                 break;
             }
         }
-        return q;
+        return q.build();
     }
 
 
@@ -2075,6 +2394,53 @@ public class PolyUtil {
     }
 
 
+    /**
+     * Evaluate a univariate polynomial at many points with a subproduct
+     * tree.
+     * @param <C> coefficient type.
+     * @param A univariate polynomial to be evaluated.
+     * @param a list of values to evaluate at.
+     * @return list( A( a_i ) ) for a_i in a.
+     */
+    public static <C extends RingElem<C>> List<C> evaluateMainMultipoint(GenPolynomial<C> A, List<C> a) {
+        return new SubproductTree<C>(A.ring, a).evaluate(A);
+    }
+
+
+    /**
+     * Evaluate first variable at many points. The univariate coefficients of
+     * A are evaluated with the same subproduct tree.
+     * @param <C> coefficient type.
+     * @param T subproduct tree of the points for the coefficient ring of A.
+     * @param dfac polynomial ring in n-1 variables.
+     * @param A recursive polynomial with univariate coefficients to be
+     *            evaluated.
+     * @return list( A(a_i, x_2, ..., x_n) ) for the points a_i of T.
+     */
+    public static <C extends RingElem<C>> List<GenPolynomial<C>> evaluateFirstRecMultipoint(SubproductTree<C> T,
+                    GenPolynomialRing<C> dfac, GenPolynomial<GenPolynomial<C>> A) {
+        int k = T.points.size();
+        List<SortedTermMap<C>> tm = new ArrayList<SortedTermMap<C>>(k);
+        for (int i = 0; i < k; i++) {
+            tm.add(new SortedTermMap<C>(dfac.tord.getDescendComparator(), A.length()));
+        }
+        for (Map.Entry<ExpVector, GenPolynomial<C>> me : A.val.entrySet()) {
+            ExpVector e = me.getKey();
+            List<C> v = T.evaluate(me.getValue());
+            for (int i = 0; i < k; i++) {
+                tm.get(i).append(e, v.get(i));
+            }
+        }
+        List<GenPolynomial<C>> B = new ArrayList<GenPolynomial<C>>(k);
+        for (int i = 0; i < k; i++) {
+            GenPolynomial<C> p = dfac.getZERO().copy();
+            p.doPutToMap(tm.get(i));
+            B.add(p);
+        }
+        return B;
+    }
+
+
     /**
      * Evaluate all variables.
      * @param <C> coefficient type.
@@ -2322,6 +2688,61 @@ public class PolyUtil {
     }
 
 
+    /**
+     * Univariate polynomial interpolation at many points with a subproduct
+     * tree. The coefficient ring must be a field.
+     * @param <C> coefficient type.
+     * @param fac univariate polynomial factory.
+     * @param a list of pairwise different points.
+     * @param b list of values at the points.
+     * @return S, with deg(S) &lt; #a and S(a_i) == b_i.
+     */
+    public static <C extends RingElem<C>> GenPolynomial<C> interpolateMultipoint(GenPolynomialRing<C> fac,
+                    List<C> a, List<C> b) {
+        return new SubproductTree<C>(fac, a).interpolate(b);
+    }
+
+
+    /**
+     * Interpolate on first variable at many points with a subproduct tree.
+     * The coefficient ring must be a field.
+     * @param <C> coefficient type.
+     * @param fac recursive result factory with univariate coefficients.
+     * @param T subproduct tree of the points for fac.coFac.
+     * @param B list of evaluations B_i at the points a_i of T.
+     * @return S, with S(a_i) == B_i and the degrees of the coefficients of S
+     *         less than the number of points.
+     */
+    public static <C extends RingElem<C>> GenPolynomial<GenPolynomial<C>> interpolateMultipoint(
+                    GenPolynomialRing<GenPolynomial<C>> fac, SubproductTree<C> T, List<GenPolynomial<C>> B) {
+        int k = B.size();
+        GenPolynomialRing<C> cfac = (GenPolynomialRing<C>) fac.coFac;
+        C zero = cfac.coFac.getZERO();
+        SortedMap<ExpVector, List<C>> bv = new TreeMap<ExpVector, List<C>>(fac.tord.getDescendComparator());
+        for (int i = 0; i < k; i++) {
+            for (Map.Entry<ExpVector, C> me : B.get(i).val.entrySet()) {
+                List<C> v = bv.get(me.getKey());
+                if (v == null) {
+                    v = new ArrayList<C>(k);
+                    for (int j = 0; j < k; j++) {
+                        v.add(zero);
+                    }
+                    bv.put(me.getKey(), v);
+                }
+                v.set(i, me.getValue());
+            }
+        }
+        GenPolynomial<GenPolynomial<C>> S = fac.getZERO().copy();
+        SortedTermMap<GenPolynomial<C>> tm = new SortedTermMap<GenPolynomial<C>>(fac.tord.getDescendComparator(),
+                        bv.size());
+        for (Map.Entry<ExpVector, List<C>> me : bv.entrySet()) {
+            tm.append(me.getKey(), T.interpolate(me.getValue()));
+        }
+        S.doPutToMap(tm);
+        return S;
+    }
+
+
     /**
      * Recursive GenPolynomial switch varaible blocks.
      * @param <C> coefficient type.
@@ -2908,6 +3329,497 @@ public class PolyUtil {
         return null; // not found       
     }
 
+
+    /**
+     * Minimal degree of both factors for Karatsuba multiplication.
+     */
+    public static final int KARATSUBA_THRESHOLD = 32;
+
+
+    /**
+     * Length of coefficient arrays below which the schoolbook method is
+     * used in the Karatsuba recursion.
+     */
+    static final int KARATSUBA_BASE = 16;
+
+
+    /**
+     * Maximal bit length of the least common multiple of the denominators of
+     * a BigRational factor for Karatsuba multiplication. With larger
+     * denominators the additions of fractions are more expensive than the
+     * saved multiplications.
+     */
+    public static final int KARATSUBA_DENOMINATOR_BITS = 32;
+
+
+    /**
+     * Test if Karatsuba multiplication is applicable and profitable. The
+     * polynomials must be commutative and univariate, the degrees must be at
+     * least <code>KARATSUBA_THRESHOLD</code> and at least half of the
+     * coefficients of both polynomials must be non zero. For BigRational
+     * coefficients the least common multiple of the denominators of each
+     * factor must have at most <code>KARATSUBA_DENOMINATOR_BITS</code> bits.
+     * Other coefficient fields of characteristic 0, except algebraic number
+     * fields, are excluded, since the additional coefficient additions are
+     * not cheaper than the saved multiplications.
+     * @param A univariate polynomial.
+     * @param B univariate polynomial.
+     * @return true, if karatsubaMultiply(A,B) should be used, else false.
+     */
+    public static <C extends RingElem<C>> boolean isKaratsubaApplicable(GenPolynomial<C> A,
+                    GenPolynomial<C> B) {
+        if (A == null || B == null || A.ring.nvar != 1 || B.ring.nvar != 1) {
+            return false;
+        }
+        if (A instanceof GenSolvablePolynomial || B instanceof GenSolvablePolynomial) {
+            return false;
+        }
+        long da = A.degree(0);
+        long db = B.degree(0);
+        if (da < KARATSUBA_THRESHOLD || db < KARATSUBA_THRESHOLD || da + db >= Integer.MAX_VALUE) {
+            return false;
+        }
+        if (2L * A.length() <= da + 1 || 2L * B.length() <= db + 1) {
+            return false;
+        }
+        RingFactory<C> cf = A.ring.coFac;
+        if (cf instanceof BigRational) {
+            return hasSmallDenominators(A) && hasSmallDenominators(B);
+        }
+        if (cf instanceof AlgebraicNumberRing) {
+            return true;
+        }
+        return !(cf.isField() && cf.characteristic().signum() == 0);
+    }
+
+
+    /**
+     * Test if the least common multiple of the denominators of the
+     * coefficients is small.
+     * @param A polynomial with BigRational coefficients.
+     * @return true, if the lcm of the denominators has at most
+     *         <code>KARATSUBA_DENOMINATOR_BITS</code> bits, else false.
+     */
+    static <C extends RingElem<C>> boolean hasSmallDenominators(GenPolynomial<C> A) {
+        java.math.BigInteger d = java.math.BigInteger.ONE;
+        for (C c : A.val.values()) {
+            java.math.BigInteger e = ((BigRational) c).den;
+            if (e.equals(d) || e.equals(java.math.BigInteger.ONE)) {
+                continue;
+            }
+            d = d.multiply(e.divide(d.gcd(e)));
+            if (d.bitLength() > KARATSUBA_DENOMINATOR_BITS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Karatsuba multiplication of univariate polynomials. The polynomials
+     * are converted to dense coefficient arrays and multiplied recursively
+     * with three half size products, below <code>KARATSUBA_BASE</code> the
+     * schoolbook method is used. The order of the coefficients in the
+     * products is preserved, so the coefficient ring need not be
+     * commutative.
+     * @param A univariate polynomial.
+     * @param B univariate polynomial.
+     * @return A*B.
+     */
+    public static <C extends RingElem<C>> GenPolynomial<C> karatsubaMultiply(GenPolynomial<C> A,
+                    GenPolynomial<C> B) {
+        if (A == null || B == null || A.isZERO() || B.isZERO()) {
+            return A.ring.getZERO();
+        }
+        GenPolynomialRing<C> fac = A.ring;
+        if (fac.nvar != 1) {
+            throw new IllegalArgumentException("only univariate polynomials allowed: " + fac);
+        }
+        C zero = fac.coFac.getZERO();
+        C[] a = denseCoefficients(A, zero);
+        C[] b = (A == B) ? a : denseCoefficients(B, zero);
+        C[] c = newCoefficients(a.length + b.length - 1, zero);
+        karatsuba(c, 0, a, 0, a.length, b, 0, b.length, zero);
+        GenPolynomial<C> p = fac.getZERO().copy();
+        SortedTermMap<C> tm = new SortedTermMap<C>(fac.tord.getDescendComparator(), c.length);
+        ExpVector e0 = fac.evzero;
+        for (int i = c.length - 1; i >= 0; i--) {
+            tm.append(e0.subst(0, i), c[i]);
+        }
+        p.doPutToMap(tm);
+        return p;
+    }
+
+
+    /**
+     * Karatsuba recursion. Adds a[ao..ao+al-1] * b[bo..bo+bl-1] to c[co..].
+     * @param c result coefficients.
+     * @param co offset in c.
+     * @param a coefficients.
+     * @param ao offset in a.
+     * @param al number of coefficients of a.
+     * @param b coefficients.
+     * @param bo offset in b.
+     * @param bl number of coefficients of b.
+     * @param zero the zero coefficient.
+     */
+    static <C extends RingElem<C>> void karatsuba(C[] c, int co, C[] a, int ao, int al, C[] b, int bo,
+                    int bl, C zero) {
+        if (al < KARATSUBA_BASE || bl < KARATSUBA_BASE) {
+            for (int i = 0; i < al; i++) {
+                C x = a[ao + i];
+                if (x.isZERO()) {
+                    continue;
+                }
+                for (int j = 0; j < bl; j++) {
+                    C y = b[bo + j];
+                    if (!y.isZERO()) {
+                        c[co + i + j] = c[co + i + j].sum(x.multiply(y));
+                    }
+                }
+            }
+            return;
+        }
+        if (al != bl) { // split the longer one in blocks
+            if (al > bl) {
+                for (int i = 0; i < al; i += bl) {
+                    karatsuba(c, co + i, a, ao + i, Math.min(bl, al - i), b, bo, bl, zero);
+                }
+            } else {
+                for (int j = 0; j < bl; j += al) {
+                    karatsuba(c, co + j, a, ao, al, b, bo + j, Math.min(al, bl - j), zero);
+                }
+            }
+            return;
+        }
+        int n = al;
+        int m = n / 2; // low parts of length m, high parts of length h >= m
+        int h = n - m;
+        C[] z0 = newCoefficients(2 * m - 1, zero);
+        karatsuba(z0, 0, a, ao, m, b, bo, m, zero);
+        C[] z2 = newCoefficients(2 * h - 1, zero);
+        karatsuba(z2, 0, a, ao + m, h, b, bo + m, h, zero);
+        C[] as = newCoefficients(h, zero);
+        C[] bs = newCoefficients(h, zero);
+        for (int i = 0; i < h; i++) {
+            C x = a[ao + m + i];
+            C y = b[bo + m + i];
+            if (i < m) {
+                x = a[ao + i].sum(x);
+                y = b[bo + i].sum(y);
+            }
+            as[i] = x;
+            bs[i] = y;
+        }
+        C[] z1 = newCoefficients(2 * h - 1, zero);
+        karatsuba(z1, 0, as, 0, h, bs, 0, h, zero);
+        for (int i = 0; i < z0.length; i++) {
+            z1[i] = z1[i].subtract(z0[i]);
+            c[co + i] = c[co + i].sum(z0[i]);
+        }
+        for (int i = 0; i < z2.length; i++) {
+            z1[i] = z1[i].subtract(z2[i]);
+            c[co + 2 * m + i] = c[co + 2 * m + i].sum(z2[i]);
+        }
+        for (int i = 0; i < z1.length; i++) {
+            c[co + m + i] = c[co + m + i].sum(z1[i]);
+        }
+    }
+
+
+    /**
+     * Minimal number of terms of both factors for Kronecker multiplication.
+     */
+    public static final int KRONECKER_THRESHOLD = 16;
+
+
+    /**
+     * Maximal bit length of the packed integers for Kronecker
+     * multiplication, 2<sup>24</sup> bits are 2 MB per factor.
+     */
+    static final long KRONECKER_MAX_BITS = 1L << 24;
+
+
+    /**
+     * Test if Kronecker multiplication is applicable and profitable. The
+     * polynomials must be commutative with BigInteger coefficients, both must
+     * have at least <code>KRONECKER_THRESHOLD</code> terms and the number of
+     * term products must exceed the number of coefficients of the dense
+     * product with respect to the degree bounds.
+     * @param A polynomial.
+     * @param B polynomial.
+     * @return true, if kroneckerMultiply(A,B) should be used, else false.
+     */
+    public static <C extends RingElem<C>> boolean isKroneckerApplicable(GenPolynomial<C> A,
+                    GenPolynomial<C> B) {
+        if (A == null || B == null || !(A.ring.coFac instanceof BigInteger)) {
+            return false;
+        }
+        if (A instanceof GenSolvablePolynomial || B instanceof GenSolvablePolynomial) {
+            return false;
+        }
+        int la = A.length();
+        int lb = B.length();
+        if (la < KRONECKER_THRESHOLD || lb < KRONECKER_THRESHOLD) {
+            return false;
+        }
+        long slots = kroneckerSlots(A.degreeVector(), B.degreeVector(), (long) la * lb);
+        if (slots < 0L) {
+            return false;
+        }
+        long bits = kroneckerSlotBits(A, B);
+        return slots * bits <= KRONECKER_MAX_BITS;
+    }
+
+
+    /**
+     * Kronecker substitution multiplication. The polynomials are packed into
+     * integers by the substitution x<sub>i</sub> = 2<sup>b w<sub>i</sub></sup>,
+     * where w<sub>i</sub> are the products of the degree bounds of the
+     * variables x<sub>j</sub>, j &lt; i, of the product, and b is a bound for
+     * the bit length of the signed product coefficients. The integers are
+     * multiplied by java.math.BigInteger, which uses Karatsuba and 3-way
+     * Toom-Cook multiplication for large numbers, and the product
+     * coefficients are unpacked with signed digits.
+     * @param A polynomial with BigInteger coefficients.
+     * @param B polynomial with BigInteger coefficients.
+     * @return A*B.
+     */
+    public static <C extends RingElem<C>> GenPolynomial<C> kroneckerMultiply(GenPolynomial<C> A,
+                    GenPolynomial<C> B) {
+        if (A == null || B == null || A.isZERO() || B.isZERO()) {
+            return A.ring.getZERO();
+        }
+        GenPolynomialRing<C> fac = A.ring;
+        if (!(fac.coFac instanceof BigInteger)) {
+            throw new IllegalArgumentException("only BigInteger coefficients allowed: " + fac.coFac);
+        }
+        ExpVector da = A.degreeVector();
+        ExpVector db = B.degreeVector();
+        int n = fac.nvar;
+        long[] w = new long[n + 1]; // weights of the variables
+        long[] d = new long[n]; // degree bounds of the product
+        w[0] = 1L;
+        for (int i = 0; i < n; i++) {
+            d[i] = da.getVal(i) + db.getVal(i) + 1L;
+            w[i + 1] = w[i] * d[i];
+        }
+        int b = (int) kroneckerSlotBits(A, B);
+        if (w[n] * b > KRONECKER_MAX_BITS) {
+            throw new IllegalArgumentException("packed integers to large: " + w[n] + " * " + b);
+        }
+        java.math.BigInteger pa = kroneckerPack(A, w, b);
+        java.math.BigInteger pb = (A == B) ? pa : kroneckerPack(B, w, b);
+        java.math.BigInteger pc = pa.multiply(pb);
+        int sc = (int) (kroneckerIndex(da.sum(db), w) + 1);
+        java.math.BigInteger[] c = new java.math.BigInteger[sc];
+        kroneckerUnpack(pc, c, 0, sc, b);
+        int t = 0;
+        for (int k = 0; k < sc; k++) {
+            if (c[k] != null && c[k].signum() != 0) {
+                t++;
+            }
+        }
+        // descending Kronecker index is descending in a lexicographical order
+        final ExpVector[] es = new ExpVector[t];
+        int[] ks = new int[t];
+        final Comparator<ExpVector> cmp = fac.tord.getDescendComparator();
+        boolean sorted = true;
+        long[] e = new long[n];
+        int j = 0;
+        for (int k = sc - 1; k >= 0; k--) {
+            if (c[k] == null || c[k].signum() == 0) {
+                continue;
+            }
+            for (int i = 0; i < n; i++) {
+                e[i] = (k / w[i]) % d[i];
+            }
+            es[j] = fac.createExpVector(e);
+            ks[j] = k;
+            if (sorted && j > 0) {
+                sorted = cmp.compare(es[j - 1], es[j]) < 0;
+            }
+            j++;
+        }
+        Integer[] perm = null;
+        if (!sorted) { // other term orders
+            perm = new Integer[t];
+            for (int i = 0; i < t; i++) {
+                perm[i] = i;
+            }
+            Arrays.sort(perm, new Comparator<Integer>() {
+
+
+                public int compare(Integer x, Integer y) {
+                    return cmp.compare(es[x], es[y]);
+                }
+            });
+        }
+        SortedTermMap<C> tm = new SortedTermMap<C>(cmp, t);
+        for (int i = 0; i < t; i++) {
+            int q = (perm == null) ? i : perm[i];
+            tm.append(es[q], fac.coFac.fromInteger(c[ks[q]]));
+        }
+        GenPolynomial<C> p = new GenPolynomial<C>(fac, tm);
+        if (debug) {
+            logger.debug("Kronecker: slots = {}, bits = {}, terms = {}", sc, b, p.length());
+        }
+        return p;
+    }
+
+
+    /**
+     * Number of coefficients of the dense Kronecker product.
+     * @param da degree vector of A.
+     * @param db degree vector of B.
+     * @param max maximal number of coefficients.
+     * @return product of the degree bounds of A*B, or -1 if it exceeds max.
+     */
+    static long kroneckerSlots(ExpVector da, ExpVector db, long max) {
+        long s = 1L;
+        for (int i = 0; i < da.length(); i++) {
+            s *= da.getVal(i) + db.getVal(i) + 1L;
+            if (s > max) {
+                return -1L;
+            }
+        }
+        return s;
+    }
+
+
+    /**
+     * Bit length of the slots for the signed product coefficients.
+     * @param A polynomial with BigInteger coefficients.
+     * @param B polynomial with BigInteger coefficients.
+     * @return b with |c| &lt; 2<sup>b-1</sup> for all coefficients c of A*B.
+     */
+    static <C extends RingElem<C>> long kroneckerSlotBits(GenPolynomial<C> A, GenPolynomial<C> B) {
+        int ba = 0;
+        for (C c : A.val.values()) {
+            ba = Math.max(ba, ((BigInteger) c).getVal().bitLength());
+        }
+        int bb = 0;
+        for (C c : B.val.values()) {
+            bb = Math.max(bb, ((BigInteger) c).getVal().bitLength());
+        }
+        int l = Math.min(A.length(), B.length());
+        return (long) ba + bb + (32 - Integer.numberOfLeadingZeros(l)) + 1L;
+    }
+
+
+    /**
+     * Kronecker index of an exponent vector.
+     * @param e exponent vector.
+     * @param w weights of the variables.
+     * @return sum_i e<sub>i</sub> w<sub>i</sub>.
+     */
+    static long kroneckerIndex(ExpVector e, long[] w) {
+        long k = 0L;
+        for (int i = 0; i < e.length(); i++) {
+            k += e.getVal(i) * w[i];
+        }
+        return k;
+    }
+
+
+    /**
+     * Kronecker packing of a polynomial.
+     * @param A polynomial with BigInteger coefficients.
+     * @param w weights of the variables.
+     * @param b bit length of the slots.
+     * @return A(2<sup>b w<sub>0</sub></sup>, ..., 2<sup>b
+     *         w<sub>n-1</sub></sup>).
+     */
+    static <C extends RingElem<C>> java.math.BigInteger kroneckerPack(GenPolynomial<C> A, long[] w, int b) {
+        int s = (int) (kroneckerIndex(A.degreeVector(), w) + 1);
+        java.math.BigInteger[] a = new java.math.BigInteger[s];
+        for (Map.Entry<ExpVector, C> me : A.val.entrySet()) {
+            a[(int) kroneckerIndex(me.getKey(), w)] = ((BigInteger) me.getValue()).getVal();
+        }
+        return kroneckerPack(a, 0, s, b);
+    }
+
+
+    /**
+     * Kronecker packing of signed digits by divide and conquer.
+     * @param a digits, null for 0.
+     * @param lo first index.
+     * @param hi last index + 1.
+     * @param b bit length of the digits.
+     * @return sum_{lo &le; k &lt; hi} a[k] 2<sup>b (k-lo)</sup>.
+     */
+    static java.math.BigInteger kroneckerPack(java.math.BigInteger[] a, int lo, int hi, int b) {
+        if (hi - lo == 1) {
+            return (a[lo] == null) ? java.math.BigInteger.ZERO : a[lo];
+        }
+        int mid = (lo + hi) >>> 1;
+        java.math.BigInteger l = kroneckerPack(a, lo, mid, b);
+        java.math.BigInteger h = kroneckerPack(a, mid, hi, b);
+        if (h.signum() == 0) {
+            return l;
+        }
+        return l.add(h.shiftLeft((mid - lo) * b));
+    }
+
+
+    /**
+     * Kronecker unpacking of signed digits by divide and conquer. The low
+     * part of c is the symmetric residue modulo 2<sup>b (mid-lo)</sup>.
+     * @param c sum_{lo &le; k &lt; hi} a[k] 2<sup>b (k-lo)</sup> with
+     *            |a[k]| &lt; 2<sup>b-1</sup>.
+     * @param a digits, set on return.
+     * @param lo first index.
+     * @param hi last index + 1.
+     * @param b bit length of the digits.
+     */
+    static void kroneckerUnpack(java.math.BigInteger c, java.math.BigInteger[] a, int lo, int hi, int b) {
+        if (c.signum() == 0) {
+            return;
+        }
+        if (hi - lo == 1) {
+            a[lo] = c;
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int m = (mid - lo) * b;
+        java.math.BigInteger l = c.and(java.math.BigInteger.ONE.shiftLeft(m).subtract(java.math.BigInteger.ONE));
+        if (l.testBit(m - 1)) {
+            l = l.subtract(java.math.BigInteger.ONE.shiftLeft(m));
+        }
+        kroneckerUnpack(l, a, lo, mid, b);
+        kroneckerUnpack(c.subtract(l).shiftRight(m), a, mid, hi, b);
+    }
+
+
+    /**
+     * Dense coefficient array of a univariate polynomial.
+     * @param A univariate polynomial.
+     * @param zero the zero coefficient.
+     * @return array a with a[i] the coefficient of x<sup>i</sup>.
+     */
+    static <C extends RingElem<C>> C[] denseCoefficients(GenPolynomial<C> A, C zero) {
+        C[] a = newCoefficients((int) A.degree(0) + 1, zero);
+        for (Map.Entry<ExpVector, C> me : A.val.entrySet()) {
+            a[(int) me.getKey().getVal(0)] = me.getValue();
+        }
+        return a;
+    }
+
+
+    /**
+     * New coefficient array.
+     * @param n length.
+     * @param zero the zero coefficient.
+     * @return array of n zeros.
+     */
+    @SuppressWarnings("unchecked")
+    static <C extends RingElem<C>> C[] newCoefficients(int n, C zero) {
+        C[] a = (C[]) new RingElem[n];
+        Arrays.fill(a, zero);
+        return a;
+    }
+
 }
 
 
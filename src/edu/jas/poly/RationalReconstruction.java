@@ -0,0 +1,291 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.Modular;
+import edu.jas.arith.ModularRingFactory;
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Rational reconstruction of polynomials from modular images. Images of a
+ * list of polynomials modulo successive primes are combined by the chinese
+ * remainder algorithm and lifted to BigRational coefficients. The lifting
+ * terminates early: if the reconstruction of the previous primes maps to the
+ * images of the next primes, it is considered stable and no further primes
+ * are required. To be used by modular algorithms over the rational numbers,
+ * e.g. for Groebner bases, gcds or linear algebra.
+ * <b>Note:</b> this class is mutable and not thread safe.
+ * @param <C> modular coefficient type
+ * @author agent
+ */
+
+public class RationalReconstruction<C extends RingElem<C> & Modular> {
+
+
+    private static final Logger logger = LogManager.getLogger(RationalReconstruction.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * The factory for the result polynomials.
+     */
+    public final GenPolynomialRing<BigRational> ring;
+
+
+    /**
+     * The factory for the combined integer images.
+     */
+    protected final GenPolynomialRing<BigInteger> iring;
+
+
+    /**
+     * Number of additional primes which must confirm a reconstruction.
+     */
+    public final int stableCount;
+
+
+    /**
+     * The combined images with coefficients 0 &le; c &lt; modul.
+     */
+    protected List<GenPolynomial<BigInteger>> images;
+
+
+    /**
+     * The product of the primes of the combined images.
+     */
+    protected java.math.BigInteger modul;
+
+
+    /**
+     * The current reconstruction, or null.
+     */
+    protected List<GenPolynomial<BigRational>> result;
+
+
+    /**
+     * Number of primes which confirmed the current reconstruction.
+     */
+    protected int stable;
+
+
+    /**
+     * Constructor. A reconstruction is stable if one more prime confirms it.
+     * @param ring polynomial factory for the result.
+     */
+    public RationalReconstruction(GenPolynomialRing<BigRational> ring) {
+        this(ring, 1);
+    }
+
+
+    /**
+     * Constructor.
+     * @param ring polynomial factory for the result.
+     * @param stableCount number of additional primes which must confirm a
+     *            reconstruction.
+     */
+    public RationalReconstruction(GenPolynomialRing<BigRational> ring, int stableCount) {
+        this.ring = ring;
+        this.stableCount = stableCount;
+        iring = new GenPolynomialRing<BigInteger>(new BigInteger(), ring);
+        images = null;
+        modul = java.math.BigInteger.ONE;
+        result = null;
+        stable = 0;
+    }
+
+
+    /**
+     * Add the image of a polynomial modulo a new prime.
+     * @param P polynomial with coefficients modulo a prime coprime to the
+     *            previous primes.
+     * @return true if the reconstruction is stable, else false.
+     */
+    public boolean addImage(GenPolynomial<C> P) {
+        List<GenPolynomial<C>> L = new ArrayList<GenPolynomial<C>>(1);
+        L.add(P);
+        return addImages(L);
+    }
+
+
+    /**
+     * Add the images of a list of polynomials modulo a new prime. The lists
+     * must have the same length and order for all primes.
+     * @param P list of polynomials with coefficients modulo a prime coprime
+     *            to the previous primes.
+     * @return true if the reconstruction is stable, else false.
+     */
+    public boolean addImages(List<GenPolynomial<C>> P) {
+        if (P == null || P.isEmpty()) {
+            throw new IllegalArgumentException("no images");
+        }
+        if (images != null && images.size() != P.size()) {
+            throw new IllegalArgumentException("number of images differ: " + images.size() + " != " + P.size());
+        }
+        ModularRingFactory<C> cfac = (ModularRingFactory<C>) P.get(0).ring.coFac;
+        java.math.BigInteger p = cfac.getIntegerModul().getVal();
+        boolean agrees = (result != null && isImage(result, P, cfac));
+        if (images == null) {
+            images = new ArrayList<GenPolynomial<BigInteger>>(P.size());
+            for (GenPolynomial<C> Pi : P) {
+                images.add(PolyUtil.<C> integerFromModularCoefficientsPositive(iring, Pi));
+            }
+        } else {
+            java.math.BigInteger mi = modul.mod(p).modInverse(p);
+            List<GenPolynomial<BigInteger>> L = new ArrayList<GenPolynomial<BigInteger>>(P.size());
+            for (int i = 0; i < P.size(); i++) {
+                L.add(chineseRemainder(images.get(i), P.get(i), p, mi));
+            }
+            images = L;
+        }
+        modul = modul.multiply(p);
+        if (agrees) {
+            stable++;
+        } else {
+            stable = 0;
+            result = PolyUtil.rationalReconstruction(ring, images, new BigInteger(modul));
+        }
+        if (debug) {
+            logger.debug("modul bits = {}, stable = {}, result = {}", modul.bitLength(), stable, (result != null));
+        }
+        return isStable();
+    }
+
+
+    /**
+     * Test if the reconstruction is stable.
+     * @return true if there is a reconstruction which was confirmed by
+     *         stableCount additional primes, else false.
+     */
+    public boolean isStable() {
+        return result != null && stable >= stableCount;
+    }
+
+
+    /**
+     * Get the current reconstruction.
+     * @return the list of polynomials with BigRational coefficients, or null
+     *         if no reconstruction exists for the current modul.
+     */
+    public List<GenPolynomial<BigRational>> getResult() {
+        return result;
+    }
+
+
+    /**
+     * Get the product of the primes.
+     * @return product of the primes of the added images.
+     */
+    public BigInteger getModul() {
+        return new BigInteger(modul);
+    }
+
+
+    /**
+     * Test if R maps to the images P modulo a prime.
+     * @param R list of polynomials with BigRational coefficients.
+     * @param P list of polynomials with modular coefficients.
+     * @param cfac modular coefficient factory.
+     * @return true if R mod p == P, else false.
+     */
+    protected boolean isImage(List<GenPolynomial<BigRational>> R, List<GenPolynomial<C>> P,
+                    ModularRingFactory<C> cfac) {
+        for (int i = 0; i < R.size(); i++) {
+            GenPolynomial<C> Pi = P.get(i);
+            GenPolynomial<BigRational> Ri = R.get(i);
+            if (Ri.length() != Pi.length()) {
+                return false;
+            }
+            Iterator<Map.Entry<ExpVector, C>> pt = Pi.val.entrySet().iterator();
+            for (Map.Entry<ExpVector, BigRational> me : Ri.val.entrySet()) {
+                Map.Entry<ExpVector, C> pe = pt.next();
+                if (!me.getKey().equals(pe.getKey())) {
+                    return false;
+                }
+                BigRational r = me.getValue();
+                C d = cfac.fromInteger(r.den);
+                if (d.isZERO()) {
+                    return false;
+                }
+                C n = cfac.fromInteger(r.num);
+                if (!n.equals(d.multiply(pe.getValue()))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Chinese remainder algorithm on coefficients.
+     * @param A polynomial with coefficients 0 &le; c &lt; modul.
+     * @param B polynomial with coefficients modulo p.
+     * @param p prime.
+     * @param mi inverse of modul modulo p.
+     * @return S with S mod modul == A, S mod p == B and 0 &le; c &lt;
+     *         modul*p for the coefficients c of S.
+     */
+    protected GenPolynomial<BigInteger> chineseRemainder(GenPolynomial<BigInteger> A, GenPolynomial<C> B,
+                    java.math.BigInteger p, java.math.BigInteger mi) {
+        Comparator<ExpVector> cmp = iring.tord.getDescendComparator();
+        SortedTermMap<BigInteger> tm = new SortedTermMap<BigInteger>(cmp, A.length() + B.length());
+        Iterator<Map.Entry<ExpVector, BigInteger>> at = A.val.entrySet().iterator();
+        Iterator<Map.Entry<ExpVector, C>> bt = B.val.entrySet().iterator();
+        Map.Entry<ExpVector, BigInteger> ae = at.hasNext() ? at.next() : null;
+        Map.Entry<ExpVector, C> be = bt.hasNext() ? bt.next() : null;
+        java.math.BigInteger zero = java.math.BigInteger.ZERO;
+        while (ae != null || be != null) {
+            int s;
+            if (ae == null) {
+                s = 1;
+            } else if (be == null) {
+                s = -1;
+            } else {
+                s = cmp.compare(ae.getKey(), be.getKey());
+            }
+            ExpVector e;
+            java.math.BigInteger x, y;
+            if (s < 0) {
+                e = ae.getKey();
+                x = ae.getValue().getVal();
+                y = zero;
+                ae = at.hasNext() ? at.next() : null;
+            } else if (s > 0) {
+                e = be.getKey();
+                x = zero;
+                y = be.getValue().getInteger().getVal();
+                be = bt.hasNext() ? bt.next() : null;
+            } else {
+                e = ae.getKey();
+                x = ae.getValue().getVal();
+                y = be.getValue().getInteger().getVal();
+                ae = at.hasNext() ? at.next() : null;
+                be = bt.hasNext() ? bt.next() : null;
+            }
+            // x + modul * ((y - x) / modul mod p)
+            java.math.BigInteger t = y.subtract(x).multiply(mi).mod(p);
+            tm.append(e, new BigInteger(x.add(modul.multiply(t))));
+        }
+        GenPolynomial<BigInteger> S = iring.getZERO().copy();
+        S.doPutToMap(tm);
+        return S;
+    }
+
+}
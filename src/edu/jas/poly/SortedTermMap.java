@@ -0,0 +1,265 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+
+import edu.jas.structure.RingElem;
+import edu.jas.util.MapEntry;
+
+
+/**
+ * Append only sorted map of polynomial terms backed by arrays. The
+ * terms must be appended in the order of the given comparator. The map
+ * is intended as intermediate storage for algorithms which generate the
+ * terms of a result polynomial in term order, since
+ * <code>TreeMap.putAll()</code> of an empty TreeMap with the same
+ * comparator builds the tree from a SortedMap in linear time. Sub-map
+ * views are not supported.
+ * @param <C> coefficient type
+ * @author agent
+ */
+
+final class SortedTermMap<C extends RingElem<C>> extends AbstractMap<ExpVector, C>
+                implements SortedMap<ExpVector, C> {
+
+
+    /**
+     * The comparator defining the order of the terms.
+     */
+    private final Comparator<ExpVector> cmp;
+
+
+    /**
+     * The exponent vectors.
+     */
+    private ExpVector[] keys;
+
+
+    /**
+     * The coefficients.
+     */
+    private Object[] vals;
+
+
+    /**
+     * The number of terms.
+     */
+    private int size;
+
+
+    /**
+     * Constructor.
+     * @param cmp comparator of the terms, usually the descending comparator
+     *            of a term order.
+     * @param capacity initial capacity.
+     */
+    SortedTermMap(Comparator<ExpVector> cmp, int capacity) {
+        this.cmp = cmp;
+        if (capacity < 2) {
+            capacity = 2;
+        }
+        keys = new ExpVector[capacity];
+        vals = new Object[capacity];
+        size = 0;
+    }
+
+
+    /**
+     * Append a term. The exponent must be smaller than all exponents in this
+     * map with respect to the comparator. Zero coefficients are not stored.
+     * @param e exponent.
+     * @param c coefficient.
+     */
+    void append(ExpVector e, C c) {
+        if (c.isZERO()) {
+            return;
+        }
+        assert (size == 0 || cmp.compare(keys[size - 1], e) < 0) : "term not in order " + e;
+        if (size == keys.length) {
+            int cap = keys.length + (keys.length >> 1) + 1;
+            keys = Arrays.copyOf(keys, cap);
+            vals = Arrays.copyOf(vals, cap);
+        }
+        keys[size] = e;
+        vals[size] = c;
+        size++;
+    }
+
+
+    /**
+     * Exponent at position.
+     * @param i position.
+     * @return i-th exponent.
+     */
+    ExpVector keyAt(int i) {
+        return keys[i];
+    }
+
+
+    /**
+     * Coefficient at position.
+     * @param i position.
+     * @return i-th coefficient.
+     */
+    @SuppressWarnings("unchecked")
+    C valueAt(int i) {
+        return (C) vals[i];
+    }
+
+
+    /**
+     * Number of terms.
+     * @see java.util.Map#size()
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Get the comparator.
+     * @see java.util.SortedMap#comparator()
+     */
+    public Comparator<? super ExpVector> comparator() {
+        return cmp;
+    }
+
+
+    /**
+     * First exponent.
+     * @see java.util.SortedMap#firstKey()
+     */
+    public ExpVector firstKey() {
+        if (size == 0) {
+            throw new NoSuchElementException("empty map");
+        }
+        return keys[0];
+    }
+
+
+    /**
+     * Last exponent.
+     * @see java.util.SortedMap#lastKey()
+     */
+    public ExpVector lastKey() {
+        if (size == 0) {
+            throw new NoSuchElementException("empty map");
+        }
+        return keys[size - 1];
+    }
+
+
+    /**
+     * Get the coefficient for an exponent by binary search.
+     * @see java.util.Map#get(java.lang.Object)
+     */
+    @Override
+    public C get(Object k) {
+        if (!(k instanceof ExpVector)) {
+            return null;
+        }
+        ExpVector e = (ExpVector) k;
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int s = cmp.compare(keys[mid], e);
+            if (s < 0) {
+                lo = mid + 1;
+            } else if (s > 0) {
+                hi = mid - 1;
+            } else {
+                return valueAt(mid);
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Not supported.
+     * @see java.util.SortedMap#subMap(java.lang.Object, java.lang.Object)
+     */
+    public SortedMap<ExpVector, C> subMap(ExpVector from, ExpVector to) {
+        throw new UnsupportedOperationException("sub maps not supported");
+    }
+
+
+    /**
+     * Not supported.
+     * @see java.util.SortedMap#headMap(java.lang.Object)
+     */
+    public SortedMap<ExpVector, C> headMap(ExpVector to) {
+        throw new UnsupportedOperationException("sub maps not supported");
+    }
+
+
+    /**
+     * Not supported.
+     * @see java.util.SortedMap#tailMap(java.lang.Object)
+     */
+    public SortedMap<ExpVector, C> tailMap(ExpVector from) {
+        throw new UnsupportedOperationException("sub maps not supported");
+    }
+
+
+    /**
+     * Entry set view in term order.
+     * @see java.util.Map#entrySet()
+     */
+    @Override
+    public Set<Map.Entry<ExpVector, C>> entrySet() {
+        return new AbstractSet<Map.Entry<ExpVector, C>>() {
+
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+
+            @Override
+            public Iterator<Map.Entry<ExpVector, C>> iterator() {
+                return new Iterator<Map.Entry<ExpVector, C>>() {
+
+
+                    int i = 0;
+
+
+                    public boolean hasNext() {
+                        return i < size;
+                    }
+
+
+                    public Map.Entry<ExpVector, C> next() {
+                        if (i >= size) {
+                            throw new NoSuchElementException("no more terms");
+                        }
+                        Map.Entry<ExpVector, C> me = new MapEntry<ExpVector, C>(keys[i], valueAt(i));
+                        i++;
+                        return me;
+                    }
+
+
+                    public void remove() {
+                        throw new UnsupportedOperationException("remove not supported");
+                    }
+                };
+            }
+        };
+    }
+
+}
@@ -0,0 +1,358 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.structure.RingElem;
+
+
+/**
+ * Subproduct tree for multipoint evaluation and interpolation of univariate
+ * polynomials. The leaves are the linear polynomials x - a_i for the points
+ * a_i, the inner nodes are the products of their children. Evaluation at all
+ * points descends the tree with remainders, interpolation ascends the tree
+ * with linear combinations of the node polynomials. Remainders by large nodes
+ * are computed with Newton iteration for the inverses of the reversed node
+ * polynomials, so that the costs are dominated by polynomial multiplications.
+ * The tree is intended to be reused for many polynomials with the same
+ * points, e.g. for the coefficients of a recursive polynomial. See J. von zur
+ * Gathen, J. Gerhard, "Modern Computer Algebra", chapter 10. <b>Note:</b> the
+ * inverses are cached, so this class is not thread safe.
+ * @param <C> coefficient type
+ * @author agent
+ */
+
+public class SubproductTree<C extends RingElem<C>> {
+
+
+    private static final Logger logger = LogManager.getLogger(SubproductTree.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Degree of node polynomials from which on Newton iteration is used for
+     * remainders.
+     */
+    public static final int NEWTON_THRESHOLD = 64;
+
+
+    /**
+     * Number of points below which interpolation uses Newton's incremental
+     * interpolation. Also the number of points of the tree nodes at which
+     * evaluation switches to Horner's rule.
+     */
+    public static final int POINT_THRESHOLD = 32;
+
+
+    /**
+     * Number of points and degree below which evaluation uses Horner's rule
+     * at each point. Horner's rule on plain coefficients is fast, so the
+     * subproduct tree pays off only for large inputs.
+     */
+    public static final int EVALUATION_THRESHOLD = 1024;
+
+
+    /**
+     * The univariate polynomial factory.
+     */
+    public final GenPolynomialRing<C> ring;
+
+
+    /**
+     * The evaluation points.
+     */
+    public final List<C> points;
+
+
+    /**
+     * The tree, level 0 contains the polynomials x - a_i, the last level the
+     * product of all x - a_i.
+     */
+    protected final List<List<GenPolynomial<C>>> tree;
+
+
+    /**
+     * Inverses of the reversed node polynomials modulo x<sup>k</sup>, or
+     * null.
+     */
+    protected final List<List<GenPolynomial<C>>> inverses;
+
+
+    /**
+     * Precisions k of the inverses.
+     */
+    protected final List<int[]> precisions;
+
+
+    /**
+     * Inverses of the derivative of the root polynomial at the points, or
+     * null.
+     */
+    protected List<C> weights;
+
+
+    /**
+     * Constructor.
+     * @param ring univariate polynomial factory.
+     * @param points list of evaluation points.
+     */
+    public SubproductTree(GenPolynomialRing<C> ring, List<C> points) {
+        if (ring.nvar != 1) {
+            throw new IllegalArgumentException("only univariate polynomials allowed: " + ring);
+        }
+        if (points == null || points.isEmpty()) {
+            throw new IllegalArgumentException("no evaluation points");
+        }
+        this.ring = ring;
+        this.points = points;
+        tree = new ArrayList<List<GenPolynomial<C>>>();
+        inverses = new ArrayList<List<GenPolynomial<C>>>();
+        precisions = new ArrayList<int[]>();
+        GenPolynomial<C> x = ring.univariate(0);
+        List<GenPolynomial<C>> m = new ArrayList<GenPolynomial<C>>(points.size());
+        for (C a : points) {
+            m.add(x.subtract(a));
+        }
+        tree.add(m);
+        while (m.size() > 1) {
+            List<GenPolynomial<C>> n = new ArrayList<GenPolynomial<C>>((m.size() + 1) / 2);
+            for (int j = 0; j < m.size(); j += 2) {
+                n.add((j + 1 < m.size()) ? m.get(j).multiply(m.get(j + 1)) : m.get(j));
+            }
+            tree.add(n);
+            m = n;
+        }
+        for (List<GenPolynomial<C>> l : tree) {
+            List<GenPolynomial<C>> il = new ArrayList<GenPolynomial<C>>(l.size());
+            for (int j = 0; j < l.size(); j++) {
+                il.add(null);
+            }
+            inverses.add(il);
+            precisions.add(new int[l.size()]);
+        }
+        weights = null;
+    }
+
+
+    /**
+     * Get the product of all x - a_i.
+     * @return prod(x - a_i).
+     */
+    public GenPolynomial<C> getProduct() {
+        return tree.get(tree.size() - 1).get(0);
+    }
+
+
+    /**
+     * Test if evaluation uses the subproduct tree.
+     * @param n number of points.
+     * @param d degree of the polynomial.
+     * @return true, if evaluate() descends the tree for n points and a
+     *         polynomial of degree d, false if it uses Horner's rule at each
+     *         point.
+     */
+    public static boolean isTreeEvaluation(long n, long d) {
+        return n >= EVALUATION_THRESHOLD && d >= EVALUATION_THRESHOLD;
+    }
+
+
+    /**
+     * Evaluate a univariate polynomial at all points.
+     * @param A univariate polynomial.
+     * @return list of A(a_i).
+     */
+    public List<C> evaluate(GenPolynomial<C> A) {
+        List<C> v = new ArrayList<C>(points.size());
+        if (A == null || A.isZERO()) {
+            C z = ring.coFac.getZERO();
+            for (int i = 0; i < points.size(); i++) {
+                v.add(z);
+            }
+            return v;
+        }
+        if (!isTreeEvaluation(points.size(), A.degree(0))) {
+            for (C a : points) {
+                v.add(PolyUtil.<C> evaluateMain(ring.coFac, A, a));
+            }
+            return v;
+        }
+        int h = tree.size() - 1;
+        List<GenPolynomial<C>> r = new ArrayList<GenPolynomial<C>>(1);
+        r.add(remainder(A, h, 0));
+        // descend until the nodes have at most POINT_THRESHOLD points
+        int l = h;
+        while (l > 0 && (1 << l) > POINT_THRESHOLD) {
+            l--;
+            List<GenPolynomial<C>> m = tree.get(l);
+            List<GenPolynomial<C>> s = new ArrayList<GenPolynomial<C>>(m.size());
+            for (int j = 0; j < m.size(); j++) {
+                s.add(remainder(r.get(j / 2), l, j));
+            }
+            r = s;
+        }
+        // node j of level l covers the points j 2^l, ..., (j+1) 2^l - 1
+        for (int i = 0; i < points.size(); i++) {
+            v.add(PolyUtil.<C> evaluateMain(ring.coFac, r.get(i >> l), points.get(i)));
+        }
+        return v;
+    }
+
+
+    /**
+     * Interpolate a univariate polynomial from values at all points. The
+     * coefficient ring must be a field and the points must be pairwise
+     * different.
+     * @param b list of values b_i at the points a_i.
+     * @return the polynomial P with deg(P) &lt; #points and P(a_i) = b_i.
+     */
+    public GenPolynomial<C> interpolate(List<C> b) {
+        if (b.size() != points.size()) {
+            throw new IllegalArgumentException("number of values and points differ: " + b.size() + " != "
+                            + points.size());
+        }
+        if (points.size() < POINT_THRESHOLD) {
+            GenPolynomial<C> P = ring.getZERO();
+            GenPolynomial<C> M = ring.getONE();
+            for (int i = 0; i < points.size(); i++) {
+                C mi = PolyUtil.<C> evaluateMain(ring.coFac, M, points.get(i)).inverse();
+                P = PolyUtil.<C> interpolate(ring, P, M, mi, b.get(i), points.get(i));
+                M = M.multiply(tree.get(0).get(i));
+            }
+            return P;
+        }
+        if (weights == null) { // 1 / m'(a_i)
+            List<C> w = evaluate(PolyUtil.<C> baseDeriviative(getProduct()));
+            for (int i = 0; i < w.size(); i++) {
+                w.set(i, w.get(i).inverse());
+            }
+            weights = w;
+        }
+        List<GenPolynomial<C>> f = new ArrayList<GenPolynomial<C>>(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            f.add(ring.getONE().multiply(b.get(i).multiply(weights.get(i))));
+        }
+        for (int l = 0; l < tree.size() - 1; l++) {
+            List<GenPolynomial<C>> m = tree.get(l);
+            List<GenPolynomial<C>> g = new ArrayList<GenPolynomial<C>>((m.size() + 1) / 2);
+            for (int j = 0; j < m.size(); j += 2) {
+                if (j + 1 < m.size()) {
+                    GenPolynomial<C> p = f.get(j).multiply(m.get(j + 1));
+                    g.add(p.sum(f.get(j + 1).multiply(m.get(j))));
+                } else {
+                    g.add(f.get(j));
+                }
+            }
+            f = g;
+        }
+        return f.get(0);
+    }
+
+
+    /**
+     * Remainder by a node polynomial.
+     * @param A univariate polynomial.
+     * @param l level of the node.
+     * @param j index of the node in level l.
+     * @return A mod tree[l][j].
+     */
+    protected GenPolynomial<C> remainder(GenPolynomial<C> A, int l, int j) {
+        GenPolynomial<C> m = tree.get(l).get(j);
+        long k = m.degree(0);
+        long n = A.degree(0);
+        if (A.isZERO() || n < k) {
+            return A;
+        }
+        if (k < NEWTON_THRESHOLD) {
+            return A.remainder(m);
+        }
+        // Newton division: rev(q) = rev(A) / rev(m) mod x^(n-k+1)
+        int e = (int) (n - k + 1);
+        GenPolynomial<C> mi = inverse(l, j, e);
+        GenPolynomial<C> q = truncate(reverse(A, n).multiply(mi), e);
+        q = reverse(q, e - 1);
+        GenPolynomial<C> r = A.subtract(q.multiply(m));
+        if (debug && r.degree(0) >= k) {
+            logger.debug("remainder not reduced: deg(r) = " + r.degree(0) + ", deg(m) = " + k);
+        }
+        return r;
+    }
+
+
+    /**
+     * Inverse of a reversed node polynomial by Newton iteration. The node
+     * polynomials are monic, so the reversed polynomials have constant term
+     * 1.
+     * @param l level of the node.
+     * @param j index of the node in level l.
+     * @param e precision.
+     * @return rev(tree[l][j])<sup>-1</sup> mod x<sup>e</sup>.
+     */
+    protected GenPolynomial<C> inverse(int l, int j, int e) {
+        GenPolynomial<C> g = inverses.get(l).get(j);
+        if (g != null && precisions.get(l)[j] >= e) {
+            return truncate(g, e);
+        }
+        GenPolynomial<C> m = tree.get(l).get(j);
+        GenPolynomial<C> f = reverse(m, m.degree(0));
+        GenPolynomial<C> one = ring.getONE();
+        g = one;
+        int k = 1;
+        while (k < e) {
+            k = Math.min(2 * k, e);
+            GenPolynomial<C> d = one.subtract(truncate(truncate(f, k).multiply(g), k));
+            g = truncate(g.sum(g.multiply(d)), k);
+        }
+        inverses.get(l).set(j, g);
+        precisions.get(l)[j] = e;
+        return g;
+    }
+
+
+    /**
+     * Reverse a univariate polynomial.
+     * @param A univariate polynomial with deg(A) &le; n.
+     * @param n degree bound.
+     * @return x<sup>n</sup> A(1/x).
+     */
+    static <C extends RingElem<C>> GenPolynomial<C> reverse(GenPolynomial<C> A, long n) {
+        GenPolynomialRing<C> fac = A.ring;
+        GenPolynomial<C> p = fac.getZERO().copy();
+        SortedTermMap<C> tm = new SortedTermMap<C>(fac.tord.getDescendComparator(), A.length());
+        ExpVector e0 = fac.evzero;
+        List<Map.Entry<ExpVector, C>> terms = new ArrayList<Map.Entry<ExpVector, C>>(A.val.entrySet());
+        for (int i = terms.size() - 1; i >= 0; i--) { // ascending in A, descending in p
+            Map.Entry<ExpVector, C> me = terms.get(i);
+            tm.append(e0.subst(0, n - me.getKey().getVal(0)), me.getValue());
+        }
+        p.doPutToMap(tm);
+        return p;
+    }
+
+
+    /**
+     * Truncate a univariate polynomial.
+     * @param A univariate polynomial.
+     * @param k number of coefficients.
+     * @return A mod x<sup>k</sup>.
+     */
+    static <C extends RingElem<C>> GenPolynomial<C> truncate(GenPolynomial<C> A, long k) {
+        if (A.isZERO() || A.degree(0) < k) {
+            return A;
+        }
+        GenPolynomial<C> p = A.ring.getZERO().copy();
+        p.val.putAll(A.val.tailMap(A.ring.evzero.subst(0, k - 1)));
+        return p;
+    }
+
+}
@@ -186,14 +186,7 @@ public final class TermOrder implements Serializable {
             break;
         }
         case TermOrder.INVLEX: {
-            horder = new EVComparator() {
-
-
-                @Override
-                public int compare(ExpVector e1, ExpVector e2) {
-                    return -e1.invLexCompareTo(e2);
-                }
-            };
+            horder = EVComparatorFactory.getINVLEXComparator();
             break;
         }
         case TermOrder.GRLEX: {
@@ -208,14 +201,7 @@ public final class TermOrder implements Serializable {
             break;
         }
         case TermOrder.IGRLEX: {
-            horder = new EVComparator() {
-
-
-                @Override
-                public int compare(ExpVector e1, ExpVector e2) {
-                    return -e1.invGradCompareTo(e2);
-                }
-            };
+            horder = EVComparatorFactory.getIGRLEXComparator();
             break;
         }
         case TermOrder.REVLEX: {
@@ -340,14 +326,7 @@ public final class TermOrder implements Serializable {
         evend2 = evend1;
         TOP = false;
         
-        horder = new EVComparator() {
-
-
-            @Override
-            public int compare(ExpVector e1, ExpVector e2) {
-                return -e1.invWeightCompareTo(weight, e2);
-            }
-        };
+        horder = EVComparatorFactory.getWeightComparator(weight);
 
         // lorder = new EVlorder();
         lorder = new EVComparator() {
@@ -509,17 +488,8 @@ public final class TermOrder implements Serializable {
             }
             case TermOrder.INVLEX: {
                 if (!TOP) { 
-                    horder = new EVComparator() { // POT
-
-                            @Override
-                            public int compare(ExpVector e1, ExpVector e2) {
-                                int t = -e1.invLexCompareTo(e2, evbeg1, evend1);
-                                if (t != 0) {
-                                    return t;
-                                }
-                                return -e1.invLexCompareTo(e2, evbeg2, evend2);
-                            }
-                        };
+                    horder = EVComparatorFactory.getSplitComparator(evord, evord2, evbeg1, evend1, evbeg2,
+                                    evend2); // POT
                     break;
                 }
                 horder = new EVComparator() { // TOP
@@ -552,17 +522,8 @@ public final class TermOrder implements Serializable {
             }
             case TermOrder.IGRLEX: {
                 if (!TOP) { 
-                    horder = new EVComparator() { // POT
-
-                            @Override
-                            public int compare(ExpVector e1, ExpVector e2) {
-                                int t = -e1.invLexCompareTo(e2, evbeg1, evend1);
-                                if (t != 0) {
-                                    return t;
-                                }
-                                return -e1.invGradCompareTo(e2, evbeg2, evend2);
-                            }
-                        };
+                    horder = EVComparatorFactory.getSplitComparator(evord, evord2, evbeg1, evend1, evbeg2,
+                                    evend2); // POT
                     break;
                 }
                 horder = new EVComparator() { // TOP
@@ -731,17 +692,8 @@ public final class TermOrder implements Serializable {
             }
             case TermOrder.INVLEX: {
                 if (!TOP) {
-                    horder = new EVComparator() { // POT
-
-                            @Override
-                            public int compare(ExpVector e1, ExpVector e2) {
-                                int t = -e1.invGradCompareTo(e2, evbeg1, evend1);
-                                if (t != 0) {
-                                    return t;
-                                }
-                                return -e1.invLexCompareTo(e2, evbeg2, evend2);
-                            }
-                        };
+                    horder = EVComparatorFactory.getSplitComparator(evord, evord2, evbeg1, evend1, evbeg2,
+                                    evend2); // POT
                     break;
                 }
                 horder = new EVComparator() { // TOP
@@ -774,17 +726,8 @@ public final class TermOrder implements Serializable {
             }
             case TermOrder.IGRLEX: {
                 if (!TOP) {
-                    horder = new EVComparator() { // POT
-
-                            @Override
-                            public int compare(ExpVector e1, ExpVector e2) {
-                                int t = -e1.invGradCompareTo(e2, evbeg1, evend1);
-                                if (t != 0) {
-                                    return t;
-                                }
-                                return -e1.invGradCompareTo(e2, evbeg2, evend2);
-                            }
-                        };
+                    horder = EVComparatorFactory.getSplitComparator(evord, evord2, evbeg1, evend1, evbeg2,
+                                    evend2); // POT
                     break;
                 }
                 horder = new EVComparator() { // TOP
@@ -15,6 +15,8 @@ import edu.jas.arith.ModIntRing;
 import edu.jas.arith.ModInteger;
 import edu.jas.arith.ModIntegerRing;
 import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongMontgomery;
+import edu.jas.arith.ModLongMontgomeryRing;
 import edu.jas.arith.ModLongRing;
 import edu.jas.kern.ComputerThreads;
 import edu.jas.structure.GcdRingElem;
@@ -119,6 +121,37 @@ public class GCDFactory {
     }
 
 
+    /**
+     * Determine suitable implementation of gcd algorithms, case
+     * ModLongMontgomery.
+     * @param fac ModLongMontgomeryRing.
+     * @return gcd algorithm implementation.
+     */
+    public static GreatestCommonDivisorAbstract<ModLongMontgomery> getImplementation(
+                    ModLongMontgomeryRing fac) {
+        GreatestCommonDivisorAbstract<ModLongMontgomery> ufd;
+        if (fac.isField()) {
+            ufd = new GreatestCommonDivisorSubres<ModLongMontgomery>();
+            return ufd;
+        }
+        ufd = new GreatestCommonDivisorPrimitive<ModLongMontgomery>();
+        return ufd;
+    }
+
+
+    /**
+     * Determine suitable proxy for gcd algorithms, case ModLongMontgomery.
+     * @param fac ModLongMontgomeryRing.
+     * @return gcd algorithm implementation.
+     */
+    public static GreatestCommonDivisorAbstract<ModLongMontgomery> getProxy(ModLongMontgomeryRing fac) {
+        GreatestCommonDivisorAbstract<ModLongMontgomery> ufd1, ufd2;
+        ufd1 = new GreatestCommonDivisorSubres<ModLongMontgomery>();
+        ufd2 = new GreatestCommonDivisorPrimitive<ModLongMontgomery>();
+        return new GCDProxy<ModLongMontgomery>(ufd1, ufd2);
+    }
+
+
     /**
      * Determine suitable implementation of gcd algorithms, case ModInt.
      * @param fac ModIntRing.
@@ -201,7 +234,7 @@ public class GCDFactory {
     public static GreatestCommonDivisorAbstract<BigInteger> getImplementation(BigInteger fac) {
         GreatestCommonDivisorAbstract<BigInteger> ufd;
         if (true) {
-            ufd = new GreatestCommonDivisorModular<ModLong>(); // dummy type
+            ufd = new GreatestCommonDivisorModular();
         } else {
             ufd = new GreatestCommonDivisorSubres<BigInteger>();
             //ufd = new GreatestCommonDivisorPrimitive<BigInteger>();
@@ -221,7 +254,7 @@ public class GCDFactory {
         }
         GreatestCommonDivisorAbstract<BigInteger> ufd1, ufd2;
         ufd1 = new GreatestCommonDivisorSubres<BigInteger>();
-        ufd2 = new GreatestCommonDivisorModular<ModLong>(); // dummy type
+        ufd2 = new GreatestCommonDivisorModular();
         return new GCDProxy<BigInteger>(ufd1, ufd2);
     }
 
@@ -269,15 +302,17 @@ public class GCDFactory {
         logger.debug("fac = " + fac.getClass().getName());
         Object ofac = fac;
         if (ofac instanceof BigInteger) {
-            ufd = new GreatestCommonDivisorModular<ModInteger>();
+            ufd = new GreatestCommonDivisorModular();
             //ufd = new GreatestCommonDivisorSubres<BigInteger>();
-            //ufd = new GreatestCommonDivisorModular<ModInteger>(true);
+            //ufd = new GreatestCommonDivisorModular(true);
         } else if (ofac instanceof ModIntegerRing) {
             ufd = new GreatestCommonDivisorModEval<ModInteger>();
             //ufd = new GreatestCommonDivisorSimple<ModInteger>();
         } else if (ofac instanceof ModLongRing) {
             ufd = new GreatestCommonDivisorSubres<ModLong>();
             //ufd = new GreatestCommonDivisorSimple<ModLong>();
+        } else if (ofac instanceof ModLongMontgomeryRing) {
+            ufd = new GreatestCommonDivisorSubres<ModLongMontgomery>();
         } else if (ofac instanceof ModIntRing) {
             ufd = new GreatestCommonDivisorSubres<ModInt>();
             //ufd = new GreatestCommonDivisorSimple<ModInt>();
@@ -312,13 +347,16 @@ public class GCDFactory {
         Object ofac = fac;
         if (ofac instanceof BigInteger) {
             ufd = new GCDProxy<BigInteger>(new GreatestCommonDivisorSubres<BigInteger>(),
-                            new GreatestCommonDivisorModular<ModInteger>());
+                            new GreatestCommonDivisorModular());
         } else if (ofac instanceof ModIntegerRing) {
             ufd = new GCDProxy<ModInteger>(new GreatestCommonDivisorSubres<ModInteger>(), // or Primitive
                             new GreatestCommonDivisorModEval<ModInteger>());
         } else if (ofac instanceof ModLongRing) {
             ufd = new GCDProxy<ModLong>(new GreatestCommonDivisorSimple<ModLong>(), // or Primitive
                             new GreatestCommonDivisorSubres<ModLong>());
+        } else if (ofac instanceof ModLongMontgomeryRing) {
+            ufd = new GCDProxy<ModLongMontgomery>(new GreatestCommonDivisorSimple<ModLongMontgomery>(),
+                            new GreatestCommonDivisorSubres<ModLongMontgomery>());
         } else if (ofac instanceof ModIntRing) {
             ufd = new GCDProxy<ModInt>(new GreatestCommonDivisorSimple<ModInt>(), // or Primitive
                             new GreatestCommonDivisorSubres<ModInt>());
@@ -5,6 +5,10 @@
 package edu.jas.ufd;
 
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager; 
 
@@ -14,6 +18,7 @@ import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.PolyUtil;
+import edu.jas.poly.SubproductTree;
 import edu.jas.structure.GcdRingElem;
 import edu.jas.structure.RingFactory;
 
@@ -175,106 +180,109 @@ public class GreatestCommonDivisorModEval <MOD extends GcdRingElem<MOD> & Modula
         MOD inc = cofac.getONE();
         long i = 0;
         long en = cofac.getIntegerModul().longValue() - 1; // just a stopper
-        MOD end = cofac.fromInteger(en);
-        MOD mi;
-        GenPolynomial<MOD> M = null;
-        GenPolynomial<MOD> mn;
+        MOD d = cofac.getZERO();
         GenPolynomial<MOD> qm;
         GenPolynomial<MOD> rm;
         GenPolynomial<MOD> cm;
         GenPolynomial<GenPolynomial<MOD>> cp = null;
+        List<MOD> points = new ArrayList<MOD>();
+        List<GenPolynomial<MOD>> values = new ArrayList<GenPolynomial<MOD>>();
         if (debug) {
             logger.debug("c = " + c);
             logger.debug("cc = " + cc);
             logger.debug("G = " + G);
             logger.info("wdegv = " + wdegv);
         }
-        for (MOD d = cofac.getZERO(); d.compareTo(end) <= 0; d = d.sum(inc)) {
-            if (++i >= en) {
-                logger.warn("elements of Z_p exhausted, en = " + en);
-                return mufd.gcd(P, S);
-                //throw new ArithmeticException("prime list exhausted");
-            }
-            // map normalization factor
-            MOD nf = PolyUtil.<MOD> evaluateMain(cofac, cc, d);
-            if (nf.isZERO()) {
-                continue;
-            }
-            // map polynomials
-            qm = PolyUtil.<MOD> evaluateFirstRec(ufac, mfac, qr, d);
-            if (qm.isZERO() || !qm.degreeVector().equals(qdegv)) {
-                continue;
+        long dm = Math.max(Math.max(rd0, qd0), cd0);
+        while (points.size() <= G) {
+            // next evaluation points, the first point is tested alone for a constant gcd
+            long k = G + 1 - points.size();
+            if (points.isEmpty() || !SubproductTree.isTreeEvaluation(k, dm)) {
+                k = 1;
             }
-            rm = PolyUtil.<MOD> evaluateFirstRec(ufac, mfac, rr, d);
-            if (rm.isZERO() || !rm.degreeVector().equals(rdegv)) {
-                continue;
+            List<MOD> batch = new ArrayList<MOD>((int) k);
+            for (long j = 0; j < k; j++) {
+                if (++i >= en) {
+                    logger.warn("elements of Z_p exhausted, en = " + en);
+                    return mufd.gcd(P, S);
+                    //throw new ArithmeticException("prime list exhausted");
+                }
+                batch.add(d);
+                d = d.sum(inc);
             }
-            if (debug) {
-                logger.debug("eval d = " + d);
+            // map normalization factor and polynomials
+            List<MOD> nfs;
+            List<GenPolynomial<MOD>> qms;
+            List<GenPolynomial<MOD>> rms;
+            if (k == 1) {
+                MOD x = batch.get(0);
+                nfs = Collections.singletonList(PolyUtil.<MOD> evaluateMain(cofac, cc, x));
+                qms = Collections.singletonList(PolyUtil.<MOD> evaluateFirstRec(ufac, mfac, qr, x));
+                rms = Collections.singletonList(PolyUtil.<MOD> evaluateFirstRec(ufac, mfac, rr, x));
+            } else { // evaluated with one subproduct tree
+                SubproductTree<MOD> st = new SubproductTree<MOD>(ufac, batch);
+                nfs = st.evaluate(cc);
+                qms = PolyUtil.<MOD> evaluateFirstRecMultipoint(st, mfac, qr);
+                rms = PolyUtil.<MOD> evaluateFirstRecMultipoint(st, mfac, rr);
             }
-            // compute modular gcd in recursion
-            cm = gcd(rm, qm);
-            //System.out.println("cm = " + cm);
-            // test for constant g.c.d
-            if (cm.isConstant()) {
-                logger.debug("cm.isConstant = " + cm + ", c = " + c);
-                if (c.ring.nvar < cm.ring.nvar) {
-                    c = c.extend(mfac, 0, 0);
+            for (int j = 0; j < batch.size() && points.size() <= G; j++) {
+                MOD nf = nfs.get(j);
+                if (nf.isZERO()) {
+                    continue;
                 }
-                cm = cm.abs().multiply(c);
-                q = cm.extend(fac, 0, 0);
-                logger.debug("q             = " + q + ", c = " + c);
-                return q;
-            }
-            // test for unlucky evaluation point
-            ExpVector mdegv = cm.degreeVector();
-            if (wdegv.equals(mdegv)) { // TL = 0
-                // evaluation point ok, next round
-                if (M != null) {
-                    if (M.degree(0) > G) {
-                        logger.info("deg(M) > G: " + M.degree(0) + " > " + G);
-                        // continue; // why should this be required?
-                    }
+                qm = qms.get(j);
+                if (qm.isZERO() || !qm.degreeVector().equals(qdegv)) {
+                    continue;
                 }
-            } else { // TL = 3
-                boolean ok = false;
-                if (wdegv.multipleOf(mdegv)) { // TL = 2
-                    M = null; // init chinese remainder
-                    ok = true; // evaluation point ok
+                rm = rms.get(j);
+                if (rm.isZERO() || !rm.degreeVector().equals(rdegv)) {
+                    continue;
                 }
-                if (mdegv.multipleOf(wdegv)) { // TL = 1
-                    continue; // skip this evaluation point
+                if (debug) {
+                    logger.debug("eval d = " + batch.get(j));
                 }
-                if (!ok) {
-                    M = null; // discard chinese remainder and previous work
-                    continue; // evaluation point not ok
+                // compute modular gcd in recursion
+                cm = gcd(rm, qm);
+                //System.out.println("cm = " + cm);
+                // test for constant g.c.d
+                if (cm.isConstant()) {
+                    logger.debug("cm.isConstant = " + cm + ", c = " + c);
+                    if (c.ring.nvar < cm.ring.nvar) {
+                        c = c.extend(mfac, 0, 0);
+                    }
+                    cm = cm.abs().multiply(c);
+                    q = cm.extend(fac, 0, 0);
+                    logger.debug("q             = " + q + ", c = " + c);
+                    return q;
                 }
+                // test for unlucky evaluation point
+                ExpVector mdegv = cm.degreeVector();
+                if (!wdegv.equals(mdegv)) { // TL = 3
+                    boolean ok = false;
+                    if (wdegv.multipleOf(mdegv)) { // TL = 2
+                        points.clear(); // init interpolation
+                        values.clear();
+                        ok = true; // evaluation point ok
+                    }
+                    if (mdegv.multipleOf(wdegv)) { // TL = 1
+                        continue; // skip this evaluation point
+                    }
+                    if (!ok) {
+                        points.clear(); // discard interpolation points and previous work
+                        values.clear();
+                        continue; // evaluation point not ok
+                    }
+                }
+                if (points.isEmpty()) {
+                    wdegv = wdegv.gcd(mdegv); //EVGCD(wdegv,mdegv);
+                }
+                // collect values for interpolation
+                points.add(batch.get(j));
+                values.add(cm.multiply(nf));
             }
-            // prepare interpolation algorithm
-            cm = cm.multiply(nf);
-            if (M == null) {
-                // initialize interpolation
-                M = ufac.getONE();
-                cp = rfac.getZERO();
-                wdegv = wdegv.gcd(mdegv); //EVGCD(wdegv,mdegv);
-            }
-            // interpolate
-            mi = PolyUtil.<MOD> evaluateMain(cofac, M, d);
-            mi = mi.inverse(); // mod p
-            cp = PolyUtil.interpolate(rfac, cp, M, mi, cm, d);
-            mn = ufac.getONE().multiply(d);
-            mn = ufac.univariate(0).subtract(mn);
-            M = M.multiply(mn);
-            // test for completion
-            if (M.degree(0) > G) {
-                break;
-            }
-            //long cmn = PolyUtil.<MOD>coeffMaxDegree(cp);
-            //if ( M.degree(0) > cmn ) {
-            // does not work: only if cofactors are also considered?
-            // break;
-            //}
         }
+        // interpolate at all points at once
+        cp = PolyUtil.<MOD> interpolateMultipoint(rfac, new SubproductTree<MOD>(ufac, points), values);
         // remove normalization
         cp = recursivePrimitivePart(cp).abs();
         cp = cp.multiply(c);
@@ -385,14 +393,12 @@ public class GreatestCommonDivisorModEval <MOD extends GcdRingElem<MOD> & Modula
         MOD inc = cofac.getONE();
         long i = 0;
         long en = cofac.getIntegerModul().longValue() - 1; // just a stopper
-        MOD end = cofac.fromInteger(en);
-        MOD mi;
-        GenPolynomial<MOD> M = null;
-        GenPolynomial<MOD> mn;
+        MOD d = cofac.getZERO();
         GenPolynomial<MOD> qm;
         GenPolynomial<MOD> rm;
-        GenPolynomial<MOD> cm;
         GenPolynomial<GenPolynomial<MOD>> cp = null;
+        List<MOD> points = new ArrayList<MOD>();
+        List<GenPolynomial<MOD>> values = new ArrayList<GenPolynomial<MOD>>();
         if (debug) {
             //logger.info("qr    = " + qr + ", q = " + q);
             //logger.info("rr    = " + rr + ", r = " + r);
@@ -402,56 +408,61 @@ public class GreatestCommonDivisorModEval <MOD extends GcdRingElem<MOD> & Modula
             //logger.info("rdegv = " + rdegv); // + ", rr.degree(0) = " + rr.degree(0));
             //logger.info("qdegv = " + qdegv); // + ", qr.degree(0) = " + qr.degree(0));
         }
-        for (MOD d = cofac.getZERO(); d.compareTo(end) <= 0; d = d.sum(inc)) {
-            if (++i >= en) {
-                logger.warn("elements of Z_p exhausted, en = " + en + ", p = " + cofac.getIntegerModul());
-                return mufd.resultant(P, S);
-                //throw new ArithmeticException("prime list exhausted");
+        long dm = Math.max(qd0, rd0);
+        while (points.size() <= G) {
+            // next evaluation points
+            long k = G + 1 - points.size();
+            if (!SubproductTree.isTreeEvaluation(k, dm)) {
+                k = 1;
             }
-            // map polynomials
-            qm = PolyUtil.<MOD> evaluateFirstRec(ufac, mfac, qr, d);
-            //logger.info("qr(" + d + ") = " + qm + ", qr = " + qr);
-            if (qm.isZERO() || !qm.degreeVector().equals(qdegv)) {
-                if (debug) {
-                   logger.info("un-lucky evaluation point " + d + ", qm = " + qm.degreeVector() + " < " + qdegv);
+            List<MOD> batch = new ArrayList<MOD>((int) k);
+            for (long j = 0; j < k; j++) {
+                if (++i >= en) {
+                    logger.warn("elements of Z_p exhausted, en = " + en + ", p = " + cofac.getIntegerModul());
+                    return mufd.resultant(P, S);
+                    //throw new ArithmeticException("prime list exhausted");
                 }
-                continue;
+                batch.add(d);
+                d = d.sum(inc);
             }
-            rm = PolyUtil.<MOD> evaluateFirstRec(ufac, mfac, rr, d);
-            //logger.info("rr(" + d + ") = " + rm + ", rr = " + rr);
-            if (rm.isZERO() || !rm.degreeVector().equals(rdegv)) {
-                if (debug) {
-                    logger.info("un-lucky evaluation point " + d + ", rm = " + rm.degreeVector() + " < " + rdegv);
-                }
-                continue;
-            }
-            // compute modular resultant in recursion
-            cm = resultant(rm, qm);
-            //System.out.println("cm = " + cm);
-
-            // prepare interpolation algorithm
-            if (M == null) {
-                // initialize interpolation
-                M = ufac.getONE();
-                cp = rfac.getZERO();
+            // map polynomials
+            List<GenPolynomial<MOD>> qms;
+            List<GenPolynomial<MOD>> rms;
+            if (k == 1) {
+                MOD x = batch.get(0);
+                qms = Collections.singletonList(PolyUtil.<MOD> evaluateFirstRec(ufac, mfac, qr, x));
+                rms = Collections.singletonList(PolyUtil.<MOD> evaluateFirstRec(ufac, mfac, rr, x));
+            } else { // evaluated with one subproduct tree
+                SubproductTree<MOD> st = new SubproductTree<MOD>(ufac, batch);
+                qms = PolyUtil.<MOD> evaluateFirstRecMultipoint(st, mfac, qr);
+                rms = PolyUtil.<MOD> evaluateFirstRecMultipoint(st, mfac, rr);
             }
-            // interpolate
-            mi = PolyUtil.<MOD> evaluateMain(cofac, M, d);
-            mi = mi.inverse(); // mod p
-            cp = PolyUtil.interpolate(rfac, cp, M, mi, cm, d);
-            //logger.info("cp = " + cp);
-            mn = ufac.getONE().multiply(d);
-            mn = ufac.univariate(0).subtract(mn);
-            M = M.multiply(mn);
-            // test for completion
-            if (M.degree(0) > G) {
-                if (debug) {
-                    logger.info("last lucky evaluation point " + d);
+            for (int j = 0; j < batch.size(); j++) {
+                qm = qms.get(j);
+                //logger.info("qr(" + batch.get(j) + ") = " + qm + ", qr = " + qr);
+                if (qm.isZERO() || !qm.degreeVector().equals(qdegv)) {
+                    if (debug) {
+                        logger.info("un-lucky evaluation point " + batch.get(j) + ", qm = " + qm.degreeVector()
+                                        + " < " + qdegv);
+                    }
+                    continue;
+                }
+                rm = rms.get(j);
+                //logger.info("rr(" + batch.get(j) + ") = " + rm + ", rr = " + rr);
+                if (rm.isZERO() || !rm.degreeVector().equals(rdegv)) {
+                    if (debug) {
+                        logger.info("un-lucky evaluation point " + batch.get(j) + ", rm = " + rm.degreeVector()
+                                        + " < " + rdegv);
+                    }
+                    continue;
                 }
-                break;
+                // compute modular resultant in recursion and collect values for interpolation
+                points.add(batch.get(j));
+                values.add(resultant(rm, qm));
             }
-            //logger.info("M  = " + M);
         }
+        // interpolate at all points at once
+        cp = PolyUtil.<MOD> interpolateMultipoint(rfac, new SubproductTree<MOD>(ufac, points), values);
         // distribute
         q = PolyUtil.<MOD> distribute(fac, cp);
         return q;
@@ -10,27 +10,27 @@ import org.apache.logging.log4j.LogManager;
 
 import edu.jas.arith.BigInteger;
 import edu.jas.arith.Combinatoric;
+import edu.jas.arith.ModInteger;
 import edu.jas.arith.ModIntegerRing;
-import edu.jas.arith.ModLongRing;
-import edu.jas.arith.Modular;
-import edu.jas.arith.ModularRingFactory;
+import edu.jas.arith.ModLongMontgomery;
+import edu.jas.arith.ModLongMontgomeryRing;
 import edu.jas.arith.PrimeList;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.PolyUtil;
-import edu.jas.structure.GcdRingElem;
 import edu.jas.structure.RingFactory;
 
 
 /**
  * Greatest common divisor algorithms with modular computation and chinese
- * remainder algorithm.
+ * remainder algorithm. The modular images are computed for primes of 59 to
+ * 63 bits with ModLongMontgomeryRing coefficients, so only few primes are
+ * required. The images are combined with ModInteger coefficients.
  * @author Heinz Kredel
  */
 
-public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular>
-                extends GreatestCommonDivisorAbstract<BigInteger> {
+public class GreatestCommonDivisorModular extends GreatestCommonDivisorAbstract<BigInteger> {
 
 
     private static final Logger logger = LogManager.getLogger(GreatestCommonDivisorModular.class);
@@ -42,7 +42,7 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
     /*
      * Modular gcd algorithm to use.
      */
-    protected final GreatestCommonDivisorAbstract<MOD> mufd;
+    protected final GreatestCommonDivisorAbstract<ModLongMontgomery> mufd;
 
 
     /*
@@ -66,9 +66,9 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
      */
     public GreatestCommonDivisorModular(boolean simple) {
         if (simple) {
-            mufd = new GreatestCommonDivisorSimple<MOD>();
+            mufd = new GreatestCommonDivisorSimple<ModLongMontgomery>();
         } else {
-            mufd = new GreatestCommonDivisorModEval<MOD>();
+            mufd = new GreatestCommonDivisorModEval<ModLongMontgomery>();
         }
     }
 
@@ -182,21 +182,19 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
         BigInteger cf = (af.compareTo(bf) < 0 ? bf : af);
         cf = cf.multiply(cc.multiply(cc.fromInteger(8)));
         //initialize prime list and degree vector
-        PrimeList primes = new PrimeList();
+        PrimeList primes = new PrimeList(PrimeList.Range.large); // 59 to 63 bit primes
         int pn = 10; //primes.size();
         ExpVector wdegv = rdegv.subst(0, rdegv.getVal(0) + 1);
         // +1 seems to be a hack for the unlucky prime test
-        ModularRingFactory<MOD> cofac;
-        ModularRingFactory<MOD> cofacM = null;
-        GenPolynomial<MOD> qm;
-        GenPolynomial<MOD> rm;
-        GenPolynomialRing<MOD> mfac;
-        GenPolynomialRing<MOD> rfac = null;
+        ModLongMontgomeryRing cofac;
+        GenPolynomial<ModLongMontgomery> qm;
+        GenPolynomial<ModLongMontgomery> rm;
+        GenPolynomialRing<ModLongMontgomery> mfac;
         int i = 0;
         BigInteger M = null;
         BigInteger cfe = null;
-        GenPolynomial<MOD> cp = null;
-        GenPolynomial<MOD> cm = null;
+        GenPolynomial<ModInteger> cp = null;
+        GenPolynomial<ModLongMontgomery> cm = null;
         GenPolynomial<BigInteger> cpi = null;
         if (debug) {
             logger.debug("c = " + c);
@@ -216,22 +214,18 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
                 //throw new ArithmeticException("prime list exhausted");
             }
             // initialize coefficient factory and map normalization factor
-            if (ModLongRing.MAX_LONG.compareTo(p) > 0) {
-                cofac = (ModularRingFactory) new ModLongRing(p, true);
-            } else {
-                cofac = (ModularRingFactory) new ModIntegerRing(p, true);
-            }
-            MOD nf = cofac.fromInteger(cc.getVal());
+            cofac = new ModLongMontgomeryRing(p, true);
+            ModLongMontgomery nf = cofac.fromInteger(cc.getVal());
             if (nf.isZERO()) {
                 continue;
             }
             // initialize polynomial factory and map polynomials
-            mfac = new GenPolynomialRing<MOD>(cofac, fac.nvar, fac.tord, fac.getVars());
-            qm = PolyUtil.<MOD> fromIntegerCoefficients(mfac, q);
+            mfac = new GenPolynomialRing<ModLongMontgomery>(cofac, fac.nvar, fac.tord, fac.getVars());
+            qm = PolyUtil.<ModLongMontgomery> fromIntegerCoefficients(mfac, q);
             if (qm.isZERO() || !qm.degreeVector().equals(qdegv)) {
                 continue;
             }
-            rm = PolyUtil.<MOD> fromIntegerCoefficients(mfac, r);
+            rm = PolyUtil.<ModLongMontgomery> fromIntegerCoefficients(mfac, r);
             if (rm.isZERO() || !rm.degreeVector().equals(rdegv)) {
                 continue;
             }
@@ -275,54 +269,20 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
             cm = cm.multiply(nf);
             if (M == null) {
                 // initialize chinese remainder algorithm
-                M = new BigInteger(p);
-                cofacM = cofac;
-                rfac = mfac;
-                cp = cm;
                 wdegv = wdegv.gcd(mdegv); //EVGCD(wdegv,mdegv);
                 cfe = cf;
                 for (int k = 0; k < wdegv.length(); k++) {
                     cfe = cfe.multiply(new BigInteger(wdegv.getVal(k) + 1));
                 }
-            } else {
-                // apply chinese remainder algorithm
-                BigInteger Mp = M;
-                MOD mi = cofac.fromInteger(Mp.getVal());
-                mi = mi.inverse(); // mod p
-                M = M.multiply(new BigInteger(p));
-                if (ModLongRing.MAX_LONG.compareTo(M.getVal()) > 0) {
-                    cofacM = (ModularRingFactory) new ModLongRing(M.getVal());
-                } else {
-                    cofacM = (ModularRingFactory) new ModIntegerRing(M.getVal());
-                }
-                rfac = new GenPolynomialRing<MOD>(cofacM, fac);
-                if (!cofac.getClass().equals(cofacM.getClass())) {
-                    logger.info("adjusting coefficents: cofacM = " + cofacM.getClass() + ", cofacP = "
-                                    + cofac.getClass());
-                    cofac = (ModularRingFactory) new ModIntegerRing(p);
-                    mfac = new GenPolynomialRing<MOD>(cofac, fac);
-                    GenPolynomial<BigInteger> mm = PolyUtil.<MOD> integerFromModularCoefficients(fac, cm);
-                    cm = PolyUtil.<MOD> fromIntegerCoefficients(mfac, mm);
-                    mi = cofac.fromInteger(Mp.getVal());
-                    mi = mi.inverse(); // mod p
-                }
-                if (!cp.ring.coFac.getClass().equals(cofacM.getClass())) {
-                    logger.info("adjusting coefficents: cofacM = " + cofacM.getClass() + ", cofacM' = "
-                                    + cp.ring.coFac.getClass());
-                    ModularRingFactory cop = (ModularRingFactory) cp.ring.coFac;
-                    cofac = (ModularRingFactory) new ModIntegerRing(cop.getIntegerModul().getVal());
-                    mfac = new GenPolynomialRing<MOD>(cofac, fac);
-                    GenPolynomial<BigInteger> mm = PolyUtil.<MOD> integerFromModularCoefficients(fac, cp);
-                    cp = PolyUtil.<MOD> fromIntegerCoefficients(mfac, mm);
-                }
-                cp = PolyUtil.<MOD> chineseRemainder(rfac, cp, mi, cm);
             }
+            cp = chineseRemainder(fac, cp, M, cm);
+            M = (M == null) ? new BigInteger(p) : M.multiply(new BigInteger(p));
             // test for completion
             if (n.compareTo(M) <= 0) {
                 break;
             }
             // must use integer.sumNorm
-            cpi = PolyUtil.<MOD> integerFromModularCoefficients(fac, cp);
+            cpi = PolyUtil.<ModInteger> integerFromModularCoefficients(fac, cp);
             BigInteger cmn = cpi.sumNorm();
             cmn = cmn.multiply(cmn.fromInteger(4));
             //if ( cmn.compareTo( M ) <= 0 ) {
@@ -332,7 +292,7 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
             if (i % 2 != 0 && !cp.isZERO()) {
                 // check if done on every second prime
                 GenPolynomial<BigInteger> x;
-                x = PolyUtil.<MOD> integerFromModularCoefficients(fac, cp);
+                x = PolyUtil.<ModInteger> integerFromModularCoefficients(fac, cp);
                 x = basePrimitivePart(x);
                 if (!PolyUtil.<BigInteger> baseSparsePseudoRemainder(q, x).isZERO()) {
                     continue;
@@ -348,7 +308,7 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
             logger.info("done on M = " + M + ", #primes = " + i);
         }
         // remove normalization
-        q = PolyUtil.<MOD> integerFromModularCoefficients(fac, cp);
+        q = PolyUtil.<ModInteger> integerFromModularCoefficients(fac, cp);
         q = basePrimitivePart(q);
         return q.abs().multiply(c);
     }
@@ -429,18 +389,16 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
         ExpVector qdegv = q.leadingExpVector(); //degreeVector();
 
         //initialize prime list and degree vector
-        PrimeList primes = new PrimeList();
+        PrimeList primes = new PrimeList(PrimeList.Range.large); // 59 to 63 bit primes
         int pn = 30; //primes.size();
-        ModularRingFactory<MOD> cofac;
-        ModularRingFactory<MOD> cofacM = null;
-        GenPolynomial<MOD> qm;
-        GenPolynomial<MOD> rm;
-        GenPolynomialRing<MOD> mfac;
-        GenPolynomialRing<MOD> rfac = null;
+        ModLongMontgomeryRing cofac;
+        GenPolynomial<ModLongMontgomery> qm;
+        GenPolynomial<ModLongMontgomery> rm;
+        GenPolynomialRing<ModLongMontgomery> mfac;
         int i = 0;
         BigInteger M = null;
-        GenPolynomial<MOD> cp = null;
-        GenPolynomial<MOD> cm = null;
+        GenPolynomial<ModInteger> cp = null;
+        GenPolynomial<ModLongMontgomery> cm = null;
         //GenPolynomial<BigInteger> cpi = null;
         if (debug) {
             logger.debug("an  = " + an);
@@ -464,14 +422,10 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
                 //throw new ArithmeticException("prime list exhausted");
             }
             // initialize coefficient factory and map normalization factor
-            if (ModLongRing.MAX_LONG.compareTo(p) > 0) {
-                cofac = (ModularRingFactory) new ModLongRing(p, true);
-            } else {
-                cofac = (ModularRingFactory) new ModIntegerRing(p, true);
-            }
+            cofac = new ModLongMontgomeryRing(p, true);
             // initialize polynomial factory and map polynomials
-            mfac = new GenPolynomialRing<MOD>(cofac, fac);
-            qm = PolyUtil.<MOD> fromIntegerCoefficients(mfac, q);
+            mfac = new GenPolynomialRing<ModLongMontgomery>(cofac, fac);
+            qm = PolyUtil.<ModLongMontgomery> fromIntegerCoefficients(mfac, q);
             if (qm.isZERO() || !qm.leadingExpVector().equals(qdegv)) { //degreeVector()
                 //logger.info("qm = " + qm);
                 if (debug) {
@@ -480,7 +434,7 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
                 }
                 continue;
             }
-            rm = PolyUtil.<MOD> fromIntegerCoefficients(mfac, r);
+            rm = PolyUtil.<ModLongMontgomery> fromIntegerCoefficients(mfac, r);
             if (rm.isZERO() || !rm.leadingExpVector().equals(rdegv)) { //degreeVector()
                 //logger.info("rm = " + rm);
                 if (debug) {
@@ -489,7 +443,9 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
                 }
                 continue;
             }
-            logger.info("lucky prime = " + cofac.getIntegerModul());
+            if (debug) {
+                logger.debug("lucky prime = " + cofac.getIntegerModul());
+            }
 
             // compute modular resultant
             cm = mufd.resultant(qm, rm);
@@ -498,45 +454,8 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
             }
 
             // prepare chinese remainder algorithm
-            if (M == null) {
-                // initialize chinese remainder algorithm
-                M = new BigInteger(p);
-                cofacM = cofac;
-                //rfac = mfac;
-                cp = cm;
-            } else {
-                // apply chinese remainder algorithm
-                BigInteger Mp = M;
-                MOD mi = cofac.fromInteger(Mp.getVal());
-                mi = mi.inverse(); // mod p
-                M = M.multiply(new BigInteger(p));
-                if (ModLongRing.MAX_LONG.compareTo(M.getVal()) > 0) {
-                    cofacM = (ModularRingFactory) new ModLongRing(M.getVal());
-                } else {
-                    cofacM = (ModularRingFactory) new ModIntegerRing(M.getVal());
-                }
-                rfac = new GenPolynomialRing<MOD>(cofacM, fac);
-                if (!cofac.getClass().equals(cofacM.getClass())) {
-                    logger.info("adjusting coefficents: cofacM = " + cofacM.getClass() + ", cofacP = "
-                                    + cofac.getClass());
-                    cofac = (ModularRingFactory) new ModIntegerRing(p);
-                    mfac = new GenPolynomialRing<MOD>(cofac, fac);
-                    GenPolynomial<BigInteger> mm = PolyUtil.<MOD> integerFromModularCoefficients(fac, cm);
-                    cm = PolyUtil.<MOD> fromIntegerCoefficients(mfac, mm);
-                    mi = cofac.fromInteger(Mp.getVal());
-                    mi = mi.inverse(); // mod p
-                }
-                if (!cp.ring.coFac.getClass().equals(cofacM.getClass())) {
-                    logger.info("adjusting coefficents: cofacM = " + cofacM.getClass() + ", cofacM' = "
-                                    + cp.ring.coFac.getClass());
-                    ModularRingFactory cop = (ModularRingFactory) cp.ring.coFac;
-                    cofac = (ModularRingFactory) new ModIntegerRing(cop.getIntegerModul().getVal());
-                    mfac = new GenPolynomialRing<MOD>(cofac, fac);
-                    GenPolynomial<BigInteger> mm = PolyUtil.<MOD> integerFromModularCoefficients(fac, cp);
-                    cp = PolyUtil.<MOD> fromIntegerCoefficients(mfac, mm);
-                }
-                cp = PolyUtil.<MOD> chineseRemainder(rfac, cp, mi, cm);
-            }
+            cp = chineseRemainder(fac, cp, M, cm);
+            M = (M == null) ? new BigInteger(p) : M.multiply(new BigInteger(p));
             // test for completion
             if (n.compareTo(M) <= 0) {
                 break;
@@ -546,8 +465,37 @@ public class GreatestCommonDivisorModular<MOD extends GcdRingElem<MOD> & Modular
             logger.info("done on M = " + M + ", #primes = " + i);
         }
         // convert to integer polynomial
-        q = PolyUtil.<MOD> integerFromModularCoefficients(fac, cp);
+        q = PolyUtil.<ModInteger> integerFromModularCoefficients(fac, cp);
         return q;
     }
 
+
+    /**
+     * Chinese remainder algorithm step. The modular image is converted once
+     * to integer coefficients and combined with the previous images with
+     * ModInteger coefficients modulo the product of the primes.
+     * @param fac integer polynomial ring.
+     * @param cp image modulo M, ignored if M == null.
+     * @param M product of the previous primes, or null for the first prime.
+     * @param cm image modulo a prime p.
+     * @return image modulo M*p.
+     */
+    protected GenPolynomial<ModInteger> chineseRemainder(GenPolynomialRing<BigInteger> fac,
+                    GenPolynomial<ModInteger> cp, BigInteger M, GenPolynomial<ModLongMontgomery> cm) {
+        ModLongMontgomeryRing cofac = (ModLongMontgomeryRing) cm.ring.coFac;
+        java.math.BigInteger p = cofac.getIntegerModul().getVal();
+        ModIntegerRing pfac = new ModIntegerRing(p, true);
+        GenPolynomialRing<ModInteger> mfac = new GenPolynomialRing<ModInteger>(pfac, fac);
+        GenPolynomial<BigInteger> ci = PolyUtil.<ModLongMontgomery> integerFromModularCoefficients(fac, cm);
+        GenPolynomial<ModInteger> cq = PolyUtil.<ModInteger> fromIntegerCoefficients(mfac, ci);
+        if (M == null) {
+            return cq;
+        }
+        ModInteger mi = pfac.fromInteger(M.getVal());
+        mi = mi.inverse(); // mod p
+        ModIntegerRing cofacM = new ModIntegerRing(M.getVal().multiply(p));
+        GenPolynomialRing<ModInteger> rfac = new GenPolynomialRing<ModInteger>(cofacM, fac);
+        return PolyUtil.<ModInteger> chineseRemainder(rfac, cp, mi, cq);
+    }
+
 }
@@ -19,6 +19,7 @@ import edu.jas.arith.Modular;
 import edu.jas.arith.ModularRingFactory;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialBuilder;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.Monomial;
 import edu.jas.poly.PolyUtil;
@@ -1210,9 +1211,9 @@ public class HenselUtil {
             throw new IllegalArgumentException("polynomial ring not univariate");
         }
         //System.out.println("C = " + C);
-        GenPolynomial<MOD> zero = fac.getZERO();
+        List<GenPolynomialBuilder<MOD>> solb = new ArrayList<GenPolynomialBuilder<MOD>>();
         for (int i = 0; i < 2; i++) {
-            sol.add(zero);
+            solb.add(new GenPolynomialBuilder<MOD>(fac));
         }
         GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(), fac);
         for (Monomial<MOD> m : C) {
@@ -1228,13 +1229,13 @@ public class HenselUtil {
                 //System.out.println("d = " + d);
                 d = PolyUtil.<MOD> fromIntegerCoefficients(fac,
                                 PolyUtil.integerFromModularCoefficients(ifac, d));
-                d = d.multiply(a);
-                d = sol.get(i).sum(d);
-                //System.out.println("d = " + d);
-                sol.set(i++, d);
+                solb.get(i++).addMultiple(a, null, d);
             }
             //System.out.println("sol = " + sol + ", for " + m);
         }
+        for (GenPolynomialBuilder<MOD> b : solb) {
+            sol.add(b.build());
+        }
         if (debug) {
             //GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(), fac);
             A = PolyUtil.<MOD> fromIntegerCoefficients(fac, PolyUtil.integerFromModularCoefficients(ifac, A));
@@ -1271,9 +1272,9 @@ public class HenselUtil {
             throw new IllegalArgumentException("polynomial ring not univariate");
         }
         //System.out.println("C = " + C);
-        GenPolynomial<MOD> zero = fac.getZERO();
+        List<GenPolynomialBuilder<MOD>> solb = new ArrayList<GenPolynomialBuilder<MOD>>();
         for (int i = 0; i < A.size(); i++) {
-            sol.add(zero);
+            solb.add(new GenPolynomialBuilder<MOD>(fac));
         }
         GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(), fac);
         for (Monomial<MOD> m : C) {
@@ -1289,13 +1290,13 @@ public class HenselUtil {
                 //System.out.println("d = " + d);
                 d = PolyUtil.<MOD> fromIntegerCoefficients(fac,
                                 PolyUtil.integerFromModularCoefficients(ifac, d));
-                d = d.multiply(a);
-                d = sol.get(i).sum(d);
-                //System.out.println("d = " + d);
-                sol.set(i++, d);
+                solb.get(i++).addMultiple(a, null, d);
             }
             //System.out.println("sol = " + sol + ", for " + m);
         }
+        for (GenPolynomialBuilder<MOD> b : solb) {
+            sol.add(b.build());
+        }
         /*
         if (true || debug) {
             //GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(), fac);
@@ -6,6 +6,7 @@ package edu.jas.util;
 
 
 import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager; 
@@ -69,6 +70,7 @@ public class Terminator {
             done = true;
             fin.release(); //fin.V();
         }
+        notifyAll();
     }
 
 
@@ -87,6 +89,7 @@ public class Terminator {
                 throw new RuntimeException("idler > workers: " + idler + " > " + workers);
             }
         }
+        notifyAll();
     }
 
 
@@ -102,6 +105,7 @@ public class Terminator {
             done = true;
             fin.release(); //fin.V();
         }
+        notifyAll();
     }
 
 
@@ -114,6 +118,7 @@ public class Terminator {
         logger.info("allIdle");
         done = true;
         fin.release(); //fin.V();
+        notifyAll();
     }
 
 
@@ -147,6 +152,27 @@ public class Terminator {
     }
 
 
+    /**
+     * Wait for jobs. Blocks until jobs are available or all threads are
+     * idle. The waiting threads are woken up, when the number of idle threads
+     * is increased, so the condition must become true before the working
+     * thread calls initIdle(), beIdle() or allIdle().
+     * @param jobs condition for available jobs, it is evaluated while holding
+     *            the lock of this Terminator.
+     * @return true, if jobs are available, false, if all threads are idle.
+     * @throws InterruptedException if the waiting thread is interrupted.
+     */
+    public synchronized boolean waitJobs(BooleanSupplier jobs) throws InterruptedException {
+        while (!jobs.getAsBoolean()) {
+            if (idler >= workers) {
+                return false;
+            }
+            wait();
+        }
+        return true;
+    }
+
+
     /**
      * Release if possible.
      */
@@ -0,0 +1,652 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.ModularRingFactory;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.structure.NotInvertibleException;
+
+
+/**
+ * Sparse matrix over a prime field with word size modul, intended for the
+ * large and sparse Macaulay matrices of Gr&ouml;bner base, FGLM and syzygy
+ * computations. The rows are stored as arrays of ascending column indexes and
+ * residues in <code>[0, modul)</code>. The modul must be less than
+ * <code>2<sup>31</sup></code>, so it covers <code>ModInt</code> and
+ * <code>ModLong</code> coefficients. The echelon form is computed in three
+ * steps: for each leading column one row is taken as known pivot, the other
+ * rows are reduced in parallel by the known pivots, and the remaining tail
+ * columns are packed into a dense matrix which is reduced by Gaussian
+ * elimination.
+ * <p>
+ * <b>Note:</b> the parallel step uses <code>ComputerThreads.getPool()</code>,
+ * so <code>ComputerThreads.terminate()</code> must be called to exit JAS.
+ * </p>
+ * @author agent
+ * @see edu.jas.gb.GroebnerBaseF4
+ */
+
+public class SparseModMatrix {
+
+
+    private static final Logger logger = LogManager.getLogger(SparseModMatrix.class);
+
+
+    private static final boolean debug = logger.isDebugEnabled();
+
+
+    /**
+     * Minimal number of rows to be reduced for using threads.
+     */
+    public static int PARALLEL_THRESHOLD = 256;
+
+
+    /**
+     * Modul of the prime field.
+     */
+    public final long modul;
+
+
+    /**
+     * Number of columns.
+     */
+    public final int cols;
+
+
+    /**
+     * Number of threads for the reduction by the known pivots.
+     */
+    public final int threads;
+
+
+    /**
+     * The rows of the matrix.
+     */
+    protected final List<Row> rows;
+
+
+    /**
+     * Constructor for a matrix without rows.
+     * @param modul prime number less than 2<sup>31</sup>.
+     * @param cols number of columns.
+     */
+    public SparseModMatrix(long modul, int cols) {
+        this(modul, cols, ComputerThreads.N_CPUS);
+    }
+
+
+    /**
+     * Constructor for a matrix without rows.
+     * @param modul prime number less than 2<sup>31</sup>.
+     * @param cols number of columns.
+     * @param threads number of threads to use.
+     */
+    public SparseModMatrix(long modul, int cols, int threads) {
+        if (modul <= 1L || modul > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("modul not in range (1, 2^31): " + modul);
+        }
+        if (cols < 0) {
+            throw new IllegalArgumentException("number of columns negative: " + cols);
+        }
+        this.modul = modul;
+        this.cols = cols;
+        this.threads = threads;
+        this.rows = new ArrayList<Row>();
+    }
+
+
+    /**
+     * Constructor for a matrix without rows.
+     * @param fac modular ring factory of a prime field.
+     * @param cols number of columns.
+     */
+    public SparseModMatrix(ModularRingFactory<?> fac, int cols) {
+        this(modulOf(fac), cols);
+    }
+
+
+    /**
+     * Modul of a modular ring factory.
+     * @param fac modular ring factory.
+     * @return modul of fac as long.
+     */
+    static long modulOf(ModularRingFactory<?> fac) {
+        BigInteger m = fac.getIntegerModul();
+        if (m.getVal().bitLength() > 31) {
+            throw new IllegalArgumentException("modul to large for sparse matrix: " + m);
+        }
+        return m.longValue();
+    }
+
+
+    /**
+     * Get the number of rows.
+     * @return number of rows.
+     */
+    public int size() {
+        return rows.size();
+    }
+
+
+    /**
+     * Get a row.
+     * @param i row index.
+     * @return the i-th row.
+     */
+    public Row getRow(int i) {
+        return rows.get(i);
+    }
+
+
+    /**
+     * Get the rows.
+     * @return unmodifiable list of the rows.
+     */
+    public List<Row> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+
+    /**
+     * Append a row. The coefficients are reduced modulo modul and zero
+     * coefficients are removed.
+     * @param col strictly ascending column indexes.
+     * @param val coefficients of the columns.
+     */
+    public void addRow(int[] col, long[] val) {
+        if (col.length != val.length) {
+            throw new IllegalArgumentException("length mismatch: " + col.length + " != " + val.length);
+        }
+        int l = 0;
+        int[] c = new int[col.length];
+        int[] v = new int[col.length];
+        int last = -1;
+        for (int t = 0; t < col.length; t++) {
+            if (col[t] <= last || col[t] >= cols) {
+                throw new IllegalArgumentException("column indexes not ascending or out of range: "
+                                + Arrays.toString(col));
+            }
+            last = col[t];
+            long a = val[t] % modul;
+            if (a == 0L) {
+                continue;
+            }
+            if (a < 0L) {
+                a += modul;
+            }
+            c[l] = col[t];
+            v[l] = (int) a;
+            l++;
+        }
+        if (l < col.length) {
+            c = Arrays.copyOf(c, l);
+            v = Arrays.copyOf(v, l);
+        }
+        rows.add(new Row(c, v));
+    }
+
+
+    /**
+     * Get the string representation.
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuffer s = new StringBuffer();
+        s.append("SparseModMatrix(" + modul + ", " + rows.size() + " x " + cols + ")[");
+        boolean first = true;
+        for (Row r : rows) {
+            if (first) {
+                first = false;
+            } else {
+                s.append(", ");
+            }
+            s.append(r.toString());
+        }
+        s.append("]");
+        return s.toString();
+    }
+
+
+    /**
+     * Row echelon form. The rows of the result are monic, with strictly
+     * ascending leading columns. The rows with leading columns of this matrix
+     * are not reduced further, the other rows are reduced.
+     * @return row echelon form of this matrix.
+     */
+    public SparseModMatrix echelon() {
+        List<Row> rest = new ArrayList<Row>();
+        Row[] piv = knownPivots(rest);
+        List<Row> np = newPivots(piv, rest);
+        for (Row r : np) {
+            piv[r.col[0]] = r;
+        }
+        SparseModMatrix E = new SparseModMatrix(modul, cols, threads);
+        for (Row r : piv) {
+            if (r != null) {
+                E.rows.add(r);
+            }
+        }
+        return E;
+    }
+
+
+    /**
+     * Rank of the matrix.
+     * @return rank of this matrix.
+     */
+    public int rank() {
+        return echelon().size();
+    }
+
+
+    /**
+     * Compute the new pivot rows. The new pivot rows are the non zero rows of
+     * the row echelon form which have a leading column which is not a leading
+     * column of a row of this matrix.
+     * @return list of monic rows with strictly ascending leading columns,
+     *         which are not leading columns of this matrix and which are zero
+     *         in all leading columns of this matrix.
+     */
+    public List<Row> newPivots() {
+        List<Row> rest = new ArrayList<Row>();
+        Row[] piv = knownPivots(rest);
+        return newPivots(piv, rest);
+    }
+
+
+    /**
+     * Compute the new pivot rows.
+     * @param piv array of monic known pivot rows indexed by leading column.
+     * @param rest list of the other non zero rows.
+     * @return list of monic rows with strictly ascending leading columns,
+     *         which are zero in all known pivot columns.
+     */
+    List<Row> newPivots(Row[] piv, List<Row> rest) {
+        if (rest.isEmpty()) {
+            return new ArrayList<Row>();
+        }
+        List<Row> red = reduceKnown(rest, piv);
+        // dense packing of the tail columns
+        int[] tail = new int[cols];
+        Arrays.fill(tail, -1);
+        for (Row r : red) {
+            for (int k : r.col) {
+                tail[k] = 0;
+            }
+        }
+        int u = 0;
+        for (int j = 0; j < cols; j++) {
+            if (tail[j] == 0) {
+                tail[j] = u++;
+            }
+        }
+        int[] tailCol = new int[u];
+        for (int j = 0; j < cols; j++) {
+            if (tail[j] >= 0) {
+                tailCol[tail[j]] = j;
+            }
+        }
+        long[][] D = new long[red.size()][];
+        int i = 0;
+        for (Row r : red) {
+            long[] d = new long[u];
+            for (int t = 0; t < r.col.length; t++) {
+                d[tail[r.col[t]]] = r.val[t];
+            }
+            D[i++] = d;
+        }
+        if (debug) {
+            logger.info("dense tail " + D.length + " x " + u + " of " + rows.size() + " x " + cols);
+        }
+        int rk = denseEchelon(D, u);
+        List<Row> np = new ArrayList<Row>(rk);
+        for (i = 0; i < rk; i++) {
+            long[] d = D[i];
+            int l = 0;
+            for (int k = 0; k < u; k++) {
+                if (d[k] != 0L) {
+                    l++;
+                }
+            }
+            int[] c = new int[l];
+            int[] v = new int[l];
+            l = 0;
+            for (int k = 0; k < u; k++) {
+                if (d[k] != 0L) {
+                    c[l] = tailCol[k];
+                    v[l] = (int) d[k];
+                    l++;
+                }
+            }
+            np.add(new Row(c, v));
+        }
+        return np;
+    }
+
+
+    /**
+     * Select the known pivots. For each leading column the sparsest row is
+     * taken and made monic.
+     * @param rest list to which the other non zero rows are appended.
+     * @return array of monic pivot rows indexed by leading column.
+     */
+    Row[] knownPivots(List<Row> rest) {
+        Row[] piv = new Row[cols];
+        Row[] org = new Row[cols];
+        for (Row r : rows) {
+            if (r.col.length == 0) {
+                continue;
+            }
+            int l = r.col[0];
+            Row p = org[l];
+            if (p == null) {
+                org[l] = r;
+            } else if (r.col.length < p.col.length) {
+                rest.add(p);
+                org[l] = r;
+            } else {
+                rest.add(r);
+            }
+        }
+        for (int j = 0; j < cols; j++) {
+            if (org[j] != null) {
+                piv[j] = monic(org[j]);
+            }
+        }
+        return piv;
+    }
+
+
+    /**
+     * Reduce rows by the known pivots, in parallel for many rows.
+     * @param rest list of rows.
+     * @param piv array of monic pivot rows indexed by leading column.
+     * @return list of the non zero reduced rows.
+     */
+    List<Row> reduceKnown(final List<Row> rest, final Row[] piv) {
+        final int n = rest.size();
+        final Row[] red = new Row[n];
+        int nt = threads;
+        if (ComputerThreads.NO_THREADS || nt <= 1 || n < PARALLEL_THRESHOLD) {
+            long[] acc = new long[cols];
+            for (int i = 0; i < n; i++) {
+                red[i] = reduce(rest.get(i), piv, acc);
+            }
+        } else {
+            List<Callable<Boolean>> cs = new ArrayList<Callable<Boolean>>(nt);
+            for (int s = 0; s < nt; s++) {
+                final int start = s;
+                final int step = nt;
+                cs.add(new Callable<Boolean>() {
+
+
+                    public Boolean call() {
+                        long[] acc = new long[cols];
+                        for (int i = start; i < n; i += step) {
+                            red[i] = reduce(rest.get(i), piv, acc);
+                        }
+                        return Boolean.TRUE;
+                    }
+                });
+            }
+            ExecutorService pool = ComputerThreads.getPool();
+            try {
+                List<Future<Boolean>> fs = pool.invokeAll(cs);
+                for (Future<Boolean> f : fs) {
+                    f.get();
+                }
+            } catch (InterruptedException e) {
+                logger.info("InterruptedException " + e);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("reduction interrupted", e);
+            } catch (ExecutionException e) {
+                logger.info("ExecutionException " + e);
+                throw new RuntimeException("reduction failed", e.getCause());
+            }
+        }
+        List<Row> R = new ArrayList<Row>(n);
+        for (Row r : red) {
+            if (r.col.length > 0) {
+                R.add(r);
+            }
+        }
+        return R;
+    }
+
+
+    /**
+     * Reduce a row by the known pivots with a dense accumulator. The entries
+     * of the accumulator are kept below 2 modul<sup>2</sup>, which fits into
+     * a long.
+     * @param r row.
+     * @param piv array of monic pivot rows indexed by leading column.
+     * @param acc zero accumulator of length cols, which is zero again on
+     *            return.
+     * @return reduced row, which is zero in all pivot columns.
+     */
+    Row reduce(Row r, Row[] piv, long[] acc) {
+        final long p = modul;
+        final long pp = p * p;
+        for (int t = 0; t < r.col.length; t++) {
+            acc[r.col[t]] = r.val[t];
+        }
+        int l = 0;
+        for (int j = r.col[0]; j < cols; j++) {
+            long a = acc[j];
+            if (a == 0L) {
+                continue;
+            }
+            a %= p;
+            if (a == 0L) {
+                acc[j] = 0L;
+                continue;
+            }
+            Row s = piv[j];
+            if (s == null) {
+                acc[j] = a;
+                l++;
+                continue;
+            }
+            // acc = acc - a * s, s is monic
+            acc[j] = 0L;
+            long na = p - a;
+            int[] sc = s.col;
+            int[] sv = s.val;
+            for (int t = 1; t < sc.length; t++) {
+                int k = sc[t];
+                long v = acc[k] + na * sv[t];
+                acc[k] = (v >= pp) ? v - pp : v;
+            }
+        }
+        int[] c = new int[l];
+        int[] v = new int[l];
+        int i = 0;
+        for (int j = r.col[0]; i < l; j++) {
+            long a = acc[j];
+            if (a != 0L) {
+                acc[j] = 0L;
+                c[i] = j;
+                v[i] = (int) a;
+                i++;
+            }
+        }
+        return new Row(c, v);
+    }
+
+
+    /**
+     * Dense row echelon form with monic pivot rows.
+     * @param D dense matrix with entries in [0, modul), modified in place.
+     * @param u number of columns of D.
+     * @return rank r of D, the first r rows of D are the monic pivot rows.
+     */
+    int denseEchelon(long[][] D, int u) {
+        final long p = modul;
+        int rk = 0;
+        for (int c = 0; c < u && rk < D.length; c++) {
+            int i = rk;
+            while (i < D.length && D[i][c] == 0L) {
+                i++;
+            }
+            if (i == D.length) {
+                continue;
+            }
+            long[] d = D[i];
+            D[i] = D[rk];
+            D[rk] = d;
+            long li = modInverse(d[c], p);
+            for (int k = c; k < u; k++) {
+                if (d[k] != 0L) {
+                    d[k] = (d[k] * li) % p;
+                }
+            }
+            for (i = rk + 1; i < D.length; i++) {
+                long[] e = D[i];
+                long a = e[c];
+                if (a == 0L) {
+                    continue;
+                }
+                long na = p - a;
+                e[c] = 0L;
+                for (int k = c + 1; k < u; k++) {
+                    if (d[k] != 0L) {
+                        e[k] = (e[k] + na * d[k]) % p;
+                    }
+                }
+            }
+            rk++;
+        }
+        return rk;
+    }
+
+
+    /**
+     * Monic row.
+     * @param r non zero row.
+     * @return r / r.val[0].
+     */
+    Row monic(Row r) {
+        if (r.val[0] == 1) {
+            return r;
+        }
+        long li = modInverse(r.val[0], modul);
+        int[] v = new int[r.val.length];
+        v[0] = 1;
+        for (int t = 1; t < v.length; t++) {
+            v[t] = (int) ((r.val[t] * li) % modul);
+        }
+        return new Row(r.col, v);
+    }
+
+
+    /**
+     * Long modular inverse.
+     * @param a long with 0 &lt; a &lt; m.
+     * @param m modul.
+     * @return b with a*b = 1 mod m.
+     */
+    static long modInverse(long a, long m) {
+        long r0 = m, r1 = a;
+        long s0 = 0L, s1 = 1L;
+        while (r1 != 0L) {
+            long q = r0 / r1;
+            long t = r0 - q * r1;
+            r0 = r1;
+            r1 = t;
+            t = s0 - q * s1;
+            s0 = s1;
+            s1 = t;
+        }
+        if (r0 != 1L) {
+            throw new NotInvertibleException("element " + a + " not invertible modulo " + m);
+        }
+        return (s0 < 0L) ? s0 + m : s0;
+    }
+
+
+    /**
+     * Sparse row of a SparseModMatrix.
+     */
+    public static final class Row {
+
+
+        /**
+         * Strictly ascending column indexes.
+         */
+        public final int[] col;
+
+
+        /**
+         * Non zero residues of the columns.
+         */
+        public final int[] val;
+
+
+        /**
+         * Constructor.
+         * @param col strictly ascending column indexes.
+         * @param val non zero residues.
+         */
+        Row(int[] col, int[] val) {
+            this.col = col;
+            this.val = val;
+        }
+
+
+        /**
+         * Leading column.
+         * @return index of the first non zero column or -1 for a zero row.
+         */
+        public int leadingColumn() {
+            if (col.length == 0) {
+                return -1;
+            }
+            return col[0];
+        }
+
+
+        /**
+         * Number of non zero entries.
+         * @return length of this row.
+         */
+        public int length() {
+            return col.length;
+        }
+
+
+        /**
+         * Get the string representation.
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            StringBuffer s = new StringBuffer("{");
+            for (int t = 0; t < col.length; t++) {
+                if (t > 0) {
+                    s.append(", ");
+                }
+                s.append(col[t] + ":" + val[t]);
+            }
+            s.append("}");
+            return s.toString();
+        }
+    }
+
+}
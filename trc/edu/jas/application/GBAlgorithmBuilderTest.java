@@ -5,6 +5,7 @@
 package edu.jas.application;
 
 
+import java.util.ArrayList;
 import java.util.List;
 
 import junit.framework.Test;
@@ -24,6 +25,7 @@ import edu.jas.gb.GroebnerBaseParallel;
 import edu.jas.gb.GroebnerBaseSeq;
 import edu.jas.gb.GroebnerBaseSeqIter;
 import edu.jas.gb.GroebnerBaseSigSeqIter;
+import edu.jas.gb.GroebnerBaseF4;
 import edu.jas.gb.GroebnerBaseF5zSigSeqIter;
 import edu.jas.gb.GroebnerBaseGGVSigSeqIter;
 import edu.jas.gb.GroebnerBaseArriSigSeqIter;
@@ -432,6 +434,31 @@ public class GBAlgorithmBuilderTest extends TestCase {
     }
 
 
+    /**
+     * Test construction for BigRational and F4.
+     */
+    public void testConstructionRationalF4() {
+        BigRational bf = new BigRational(1);
+        String[] vars = new String[] { "a", "b", "c" };
+        GenPolynomialRing<BigRational> pf = new GenPolynomialRing<BigRational>(bf, vars);
+
+        GBAlgorithmBuilder<BigRational> ab = GBAlgorithmBuilder.<BigRational> polynomialRing(pf);
+        ab = ab.syzygyPairlist().F4();
+        //System.out.println("ab = " + ab);
+
+        GroebnerBaseAbstract<BigRational> bb = ab.build();
+        //System.out.println("bb = " + bb);
+        assertTrue("instance of " + bb, bb instanceof GroebnerBaseF4);
+
+        List<GenPolynomial<BigRational>> L = new ArrayList<GenPolynomial<BigRational>>();
+        L.add(pf.parse("a^2 + b c - 1"));
+        L.add(pf.parse("a b - c^2"));
+        L.add(pf.parse("b^2 + a c + 2"));
+        List<GenPolynomial<BigRational>> G = bb.GB(L);
+        assertTrue("isGB: ", bb.isGB(G));
+    }
+
+
     /**
      * Test construction for BigRational and signature based GBs.
      */
@@ -293,4 +293,57 @@ public class BigIntegerTest extends TestCase {
         assertEquals("j == 10 ", j, ten);
     }
 
+
+    /**
+     * Test small integer fast path at the long boundary, compared with
+     * java.math.BigInteger.
+     */
+    public void testSmallOverflow() {
+        long[] v = new long[] { 0L, 1L, -1L, 2L, -3L, 3037000499L, -3037000500L, Integer.MAX_VALUE,
+                Integer.MIN_VALUE, 4294967296L, -8589934593L, Long.MAX_VALUE, Long.MIN_VALUE,
+                Long.MAX_VALUE - 1L, Long.MIN_VALUE + 1L };
+        for (long x : v) {
+            BigInteger a = new BigInteger(x);
+            java.math.BigInteger ai = java.math.BigInteger.valueOf(x);
+            assertEquals("long(a) = a", new BigInteger(ai), a);
+            assertEquals("long(a) = a", new BigInteger(ai).hashCode(), a.hashCode());
+            assertEquals("hash(a)", ai.hashCode(), a.hashCode());
+            assertEquals("str(a)", ai.toString(), a.toString());
+            assertEquals("copy(a) = a", a, a.copy());
+            assertEquals("-a", ai.negate(), a.negate().getVal());
+            assertEquals("|a|", ai.abs(), a.abs().getVal());
+            assertEquals("signum(a)", ai.signum(), a.signum());
+            for (long y : v) {
+                BigInteger b = new BigInteger(y);
+                java.math.BigInteger bi = java.math.BigInteger.valueOf(y);
+                assertEquals("a+b", ai.add(bi), a.sum(b).getVal());
+                assertEquals("a-b", ai.subtract(bi), a.subtract(b).getVal());
+                assertEquals("a*b", ai.multiply(bi), a.multiply(b).getVal());
+                assertEquals("gcd(a,b)", ai.gcd(bi), a.gcd(b).getVal());
+                assertEquals("cmp(a,b)", ai.compareTo(bi), a.compareTo(b));
+                assertEquals("a == b", ai.equals(bi), a.equals(b));
+                if (y != 0L) {
+                    java.math.BigInteger[] qr = ai.divideAndRemainder(bi);
+                    assertEquals("a/b", qr[0], a.divide(b).getVal());
+                    assertEquals("a%b", qr[1], a.remainder(b).getVal());
+                    BigInteger[] QR = a.quotientRemainder(b);
+                    assertEquals("a/b", qr[0], QR[0].getVal());
+                    assertEquals("a%b", qr[1], QR[1].getVal());
+                }
+            }
+        }
+        BigInteger a = new BigInteger(Long.MAX_VALUE);
+        BigInteger b = a.sum(BigInteger.ONE).subtract(BigInteger.ONE);
+        assertEquals("(a+1)-1 = a", a, b);
+        assertEquals("long(a) = a", Long.MAX_VALUE, b.longValue());
+        assertTrue("a*a-a*a = 0", a.multiply(a).subtract(a.multiply(a)).isZERO());
+        assertTrue("a/a = 1", a.multiply(a).divide(a.multiply(a)).isONE());
+        try {
+            a = BigInteger.ONE.divide(BigInteger.ZERO);
+            fail("1/0");
+        } catch (ArithmeticException expected) {
+            // ok
+        }
+    }
+
 }
@@ -324,4 +324,74 @@ public class BigRationalTest extends TestCase {
         }
         assertEquals("a = decimal(d): " + d, as, ds);
     }
+
+
+    /**
+     * Test small number fast path at the long boundary, compared with
+     * unreduced java.math.BigInteger computations.
+     */
+    public void testSmallOverflow() {
+        java.math.BigInteger two62 = java.math.BigInteger.ONE.shiftLeft(62);
+        long[] v = new long[] { 1L, -1L, 2L, -6L, 3037000499L, -3037000493L, (1L << 62) - 1L, -(1L << 62) + 1L,
+                (1L << 61) + 3L };
+        long[] w = new long[] { 1L, 2L, 9L, 3037000499L, 3037000493L, (1L << 62) - 1L, (1L << 62) - 57L };
+        for (long n1 : v) {
+            for (long d1 : w) {
+                BigRational a = new BigRational(n1, d1);
+                for (long n2 : v) {
+                    for (long d2 : w) {
+                        BigRational b = new BigRational(n2, d2);
+                        java.math.BigInteger an = a.num, ad = a.den, bn = b.num, bd = b.den;
+                        BigRational s = BigRational.RNRED(an.multiply(bd).add(bn.multiply(ad)), ad.multiply(bd));
+                        BigRational p = BigRational.RNRED(an.multiply(bn), ad.multiply(bd));
+                        assertEquals("a+b", s, a.sum(b));
+                        assertEquals("a-b", s.subtract(b).subtract(b), a.subtract(b));
+                        assertEquals("a*b", p, a.multiply(b));
+                        assertEquals("cmp(a,b)", an.multiply(bd).compareTo(bn.multiply(ad)), a.compareTo(b));
+                    }
+                }
+            }
+        }
+        BigRational a = new BigRational(two62.subtract(java.math.BigInteger.ONE));
+        BigRational b = a.sum(a).sum(a.negate());
+        assertEquals("(a+a)-a = a", a, b);
+        b = a.multiply(a).divide(a);
+        assertEquals("(a*a)/a = a", a, b);
+        assertTrue("a-a = 0", a.subtract(a).isZERO());
+    }
+
+
+    /**
+     * Test rational reconstruction.
+     */
+    public void testRationalReconstruction() {
+        java.math.BigInteger m = new java.math.BigInteger("1000000007").multiply(new java.math.BigInteger("998244353"));
+        java.math.BigInteger N = BigRational.reconstructionBound(m);
+        assertTrue("2 N^2 < m", N.multiply(N).shiftLeft(1).compareTo(m) < 0);
+        java.math.BigInteger N1 = N.add(java.math.BigInteger.ONE);
+        assertTrue("2 (N+1)^2 >= m", N1.multiply(N1).shiftLeft(1).compareTo(m) >= 0);
+        BigRational fac = new BigRational();
+        for (int i = 0; i < 20; i++) {
+            a = fac.random(25);
+            java.math.BigInteger u = a.num.multiply(a.den.modInverse(m)).mod(m);
+            b = BigRational.rationalReconstruction(u, m);
+            assertEquals("rr(a mod m) = a", a, b);
+        }
+        b = BigRational.rationalReconstruction(java.math.BigInteger.ZERO, m);
+        assertTrue("rr(0) = 0", b.isZERO());
+        b = BigRational.rationalReconstruction(m.subtract(java.math.BigInteger.ONE), m);
+        assertTrue("rr(-1) = -1", b.negate().isONE());
+        // numerator and denominator too large
+        a = new BigRational(N1, N1.add(java.math.BigInteger.ONE));
+        java.math.BigInteger u = a.num.multiply(a.den.modInverse(m)).mod(m);
+        b = BigRational.rationalReconstruction(u, m);
+        assertFalse("rr(a mod m) != a", a.equals(b));
+        // no rational number with small numerator and denominator
+        a = new BigRational(12345, 67891);
+        u = a.num.multiply(a.den.modInverse(m)).mod(m);
+        assertNull("rr(a mod m, 100)", BigRational.rationalReconstruction(u, m, java.math.BigInteger.valueOf(100)));
+        assertEquals("rr(a mod m, 100000)", a,
+                        BigRational.rationalReconstruction(u, m, java.math.BigInteger.valueOf(100000)));
+    }
+
 }
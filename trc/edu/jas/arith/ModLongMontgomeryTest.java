@@ -0,0 +1,205 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.arith;
+
+
+import edu.jas.structure.NotInvertibleException;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * ModLongMontgomery tests with JUnit. Compares with ModInteger.
+ * @author agent
+ */
+
+public class ModLongMontgomeryTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>ModLongMontgomeryTest</CODE> object.
+     * @param name String
+     */
+    public ModLongMontgomeryTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(ModLongMontgomeryTest.class);
+        return suite;
+    }
+
+
+    ModLongMontgomeryRing zm;
+
+
+    ModLongMontgomery a, b, c, d, e;
+
+
+    /**
+     * Moduli: 2^63-25, 2^60-93, 2^63-1, 2^62, 2^31-1, 19.
+     */
+    long[] moduli = new long[] { Long.MAX_VALUE - 24L, (1L << 60) - 93L, Long.MAX_VALUE, 1L << 62,
+            2147483647L, 19L };
+
+
+    @Override
+    protected void setUp() {
+        zm = null;
+        a = b = c = d = e = null;
+    }
+
+
+    @Override
+    protected void tearDown() {
+        zm = null;
+        a = b = c = d = e = null;
+    }
+
+
+    /**
+     * Test constructor and constants.
+     */
+    public void testConstructor() {
+        zm = new ModLongMontgomeryRing(moduli[0], true);
+        assertTrue("isField", zm.isField());
+        assertEquals("modul", java.math.BigInteger.valueOf(moduli[0]), zm.getModul());
+        a = zm.getONE();
+        assertTrue("isONE", a.isONE());
+        assertTrue("isUnit", a.isUnit());
+        a = zm.getZERO();
+        assertTrue("isZERO", a.isZERO());
+        a = zm.fromInteger(-1L);
+        assertEquals("-1 = m-1", moduli[0] - 1L, a.val);
+        assertEquals("parse", a, zm.parse(a.toString()));
+        assertEquals("parse", a, zm.parse("-1"));
+        assertEquals("symmetric", -1L, a.getSymmetricVal());
+        a = zm.fromInteger(java.math.BigInteger.ONE.shiftLeft(100));
+        assertEquals("2^100", java.math.BigInteger.ONE.shiftLeft(100).mod(zm.getModul()).longValue(), a.val);
+
+        try {
+            zm = new ModLongMontgomeryRing(java.math.BigInteger.ONE.shiftLeft(63));
+            fail("modul to large");
+        } catch (IllegalArgumentException ex) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test high word of products.
+     */
+    public void testMultiplyHigh() {
+        java.math.BigInteger two64 = java.math.BigInteger.ONE.shiftLeft(64);
+        long[] v = new long[] { 0L, 1L, -1L, Long.MAX_VALUE, Long.MIN_VALUE, 0xFFFFFFFFL, 0x123456789ABCDEFL };
+        for (long x : v) {
+            for (long y : v) {
+                java.math.BigInteger p = unsigned(x).multiply(unsigned(y));
+                assertEquals("hi(x*y)", p.shiftRight(64).longValue(), ModLongMontgomeryRing.multiplyHigh(x, y));
+                assertEquals("lo(x*y)", p.mod(two64).longValue(), x * y);
+            }
+        }
+    }
+
+
+    /**
+     * Test addition and multiplication, compared with ModInteger.
+     */
+    public void testArithmetic() {
+        for (long m : moduli) {
+            zm = new ModLongMontgomeryRing(m);
+            ModIntegerRing zi = new ModIntegerRing(java.math.BigInteger.valueOf(m));
+            for (int i = 0; i < 50; i++) {
+                a = zm.random(64);
+                b = zm.random(i < 5 ? 2 : 64);
+                ModInteger ai = zi.fromInteger(a.getInteger().getVal());
+                ModInteger bi = zi.fromInteger(b.getInteger().getVal());
+                assertEquals("a+b", ai.sum(bi).getVal().longValue(), a.sum(b).val);
+                assertEquals("a-b", ai.subtract(bi).getVal().longValue(), a.subtract(b).val);
+                assertEquals("-a", ai.negate().getVal().longValue(), a.negate().val);
+                assertEquals("a*b", ai.multiply(bi).getVal().longValue(), a.multiply(b).val);
+                assertEquals("a*b = b*a", a.multiply(b), b.multiply(a));
+            }
+            a = zm.fromInteger(-1L);
+            assertTrue("(-1)*(-1) = 1", a.multiply(a).isONE());
+            assertTrue("(-1)+1 = 0", a.sum(zm.getONE()).isZERO());
+        }
+    }
+
+
+    /**
+     * Test inverse and division.
+     */
+    public void testInverse() {
+        zm = new ModLongMontgomeryRing(moduli[0], true);
+        for (int i = 0; i < 10; i++) {
+            a = zm.random(64);
+            if (a.isZERO()) {
+                continue;
+            }
+            b = a.inverse();
+            assertTrue("a*1/a = 1", a.multiply(b).isONE());
+            c = zm.random(64);
+            assertEquals("c/a*a = c", c, c.divide(a).multiply(a));
+        }
+        try {
+            a = zm.getZERO().inverse();
+            fail("0 invertible");
+        } catch (NotInvertibleException expected) {
+            // ok
+        }
+
+        zm = new ModLongMontgomeryRing(1L << 62);
+        a = new ModLongMontgomery(zm, 6L);
+        assertFalse("6 !unit mod 2^62", a.isUnit());
+        try {
+            b = a.inverse();
+            fail("6 invertible");
+        } catch (ModularNotInvertibleException expected) {
+            // ok
+        }
+    }
+
+
+    /**
+     * Test chinese remainder.
+     */
+    public void testChineseRemainder() {
+        ModLongMontgomeryRing z1 = new ModLongMontgomeryRing(2147483647L, true);
+        ModLongMontgomeryRing z2 = new ModLongMontgomeryRing(2147483629L, true);
+        zm = new ModLongMontgomeryRing(2147483647L * 2147483629L);
+        for (int i = 0; i < 10; i++) {
+            a = zm.random(63);
+            b = new ModLongMontgomery(z1, a.val);
+            c = new ModLongMontgomery(z2, a.val);
+            ModLongMontgomery ci = z2.fromInteger(z1.modul).inverse();
+            d = zm.chineseRemainder(b, ci, c);
+            assertEquals("crt(a mod p, a mod q) = a", a, d);
+        }
+    }
+
+
+    java.math.BigInteger unsigned(long x) {
+        java.math.BigInteger b = java.math.BigInteger.valueOf(x);
+        if (x < 0L) {
+            b = b.add(java.math.BigInteger.ONE.shiftLeft(64));
+        }
+        return b;
+    }
+
+}
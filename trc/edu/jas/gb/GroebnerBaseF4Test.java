@@ -0,0 +1,309 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gb;
+
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.PolyUtil;
+import edu.jas.poly.PolynomialList;
+import edu.jas.poly.TermOrder;
+
+
+/**
+ * Groebner base F4 tests with JUnit.
+ * @author agent
+ */
+
+public class GroebnerBaseF4Test extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>GroebnerBaseF4Test</CODE> object.
+     * @param name String.
+     */
+    public GroebnerBaseF4Test(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GroebnerBaseF4Test.class);
+        return suite;
+    }
+
+
+    GenPolynomialRing<BigRational> fac;
+
+
+    List<GenPolynomial<BigRational>> L, G;
+
+
+    PolynomialList<BigRational> F;
+
+
+    GroebnerBaseAbstract<BigRational> bb;
+
+
+    GroebnerBaseAbstract<BigRational> bs;
+
+
+    GenPolynomial<BigRational> a, b, c, d;
+
+
+    int rl = 4;
+
+
+    int kl = 7;
+
+
+    int ll = 7;
+
+
+    int el = 3;
+
+
+    float q = 0.2f;
+
+
+    @Override
+    protected void setUp() {
+        BigRational coeff = new BigRational(9);
+        fac = new GenPolynomialRing<BigRational>(coeff, rl);
+        a = b = c = d = null;
+        bb = new GroebnerBaseF4<BigRational>();
+        bs = new GroebnerBaseSeq<BigRational>();
+    }
+
+
+    @Override
+    protected void tearDown() {
+        a = b = c = d = null;
+        fac = null;
+        bb = null;
+        bs = null;
+    }
+
+
+    /**
+     * Test F4 GBase, compared with the sequential algorithm.
+     */
+    public void testF4GBase() {
+        L = new ArrayList<GenPolynomial<BigRational>>();
+        do {
+            a = fac.random(kl, ll, el, q);
+        } while (a.isZERO() || a.isONE());
+        do {
+            b = fac.random(kl, ll, el, q);
+        } while (b.isZERO() || b.isONE());
+        do {
+            c = fac.random(kl, ll, el, q);
+        } while (c.isZERO() || c.isONE());
+        do {
+            d = fac.random(kl, ll, el, q);
+        } while (d.isZERO() || d.isONE());
+
+        L.add(a);
+        G = bb.GB(L);
+        assertTrue("isGB( { a } )", bb.isGB(G));
+
+        L.add(b);
+        G = bb.GB(L);
+        assertTrue("isGB( { a, b } )", bb.isGB(G));
+
+        L.add(c);
+        G = bb.GB(L);
+        assertTrue("isGB( { a, b, c } )", bb.isGB(G));
+
+        L.add(d);
+        G = bb.GB(L);
+        assertTrue("isGB( { a, b, c, d } )", bb.isGB(G));
+        List<GenPolynomial<BigRational>> Gs = bs.GB(L);
+        assertEquals("#GB_F4(L) == #GB_Seq(L)", Gs.size(), G.size());
+        assertTrue("GB_F4(L) in GB_Seq(L)", allZero(bb.red.normalform(Gs, G)));
+        assertTrue("GB_Seq(L) in GB_F4(L)", allZero(bb.red.normalform(G, Gs)));
+    }
+
+
+    /**
+     * Test Trinks7 GBase.
+     */
+    @SuppressWarnings("unchecked")
+    public void testTrinks7GBase() {
+        String exam = "(B,S,T,Z,P,W) L " + "( " + "( 45 P + 35 S - 165 B - 36 ), "
+                        + "( 35 P + 40 Z + 25 T - 27 S ), " + "( 15 W + 25 S P + 30 Z - 18 T - 165 B**2 ), "
+                        + "( - 9 W + 15 T P + 20 S Z ), " + "( P W + 2 T Z - 11 B**3 ), "
+                        + "( 99 W - 11 B S + 3 B**2 ), " + "( B**2 + 33/50 B + 2673/10000 ) " + ") ";
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        try {
+            F = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        //System.out.println("F = " + F);
+
+        G = bb.GB(F.list);
+        assertTrue("isGB( GB(Trinks7) )", bb.isGB(G));
+        assertEquals("#GB(Trinks7) == 6", 6, G.size());
+
+        bb = new GroebnerBaseF4<BigRational>(new OrderedSyzPairlist<BigRational>());
+        G = bb.GB(F.list);
+        assertTrue("isGB( GB(Trinks7) )", bb.isGB(G));
+        assertEquals("#GB(Trinks7) == 6", 6, G.size());
+    }
+
+
+    /**
+     * Test Cyclic 5 GBase modulo a prime, graded and lexicographical term
+     * order.
+     */
+    public void testCyclicModGBase() {
+        ModLongRing mr = new ModLongRing(2147483647L, true);
+        TermOrder[] tos = new TermOrder[] { new TermOrder(TermOrder.IGRLEX), new TermOrder(TermOrder.INVLEX) };
+        int[] ns = new int[] { 5, 4 };
+        for (int i = 0; i < tos.length; i++) {
+            Cyclic cy = new Cyclic(ns[i]);
+            TermOrder to = tos[i];
+            GenPolynomialRing<ModLong> mfac = new GenPolynomialRing<ModLong>(mr, cy.ring.nvar, to,
+                            cy.ring.getVars());
+            List<GenPolynomial<BigInteger>> C = cy.cyclicPolys();
+            List<GenPolynomial<ModLong>> Cm = PolyUtil.<ModLong> fromIntegerCoefficients(mfac, C);
+            GroebnerBaseAbstract<ModLong> mb = new GroebnerBaseF4<ModLong>();
+            GroebnerBaseAbstract<ModLong> ms = new GroebnerBaseSeq<ModLong>();
+            List<GenPolynomial<ModLong>> Gm = mb.GB(Cm);
+            assertTrue("isGB( GB(Cyclic) )", mb.isGB(Gm));
+            List<GenPolynomial<ModLong>> Gs = ms.GB(Cm);
+            assertEquals("#GB_F4(Cyclic) == #GB_Seq(Cyclic)", Gs.size(), Gm.size());
+            for (GenPolynomial<ModLong> p : mb.red.normalform(Gm, Gs)) {
+                assertTrue("GB_Seq(Cyclic) in GB_F4(Cyclic)", p.isZERO());
+            }
+        }
+    }
+
+
+    /**
+     * Test graded term orders, for which the pairs of minimal degree are at
+     * the front of the pair list.
+     */
+    public void testIsGraded() {
+        List<TermOrder> tos = new ArrayList<TermOrder>();
+        for (int ev = TermOrder.MIN_EVORD; ev <= TermOrder.MAX_EVORD; ev++) {
+            tos.add(new TermOrder(ev));
+        }
+        tos.add(new TermOrder(new long[][] { { 1, 1, 1, 1 } }));
+        int graded = 0;
+        for (TermOrder to : tos) {
+            if (!GroebnerBaseF4.isGraded(to)) {
+                continue;
+            }
+            graded++;
+            Comparator<ExpVector> cmp = to.getAscendComparator();
+            for (int i = 0; i < 100; i++) {
+                ExpVector e = ExpVector.random(4, 5, 0.5f);
+                ExpVector f = ExpVector.random(4, 5, 0.5f);
+                if (e.totalDeg() < f.totalDeg()) {
+                    assertTrue("deg(e) < deg(f): " + to, cmp.compare(e, f) < 0);
+                }
+            }
+        }
+        assertEquals("#graded", 4, graded);
+        assertTrue("IGRLEX", GroebnerBaseF4.isGraded(new TermOrder(TermOrder.IGRLEX)));
+        assertFalse("INVLEX", GroebnerBaseF4.isGraded(new TermOrder(TermOrder.INVLEX)));
+        assertFalse("LEX", GroebnerBaseF4.isGraded(new TermOrder(TermOrder.LEX)));
+        long[][] w = new long[][] { { 2, 2, 2 } };
+        assertTrue("weight", GroebnerBaseF4.isGraded(new TermOrder(w)));
+        w = new long[][] { { 1, 2, 1 } };
+        assertFalse("weight", GroebnerBaseF4.isGraded(new TermOrder(w)));
+    }
+
+
+    /**
+     * Test F4 with lexicographical term order, the pairs of larger degree
+     * are kept for later rounds and zero reductions are recorded.
+     */
+    public void testLexicographical() {
+        GenPolynomialRing<BigRational> rfac = new GenPolynomialRing<BigRational>(new BigRational(), 3,
+                        new TermOrder(TermOrder.INVLEX), new String[] { "x", "y", "z" });
+        List<GenPolynomial<BigRational>> L = new ArrayList<GenPolynomial<BigRational>>();
+        L.add(rfac.parse("x^2 y - z^3"));
+        L.add(rfac.parse("x y^2 - x z"));
+        L.add(rfac.parse("x z - y^3 + 1"));
+        final List<Pair<BigRational>> removed = new ArrayList<Pair<BigRational>>();
+        PairList<BigRational> pl = new OrderedPairlist<BigRational>() {
+            @Override
+            public PairList<BigRational> create(int m, GenPolynomialRing<BigRational> r) {
+                return new OrderedPairlist<BigRational>(m, r) {
+                    @Override
+                    public Pair<BigRational> removeNext() {
+                        Pair<BigRational> pair = super.removeNext();
+                        if (pair != null) {
+                            removed.add(pair);
+                        }
+                        return pair;
+                    }
+                };
+            }
+        };
+        GroebnerBaseAbstract<BigRational> fb = new GroebnerBaseF4<BigRational>(pl);
+        GroebnerBaseAbstract<BigRational> sb = new GroebnerBaseSeq<BigRational>();
+        List<GenPolynomial<BigRational>> G = fb.GB(L);
+        assertTrue("isGB( GB(L) )", fb.isGB(G));
+        assertEquals("GB_F4(L) == GB_Seq(L)", new PolynomialList<BigRational>(rfac, sb.GB(L)),
+                        new PolynomialList<BigRational>(rfac, G));
+        int zeros = 0;
+        for (Pair<BigRational> pair : removed) {
+            if (pair.isZero()) {
+                zeros++;
+            }
+        }
+        assertTrue("#zero reductions > 0: " + removed.size(), zeros > 0);
+    }
+
+
+    /**
+     * Test for zero normalforms.
+     */
+    boolean allZero(List<GenPolynomial<BigRational>> N) {
+        for (GenPolynomial<BigRational> p : N) {
+            if (!p.isZERO()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
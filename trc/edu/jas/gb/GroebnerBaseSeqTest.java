@@ -16,10 +16,14 @@ import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
 
+import edu.jas.arith.BigInteger;
 import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.PolyUtil;
 import edu.jas.poly.PolynomialList;
 
 
@@ -421,4 +425,86 @@ public class GroebnerBaseSeqTest extends TestCase {
         assertEquals("isGBsimple(G) == isGBidem(G)", bb.isGB(G), bb.isGB(G, false));
     }
 
+
+
+    /**
+     * Test Trinks7 GBase trace learning and replay modulo primes.
+     */
+    @SuppressWarnings("unchecked")
+    public void testTrinks7GBaseTrace() {
+        String exam = "(B,S,T,Z,P,W) L " + "( " + "( 45 P + 35 S - 165 B - 36 ), "
+                        + "( 35 P + 40 Z + 25 T - 27 S ), " + "( 15 W + 25 S P + 30 Z - 18 T - 165 B**2 ), "
+                        + "( - 9 W + 15 T P + 20 S Z ), " + "( P W + 2 T Z - 11 B**3 ), "
+                        + "( 99 W - 11 B S + 3 B**2 ), " + "( B**2 + 33/50 B + 2673/10000 ) " + ") ";
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        try {
+            F = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(), F.ring);
+        List<GenPolynomial<BigInteger>> Fi = PolyUtil.integerFromRationalCoefficients(ifac, F.list);
+        GroebnerBaseSeq<ModLong> mb = new GroebnerBaseSeq<ModLong>();
+
+        GBTrace trace = new GBTrace();
+        assertFalse("not learned", trace.isLearned());
+        GenPolynomialRing<ModLong> mfac = new GenPolynomialRing<ModLong>(new ModLongRing(2147483647L, true),
+                        F.ring);
+        List<GenPolynomial<ModLong>> Fm = PolyUtil.<ModLong> fromIntegerCoefficients(mfac, Fi);
+        List<GenPolynomial<ModLong>> Gm = mb.GB(0, Fm, trace);
+        //System.out.println("trace = " + trace);
+        assertTrue("learned", trace.isLearned());
+        assertTrue("#steps > 0", trace.size() > 0);
+        assertEquals("#steps == size()", trace.size(), trace.getSteps().size());
+        try {
+            trace.getSteps().clear();
+            fail("steps are modifiable");
+        } catch (UnsupportedOperationException e) {
+            // pass
+        }
+        try {
+            trace.getInput().clear();
+            fail("input is modifiable");
+        } catch (UnsupportedOperationException e) {
+            // pass
+        }
+        assertTrue("isGB( GB(Trinks7) )", mb.isGB(Gm));
+        assertEquals("learn == plain", new PolynomialList<ModLong>(mfac, mb.GB(Fm)),
+                        new PolynomialList<ModLong>(mfac, Gm));
+
+        // replay for other primes
+        long[] ps = new long[] { 2147483629L, 1000003L, 32003L };
+        for (long p : ps) {
+            mfac = new GenPolynomialRing<ModLong>(new ModLongRing(p, true), F.ring);
+            Fm = PolyUtil.<ModLong> fromIntegerCoefficients(mfac, Fi);
+            Gm = mb.GB(0, Fm, trace);
+            assertTrue("isGB( GB(Trinks7) )", mb.isGB(Gm));
+            assertEquals("replay == plain", new PolynomialList<ModLong>(mfac, mb.GB(Fm)),
+                            new PolynomialList<ModLong>(mfac, Gm));
+        }
+
+        // replay for the same leading terms and other terms falls back to plain GB
+        assertTrue("trace input", trace.isInput(PolyUtil.<ModLong> monic(Fm)));
+        List<GenPolynomial<ModLong>> Fr = new ArrayList<GenPolynomial<ModLong>>(Fm);
+        GenPolynomial<ModLong> r = Fr.get(0).reductum();
+        Fr.set(0, Fr.get(0).subtract(r.leadingBaseCoefficient(), r.leadingExpVector()));
+        assertEquals("lt(Fr) == lt(Fm)", Fm.get(0).leadingExpVector(), Fr.get(0).leadingExpVector());
+        assertFalse("trace input", trace.isInput(PolyUtil.<ModLong> monic(Fr)));
+        Gm = mb.GB(0, Fr, trace);
+        assertTrue("isGB( GB(Fr) )", mb.isGB(Gm));
+        assertEquals("fallback == plain", new PolynomialList<ModLong>(mfac, mb.GB(Fr)),
+                        new PolynomialList<ModLong>(mfac, Gm));
+
+        // replay for different leading terms falls back to plain GB
+        Fm = new ArrayList<GenPolynomial<ModLong>>(Fm);
+        Fm.remove(Fm.size() - 1);
+        Gm = mb.GB(0, Fm, trace);
+        assertTrue("isGB( GB(Trinks6) )", mb.isGB(Gm));
+        assertEquals("fallback == plain", new PolynomialList<ModLong>(mfac, mb.GB(Fm)),
+                        new PolynomialList<ModLong>(mfac, Gm));
+    }
+
 }
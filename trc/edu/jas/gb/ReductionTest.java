@@ -512,4 +512,40 @@ public class ReductionTest extends TestCase {
         assertTrue("isNF( e )", dred.isNormalform(L,e) ); 
     }
 
+
+    /**
+     * Test geobucket reduction.
+     */
+    public void testRatGeoBucketReduction() {
+        ReductionSeq<BigRational> gred = new ReductionSeq<BigRational>(true);
+        Reduction<BigRational> gredpar = new ReductionPar<BigRational>(true);
+        assertTrue("isGeobucket", gred.isGeobucket() );
+        assertFalse("not isGeobucket", red.isGeobucket() );
+
+        L = new ArrayList<GenPolynomial<BigRational>>();
+        for (int i = 0; i < 3; i++) {
+            a = fac.random(kl, ll, el, q );
+            if ( !a.isZERO() ) {
+                L.add(a);
+            }
+        }
+        for (int i = 0; i < 5; i++) {
+            c = fac.random(kl, ll * 3, el + 2, q );
+            // some cancellation of intermediate terms
+            if ( !L.isEmpty() ) {
+                c = c.sum( L.get(0).multiply( fac.random(kl, ll, el, q ) ) );
+            }
+            d = red.normalform( L, c );
+            e = gred.normalform( L, c );
+            assertEquals("nf(c) == gnf(c)", d, e );
+            e = gredpar.normalform( L, c );
+            assertEquals("nf(c) == gnf(c)", d, e );
+            assertTrue("isNF( e )", red.isNormalform(L,e) ); 
+        }
+        if ( !L.isEmpty() ) {
+            e = gred.normalform( L, L.get(0) );
+            assertTrue("isZERO( e )", e.isZERO() );
+        }
+    }
+
 }
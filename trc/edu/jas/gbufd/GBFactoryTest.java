@@ -5,17 +5,24 @@
 package edu.jas.gbufd;
 
 
+import java.util.ArrayList;
+import java.util.List;
 
 import edu.jas.arith.BigComplex;
 import edu.jas.arith.BigInteger;
 import edu.jas.arith.BigRational;
 import edu.jas.arith.ModInteger;
 import edu.jas.arith.ModIntegerRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.arith.ModLongMontgomery;
+import edu.jas.arith.ModLongMontgomeryRing;
 import edu.jas.arith.Product;
 import edu.jas.arith.ProductRing;
 import edu.jas.gb.GBProxy;
 import edu.jas.gb.GroebnerBase;
 import edu.jas.gb.GroebnerBaseAbstract;
+import edu.jas.gb.GroebnerBaseF4;
 import edu.jas.gb.GroebnerBaseSeq;
 import edu.jas.kern.ComputerThreads;
 import edu.jas.poly.AlgebraicNumber;
@@ -157,6 +164,62 @@ public class GBFactoryTest extends TestCase {
     }
 
 
+    /**
+     * Test get ModLong implementation.
+     */
+    public void testModLong() {
+        ModLongRing mi = new ModLongRing(2147483647L, true);
+        GroebnerBase<ModLong> bba;
+
+        bba = GBFactory.getImplementation(mi);
+        assertTrue("bba modular field " + bba, bba instanceof GroebnerBaseSeq);
+
+        bba = GBFactory.getImplementation(mi, GBFactory.Algo.f4gb);
+        assertTrue("bba modular field F4 " + bba, bba instanceof GroebnerBaseF4);
+
+        GenPolynomialRing<ModLong> mfac = new GenPolynomialRing<ModLong>(mi, new String[] { "x", "y" });
+        List<GenPolynomial<ModLong>> F = new ArrayList<GenPolynomial<ModLong>>();
+        F.add(mfac.parse("x^2 + 12345 y"));
+        F.add(mfac.parse("x y - 98765 y^2"));
+        List<GenPolynomial<ModLong>> G = bba.GB(F);
+        assertTrue("isGB(G)", bba.isGB(G));
+
+        mi = new ModLongRing(30);
+        bba = GBFactory.getImplementation(mi);
+        assertTrue("bba modular ring " + bba, bba instanceof GroebnerBasePseudoSeq);
+        try {
+            bba = GBFactory.getImplementation(mi, GBFactory.Algo.f4gb);
+            fail("F4 for modular ring " + bba);
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test get ModLongMontgomery implementation.
+     */
+    public void testModLongMontgomery() {
+        ModLongMontgomeryRing mi = new ModLongMontgomeryRing(Long.MAX_VALUE - 24L, true);
+        GroebnerBase<ModLongMontgomery> bba;
+
+        bba = GBFactory.getImplementation(mi);
+        assertTrue("bba modular field " + bba, bba instanceof GroebnerBaseSeq);
+
+        GenPolynomialRing<ModLongMontgomery> mfac = new GenPolynomialRing<ModLongMontgomery>(mi,
+                        new String[] { "x", "y" });
+        List<GenPolynomial<ModLongMontgomery>> F = new ArrayList<GenPolynomial<ModLongMontgomery>>();
+        F.add(mfac.parse("x^2 + 1234567890123 y"));
+        F.add(mfac.parse("x y - 987654321987 y^2"));
+        List<GenPolynomial<ModLongMontgomery>> G = bba.GB(F);
+        assertTrue("isGB(G)", bba.isGB(G));
+
+        mi = new ModLongMontgomeryRing(1L << 62);
+        bba = GBFactory.getImplementation(mi);
+        assertTrue("bba modular ring " + bba, bba instanceof GroebnerBasePseudoSeq);
+    }
+
+
     /**
      * Test get BigRational implementation.
      */
@@ -167,6 +230,9 @@ public class GBFactoryTest extends TestCase {
         bba = GBFactory.getImplementation(b);
         //System.out.println("bba = " + bba);
         assertTrue("bba field " + bba, bba instanceof GroebnerBaseSeq);
+
+        bba = GBFactory.getImplementation(b, GBFactory.Algo.f4gb);
+        assertTrue("bba field F4 " + bba, bba instanceof GroebnerBaseF4);
     }
 
 
@@ -0,0 +1,386 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.gbufd;
+
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.gb.GroebnerBaseAbstract;
+import edu.jas.gb.GroebnerBaseSeq;
+import edu.jas.kern.ComputerThreads;
+import edu.jas.poly.ExpVector;
+import edu.jas.poly.GenPolynomial;
+import edu.jas.poly.GenPolynomialRing;
+import edu.jas.poly.GenPolynomialTokenizer;
+import edu.jas.poly.PolynomialList;
+import edu.jas.poly.TermOrder;
+
+
+/**
+ * Groebner base multi-modular tests with JUnit.
+ * @author agent
+ */
+
+public class GroebnerBaseModularTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>GroebnerBaseModularTest</CODE> object.
+     * @param name String.
+     */
+    public GroebnerBaseModularTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(GroebnerBaseModularTest.class);
+        return suite;
+    }
+
+
+    GenPolynomialRing<BigRational> fac;
+
+
+    List<GenPolynomial<BigRational>> L, G, Gs;
+
+
+    PolynomialList<BigRational> F;
+
+
+    GroebnerBaseAbstract<BigRational> bb;
+
+
+    GroebnerBaseAbstract<BigRational> bs;
+
+
+    GenPolynomial<BigRational> a, b, c, d;
+
+
+    int rl = 3;
+
+
+    int kl = 12;
+
+
+    int ll = 5;
+
+
+    int el = 3;
+
+
+    float q = 0.3f;
+
+
+    @Override
+    protected void setUp() {
+        BigRational coeff = new BigRational(9);
+        fac = new GenPolynomialRing<BigRational>(coeff, rl);
+        a = b = c = d = null;
+        bb = new GroebnerBaseModular(2);
+        bs = new GroebnerBaseSeq<BigRational>();
+    }
+
+
+    @Override
+    protected void tearDown() {
+        a = b = c = d = null;
+        fac = null;
+        bb.terminate();
+        bb = null;
+        bs = null;
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Test modular GBase, compared with the sequential algorithm.
+     */
+    public void testModularGBase() {
+        L = new ArrayList<GenPolynomial<BigRational>>();
+        a = fac.random(kl, ll, el, q);
+        b = fac.random(kl, ll, el, q);
+        c = fac.random(kl, ll, el, q);
+        d = fac.random(kl, ll, el, q);
+
+        L.add(a);
+        G = bb.GB(L);
+        assertTrue("isGB( { a } )", bb.isGB(G));
+
+        L.add(b);
+        G = bb.GB(L);
+        assertTrue("isGB( { a, b } )", bb.isGB(G));
+        Gs = bs.GB(L);
+        assertEquals("GB_mod(L) == GB_Seq(L)", new PolynomialList<BigRational>(fac, Gs),
+                        new PolynomialList<BigRational>(fac, G));
+
+        L.add(c);
+        L.add(d);
+        G = bb.GB(L);
+        assertTrue("isGB( { a, b, c, d } )", bb.isGB(G));
+        Gs = bs.GB(L);
+        assertEquals("GB_mod(L) == GB_Seq(L)", new PolynomialList<BigRational>(fac, Gs),
+                        new PolynomialList<BigRational>(fac, G));
+
+        L.add(fac.getONE());
+        G = bb.GB(L);
+        assertTrue("GB(L) == (1)", G.size() == 1 && G.get(0).isONE());
+    }
+
+
+    /**
+     * Test modular GBase with an unlucky prime.
+     */
+    public void testUnluckyPrime() {
+        GenPolynomialRing<BigRational> rfac = new GenPolynomialRing<BigRational>(new BigRational(),
+                        new String[] { "x", "y", "z" });
+        L = new ArrayList<GenPolynomial<BigRational>>();
+        // first prime 2^31-1 is unlucky
+        L.add(rfac.parse("x^2 - y"));
+        L.add(rfac.parse("x y + 2147483647 z"));
+        G = bb.GB(L);
+        assertTrue("isGB( L )", bb.isGB(G));
+        Gs = bs.GB(L);
+        assertEquals("GB_mod(L) == GB_Seq(L)", new PolynomialList<BigRational>(rfac, Gs),
+                        new PolynomialList<BigRational>(rfac, G));
+
+        // trace learned for the unlucky prime
+        bb = new GroebnerBaseModular(2, new GroebnerBaseSeq<ModLong>(), true, true);
+        G = bb.GB(L);
+        assertEquals("GB_trace(L) == GB_Seq(L)", new PolynomialList<BigRational>(rfac, Gs),
+                        new PolynomialList<BigRational>(rfac, G));
+    }
+
+
+    /**
+     * Test modular GBase with unlucky primes and without verification.
+     */
+    public void testUnluckyPrimeNoVerify() {
+        GenPolynomialRing<BigRational> rfac = new GenPolynomialRing<BigRational>(new BigRational(),
+                        new String[] { "x", "y", "z" });
+        L = new ArrayList<GenPolynomial<BigRational>>();
+        // first three primes are unlucky, the fourth image in the batch is lucky
+        java.math.BigInteger c = java.math.BigInteger.valueOf(2147483647L)
+                        .multiply(java.math.BigInteger.valueOf(2147483629L))
+                        .multiply(java.math.BigInteger.valueOf(2147483587L));
+        L.add(rfac.parse("x^2 - y z"));
+        L.add(rfac.parse(c + " x y + z^2"));
+        Gs = bs.GB(L);
+        bb.terminate();
+        bb = new GroebnerBaseModular(4, new GroebnerBaseSeq<ModLong>(), false);
+        G = bb.GB(L);
+        assertEquals("GB_mod(L) == GB_Seq(L)", new PolynomialList<BigRational>(rfac, Gs),
+                        new PolynomialList<BigRational>(rfac, G));
+
+        // the unlucky group is confirmed first, its reconstruction does not contain L
+        // and further primes are added
+        bb.terminate();
+        bb = new GroebnerBaseModular(1, new GroebnerBaseSeq<ModLong>(), false);
+        G = bb.GB(L);
+        assertEquals("GB_mod(L) == GB_Seq(L)", new PolynomialList<BigRational>(rfac, Gs),
+                        new PolynomialList<BigRational>(rfac, G));
+    }
+
+
+    /**
+     * Test verification of a Groebner base of a larger ideal.
+     */
+    public void testVerify() {
+        GenPolynomialRing<BigRational> rfac = new GenPolynomialRing<BigRational>(new BigRational(),
+                        new String[] { "x", "y" });
+        GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(), rfac);
+        GroebnerBaseModular bm = (GroebnerBaseModular) bb;
+        List<GenPolynomial<BigInteger>> Fi = new ArrayList<GenPolynomial<BigInteger>>();
+        Fi.add(ifac.parse("x^2 - 1"));
+        Fi.add(ifac.parse("y^2 - 4"));
+        L = new ArrayList<GenPolynomial<BigRational>>();
+        L.add(rfac.parse("x^2 - 1"));
+        L.add(rfac.parse("y^2 - 4"));
+        assertTrue("isVerified( GB(F) )", bm.isVerified(0, Fi, L));
+        // ideal(G) contains F and G is a Groebner base of a larger ideal
+        L = new ArrayList<GenPolynomial<BigRational>>();
+        L.add(rfac.parse("x - 1"));
+        L.add(rfac.parse("y^2 - 4"));
+        assertFalse("isVerified( G )", bm.isVerified(0, Fi, L));
+
+        Fi = new ArrayList<GenPolynomial<BigInteger>>();
+        Fi.add(ifac.parse("x^2"));
+        Fi.add(ifac.parse("y^2"));
+        L = new ArrayList<GenPolynomial<BigRational>>();
+        L.add(rfac.parse("x"));
+        L.add(rfac.parse("y^2"));
+        assertFalse("isVerified( G )", bm.isVerified(0, Fi, L));
+    }
+
+
+    /**
+     * Test verification of a Groebner base of not homogeneous polynomials
+     * without Groebner base over the integers.
+     */
+    public void testVerifyNotHomogeneous() {
+        GenPolynomialRing<BigRational> rfac = new GenPolynomialRing<BigRational>(new BigRational(),
+                        new String[] { "u0", "u1", "u2", "u3" });
+        L = new ArrayList<GenPolynomial<BigRational>>();
+        L.add(rfac.parse("u0 + 2 u1 + 2 u2 + 2 u3 - 1"));
+        L.add(rfac.parse("u0^2 + 2 u1^2 + 2 u2^2 + 2 u3^2 - u0"));
+        L.add(rfac.parse("2 u0 u1 + 2 u1 u2 + 2 u2 u3 - u1"));
+        L.add(rfac.parse("u1^2 + 2 u0 u2 + 2 u1 u3 - u2"));
+        final int[] igb = new int[] { 0 };
+        GroebnerBaseModular bm = new GroebnerBaseModular(2) {
+
+
+            @Override
+            protected List<GenPolynomial<BigInteger>> integerGB(int modv, List<GenPolynomial<BigInteger>> Fi) {
+                igb[0]++;
+                return super.integerGB(modv, Fi);
+            }
+        };
+        G = bm.GB(L);
+        assertEquals("no GB over the integers: ", 0, igb[0]);
+        assertTrue("isGB( GB(Katsura3) )", bs.isGB(G));
+        Gs = bs.GB(L);
+        assertEquals("GB_mod(Katsura3) == GB_Seq(Katsura3)", new PolynomialList<BigRational>(rfac, Gs),
+                        new PolynomialList<BigRational>(rfac, G));
+    }
+
+
+    /**
+     * Test homogenized polynomial rings.
+     */
+    public void testHomogenizedRing() {
+        String[] vars = new String[] { "x", "y", "z" };
+        TermOrder[] tos = new TermOrder[] { new TermOrder(TermOrder.IGRLEX), new TermOrder(TermOrder.INVLEX),
+                new TermOrder(new long[] { 1, 2, 3 }) };
+        for (TermOrder to : tos) {
+            GenPolynomialRing<BigRational> rfac = new GenPolynomialRing<BigRational>(new BigRational(), to,
+                            vars);
+            GenPolynomialRing<BigRational> hfac = GroebnerBaseModular.homogenizedRing(rfac);
+            assertNotNull("homogenized ring: " + to, hfac);
+            assertEquals("#vars == 4", 4, hfac.nvar);
+            for (int i = 0; i < 5; i++) {
+                a = rfac.random(kl, ll, el, q);
+                if (a.isZERO()) {
+                    continue;
+                }
+                b = GroebnerBaseModular.homogenize(hfac, a);
+                assertTrue("isHomogeneous(b) ", b.isHomogeneous());
+                assertEquals("deHom(hom(a)) == a ", a, GroebnerBaseModular.deHomogenize(rfac, b));
+                assertEquals("deHom(lt(hom(a))) == lt(a) ", a.leadingExpVector(),
+                                b.leadingExpVector().contract(0, rfac.nvar));
+            }
+        }
+        GenPolynomialRing<BigRational> rfac = new GenPolynomialRing<BigRational>(new BigRational(),
+                        new TermOrder(TermOrder.GRLEX), vars);
+        assertNull("no homogenized GRLEX", GroebnerBaseModular.homogenizedRing(rfac));
+    }
+
+
+    /**
+     * Test comparison of leading terms modulo different primes.
+     */
+    public void testCompareLeadingTerms() {
+        GenPolynomialRing<BigRational> rfac = new GenPolynomialRing<BigRational>(new BigRational(),
+                        new String[] { "x", "y", "z" });
+        Comparator<ExpVector> cmp = rfac.tord.getAscendComparator();
+        List<ExpVector> a = leadingTerms(rfac, "y z", "z^2", "x^2 z", "x y^3");
+        List<ExpVector> b = leadingTerms(rfac, "y z", "z^2", "x^2 z", "x^4");
+        List<ExpVector> c = leadingTerms(rfac, "y z", "z^2");
+        assertTrue("(c) subset (a)", GroebnerBaseModular.isIdealContained(c, a));
+        assertFalse("(a) not subset (c)", GroebnerBaseModular.isIdealContained(a, c));
+        assertEquals("cmp(a,a) == 0", 0, GroebnerBaseModular.compareLeadingTerms(a, a, cmp));
+        assertEquals("cmp(a,c) == 1", 1, GroebnerBaseModular.compareLeadingTerms(a, c, cmp));
+        assertEquals("cmp(c,a) == -1", -1, GroebnerBaseModular.compareLeadingTerms(c, a, cmp));
+        assertEquals("cmp(a,b) == 1", 1, GroebnerBaseModular.compareLeadingTerms(a, b, cmp));
+        assertEquals("cmp(b,a) == -1", -1, GroebnerBaseModular.compareLeadingTerms(b, a, cmp));
+
+        Map<List<ExpVector>, String> groups = new HashMap<List<ExpVector>, String>();
+        groups.put(b, "b");
+        groups.put(c, "c");
+        assertTrue("a is lucky", GroebnerBaseModular.removeUnlucky(a, groups, cmp));
+        assertTrue("groups removed: " + groups, groups.isEmpty());
+        groups.put(a, "a");
+        assertFalse("b is unlucky", GroebnerBaseModular.removeUnlucky(b, groups, cmp));
+        assertEquals("groups: " + groups, 1, groups.size());
+    }
+
+
+    List<ExpVector> leadingTerms(GenPolynomialRing<BigRational> rfac, String... s) {
+        List<ExpVector> lt = new ArrayList<ExpVector>();
+        for (String t : s) {
+            lt.add(rfac.parse(t).leadingExpVector());
+        }
+        return lt;
+    }
+
+
+    /**
+     * Test Trinks7 GBase, sequential and parallel images.
+     */
+    @SuppressWarnings("unchecked")
+    public void testTrinks7GBase() {
+        String exam = "(B,S,T,Z,P,W) L " + "( " + "( 45 P + 35 S - 165 B - 36 ), "
+                        + "( 35 P + 40 Z + 25 T - 27 S ), " + "( 15 W + 25 S P + 30 Z - 18 T - 165 B**2 ), "
+                        + "( - 9 W + 15 T P + 20 S Z ), " + "( P W + 2 T Z - 11 B**3 ), "
+                        + "( 99 W - 11 B S + 3 B**2 ), " + "( B**2 + 33/50 B + 2673/10000 ) " + ") ";
+        Reader source = new StringReader(exam);
+        GenPolynomialTokenizer parser = new GenPolynomialTokenizer(source);
+        try {
+            F = (PolynomialList<BigRational>) parser.nextPolynomialSet();
+        } catch (ClassCastException e) {
+            fail("" + e);
+        } catch (IOException e) {
+            fail("" + e);
+        }
+        //System.out.println("F = " + F);
+
+        G = bb.GB(F.list);
+        assertTrue("isGB( GB(Trinks7) )", bb.isGB(G));
+        assertEquals("#GB(Trinks7) == 6", 6, G.size());
+        Gs = bs.GB(F.list);
+        assertEquals("GB_mod(Trinks7) == GB_Seq(Trinks7)", new PolynomialList<BigRational>(F.ring, Gs),
+                        new PolynomialList<BigRational>(F.ring, G));
+
+        GroebnerBaseModular bm = new GroebnerBaseModular(1, new GroebnerBaseSeq<ModLong>());
+        G = bm.GB(F.list);
+        assertEquals("GB_mod(Trinks7) == GB_Seq(Trinks7)", new PolynomialList<BigRational>(F.ring, Gs),
+                        new PolynomialList<BigRational>(F.ring, G));
+
+        bm = new GroebnerBaseModular(2, new GroebnerBaseSeq<ModLong>(), true, true);
+        G = bm.GB(F.list);
+        assertEquals("GB_trace(Trinks7) == GB_Seq(Trinks7)", new PolynomialList<BigRational>(F.ring, Gs),
+                        new PolynomialList<BigRational>(F.ring, G));
+
+        bb = GBFactory.getImplementation(new BigRational(), GBFactory.Algo.mgb);
+        assertTrue("instance of " + bb, bb instanceof GroebnerBaseModular);
+        G = bb.GB(F.list);
+        assertEquals("#GB(Trinks7) == 6", 6, G.size());
+    }
+
+}
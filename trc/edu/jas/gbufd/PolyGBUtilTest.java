@@ -150,7 +150,7 @@ public class PolyGBUtilTest extends TestCase {
 
         GreatestCommonDivisorAbstract<BigInteger> ufds = new GreatestCommonDivisorSimple<BigInteger>();
         GreatestCommonDivisorAbstract<BigInteger> sres = new GreatestCommonDivisorSubres<BigInteger>();
-        GreatestCommonDivisorAbstract<BigInteger> ufdm = new GreatestCommonDivisorModular<ModInteger>(); //true);
+        GreatestCommonDivisorAbstract<BigInteger> ufdm = new GreatestCommonDivisorModular(); //true);
         GenPolynomial<BigInteger> a, b, c, d, e;
 
         for (int i = 0; i < 1; i++) {
@@ -237,7 +237,7 @@ public class PolyGBUtilTest extends TestCase {
 
         GreatestCommonDivisorAbstract<BigInteger> ufds = new GreatestCommonDivisorSimple<BigInteger>();
         GreatestCommonDivisorAbstract<BigInteger> sres = new GreatestCommonDivisorSubres<BigInteger>();
-        GreatestCommonDivisorAbstract<BigInteger> ufdm = new GreatestCommonDivisorModular<ModInteger>(); //true);
+        GreatestCommonDivisorAbstract<BigInteger> ufdm = new GreatestCommonDivisorModular(); //true);
 
         GreatestCommonDivisorAbstract<BigInteger> pufds = new GCDProxy<BigInteger>(sres, ufds);
         GreatestCommonDivisorAbstract<BigInteger> pufdm = new GCDProxy<BigInteger>(ufdm, sres);
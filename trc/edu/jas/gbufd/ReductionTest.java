@@ -661,4 +661,38 @@ public class ReductionTest extends TestCase {
         assertTrue("is ReductionNF ", rpred.isReductionNF(row,L,f,e) );
     }
 
+
+    /**
+     * Test integer coefficient geobucket pseudo reduction.
+     */
+    public void testIntegerGeoBucketPseudoReduction() {
+        BigInteger bi = new BigInteger(0);
+        GenPolynomialRing<BigInteger> fac 
+            = new GenPolynomialRing<BigInteger>( bi, rl );
+
+        PseudoReductionSeq<BigInteger> pred = new PseudoReductionSeq<BigInteger>();
+        PseudoReductionSeq<BigInteger> gred = new PseudoReductionSeq<BigInteger>(true);
+
+        List<GenPolynomial<BigInteger>> L 
+            = new ArrayList<GenPolynomial<BigInteger>>();
+        for (int i = 0; i < 3; i++) {
+            GenPolynomial<BigInteger> a = fac.random(kl, ll, el, q );
+            if ( !a.isZERO() ) {
+                L.add(a);
+            }
+        }
+        if ( L.isEmpty() ) {
+            return;
+        }
+        for (int i = 0; i < 5; i++) {
+            GenPolynomial<BigInteger> c = fac.random(kl, ll * 3, el + 2, q );
+            GenPolynomial<BigInteger> d = pred.normalform( L, c );
+            GenPolynomial<BigInteger> e = gred.normalform( L, c );
+            assertEquals("nf(c) == gnf(c)", d, e );
+            assertTrue("isNF( e )", pred.isNormalform(L,e) ); 
+        }
+        GenPolynomial<BigInteger> e = gred.normalform( L, L.get(0) );
+        assertTrue("isZERO( e )", e.isZERO() );
+    }
+
 }
@@ -0,0 +1,177 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * ExpVectorIndex tests with JUnit. Compares the index with a linear search.
+ * @author agent
+ */
+
+public class ExpVectorIndexTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>ExpVectorIndexTest</CODE> object.
+     * @param name String.
+     */
+    public ExpVectorIndexTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(ExpVectorIndexTest.class);
+        return suite;
+    }
+
+
+    int rl = 5;
+
+
+    float q = 0.5f;
+
+
+    @Override
+    protected void setUp() {
+    }
+
+
+    @Override
+    protected void tearDown() {
+    }
+
+
+    static int firstDivisor(List<ExpVector> L, ExpVector e) {
+        for (int i = 0; i < L.size(); i++) {
+            if (L.get(i) != null && e.multipleOf(L.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
+    static List<Integer> divisors(List<ExpVector> L, ExpVector e) {
+        List<Integer> D = new ArrayList<Integer>();
+        for (int i = 0; i < L.size(); i++) {
+            if (L.get(i) != null && e.multipleOf(L.get(i))) {
+                D.add(i);
+            }
+        }
+        return D;
+    }
+
+
+    /**
+     * Test incremental index against linear search.
+     */
+    public void testIndex() {
+        ExpVectorIndex index = new ExpVectorIndex();
+        List<ExpVector> L = new ArrayList<ExpVector>();
+        assertEquals("empty", -1, index.firstDivisor(ExpVector.random(rl, 5, q)));
+        for (int k = 0; k < 60; k++) {
+            ExpVector a = ExpVector.random(rl, 4, q);
+            if (k % 10 == 3) {
+                a = L.get(k / 2); // duplicates
+            }
+            if (k == 7) {
+                a = null;
+            }
+            L.add(a);
+            assertEquals("index", k, index.add(a));
+            assertEquals("size", L.size(), index.size());
+            for (int i = 0; i < 20; i++) {
+                ExpVector e = ExpVector.random(rl, 8, q);
+                assertEquals("firstDivisor " + index, firstDivisor(L, e), index.firstDivisor(e));
+                assertEquals("divisors " + index, divisors(L, e), index.divisors(e));
+                ExpVector b = L.get(i % L.size());
+                if (b != null) {
+                    e = b.sum(e);
+                    assertTrue("hasDivisor", index.hasDivisor(e));
+                    assertEquals("firstDivisor " + index, firstDivisor(L, e), index.firstDivisor(e));
+                }
+            }
+        }
+        assertTrue("trie used: " + index, index.toString().indexOf("trie") >= 0);
+
+        index = new ExpVectorIndex(L);
+        assertEquals("size", L.size(), index.size());
+        ExpVector e = ExpVector.random(rl, 8, q);
+        assertEquals("divisors", divisors(L, e), index.divisors(e));
+
+        // different lengths fall back to linear search
+        L.add(ExpVector.create(rl + 1));
+        index.add(L.get(L.size() - 1));
+        e = ExpVector.random(rl, 8, q);
+        assertEquals("firstDivisor", firstDivisor(L.subList(0, L.size() - 1), e), index.firstDivisor(e));
+
+        index.clear();
+        assertEquals("cleared", 0, index.size());
+        assertEquals("cleared", -1, index.firstDivisor(e));
+    }
+
+
+
+    /**
+     * Test update for a growing list and the per thread cache.
+     */
+    public void testUpdateCache() {
+        ExpVector[] htl = new ExpVector[40];
+        for (int k = 0; k < htl.length; k++) {
+            htl[k] = ExpVector.random(rl, 4, q);
+        }
+        List<ExpVector> L = Arrays.asList(htl);
+        ExpVectorIndex.Cache cache = new ExpVectorIndex.Cache();
+        ExpVectorIndex index = cache.get(htl, 5);
+        assertEquals("size", 5, index.size());
+        cache.release(index);
+        for (int l = 5; l <= htl.length; l += 5) {
+            ExpVectorIndex x = cache.get(htl, l);
+            assertTrue("same index", x == index);
+            assertEquals("size", l, x.size());
+            // nested use gets a new index
+            ExpVectorIndex y = cache.get(htl, 3);
+            assertFalse("new index", x == y);
+            assertEquals("size", 3, y.size());
+            for (int i = 0; i < 20; i++) {
+                ExpVector e = ExpVector.random(rl, 8, q);
+                assertEquals("firstDivisor " + x, firstDivisor(L.subList(0, l), e), x.firstDivisor(e));
+            }
+            cache.release(x);
+        }
+
+        // not a prefix, rebuilt
+        ExpVector[] ftl = new ExpVector[] { htl[1], htl[0], htl[2] };
+        index = cache.get(ftl, ftl.length);
+        assertEquals("size", 3, index.size());
+        for (int i = 0; i < 20; i++) {
+            ExpVector e = ExpVector.random(rl, 8, q);
+            assertEquals("firstDivisor", firstDivisor(Arrays.asList(ftl), e), index.firstDivisor(e));
+        }
+        assertEquals("shrink", 2, index.update(htl, 2).size());
+        assertTrue("get(0)", index.get(0) == htl[0]);
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+
+/**
+ * ExpVectorPacked tests with JUnit. Compares the packed operations with the
+ * operations of ExpVectorLong.
+ * @author agent
+ */
+
+public class ExpVectorPackedTest extends TestCase {
+
+
+    /**
+     * main
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>ExpVectorPackedTest</CODE> object.
+     * @param name String.
+     */
+    public ExpVectorPackedTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(ExpVectorPackedTest.class);
+        return suite;
+    }
+
+
+    Random rnd = new Random();
+
+
+    ExpVector a, b, c, d;
+
+
+    @Override
+    protected void setUp() {
+        a = b = c = d = null;
+    }
+
+
+    @Override
+    protected void tearDown() {
+        a = b = c = d = null;
+    }
+
+
+    long[] randomExps(int n, int k) {
+        long[] v = new long[n];
+        for (int i = 0; i < n; i++) {
+            if (rnd.nextFloat() < 0.7f) {
+                v[i] = rnd.nextInt(k);
+            }
+        }
+        return v;
+    }
+
+
+    static int sign(int t) {
+        return (t > 0) ? 1 : ((t < 0) ? -1 : 0);
+    }
+
+
+    /**
+     * Test constructor and representation.
+     */
+    public void testConstructor() {
+        a = new ExpVectorPacked(16);
+        assertTrue("isZERO( 16e )", a.isZERO());
+        assertEquals("length( 16e ) = 16", 16, a.length());
+        b = new ExpVectorLong(16);
+        assertEquals("packed(0) == long(0)", a, b);
+        assertEquals("long(0) == packed(0)", b, a);
+        assertEquals("hash(packed) == hash(long)", a.hashCode(), b.hashCode());
+
+        long[] v = new long[] { 255, 0, 3, 128, 127, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
+        a = new ExpVectorPacked(v);
+        for (int i = 0; i < v.length; i++) {
+            assertEquals("a[i] == v[i]", v[i], a.getVal(i));
+        }
+        assertEquals("a == parse(a)", a, new ExpVectorPacked("(255,0,3,128,127,1,2,3,4,5,6,7,8,9,10,11)"));
+        assertEquals("packed(v) == long(v)", a, new ExpVectorLong(v));
+        assertEquals("a.subst(3,7)", new ExpVectorLong(v).subst(3, 7), a.subst(3, 7));
+        assertTrue("a.subst(3,256) is long", a.subst(3, 256) instanceof ExpVectorLong);
+        assertEquals("a.subst(3,256)", new ExpVectorLong(v).subst(3, 256), a.subst(3, 256));
+
+        assertTrue("isPackable(v)", ExpVectorPacked.isPackable(v));
+        assertFalse("isPackable(-1)", ExpVectorPacked.isPackable(new long[] { 1, -1 }));
+        assertFalse("isPackable(256)", ExpVectorPacked.isPackable(new long[] { 256, 1 }));
+        assertFalse("isPackable(17 vars)", ExpVectorPacked.isPackable(new long[17]));
+        assertTrue("valueOf(256) is long", ExpVectorPacked.valueOf(new long[] { 256, 1 }) instanceof ExpVectorLong);
+        try {
+            a = new ExpVectorPacked(new long[] { 1, 256 });
+            fail("exponent 256 not packable");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test arithmetic and comparisons against ExpVectorLong.
+     */
+    public void testOperations() {
+        for (int n = 0; n <= ExpVectorPacked.MAX_VARS; n++) {
+            for (int k = 0; k < 20; k++) {
+                long[] u = randomExps(n, (k % 2 == 0) ? 128 : 256);
+                long[] v = randomExps(n, (k % 3 == 0) ? 4 : 256);
+                if (k % 5 == 0) {
+                    v = u.clone();
+                }
+                a = new ExpVectorPacked(u);
+                b = new ExpVectorPacked(v);
+                c = new ExpVectorLong(u);
+                d = new ExpVectorLong(v);
+
+                assertEquals("a+b", c.sum(d), a.sum(b));
+                assertEquals("a-b", c.subtract(d), a.subtract(b));
+                assertEquals("lcm(a,b)", c.lcm(d), a.lcm(b));
+                assertEquals("gcd(a,b)", c.gcd(d), a.gcd(b));
+                assertEquals("a | b", c.multipleOf(d), a.multipleOf(b));
+                assertEquals("b | a", d.multipleOf(c), b.multipleOf(a));
+                assertEquals("tdeg(a)", c.totalDeg(), a.totalDeg());
+                assertEquals("mdeg(a)", c.maxDeg(), a.maxDeg());
+                assertEquals("signum(a)", c.signum(), a.signum());
+                assertEquals("dep(a)", c.dependentVariables(), a.dependentVariables());
+                assertEquals("a == b", c.equals(d), a.equals(b));
+
+                assertEquals("invLex", sign(c.invLexCompareTo(d)), a.invLexCompareTo(b));
+                assertEquals("invGrad", sign(c.invGradCompareTo(d)), a.invGradCompareTo(b));
+                assertEquals("revInvLex", sign(c.revInvLexCompareTo(d)), a.revInvLexCompareTo(b));
+                assertEquals("revInvGrad", sign(c.revInvGradCompareTo(d)), a.revInvGradCompareTo(b));
+                assertEquals("invTdeg", sign(c.invTdegCompareTo(d)), a.invTdegCompareTo(b));
+                assertEquals("revLexInvTdeg", sign(c.revLexInvTdegCompareTo(d)),
+                                a.revLexInvTdegCompareTo(b));
+
+                // mixed storage units
+                assertEquals("a+d", c.sum(d), a.sum(d));
+                assertEquals("c+b", c.sum(d), c.sum(b));
+                assertEquals("invGrad mixed", sign(c.invGradCompareTo(d)), sign(c.invGradCompareTo(b)));
+                assertEquals("invGrad mixed", sign(c.invGradCompareTo(d)), sign(a.invGradCompareTo(d)));
+                assertEquals("a | d", c.multipleOf(d), a.multipleOf(d));
+            }
+        }
+    }
+
+
+    /**
+     * Test promotion to ExpVectorLong.
+     */
+    public void testPromotion() {
+        a = new ExpVectorPacked(new long[] { 200, 1, 0, 255 });
+        b = new ExpVectorPacked(new long[] { 100, 1, 0, 0 });
+
+        c = a.sum(b);
+        assertTrue("overflow promotes " + c, c instanceof ExpVectorLong);
+        assertEquals("a+b", 300L, c.getVal(0));
+        assertEquals("a+b-b == a", a, c.subtract(b));
+
+        c = a.sum(a.subtract(a));
+        assertTrue("no overflow " + c, c instanceof ExpVectorPacked);
+
+        c = b.subtract(a);
+        assertTrue("negative exponents promote " + c, c instanceof ExpVectorLong);
+        assertEquals("b-a", -100L, c.getVal(0));
+        assertEquals("b-a", -255L, c.getVal(3));
+        assertEquals("b-a+a == b", b, c.sum(a));
+        assertEquals("-a", new ExpVectorLong(a.getVal()).negate(), a.negate());
+
+        c = a.scalarMultiply(2);
+        assertEquals("2*a", a.sum(a), c);
+        c = a.extend(13, 0, 1);
+        assertTrue("extend to 17 variables " + c, c instanceof ExpVectorLong);
+        assertEquals("contract(extend(a))", a, c.contract(13, 4));
+    }
+
+}
@@ -571,4 +571,138 @@ public class ExpVectorTest extends TestCase {
         }
     }
 
+
+    /**
+     * Test storage units and promotion.
+     */
+    public void testStorUnit() {
+        assertEquals("storUnit(3)", ExpVector.StorUnit.BYTE, ExpVector.storUnit(3));
+        assertEquals("storUnit(-3)", ExpVector.StorUnit.BYTE, ExpVector.storUnit(-3));
+        assertEquals("storUnit(100)", ExpVector.StorUnit.SHORT, ExpVector.storUnit(100));
+        assertEquals("storUnit(100000)", ExpVector.StorUnit.INT, ExpVector.storUnit(100000));
+        assertEquals("storUnit(2^40)", ExpVector.StorUnit.LONG, ExpVector.storUnit(1L << 40));
+        assertEquals("storUnit(v)", ExpVector.StorUnit.SHORT, ExpVector.storUnit(new long[] { 1, -200, 3 }));
+
+        long[] v = new long[] { 60, 2, 0, 3 };
+        a = ExpVector.create(ExpVector.StorUnit.BYTE, v);
+        assertTrue("byte storage " + a, a instanceof ExpVectorByte);
+        b = ExpVector.create(ExpVector.StorUnit.SHORT, v);
+        assertTrue("short storage " + b, b instanceof ExpVectorShort);
+        c = ExpVector.create(ExpVector.StorUnit.PACKED, v);
+        assertTrue("packed storage " + c, c instanceof ExpVectorPacked);
+        d = ExpVector.create(ExpVector.StorUnit.BYTE, new long[] { 60, 200, 0, 3 });
+        assertTrue("short storage " + d, d instanceof ExpVectorShort);
+        d = ExpVector.create(ExpVector.StorUnit.BYTE, 4, 1, 1L << 33);
+        assertTrue("long storage " + d, d instanceof ExpVectorLong);
+        assertEquals("d[1]", 1L << 33, d.getVal(1));
+
+        // equality and comparison between storage units
+        assertEquals("byte == short", a, b);
+        assertEquals("short == packed", b, c);
+        assertEquals("packed == byte", c, a);
+        assertEquals("invGrad(byte,short)", 0, a.invGradCompareTo(b));
+
+        // overflow promotes
+        ExpVector s = a.sum(a);
+        assertTrue("promoted " + s, s instanceof ExpVectorShort);
+        assertEquals("a+a", 120L, s.getVal(0));
+        assertEquals("a+a-a == a", a, s.subtract(a));
+        assertTrue("a.multipleOf(a+a-a)", a.multipleOf(s.subtract(a)));
+        s = b.scalarMultiply(1000);
+        assertTrue("promoted " + s, s instanceof ExpVectorInteger);
+        assertEquals("1000*b", 60000L, s.getVal(0));
+        s = ExpVector.create(ExpVector.StorUnit.INT, v).scalarMultiply(1L << 30);
+        assertTrue("promoted " + s, s instanceof ExpVectorLong);
+        assertEquals("2^30*v", 60L << 30, s.getVal(0));
+        s = a.subst(1, 1000);
+        assertEquals("subst", 1000L, s.getVal(1));
+        s = a.extend(1, 0, 300);
+        assertEquals("extend", 300L, s.getVal(0));
+        assertEquals("contract(extend)", a, s.contract(1, 4));
+
+        // mixed storage units
+        s = a.sum(ExpVector.create(ExpVector.StorUnit.LONG, v));
+        assertEquals("byte + long", ExpVector.create(ExpVector.StorUnit.LONG, v).scalarMultiply(2), s);
+        assertEquals("lcm(byte,short)", a, a.lcm(b));
+        assertEquals("gcd(short,byte)", a, b.gcd(a));
+        assertTrue("byte | long", a.multipleOf(ExpVector.create(ExpVector.StorUnit.LONG, 4, 0, 1)));
+    }
+
+
+    /**
+     * Test hash code, it must be computed from the exponents and it must be
+     * recomputed after setVal().
+     */
+    public void testHashCode() {
+        java.util.Set<Integer> hs = new java.util.HashSet<Integer>();
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                for (int k = 0; k < 8; k++) {
+                    long[] v = new long[] { i, j, k };
+                    a = ExpVector.create(v);
+                    hs.add(a.hashCode());
+                    assertEquals("hash(a) == hash(a)", a.hashCode(), a.hashCode());
+                    for (ExpVector.StorUnit su : ExpVector.StorUnit.values()) {
+                        b = ExpVector.create(su, v);
+                        assertEquals("hash(a) == hash(b) " + su, a.hashCode(), b.hashCode());
+                    }
+                }
+            }
+        }
+        assertEquals("#hash = 8^3", 512, hs.size());
+
+        for (ExpVector.StorUnit su : ExpVector.StorUnit.values()) {
+            a = ExpVector.create(su, new long[] { 1, 2, 3 });
+            int h = a.hashCode();
+            a.setVal(1, 5);
+            b = ExpVector.create(su, new long[] { 1, 5, 3 });
+            assertTrue("hash(a) != h " + su, h != a.hashCode());
+            assertEquals("hash(a) == hash(b) " + su, b.hashCode(), a.hashCode());
+        }
+
+        // overflowing hash is non negative
+        a = ExpVector.create(20, 0, 200).sum(ExpVector.create(20, 19, 200));
+        assertTrue("hash(a) >= 0", a.hashCode() >= 0);
+        assertEquals("hash(a) == hash(a)", a.hashCode(), a.hashCode());
+    }
+
+
+    /**
+     * Test divisibility mask.
+     */
+    public void testDivMask() {
+        java.util.Random rnd = new java.util.Random();
+        for (int n : new int[] { 1, 3, 7, 30, 70 }) {
+            for (int k = 0; k < 100; k++) {
+                long[] u = new long[n];
+                long[] v = new long[n];
+                for (int i = 0; i < n; i++) {
+                    u[i] = rnd.nextInt(5);
+                    v[i] = (k % 2 == 0) ? Math.max(0, u[i] - rnd.nextInt(2)) : rnd.nextInt(5);
+                }
+                boolean mt = true;
+                for (int i = 0; i < n; i++) {
+                    if (u[i] < v[i]) {
+                        mt = false;
+                    }
+                }
+                for (ExpVector.StorUnit su : ExpVector.StorUnit.values()) {
+                    a = ExpVector.create(su, u);
+                    b = ExpVector.create(su, v);
+                    if (mt) {
+                        assertTrue("mask(b) in mask(a)", a.divMaskMultipleOf(b));
+                    }
+                    assertEquals("a.multipleOf(b) " + su, mt, a.multipleOf(b));
+                    assertEquals("b.divides(a) " + su, mt, b.divides(a));
+                }
+            }
+        }
+        a = ExpVector.create(4, 0, 2);
+        b = ExpVector.create(4, 1, 1);
+        assertFalse("x^2 not multiple of y", a.multipleOf(b));
+        a.setVal(1, 1);
+        assertTrue("x^2 y multiple of y", a.multipleOf(b));
+        assertTrue("mask(0) == 0", (ExpVector.create(4).divMask() & Long.MAX_VALUE) == 0L);
+    }
+
 }
@@ -24,6 +24,8 @@ import edu.jas.arith.BigInteger;
 import edu.jas.arith.ModInteger;
 import edu.jas.arith.ModIntegerRing;
 import edu.jas.arith.BigRational;
+import edu.jas.arith.BigQuaternion;
+import edu.jas.arith.BigQuaternionRing;
 import edu.jas.structure.RingElem;
 import edu.jas.structure.UnaryFunctor;
 import edu.jas.util.ListUtil;
@@ -724,6 +726,387 @@ public class GenPolynomialTest extends TestCase {
                    a.bitLength() + b.bitLength() >= c.bitLength());
     }
 
+
+    /**
+     * Test geobucket accumulation.
+     */
+    public void testGeoBucket() {
+        GenPolynomialRing<BigInteger> fac = new GenPolynomialRing<BigInteger>(new BigInteger(1), 3);
+        GeoBucket<BigInteger> gb = new GeoBucket<BigInteger>(fac);
+        assertTrue("isZERO(gb)", gb.isZERO());
+        assertTrue("lm(gb) == null", gb.leadingMonomial() == null);
+        assertTrue("sum(gb) == 0", gb.getPolynomial().isZERO());
+
+        GenPolynomial<BigInteger> s = fac.getZERO();
+        for (int i = 0; i < 30; i++) {
+            GenPolynomial<BigInteger> a = fac.random(7, 2 + i, 4, 0.7f);
+            BigInteger c = new BigInteger(i - 15);
+            ExpVector e = ExpVector.random(3, 3, 0.5f);
+            s = s.subtractMultiple(c, e, a);
+            gb.subtractMultiple(c, e, a);
+            if (i % 3 == 0) {
+                s = s.sum(a);
+                gb.add(a);
+            }
+            if (i % 5 == 0) {
+                s = s.subtract(a);
+                gb.subtract(a);
+            }
+        }
+        assertEquals("sum(gb) == s", s, gb.getPolynomial());
+        assertEquals("lm(gb) == lm(s)", s.leadingMonomial(), gb.leadingMonomial());
+        gb.multiply(new BigInteger(3));
+        s = s.multiply(new BigInteger(3));
+        assertEquals("sum(gb) == s", s, gb.getPolynomial());
+
+        // remove all terms in order
+        GenPolynomial<BigInteger> r = fac.getZERO().copy();
+        Map.Entry<ExpVector, BigInteger> m;
+        while ((m = gb.removeLeadingMonomial()) != null) {
+            r.doPutToMap(m.getKey(), m.getValue());
+        }
+        assertEquals("r == s", s, r);
+        assertTrue("isZERO(gb)", gb.isZERO());
+
+        // cancellation of all terms
+        gb = new GeoBucket<BigInteger>(s);
+        gb.subtract(s);
+        assertTrue("isZERO(gb)", gb.isZERO());
+    }
+
+
+    /**
+     * Test storage unit selection of the polynomial ring.
+     */
+    public void testStorUnit() {
+        String[] vars = new String[] { "x", "y", "z" };
+        GenPolynomialRing<BigInteger> lfac = new GenPolynomialRing<BigInteger>(new BigInteger(1), vars);
+        assertEquals("default storage unit", ExpVector.storunit, lfac.getStorUnit());
+
+        GenPolynomial<BigInteger> a = lfac.random(5, 5, 4, 0.7f);
+        GenPolynomial<BigInteger> b = lfac.random(5, 5, 4, 0.7f);
+        List<GenPolynomial<BigInteger>> L = new ArrayList<GenPolynomial<BigInteger>>();
+        L.add(a);
+        L.add(b);
+        assertEquals("packed for small degrees", ExpVector.StorUnit.PACKED, lfac.selectStorUnit(L));
+        GenPolynomialRing<BigInteger> bfac = new GenPolynomialRing<BigInteger>(lfac, lfac.selectStorUnit(L));
+        assertEquals("lfac unchanged", ExpVector.storunit, lfac.getStorUnit());
+        assertFalse("lfac evzero unchanged", lfac.evzero instanceof ExpVectorPacked);
+        assertTrue("evzero packed", bfac.evzero instanceof ExpVectorPacked);
+        GenPolynomial<BigInteger> ap = bfac.toStorUnit(a);
+        GenPolynomial<BigInteger> bp = bfac.toStorUnit(b);
+        for (ExpVector e : ap.getMap().keySet()) {
+            assertTrue("packed " + e, e instanceof ExpVectorPacked);
+        }
+        assertEquals("a == ap", a, ap);
+        assertEquals("a*b == ap*bp", a.multiply(b), ap.multiply(bp));
+        assertEquals("a+b == ap+b", a.sum(b), ap.sum(b));
+        assertEquals("x^300", lfac.univariate(0, 300), bfac.univariate(0, 300));
+
+        // degree overflow is promoted
+        GenPolynomial<BigInteger> d = lfac.parse("x^4 + 2 y - z");
+        GenPolynomial<BigInteger> dp = bfac.toStorUnit(d);
+        GenPolynomial<BigInteger> c = dp.power(70); // degrees up to 280
+        assertEquals("d^70 == dp^70", d.power(70), c);
+        assertTrue("promoted " + c.leadingExpVector(), c.leadingExpVector() instanceof ExpVectorLong);
+        assertTrue("dp^70 - d^70 == 0", c.subtract(d.power(70)).isZERO());
+        assertEquals("dp^70 + d == d + dp^70", c.sum(d), d.sum(c));
+
+        assertEquals("packed for degree 50", ExpVector.StorUnit.PACKED, bfac.degreeStorUnit(50));
+        assertEquals("short for degree 300", ExpVector.StorUnit.SHORT, bfac.degreeStorUnit(300));
+        assertEquals("int for degree 10^6", ExpVector.StorUnit.INT, bfac.degreeStorUnit(1000000));
+        assertEquals("bfac unchanged", ExpVector.StorUnit.PACKED, bfac.getStorUnit());
+        bfac = new GenPolynomialRing<BigInteger>(bfac, bfac.degreeStorUnit(1000000));
+        ap = bfac.toStorUnit(a);
+        assertEquals("a == ap", a, ap);
+        GenPolynomialRing<BigInteger> cfac = new GenPolynomialRing<BigInteger>(new BigInteger(1), bfac);
+        assertEquals("copied storage unit", bfac.getStorUnit(), cfac.getStorUnit());
+        assertEquals("parse", lfac.parse("x^3 y - 2 z^400"), cfac.parse("x^3 y - 2 z^400"));
+
+        // derived rings keep the storage unit
+        GenPolynomialRing<BigInteger> sfac = new GenPolynomialRing<BigInteger>(lfac, ExpVector.StorUnit.SHORT);
+        assertEquals("extend", ExpVector.StorUnit.SHORT, sfac.extend(2).getStorUnit());
+        assertEquals("extendLower", ExpVector.StorUnit.SHORT, sfac.extendLower(2).getStorUnit());
+        assertEquals("contract", ExpVector.StorUnit.SHORT, sfac.contract(1).getStorUnit());
+        assertEquals("reverse", ExpVector.StorUnit.SHORT, sfac.reverse().getStorUnit());
+        List<Integer> P = new ArrayList<Integer>();
+        P.add(2);
+        P.add(0);
+        P.add(1);
+        assertEquals("permutation", ExpVector.StorUnit.SHORT, sfac.permutation(P).getStorUnit());
+        bfac = new GenPolynomialRing<BigInteger>(lfac, ExpVector.StorUnit.PACKED);
+        assertEquals("extend packed", ExpVector.StorUnit.PACKED, bfac.extend(2).getStorUnit());
+        assertEquals("contract packed", ExpVector.StorUnit.PACKED, bfac.contract(1).getStorUnit());
+        cfac = bfac.extend(ExpVectorPacked.MAX_VARS);
+        assertEquals("not packed beyond MAX_VARS", ExpVector.storUnit(ExpVectorPacked.MAX_EXP),
+                        cfac.getStorUnit());
+        a = bfac.parse("x^3 y - 2 z^4");
+        assertEquals("extend polynomial", a, a.extend(cfac, 0, 0).contract(bfac).values().iterator().next());
+    }
+
+
+    /**
+     * Test heap multiplication.
+     */
+    public void testHeapMultiply() {
+        // integers
+        BigInteger rf = new BigInteger();
+        // polynomials over integral numbers
+        GenPolynomialRing<BigInteger> pf = new GenPolynomialRing<BigInteger>(rf, rl);
+
+        GenPolynomial<BigInteger> a, b, c, d, e;
+        a = pf.random(kl, 3 * ll, el, q);
+        b = pf.random(kl, 2 * ll, el, q);
+        c = multiplyTerms(a, b);
+        d = a.multiplyHeap(b);
+        //System.out.println("c = " + c);
+        //System.out.println("d = " + d);
+        assertEquals("a*b == a*_h b ", c, d);
+
+        d = b.multiplyHeap(a);
+        assertEquals("a*b == b*_h a ", c, d);
+
+        assertTrue("heap multiply ", pf.isHeapMultiply());
+        e = a.multiply(b);
+        assertEquals("a*b == a*_h b ", c, e);
+
+        // TreeMap based multiplication
+        GenPolynomialRing<BigInteger> tf = new GenPolynomialRing<BigInteger>(pf, false);
+        assertFalse("no heap multiply ", tf.isHeapMultiply());
+        assertTrue("heap multiply unchanged ", pf.isHeapMultiply());
+        assertFalse("copied flag ", new GenPolynomialRing<BigInteger>(new BigInteger(1), tf).isHeapMultiply());
+        assertFalse("copied flag ", new GenPolynomialRing<BigInteger>(tf, pf.tord).isHeapMultiply());
+        assertFalse("copied flag ", tf.copy().isHeapMultiply());
+        assertFalse("extend flag ", tf.extend(2).isHeapMultiply());
+        assertFalse("extendLower flag ", tf.extendLower(2).isHeapMultiply());
+        assertFalse("contract flag ", tf.contract(1).isHeapMultiply());
+        assertFalse("reverse flag ", tf.reverse().isHeapMultiply());
+        assertTrue("extend flag ", pf.extend(2).isHeapMultiply());
+        assertTrue("contract flag ", pf.contract(1).isHeapMultiply());
+        e = tf.copy(a).multiply(tf.copy(b));
+        assertEquals("a*b == a*_t b ", tf.copy(c), e);
+
+        // cancellation
+        d = a.negate().multiplyHeap(b).sum(c);
+        assertTrue("-a*b + a*b == 0 ", d.isZERO());
+        d = a.multiplyHeap(pf.getONE());
+        assertEquals("a*1 == a ", a, d);
+        d = a.multiplyHeap(pf.getZERO());
+        assertTrue("a*0 == 0 ", d.isZERO());
+
+        // zero divisors
+        ModIntegerRing mf = new ModIntegerRing(6);
+        GenPolynomialRing<ModInteger> mpf = new GenPolynomialRing<ModInteger>(mf, new String[] { "x", "y" });
+        GenPolynomial<ModInteger> x = mpf.parse("2 x + 3 y");
+        GenPolynomial<ModInteger> y = mpf.parse("3 x - 2 y");
+        GenPolynomial<ModInteger> z = x.multiplyHeap(y);
+        //System.out.println("z = " + z);
+        assertEquals("(2x+3y)(3x-2y) == 5 x y ", mpf.parse("5 x y"), z);
+
+        // non commutative coefficients
+        BigQuaternionRing qf = new BigQuaternionRing();
+        GenPolynomialRing<BigQuaternion> qpf = new GenPolynomialRing<BigQuaternion>(qf, 2);
+        GenPolynomial<BigQuaternion> ra = qpf.random(kl, ll, el, q);
+        GenPolynomial<BigQuaternion> rb = qpf.random(kl, ll, el, q);
+        GenPolynomial<BigQuaternion> rc = multiplyTerms(ra, rb);
+        assertEquals("ra*rb == ra*_h rb ", rc, ra.multiplyHeap(rb));
+        GenPolynomialRing<BigQuaternion> qtf = new GenPolynomialRing<BigQuaternion>(qpf, false);
+        assertEquals("ra*rb == ra*_t rb ", qtf.copy(rc), qtf.copy(ra).multiply(qtf.copy(rb)));
+    }
+
+
+    /**
+     * Product as sum of the products with the terms of the second factor.
+     */
+    <C extends RingElem<C>> GenPolynomial<C> multiplyTerms(GenPolynomial<C> a, GenPolynomial<C> b) {
+        GenPolynomial<C> c = a.ring.getZERO();
+        for (Monomial<C> m : b) {
+            c = c.sum(a.multiply(m.c, m.e));
+        }
+        return c;
+    }
+
+
+    /**
+     * Test linear merge summation against destructive summation.
+     */
+    public void testMergeSum() {
+        BigRational rf = new BigRational();
+        GenPolynomialRing<BigRational> pf = new GenPolynomialRing<BigRational>(rf, rl);
+        GenPolynomial<BigRational> a, b, c, d;
+        for (int i = 0; i < 5; i++) {
+            a = pf.random(kl, ll * (i + 1), el, q);
+            b = pf.random(kl, ll * (5 - i), el, q);
+            BigRational x = rf.random(kl);
+            BigRational y = rf.random(kl);
+            ExpVector u = ExpVector.random(rl, el, q);
+            ExpVector v = ExpVector.random(rl, el, q);
+
+            c = a.copy();
+            c.doAddTo(b);
+            assertEquals("a+b == a += b", c, a.sum(b));
+            c = a.copy();
+            c.doAddTo(b.negate());
+            assertEquals("a-b == a += -b", c, a.subtract(b));
+            assertTrue("a-a == 0", a.subtract(a).isZERO());
+            assertEquals("a+(-a+b) == b", b, a.sum(a.negate().sum(b)));
+
+            d = b.multiply(x, u);
+            c = a.copy();
+            c.doAddTo(d.negate());
+            assertEquals("a - x u b", c, a.subtractMultiple(x, u, b));
+            assertEquals("a - x b", a.subtract(b.multiply(x)), a.subtractMultiple(x, b));
+            c = a.multiply(y).copy(); // may be ZERO
+            c.doAddTo(d.negate());
+            assertEquals("y a - x u b", c, a.scaleSubtractMultiple(y, x, u, b));
+            assertEquals("y a - x b", a.multiply(y).subtract(b.multiply(x)),
+                            a.scaleSubtractMultiple(y, x, b));
+            c = a.multiply(y, v).copy();
+            c.doAddTo(d.negate());
+            assertEquals("y v a - x u b", c, a.scaleSubtractMultiple(y, v, x, u, b));
+        }
+        // leading terms cancel
+        pf = new GenPolynomialRing<BigRational>(rf, new String[] { "w", "x", "y", "z" });
+        a = pf.parse("3 w^2 x + y - 1");
+        b = pf.parse("w x + z");
+        c = a.subtractMultiple(rf.fromInteger(3), pf.parse("w").leadingExpVector(), b);
+        assertEquals("a - 3 w b", pf.parse("- 3 w z + y - 1"), c);
+
+        // solvable polynomials keep their type
+        GenSolvablePolynomialRing<BigRational> sf = new GenSolvablePolynomialRing<BigRational>(rf, pf);
+        GenSolvablePolynomial<BigRational> sa = sf.random(kl, ll, el, q);
+        GenSolvablePolynomial<BigRational> sb = sf.random(kl, ll, el, q);
+        assertTrue("solvable sum", sa.sum(sb) instanceof GenSolvablePolynomial);
+        assertTrue("solvable difference", sa.subtract(sb) instanceof GenSolvablePolynomial);
+        assertEquals("sa - x sb", sa.subtract(sb.multiply(rf.fromInteger(2))),
+                        sa.subtractMultiple(rf.fromInteger(2), sb));
+    }
+
+
+    /**
+     * Test polynomial builder.
+     */
+    public void testBuilder() {
+        BigRational rf = new BigRational();
+        GenPolynomialRing<BigRational> pf = new GenPolynomialRing<BigRational>(rf, rl);
+        GenPolynomialBuilder<BigRational> pb = new GenPolynomialBuilder<BigRational>(pf);
+        assertTrue("empty builder ", pb.isZERO());
+        assertTrue("build empty ", pb.build().isZERO());
+
+        GenPolynomial<BigRational> a, b, c, d;
+        a = pf.random(kl, 2 * ll, el, q);
+        b = pf.random(kl, ll, el, q);
+        BigRational x = rf.random(kl);
+        ExpVector u = ExpVector.random(rl, el, q);
+
+        // terms in order
+        for (Monomial<BigRational> m : a) {
+            pb.addTerm(m.c, m.e);
+        }
+        assertEquals("length ", a.length(), pb.length());
+        c = pb.build();
+        assertEquals("build(a) == a ", a, c);
+        assertTrue("builder cleared ", pb.isZERO());
+
+        // terms in reverse order
+        List<Monomial<BigRational>> ml = new ArrayList<Monomial<BigRational>>();
+        for (Monomial<BigRational> m : a) {
+            ml.add(0, m);
+        }
+        for (Monomial<BigRational> m : ml) {
+            pb.addTerm(m.c, m.e);
+        }
+        assertEquals("build(reverse(a)) == a ", a, pb.build());
+
+        pb = new GenPolynomialBuilder<BigRational>(a);
+        pb.add(b);
+        pb.subtractMultiple(x, u, b);
+        pb.addMultiple(x, u, a);
+        d = a.sum(b).subtract(b.multiply(x, u)).sum(a.multiply(x, u));
+        assertEquals("a + b - x u b + x u a ", d, pb.build());
+
+        pb.add(a);
+        pb.multiply(x);
+        pb.subtract(a.multiply(x));
+        assertTrue("x a - x a == 0 ", pb.build().isZERO());
+
+        // a built polynomial is not modified by later use of the builder
+        pb.add(a);
+        c = pb.build();
+        pb.add(b);
+        pb.subtractTerm(rf.getONE(), u);
+        assertEquals("c == a ", a, c);
+        assertEquals("b - u ", b.subtract(rf.getONE(), u), pb.build());
+
+        // solvable polynomials keep their type
+        GenSolvablePolynomialRing<BigRational> sf = new GenSolvablePolynomialRing<BigRational>(rf, pf);
+        GenSolvablePolynomial<BigRational> sa = sf.random(kl, ll, el, q);
+        GenSolvablePolynomial<BigRational> sb = sf.random(kl, ll, el, q);
+        pb = new GenPolynomialBuilder<BigRational>(sf);
+        for (Monomial<BigRational> m : sa) {
+            pb.addTerm(m.c, m.e);
+        }
+        c = pb.build();
+        assertTrue("solvable build " + c.getClass(), c instanceof GenSolvablePolynomial);
+        assertEquals("build(sa) == sa ", sa, c);
+        pb.add(sa);
+        pb.add(sb);
+        c = pb.build();
+        assertTrue("solvable sum " + c.getClass(), c instanceof GenSolvablePolynomial);
+        assertEquals("sa + sb ", sa.sum(sb), c);
+    }
+
+
+    /**
+     * Test stored hash code and leading monomial with destructive methods.
+     */
+    public void testCachedValues() {
+        BigRational rf = new BigRational();
+        GenPolynomialRing<BigRational> pf = new GenPolynomialRing<BigRational>(rf, rl);
+        GenPolynomial<BigRational> a, b, c;
+        do {
+            a = pf.random(kl, ll, el, q);
+        } while (a.isZERO());
+        b = a.copy();
+        int h = b.hashCode();
+        assertEquals("hash(a) == hash(b) ", a.hashCode(), h);
+        assertEquals("lt(a) == lt(b) ", a.leadingMonomial(), b.leadingMonomial());
+        assertFalse("a ?= b ", a.isKnownUnequal(b));
+
+        // new leading term
+        ExpVector e = a.leadingExpVector().sum(ExpVector.create(rl, 0, 1L));
+        BigRational x = rf.fromInteger(3);
+        b.doPutToMap(e, x);
+        assertEquals("lt(b) == x e ", e, b.leadingExpVector());
+        assertEquals("lc(b) == x ", x, b.leadingBaseCoefficient());
+        c = a.sum(x, e);
+        assertEquals("b == a + x e ", c, b);
+        assertEquals("hash(b) == hash(a + x e) ", c.hashCode(), b.hashCode());
+        assertTrue("a != b ", a.isKnownUnequal(b));
+        assertFalse("a.equals(b) ", a.equals(b));
+
+        // remove it again
+        b.doRemoveFromMap(e, x);
+        assertEquals("lt(a) == lt(b) ", a.leadingMonomial(), b.leadingMonomial());
+        assertEquals("hash(a) == hash(b) ", h, b.hashCode());
+        assertEquals("a == b ", a, b);
+
+        b.doAddTo(x, e);
+        assertEquals("lt(b) == x e ", e, b.leadingExpVector());
+        b.doAddTo(x.negate(), e);
+        assertEquals("lt(a) == lt(b) ", a.leadingExpVector(), b.leadingExpVector());
+        b.doAddTo(c);
+        assertEquals("lc(b) == x ", x, b.leadingBaseCoefficient());
+        assertEquals("b == 2 a + x e ", a.sum(c), b);
+        assertEquals("hash(b) == hash(2 a + x e) ", a.sum(c).hashCode(), b.hashCode());
+
+        c = pf.getZERO().copy();
+        assertNull("lt(0) == null ", c.leadingExpVector());
+        c.doPutToMap(a.getMap());
+        assertEquals("lt(a) == lt(c) ", a.leadingMonomial(), c.leadingMonomial());
+        assertEquals("hash(a) == hash(c) ", h, c.hashCode());
+    }
+
 }
 
 
@@ -0,0 +1,265 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.ModInt;
+import edu.jas.arith.ModIntRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+
+
+/**
+ * ModArrayPolynomial tests with JUnit. Compares with GenPolynomial.
+ * @author agent
+ */
+
+public class ModArrayPolynomialTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>ModArrayPolynomialTest</CODE> object.
+     * @param name String.
+     */
+    public ModArrayPolynomialTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(ModArrayPolynomialTest.class);
+        return suite;
+    }
+
+
+    GenPolynomialRing<ModLong> fac;
+
+
+    ModArrayPolynomialRing<ModLong> afac;
+
+
+    GenPolynomial<ModLong> a, b, c, d, e;
+
+
+    ModArrayPolynomial<ModLong> aa, ab, ac, ad, ae;
+
+
+    long ml = 2147483647L; // 2^31-1
+
+
+    int rl = 4;
+
+
+    int kl = 10;
+
+
+    int ll = 10;
+
+
+    int el = 4;
+
+
+    float q = 0.4f;
+
+
+    @Override
+    protected void setUp() {
+        a = b = c = d = e = null;
+        aa = ab = ac = ad = ae = null;
+        fac = new GenPolynomialRing<ModLong>(new ModLongRing(ml), rl);
+        afac = new ModArrayPolynomialRing<ModLong>(fac);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        a = b = c = d = e = null;
+        aa = ab = ac = ad = ae = null;
+        fac = null;
+        afac = null;
+    }
+
+
+    /**
+     * Test constructor and conversion.
+     */
+    public void testConstruction() {
+        aa = afac.getONE();
+        assertTrue("isONE( 1 )", aa.isONE());
+        assertTrue("isUnit( 1 )", aa.isUnit());
+        assertEquals("length( 1 ) = 1", 1, aa.length());
+        aa = afac.getZERO();
+        assertTrue("isZERO( 0 )", aa.isZERO());
+        assertEquals("length( 0 ) = 0", 0, aa.length());
+
+        for (int i = 0; i < 5; i++) {
+            a = fac.random(kl, ll, el, q);
+            aa = afac.fromGenPolynomial(a);
+            assertEquals("length", a.length(), aa.length());
+            assertEquals("toGenPolynomial", a, aa.toGenPolynomial());
+            assertEquals("leadingExpVector", a.leadingExpVector(), aa.leadingExpVector());
+            assertEquals("toString", a.toString(), aa.toString());
+            assertEquals("parse", aa, afac.parse(a.toString()));
+        }
+        assertEquals("generators", fac.generators(), afac.toGenPolynomial(afac.generators()));
+    }
+
+
+    /**
+     * Test addition.
+     */
+    public void testAddition() {
+        a = fac.random(kl, ll, el, q);
+        b = fac.random(kl, ll, el, q);
+        aa = afac.fromGenPolynomial(a);
+        ab = afac.fromGenPolynomial(b);
+
+        ac = aa.sum(ab);
+        assertEquals("a+b", a.sum(b), ac.toGenPolynomial());
+        assertEquals("a+b-b = a", aa, ac.subtract(ab));
+        assertEquals("a-b", a.subtract(b), aa.subtract(ab).toGenPolynomial());
+        assertEquals("-a", a.negate(), aa.negate().toGenPolynomial());
+        assertTrue("a-a = 0", aa.subtract(aa).isZERO());
+        assertEquals("a+0 = a", aa, aa.sum(afac.getZERO()));
+        assertEquals("a+b = b+a", ac, ab.sum(aa));
+    }
+
+
+    /**
+     * Test multiplication.
+     */
+    public void testMultiplication() {
+        for (int i = 0; i < 3; i++) {
+            a = fac.random(kl, ll + 2 * i, el, q);
+            b = fac.random(kl, ll, el, q);
+            c = fac.random(kl, ll - i, el, q);
+            aa = afac.fromGenPolynomial(a);
+            ab = afac.fromGenPolynomial(b);
+            ac = afac.fromGenPolynomial(c);
+
+            ad = aa.multiply(ab);
+            assertEquals("a*b", a.multiply(b), ad.toGenPolynomial());
+            assertEquals("a*b = b*a", ad, ab.multiply(aa));
+            assertEquals("(a*b)*c = a*(b*c)", ad.multiply(ac), aa.multiply(ab.multiply(ac)));
+            assertEquals("a*(b+c) = a*b+a*c", aa.multiply(ab.sum(ac)), ad.sum(aa.multiply(ac)));
+            assertEquals("a*1 = a", aa, aa.multiply(afac.getONE()));
+            assertTrue("a*0 = 0", aa.multiply(afac.getZERO()).isZERO());
+
+            ModLong x = fac.coFac.random(kl);
+            ExpVector u = ExpVector.random(rl, el, q);
+            assertEquals("a*x u", a.multiply(x, u), aa.multiply(x, u).toGenPolynomial());
+            assertEquals("a*x", a.multiply(x), aa.multiply(x).toGenPolynomial());
+            assertTrue("monic", aa.monic().leadingBaseCoefficient().isONE());
+        }
+    }
+
+
+    /**
+     * Test division and gcd of univariate polynomials.
+     */
+    public void testUnivariateDivision() {
+        fac = new GenPolynomialRing<ModLong>(new ModLongRing(ml), 1);
+        afac = new ModArrayPolynomialRing<ModLong>(fac);
+        for (int i = 0; i < 3; i++) {
+            a = fac.random(kl, ll, el + 3, q);
+            b = fac.random(kl, ll, el, q);
+            c = fac.random(kl, ll, el, q);
+            if (b.isZERO() || c.isZERO()) {
+                continue;
+            }
+            aa = afac.fromGenPolynomial(a);
+            ab = afac.fromGenPolynomial(b);
+            ac = afac.fromGenPolynomial(c);
+
+            ModArrayPolynomial<ModLong>[] qr = aa.quotientRemainder(ab);
+            GenPolynomial<ModLong>[] QR = a.quotientRemainder(b);
+            assertEquals("quotient", QR[0], qr[0].toGenPolynomial());
+            assertEquals("remainder", QR[1], qr[1].toGenPolynomial());
+            assertEquals("a = q b + r", aa, qr[0].multiply(ab).sum(qr[1]));
+            assertEquals("a*b / b = a", aa, aa.multiply(ab).divide(ab));
+            assertTrue("a*b % b = 0", aa.multiply(ab).remainder(ab).isZERO());
+
+            ad = aa.multiply(ac).gcd(ab.multiply(ac));
+            assertEquals("gcd", a.multiply(c).gcd(b.multiply(c)), ad.toGenPolynomial());
+            assertTrue("c | gcd(a*c,b*c)", ad.remainder(ac).isZERO());
+
+            ModArrayPolynomial<ModLong>[] g = aa.egcd(ab);
+            assertEquals("gcd = egcd", aa.gcd(ab), g[0]);
+            assertEquals("g = s a + t b", g[0], g[1].multiply(aa).sum(g[2].multiply(ab)));
+        }
+
+        try {
+            aa = new ModArrayPolynomialRing<ModLong>(new GenPolynomialRing<ModLong>(fac.coFac, 2))
+                            .random(ll);
+            aa.gcd(aa);
+            fail("gcd of multivariate polynomials");
+        } catch (IllegalArgumentException ex) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test multivariate division, as for GenPolynomial.
+     */
+    public void testDivision() {
+        a = fac.random(kl, ll, el, q);
+        b = fac.random(kl, ll / 2, el, q);
+        if (b.isZERO()) {
+            return;
+        }
+        aa = afac.fromGenPolynomial(a);
+        ab = afac.fromGenPolynomial(b);
+        ModArrayPolynomial<ModLong>[] qr = aa.quotientRemainder(ab);
+        GenPolynomial<ModLong>[] QR = a.quotientRemainder(b);
+        assertEquals("quotient", QR[0], qr[0].toGenPolynomial());
+        assertEquals("remainder", QR[1], qr[1].toGenPolynomial());
+        assertEquals("a*b / b = a", aa, aa.multiply(ab).divide(ab));
+    }
+
+
+    /**
+     * Test ModInt coefficients and packed exponents.
+     */
+    public void testModIntPacked() {
+        GenPolynomialRing<ModInt> ifac = new GenPolynomialRing<ModInt>(new ModIntRing(32003), rl,
+                        new TermOrder(), new String[] { "w", "x", "y", "z" }, ExpVector.StorUnit.PACKED);
+        ModArrayPolynomialRing<ModInt> iafac = new ModArrayPolynomialRing<ModInt>(ifac);
+        GenPolynomial<ModInt> x = ifac.random(kl, ll, el, q);
+        GenPolynomial<ModInt> y = ifac.random(kl, ll, el, q);
+        ModArrayPolynomial<ModInt> ax = iafac.fromGenPolynomial(x);
+        ModArrayPolynomial<ModInt> ay = iafac.fromGenPolynomial(y);
+        assertEquals("x+y", x.sum(y), ax.sum(ay).toGenPolynomial());
+        assertEquals("x*y", x.multiply(y), ax.multiply(ay).toGenPolynomial());
+        assertEquals("x*y-y*x = 0", iafac.getZERO(), ax.multiply(ay).subtract(ay.multiply(ax)));
+        ModArrayPolynomial<ModInt> p = ax.multiply(ay).multiply(ax);
+        assertEquals("x*y*x = x^2*y", x.multiply(x).multiply(y), p.toGenPolynomial());
+        ModArrayPolynomial<ModInt> s = iafac.parse("x^40 + 3 y");
+        assertEquals("s^2", iafac.parse("x^80 + 6 x^40 * y + 9 y^2"), s.multiply(s));
+
+        try {
+            iafac = new ModArrayPolynomialRing<ModInt>(new GenSolvablePolynomialRing<ModInt>(ifac.coFac, rl));
+            fail("solvable polynomial ring");
+        } catch (IllegalArgumentException ex) {
+            // pass
+        }
+    }
+
+}
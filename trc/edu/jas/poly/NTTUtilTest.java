@@ -0,0 +1,172 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.ModInt;
+import edu.jas.arith.ModIntRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+
+
+/**
+ * NTTUtil tests with JUnit. Compares with the heap multiplication.
+ * @author agent
+ */
+
+public class NTTUtilTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>NTTUtilTest</CODE> object.
+     * @param name String.
+     */
+    public NTTUtilTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(NTTUtilTest.class);
+        return suite;
+    }
+
+
+    GenPolynomialRing<ModLong> fac;
+
+
+    GenPolynomial<ModLong> a, b, c, d, e;
+
+
+    int kl = 10;
+
+
+    int ll = 300;
+
+
+    int el = 400;
+
+
+    float q = 1.0f;
+
+
+    @Override
+    protected void setUp() {
+        a = b = c = d = e = null;
+        fac = new GenPolynomialRing<ModLong>(new ModLongRing(2147483647L), new String[] { "x" });
+    }
+
+
+    @Override
+    protected void tearDown() {
+        a = b = c = d = e = null;
+        fac = null;
+    }
+
+
+    /**
+     * Test array convolution with maximal coefficients.
+     */
+    public void testConvolution() {
+        long[] moduli = new long[] { 2147483647L, 998244353L, 32003L, 2L };
+        for (long m : moduli) {
+            int n = 1000;
+            long[] x = new long[n];
+            long[] y = new long[n + 7];
+            for (int i = 0; i < x.length; i++) {
+                x[i] = m - 1;
+            }
+            for (int i = 0; i < y.length; i++) {
+                y[i] = (i % 3 == 0) ? m - 1 : i % m;
+            }
+            long[] z = NTTUtil.multiply(x, y, m);
+            assertEquals("length", x.length + y.length - 1, z.length);
+            for (int k = 0; k < z.length; k++) {
+                long s = 0L;
+                for (int i = Math.max(0, k - y.length + 1); i <= Math.min(k, x.length - 1); i++) {
+                    s = (s + x[i] * y[k - i] % m) % m;
+                }
+                assertEquals("z[" + k + "] mod " + m, s, z[k]);
+            }
+        }
+    }
+
+
+    /**
+     * Test multiplication with three primes.
+     */
+    public void testMultiply() {
+        for (int i = 0; i < 3; i++) {
+            a = fac.random(kl, ll + 50 * i, el, q);
+            b = fac.random(kl, ll, el + 13 * i, q);
+            c = NTTUtil.multiply(a, b);
+            d = a.multiplyHeap(b);
+            assertEquals("ntt(a,b) = a*b", d, c);
+            assertEquals("ntt(a,a) = a*a", a.multiplyHeap(a), NTTUtil.multiply(a, a));
+            assertTrue("ntt(a,0) = 0", NTTUtil.multiply(a, fac.getZERO()).isZERO());
+            assertEquals("ntt(a,1) = a", a, NTTUtil.multiply(a, fac.getONE()));
+        }
+    }
+
+
+    /**
+     * Test multiplication modulo an NTT prime and with ModInt coefficients.
+     */
+    public void testNTTPrimeModInt() {
+        fac = new GenPolynomialRing<ModLong>(new ModLongRing(998244353L), fac);
+        a = fac.random(kl, ll, el, q);
+        b = fac.random(kl, ll, el, q);
+        assertEquals("ntt(a,b) = a*b", a.multiplyHeap(b), NTTUtil.multiply(a, b));
+
+        GenPolynomialRing<ModInt> ifac = new GenPolynomialRing<ModInt>(new ModIntRing(65521), fac);
+        GenPolynomial<ModInt> x = ifac.random(kl, ll, el, q);
+        GenPolynomial<ModInt> y = ifac.random(kl, ll, el, q);
+        assertEquals("ntt(x,y) = x*y", x.multiplyHeap(y), NTTUtil.multiply(x, y));
+    }
+
+
+    /**
+     * Test automatic dispatch.
+     */
+    public void testDispatch() {
+        a = fac.random(kl, ll, el, q);
+        b = fac.random(kl, ll, el, q);
+        if (a.degree(0) >= NTTUtil.DEGREE_THRESHOLD && b.degree(0) >= NTTUtil.DEGREE_THRESHOLD) {
+            assertTrue("dense polynomials", NTTUtil.isApplicable(a, b));
+        }
+        assertEquals("a*b", a.multiplyHeap(b), a.multiply(b));
+
+        c = fac.parse("x^1000 + 1");
+        d = fac.parse("x^2000 + 3 x");
+        assertFalse("sparse polynomials", NTTUtil.isApplicable(c, d));
+        e = fac.univariate(0, 10).sum(fac.getONE());
+        assertFalse("small degree", NTTUtil.isApplicable(a, e));
+
+        GenPolynomialRing<ModLong> mfac = new GenPolynomialRing<ModLong>(fac.coFac, 2);
+        assertFalse("multivariate", NTTUtil.isApplicable(mfac.getONE(), mfac.getONE()));
+        try {
+            NTTUtil.multiply(mfac.univariate(0), mfac.univariate(1));
+            fail("multivariate polynomials");
+        } catch (IllegalArgumentException ex) {
+            // pass
+        }
+    }
+
+}
@@ -17,6 +17,11 @@ import edu.jas.arith.BigInteger;
 import edu.jas.arith.BigRational;
 import edu.jas.arith.ModInteger;
 import edu.jas.arith.ModIntegerRing;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.arith.PrimeList;
+import edu.jas.arith.BigQuaternion;
+import edu.jas.arith.BigQuaternionRing;
 import edu.jas.arith.Product;
 import edu.jas.arith.ProductRing;
 
@@ -1702,4 +1707,167 @@ public class PolyUtilTest extends TestCase {
         assertTrue("#var == 2: " + c.ring.nvar, c.ring.nvar == 2);
     }
 
+
+    /**
+     * Test Karatsuba multiplication.
+     */
+    public void testKaratsubaMultiply() {
+        GenPolynomialRing<BigInteger> ufac = new GenPolynomialRing<BigInteger>(new BigInteger(1),
+                        new String[] { "x" });
+        for (int i = 0; i < 3; i++) {
+            a = ufac.random(kl * 10, 100 + 30 * i, 100 + 30 * i, 1.0f);
+            b = ufac.random(kl * 10, 70, 70 + 50 * i, 1.0f);
+            c = PolyUtil.<BigInteger> karatsubaMultiply(a, b);
+            d = a.multiplyHeap(b);
+            assertEquals("kara(a,b) = a*b", d, c);
+            assertEquals("kara(a,a) = a*a", a.multiplyHeap(a), PolyUtil.<BigInteger> karatsubaMultiply(a, a));
+            assertEquals("kara(a,1) = a", a, PolyUtil.<BigInteger> karatsubaMultiply(a, ufac.getONE()));
+            assertTrue("kara(a,0) = 0", PolyUtil.<BigInteger> karatsubaMultiply(a, ufac.getZERO()).isZERO());
+            assertEquals("a*b", d, a.multiply(b));
+        }
+        // unbalanced
+        a = ufac.random(kl, 400, 400, 1.0f);
+        b = ufac.random(kl, 40, 40, 1.0f);
+        assertEquals("kara(a,b) = a*b", a.multiplyHeap(b), PolyUtil.<BigInteger> karatsubaMultiply(a, b));
+        assertEquals("kara(b,a) = b*a", b.multiplyHeap(a), PolyUtil.<BigInteger> karatsubaMultiply(b, a));
+
+        // sparse polynomials and rational polynomials with large denominators
+        // use the default multiplication
+        a = ufac.parse("x^100 + 3 x^50 - 1");
+        assertFalse("sparse", PolyUtil.<BigInteger> isKaratsubaApplicable(a, a));
+        GenPolynomialRing<BigRational> rfac = new GenPolynomialRing<BigRational>(new BigRational(1), ufac);
+        GenPolynomial<BigRational> ar = rfac.random(kl, 100, 100, 1.0f);
+        GenPolynomial<BigRational> br = rfac.random(kl, 100, 100, 1.0f);
+        assertFalse("rational", PolyUtil.<BigRational> isKaratsubaApplicable(ar, br));
+        assertEquals("kara(a,b) = a*b", ar.multiplyHeap(br), PolyUtil.<BigRational> karatsubaMultiply(ar, br));
+
+        // rational polynomials with small denominators
+        a = ufac.random(kl * 10, 300, 100, 1.0f);
+        b = ufac.random(kl * 10, 300, 100, 1.0f);
+        ar = PolyUtil.<BigRational> fromIntegerCoefficients(rfac, a).multiply(new BigRational(1, 6));
+        br = PolyUtil.<BigRational> fromIntegerCoefficients(rfac, b).multiply(new BigRational(5, 12));
+        assertTrue("rational small den", PolyUtil.<BigRational> isKaratsubaApplicable(ar, br));
+        assertEquals("a*b", ar.multiplyHeap(br), ar.multiply(br));
+
+        // algebraic numbers over Q
+        GenPolynomialRing<BigRational> tfac = new GenPolynomialRing<BigRational>(new BigRational(1),
+                        new String[] { "t" });
+        AlgebraicNumberRing<BigRational> afac = new AlgebraicNumberRing<BigRational>(tfac.parse("t^3 - 2"), true);
+        GenPolynomialRing<AlgebraicNumber<BigRational>> anfac = new GenPolynomialRing<AlgebraicNumber<BigRational>>(
+                        afac, ufac);
+        GenPolynomial<AlgebraicNumber<BigRational>> aa = anfac.random(kl, 150, 50, 1.0f);
+        GenPolynomial<AlgebraicNumber<BigRational>> ba = anfac.random(kl, 150, 50, 1.0f);
+        assertTrue("algebraic", PolyUtil.<AlgebraicNumber<BigRational>> isKaratsubaApplicable(aa, ba));
+        assertEquals("a*b", aa.multiplyHeap(ba), aa.multiply(ba));
+
+        // non commutative coefficients
+        GenPolynomialRing<BigQuaternion> qfac = new GenPolynomialRing<BigQuaternion>(
+                        new BigQuaternionRing(), ufac);
+        GenPolynomial<BigQuaternion> aq = qfac.random(kl, 60, 60, 1.0f);
+        GenPolynomial<BigQuaternion> bq = qfac.random(kl, 60, 60, 1.0f);
+        assertEquals("kara(a,b) = a*b", aq.multiplyHeap(bq), PolyUtil.<BigQuaternion> karatsubaMultiply(aq, bq));
+    }
+
+
+    /**
+     * Test Kronecker multiplication.
+     */
+    public void testKroneckerMultiply() {
+        GenPolynomialRing<BigInteger> mfac = new GenPolynomialRing<BigInteger>(new BigInteger(1),
+                        new String[] { "x", "y", "z" });
+        for (int i = 0; i < 3; i++) {
+            a = mfac.random(kl * (10 + 10 * i), 40, 6 + i, 0.6f);
+            b = mfac.random(kl, 30 + 10 * i, 5, 0.6f);
+            c = PolyUtil.<BigInteger> kroneckerMultiply(a, b);
+            d = a.multiplyHeap(b);
+            assertEquals("kron(a,b) = a*b", d, c);
+            assertEquals("kron(a,a) = a*a", a.multiplyHeap(a), PolyUtil.<BigInteger> kroneckerMultiply(a, a));
+            assertEquals("kron(a,-b) = -a*b", d.negate(),
+                            PolyUtil.<BigInteger> kroneckerMultiply(a, b.negate()));
+            assertEquals("kron(a,1) = a", a, PolyUtil.<BigInteger> kroneckerMultiply(a, mfac.getONE()));
+            assertTrue("kron(a,0) = 0", PolyUtil.<BigInteger> kroneckerMultiply(a, mfac.getZERO()).isZERO());
+            assertEquals("a*b", d, a.multiply(b));
+        }
+        // maximal cancellation of signed digits
+        a = mfac.parse("( x + y - z - 1 )^5");
+        b = mfac.parse("( x - y + z - 1 )^4");
+        assertEquals("kron(a,b) = a*b", a.multiplyHeap(b), PolyUtil.<BigInteger> kroneckerMultiply(a, b));
+
+        // univariate
+        GenPolynomialRing<BigInteger> ufac = new GenPolynomialRing<BigInteger>(new BigInteger(1), 1);
+        a = ufac.random(kl * 20, 200, 200, 1.0f);
+        b = ufac.random(kl, 100, 100, 1.0f);
+        assertTrue("dense", PolyUtil.<BigInteger> isKroneckerApplicable(a, b));
+        assertEquals("kron(a,b) = a*b", a.multiplyHeap(b), PolyUtil.<BigInteger> kroneckerMultiply(a, b));
+
+        // graded term order
+        GenPolynomialRing<BigInteger> gfac = new GenPolynomialRing<BigInteger>(new BigInteger(1), 3,
+                        new TermOrder(TermOrder.IGRLEX));
+        a = gfac.random(kl * 10, 40, 6, 0.6f);
+        b = gfac.random(kl, 30, 5, 0.6f);
+        c = PolyUtil.<BigInteger> kroneckerMultiply(a, b);
+        assertEquals("kron(a,b) = a*b", a.multiplyHeap(b), c);
+        assertEquals("lt(kron(a,b)) = lt(a*b)", a.multiplyHeap(b).leadingExpVector(), c.leadingExpVector());
+
+        // sparse polynomials use the default multiplication
+        a = mfac.random(kl, 20, 100, 0.3f);
+        b = mfac.random(kl, 20, 100, 0.3f);
+        assertFalse("sparse", PolyUtil.<BigInteger> isKroneckerApplicable(a, b));
+        assertEquals("a*b", a.multiplyHeap(b), a.multiply(b));
+    }
+
+
+    /**
+     * Test modular images and chinese remainder tree.
+     */
+    public void testModularImages() {
+        PrimeList primes = new PrimeList(PrimeList.Range.medium);
+        List<GenPolynomialRing<ModLong>> mfacs = new ArrayList<GenPolynomialRing<ModLong>>();
+        for (int i = 0; i < 7; i++) {
+            mfacs.add(new GenPolynomialRing<ModLong>(new ModLongRing(primes.get(i)), dfac));
+        }
+        a = dfac.random(kl * 40, ll + 10, el, q); // remainder tree
+        b = dfac.random(kl * 4, ll + 10, el, q); // direct reduction
+        List<GenPolynomial<BigInteger>> L = new ArrayList<GenPolynomial<BigInteger>>();
+        L.add(a);
+        L.add(b);
+        L.add(dfac.getZERO());
+        List<List<GenPolynomial<ModLong>>> LP = PolyUtil.<ModLong> modularImages(mfacs, L);
+        assertEquals("#images", mfacs.size(), LP.size());
+        for (int i = 0; i < mfacs.size(); i++) {
+            GenPolynomialRing<ModLong> mfac = mfacs.get(i);
+            List<GenPolynomial<ModLong>> Li = LP.get(i);
+            assertEquals("a mod p", PolyUtil.<ModLong> fromIntegerCoefficients(mfac, a), Li.get(0));
+            assertEquals("b mod p", PolyUtil.<ModLong> fromIntegerCoefficients(mfac, b), Li.get(1));
+            assertTrue("0 mod p", Li.get(2).isZERO());
+        }
+        // b has 20 bit coefficients, 7 primes of 28 bit suffice
+        List<GenPolynomial<ModLong>> bp = PolyUtil.<ModLong> modularImages(mfacs, b);
+        assertEquals("crt(b mod p_i) = b", b, PolyUtil.<ModLong> integerFromModularImages(dfac, bp));
+        c = b.negate();
+        assertEquals("crt(-b mod p_i) = -b", c,
+                        PolyUtil.<ModLong> integerFromModularImages(dfac, PolyUtil.<ModLong> modularImages(mfacs, c)));
+
+        // compare with stepwise chinese remainder
+        List<GenPolynomial<ModLong>> ap = PolyUtil.<ModLong> modularImages(mfacs, a);
+        java.math.BigInteger M = java.math.BigInteger.ONE;
+        for (int i = 0; i < mfacs.size(); i++) {
+            M = M.multiply(primes.get(i));
+        }
+        ModIntegerRing mi = new ModIntegerRing(M);
+        GenPolynomialRing<ModInteger> mifac = new GenPolynomialRing<ModInteger>(mi, dfac);
+        d = PolyUtil.<ModLong> integerFromModularImages(dfac, ap);
+        e = PolyUtil.<ModInteger> integerFromModularCoefficients(dfac,
+                        PolyUtil.<ModInteger> fromIntegerCoefficients(mifac, a));
+        assertEquals("crt(a mod p_i) = a mod prod(p_i)", e, d);
+        assertTrue("|crt(a mod p_i)| <= M/2", d.maxNorm().getVal().shiftLeft(1).compareTo(M) <= 0);
+
+        List<GenPolynomialRing<ModLong>> one = new ArrayList<GenPolynomialRing<ModLong>>();
+        one.add(mfacs.get(0));
+        bp = PolyUtil.<ModLong> modularImages(one, a);
+        assertEquals("one modul", PolyUtil.<ModLong> fromIntegerCoefficients(one.get(0), a), bp.get(0));
+        assertEquals("crt(one modul)", PolyUtil.<ModLong> integerFromModularCoefficients(dfac, bp.get(0)),
+                        PolyUtil.<ModLong> integerFromModularImages(dfac, bp));
+    }
+
 }
@@ -0,0 +1,211 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.BigInteger;
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.arith.PrimeList;
+import edu.jas.structure.UnaryFunctor;
+
+
+/**
+ * RationalReconstruction tests with JUnit.
+ * @author agent
+ */
+
+public class RationalReconstructionTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>RationalReconstructionTest</CODE> object.
+     * @param name String.
+     */
+    public RationalReconstructionTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(RationalReconstructionTest.class);
+        return suite;
+    }
+
+
+    GenPolynomialRing<BigRational> fac;
+
+
+    GenPolynomial<BigRational> a, b, c, d, e;
+
+
+    PrimeList primes = new PrimeList(PrimeList.Range.medium);
+
+
+    int rl = 3;
+
+
+    int kl = 10;
+
+
+    int ll = 10;
+
+
+    int el = 4;
+
+
+    float q = 0.5f;
+
+
+    @Override
+    protected void setUp() {
+        a = b = c = d = e = null;
+        fac = new GenPolynomialRing<BigRational>(new BigRational(1), rl);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        a = b = c = d = e = null;
+        fac = null;
+    }
+
+
+    /**
+     * Image of a rational polynomial modulo the i-th prime.
+     */
+    GenPolynomial<ModLong> image(GenPolynomial<BigRational> A, int i) {
+        final ModLongRing mr = new ModLongRing(primes.get(i));
+        GenPolynomialRing<ModLong> mfac = new GenPolynomialRing<ModLong>(mr, fac);
+        return PolyUtil.<BigRational, ModLong> map(mfac, A, new UnaryFunctor<BigRational, ModLong>() {
+
+
+            public ModLong eval(BigRational c) {
+                return mr.fromInteger(c.numerator()).divide(mr.fromInteger(c.denominator()));
+            }
+        });
+    }
+
+
+    /**
+     * Number of primes for the reconstruction of a polynomial list.
+     */
+    int primesNeeded(List<GenPolynomial<BigRational>> L) {
+        java.math.BigInteger h = java.math.BigInteger.ONE;
+        for (GenPolynomial<BigRational> p : L) {
+            for (BigRational c : p.getMap().values()) {
+                h = h.max(c.numerator().abs()).max(c.denominator());
+            }
+        }
+        java.math.BigInteger b = h.multiply(h).shiftLeft(1); // need 2 h^2 < M
+        java.math.BigInteger M = java.math.BigInteger.ONE;
+        int i = 0;
+        while (M.compareTo(b) <= 0) {
+            M = M.multiply(primes.get(i++));
+        }
+        return i;
+    }
+
+
+    /**
+     * Test reconstruction modulo one prime and the product of primes.
+     */
+    public void testReconstruction() {
+        a = fac.random(kl / 5, ll, el, q); // 2 bit numerators and denominators
+        GenPolynomial<ModLong> ap = image(a, 0);
+        b = PolyUtil.<ModLong> rationalFromModularCoefficients(fac, ap);
+        assertEquals("rr(a mod p) = a", a, b);
+
+        a = fac.random(kl * 3, ll, el, q);
+        List<GenPolynomial<BigRational>> La = new ArrayList<GenPolynomial<BigRational>>();
+        La.add(a);
+        int k = primesNeeded(La);
+        GenPolynomialRing<BigInteger> ifac = new GenPolynomialRing<BigInteger>(new BigInteger(), fac);
+        List<GenPolynomial<ModLong>> P = new ArrayList<GenPolynomial<ModLong>>();
+        java.math.BigInteger M = java.math.BigInteger.ONE;
+        for (int i = 0; i < k; i++) {
+            P.add(image(a, i));
+            M = M.multiply(primes.get(i));
+        }
+        GenPolynomial<BigInteger> ai = PolyUtil.<ModLong> integerFromModularImages(ifac, P);
+        b = PolyUtil.rationalReconstruction(fac, ai, new BigInteger(M));
+        assertEquals("rr(crt(a mod p_i)) = a", a, b);
+        List<GenPolynomial<BigInteger>> L = new ArrayList<GenPolynomial<BigInteger>>();
+        L.add(ai);
+        L.add(ifac.getZERO());
+        List<GenPolynomial<BigRational>> R = PolyUtil.rationalReconstruction(fac, L, new BigInteger(M));
+        assertEquals("rr([a,0])", a, R.get(0));
+        assertTrue("rr([a,0])", R.get(1).isZERO());
+
+        // one prime is not enough
+        if (k > 1) {
+            b = PolyUtil.<ModLong> rationalFromModularCoefficients(fac, P.get(0));
+            assertFalse("rr(a mod p) != a", a.equals(b));
+        }
+    }
+
+
+    /**
+     * Test incremental reconstruction with early termination.
+     */
+    public void testEarlyTermination() {
+        List<GenPolynomial<BigRational>> L = new ArrayList<GenPolynomial<BigRational>>();
+        L.add(fac.random(kl * 4, ll, el, q));
+        L.add(fac.random(kl, ll, el, q));
+        L.add(fac.getONE());
+        int k = primesNeeded(L);
+        RationalReconstruction<ModLong> rr = new RationalReconstruction<ModLong>(fac);
+        int i = 0;
+        boolean stable = false;
+        while (!stable && i < k + 10) {
+            List<GenPolynomial<ModLong>> P = new ArrayList<GenPolynomial<ModLong>>();
+            for (GenPolynomial<BigRational> p : L) {
+                P.add(image(p, i));
+            }
+            stable = rr.addImages(P);
+            i++;
+        }
+        //System.out.println("i = " + i + ", modul = " + rr.getModul());
+        assertTrue("stable", stable);
+        assertTrue("early termination: " + i + " <= " + (k + 1), i <= k + 1);
+        assertEquals("rr(L mod p_i) = L", L, rr.getResult());
+
+        // single polynomial
+        a = fac.random(kl, ll, el, q);
+        RationalReconstruction<ModLong> rs = new RationalReconstruction<ModLong>(fac, 2);
+        i = 0;
+        while (!rs.addImage(image(a, i))) {
+            i++;
+        }
+        assertEquals("rr(a mod p_i) = a", a, rs.getResult().get(0));
+
+        try {
+            rr.addImage(image(a, i));
+            fail("number of images");
+        } catch (IllegalArgumentException ex) {
+            // pass
+        }
+    }
+
+}
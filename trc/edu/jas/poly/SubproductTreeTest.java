@@ -0,0 +1,187 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.poly;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.BigRational;
+import edu.jas.arith.ModLong;
+import edu.jas.arith.ModLongRing;
+import edu.jas.structure.RingElem;
+import edu.jas.structure.RingFactory;
+
+
+/**
+ * SubproductTree tests with JUnit.
+ * @author agent
+ */
+
+public class SubproductTreeTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>SubproductTreeTest</CODE> object.
+     * @param name String.
+     */
+    public SubproductTreeTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(SubproductTreeTest.class);
+        return suite;
+    }
+
+
+    ModLongRing mr = new ModLongRing(2147483647L, true);
+
+
+    GenPolynomialRing<ModLong> fac;
+
+
+    GenPolynomial<ModLong> a, b, c;
+
+
+    int kl = 10;
+
+
+    int ll = 1200;
+
+
+    float q = 1.0f;
+
+
+    @Override
+    protected void setUp() {
+        a = b = c = null;
+        fac = new GenPolynomialRing<ModLong>(mr, 1);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        a = b = c = null;
+        fac = null;
+    }
+
+
+    /**
+     * List of n points 1, 3, 5, ...
+     */
+    <C extends RingElem<C>> List<C> points(RingFactory<C> cf, int n) {
+        List<C> p = new ArrayList<C>(n);
+        for (int i = 0; i < n; i++) {
+            p.add(cf.fromInteger(2 * i + 1));
+        }
+        return p;
+    }
+
+
+    /**
+     * Test product and multipoint evaluation, compared with Horner's rule.
+     */
+    public void testEvaluate() {
+        for (int n : new int[] { 1, 3, 7, 33, 1100 }) {
+            List<ModLong> pts = points(mr, n);
+            SubproductTree<ModLong> st = new SubproductTree<ModLong>(fac, pts);
+            b = st.getProduct();
+            assertEquals("deg(m) = n", n, b.degree(0));
+            for (ModLong p : pts) {
+                assertTrue("m(a_i) = 0", PolyUtil.<ModLong> evaluateMain(mr, b, p).isZERO());
+            }
+            // dense polynomial of degree > EVALUATION_THRESHOLD
+            a = fac.random(kl, ll, ll, q);
+            List<ModLong> v = st.evaluate(a);
+            assertEquals("#v = n", n, v.size());
+            for (int i = 0; i < n; i++) {
+                assertEquals("a(a_i)", PolyUtil.<ModLong> evaluateMain(mr, a, pts.get(i)), v.get(i));
+            }
+            v = PolyUtil.<ModLong> evaluateMainMultipoint(fac.getZERO(), pts);
+            assertTrue("0(a_i) = 0", v.get(n - 1).isZERO());
+        }
+        int t = SubproductTree.EVALUATION_THRESHOLD;
+        assertTrue("tree(t,t)", SubproductTree.isTreeEvaluation(t, t));
+        assertFalse("tree(t-1,t)", SubproductTree.isTreeEvaluation(t - 1, t));
+        assertFalse("tree(t,t-1)", SubproductTree.isTreeEvaluation(t, t - 1));
+    }
+
+
+    /**
+     * Test interpolation.
+     */
+    public void testInterpolate() {
+        for (int n : new int[] { 2, 5, 8, 200 }) {
+            List<ModLong> pts = points(mr, n);
+            SubproductTree<ModLong> st = new SubproductTree<ModLong>(fac, pts);
+            a = fac.random(kl, n, n - 1, q);
+            List<ModLong> v = st.evaluate(a);
+            b = st.interpolate(v);
+            assertEquals("interpolate(a(a_i)) = a", a, b);
+            c = PolyUtil.<ModLong> interpolateMultipoint(fac, pts, v);
+            assertEquals("interpolate(a(a_i)) = a", a, c);
+            // a second time with cached weights
+            b = st.interpolate(st.evaluate(a.negate()));
+            assertEquals("interpolate(-a(a_i)) = -a", a.negate(), b);
+        }
+
+        // over the rational numbers
+        BigRational r = new BigRational();
+        GenPolynomialRing<BigRational> rfac = new GenPolynomialRing<BigRational>(r, 1);
+        List<BigRational> pts = points(r, 20);
+        SubproductTree<BigRational> st = new SubproductTree<BigRational>(rfac, pts);
+        GenPolynomial<BigRational> ar = rfac.random(kl, 20, 19, q);
+        GenPolynomial<BigRational> br = st.interpolate(st.evaluate(ar));
+        assertEquals("interpolate(a(a_i)) = a", ar, br);
+
+        try {
+            st.interpolate(pts.subList(0, 3));
+            fail("number of values");
+        } catch (IllegalArgumentException ex) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test recursive evaluation and interpolation.
+     */
+    public void testRecursive() {
+        GenPolynomialRing<ModLong> dfac = new GenPolynomialRing<ModLong>(mr, 3);
+        GenPolynomialRing<GenPolynomial<ModLong>> rfac = dfac.recursive(2);
+        GenPolynomialRing<ModLong> mfac = new GenPolynomialRing<ModLong>(mr, rfac);
+        GenPolynomialRing<ModLong> ufac = (GenPolynomialRing<ModLong>) rfac.coFac;
+        int n = 30;
+        List<ModLong> pts = points(mr, n);
+        SubproductTree<ModLong> st = new SubproductTree<ModLong>(ufac, pts);
+
+        GenPolynomial<ModLong> d = dfac.random(kl, 20, 10, 0.6f);
+        GenPolynomial<GenPolynomial<ModLong>> ar = PolyUtil.<ModLong> recursive(rfac, d);
+        List<GenPolynomial<ModLong>> B = PolyUtil.<ModLong> evaluateFirstRecMultipoint(st, mfac, ar);
+        for (int i = 0; i < n; i++) {
+            assertEquals("a(a_i, y)", PolyUtil.<ModLong> evaluateFirstRec(ufac, mfac, ar, pts.get(i)), B.get(i));
+        }
+        GenPolynomial<GenPolynomial<ModLong>> br = PolyUtil.<ModLong> interpolateMultipoint(rfac, st, B);
+        assertEquals("interpolate(a(a_i, y)) = a", ar, br);
+    }
+
+}
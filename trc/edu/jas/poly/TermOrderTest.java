@@ -705,4 +705,71 @@ public class TermOrderTest extends TestCase {
         }
     }
 
+
+    /**
+     * Test specialized comparators against the ExpVector compare methods.
+     */
+    public void testSpecializedComparator() {
+        float q = (float) 0.7;
+        int r = 8;
+        int sp = 3;
+        long[][] w = new long[][] { new long[] { 1l, 2l, 3l, 4l, 5l, 1l, 2l, 3l },
+                new long[] { 0l, 0l, 0l, 0l, 0l, 1l, 2l, 3l } };
+        TermOrder.EVComparator ig = EVComparatorFactory.getIGRLEXComparator();
+        TermOrder.EVComparator il = EVComparatorFactory.getINVLEXComparator();
+        TermOrder.EVComparator wc = EVComparatorFactory.getWeightComparator(w);
+        TermOrder.EVComparator s1 = EVComparatorFactory.getSplitComparator(TermOrder.IGRLEX,
+                        TermOrder.INVLEX, 0, sp, sp, r);
+        TermOrder.EVComparator s2 = EVComparatorFactory.getSplitComparator(TermOrder.INVLEX,
+                        TermOrder.IGRLEX, 0, sp, sp, r);
+        assertNull("no LEX blocks", EVComparatorFactory.getSplitComparator(TermOrder.LEX,
+                        TermOrder.IGRLEX, 0, sp, sp, r));
+
+        for (int i = 0; i < 50; i++) {
+            a = ExpVector.random(r, 5, q);
+            b = ExpVector.random(r, 5, q);
+            if (i % 7 == 0) {
+                b = a.subst(i % r, a.getVal(i % r));
+            }
+            ExpVector ap = ExpVectorPacked.valueOf(a.getVal());
+            ExpVector bp = ExpVectorPacked.valueOf(b.getVal());
+
+            int x = -a.invGradCompareTo(b);
+            assertEquals("igrlex", x, ig.compare(a, b));
+            assertEquals("igrlex packed", x, ig.compare(ap, bp));
+            assertEquals("igrlex mixed", x, ig.compare(ap, b));
+            assertEquals("igrlex cached", x, ig.compare(a, b));
+
+            x = -a.invLexCompareTo(b);
+            assertEquals("invlex", x, il.compare(a, b));
+            assertEquals("invlex packed", x, il.compare(ap, bp));
+
+            x = -a.invWeightCompareTo(w, b);
+            assertEquals("weight", x, wc.compare(a, b));
+            assertEquals("weight packed", x, wc.compare(ap, bp));
+
+            x = -a.invGradCompareTo(b, 0, sp);
+            if (x == 0) {
+                x = -a.invLexCompareTo(b, sp, r);
+            }
+            assertEquals("split", x, s1.compare(a, b));
+            assertEquals("split packed", x, s1.compare(ap, bp));
+            x = -a.invLexCompareTo(b, 0, sp);
+            if (x == 0) {
+                x = -a.invGradCompareTo(b, sp, r);
+            }
+            assertEquals("split", x, s2.compare(a, b));
+            assertEquals("split packed", x, s2.compare(ap, bp));
+        }
+
+        // cached degrees are reset by modification
+        a = ExpVector.create(r, 0, 2);
+        assertEquals("tdeg", 2L, a.cachedTotalDeg());
+        assertEquals("wdeg", 2L, a.cachedWeightDeg(w[0]));
+        a.setVal(1, 3);
+        assertEquals("tdeg", 5L, a.cachedTotalDeg());
+        assertEquals("wdeg", 8L, a.cachedWeightDeg(w[0]));
+        assertEquals("wdeg", 0L, a.cachedWeightDeg(w[1]));
+    }
+
 }
@@ -17,11 +17,14 @@ import edu.jas.arith.BigInteger;
 import edu.jas.arith.BigRational;
 import edu.jas.arith.ModInteger;
 import edu.jas.arith.ModIntegerRing;
+import edu.jas.arith.ModLongMontgomery;
+import edu.jas.arith.ModLongMontgomeryRing;
 import edu.jas.poly.AlgebraicNumber;
 import edu.jas.poly.AlgebraicNumberRing;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
 import edu.jas.poly.TermOrder;
+import edu.jas.structure.RingFactory;
 
 
 /**
@@ -186,6 +189,31 @@ public class GCDFactoryTest extends TestCase {
     }
 
 
+    /**
+     * Test get ModLongMontgomery implementation.
+     */
+    public void testModLongMontgomery() {
+        ModLongMontgomeryRing mi = new ModLongMontgomeryRing(Long.MAX_VALUE - 24L, true);
+        GreatestCommonDivisor<ModLongMontgomery> ufd;
+
+        ufd = GCDFactory.getImplementation(mi);
+        assertTrue("ufd != Subres " + ufd, ufd instanceof GreatestCommonDivisorSubres);
+
+        ufd = GCDFactory.<ModLongMontgomery> getImplementation((RingFactory<ModLongMontgomery>) mi);
+        assertTrue("ufd != Subres " + ufd, ufd instanceof GreatestCommonDivisorSubres);
+
+        GenPolynomialRing<ModLongMontgomery> mfac = new GenPolynomialRing<ModLongMontgomery>(mi,
+                        new String[] { "x", "y" });
+        GenPolynomial<ModLongMontgomery> p = mfac.parse("( x^2 - 3 y + 5 ) * ( x - y )^2");
+        GenPolynomial<ModLongMontgomery> q = mfac.parse("( x^3 + y ) * ( x - y )");
+        assertEquals("gcd(p,q) = x - y", mfac.parse("x - y").monic(), ufd.gcd(p, q).monic());
+
+        mi = new ModLongMontgomeryRing(1L << 62);
+        ufd = GCDFactory.getImplementation(mi);
+        assertTrue("ufd != Primitive " + ufd, ufd instanceof GreatestCommonDivisorPrimitive);
+    }
+
+
     /**
      * Test get BigRational implementation.
      * 
@@ -13,7 +13,6 @@ import junit.framework.TestSuite;
 
 
 import edu.jas.arith.BigInteger;
-import edu.jas.arith.ModInteger;
 import edu.jas.poly.ExpVector;
 import edu.jas.poly.GenPolynomial;
 import edu.jas.poly.GenPolynomialRing;
@@ -527,7 +526,7 @@ public class GCDSubresTest extends TestCase {
      */
     public void testResultant() {
 
-        GreatestCommonDivisorAbstract<BigInteger> ufdm = new GreatestCommonDivisorModular<ModInteger>(true);
+        GreatestCommonDivisorAbstract<BigInteger> ufdm = new GreatestCommonDivisorModular(true);
         GreatestCommonDivisorSubres<BigInteger> ufds = new GreatestCommonDivisorSubres<BigInteger>();
 
         dfac = new GenPolynomialRing<BigInteger>(new BigInteger(1), 3, to);
@@ -0,0 +1,258 @@
+/*
+ * $Id$
+ */
+
+package edu.jas.vector;
+
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import edu.jas.arith.ModIntRing;
+import edu.jas.arith.ModLongRing;
+import edu.jas.kern.ComputerThreads;
+
+
+/**
+ * SparseModMatrix tests with JUnit.
+ * @author agent
+ */
+
+public class SparseModMatrixTest extends TestCase {
+
+
+    /**
+     * main.
+     */
+    public static void main(String[] args) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+
+    /**
+     * Constructs a <CODE>SparseModMatrixTest</CODE> object.
+     * @param name String.
+     */
+    public SparseModMatrixTest(String name) {
+        super(name);
+    }
+
+
+    /**
+     * suite.
+     */
+    public static Test suite() {
+        TestSuite suite = new TestSuite(SparseModMatrixTest.class);
+        return suite;
+    }
+
+
+    long p = 2147483647L;
+
+
+    int rows = 300;
+
+
+    int cols = 400;
+
+
+    float q = 0.05f;
+
+
+    Random rnd;
+
+
+    @Override
+    protected void setUp() {
+        rnd = new Random(4711L);
+    }
+
+
+    @Override
+    protected void tearDown() {
+        rnd = null;
+        ComputerThreads.terminate();
+    }
+
+
+    /**
+     * Fill matrix with random sparse rows and linear combinations of them.
+     */
+    void fill(SparseModMatrix M, int n) {
+        for (int i = 0; i < n; i++) {
+            int[] col = new int[M.cols];
+            long[] val = new long[M.cols];
+            int l = 0;
+            for (int j = 0; j < M.cols; j++) {
+                if (rnd.nextFloat() < q) {
+                    col[l] = j;
+                    val[l] = rnd.nextInt(Integer.MAX_VALUE) - Integer.MAX_VALUE / 2;
+                    l++;
+                }
+            }
+            M.addRow(Arrays.copyOf(col, l), Arrays.copyOf(val, l));
+        }
+        // dependent rows
+        for (int i = 0; i < n / 3; i++) {
+            SparseModMatrix.Row a = M.getRow(rnd.nextInt(n));
+            SparseModMatrix.Row b = M.getRow(rnd.nextInt(n));
+            long[] d = new long[M.cols];
+            for (int t = 0; t < a.length(); t++) {
+                d[a.col[t]] = a.val[t];
+            }
+            long f = rnd.nextInt(1000);
+            for (int t = 0; t < b.length(); t++) {
+                d[b.col[t]] = (d[b.col[t]] + f * b.val[t]) % M.modul;
+            }
+            int l = 0;
+            int[] col = new int[M.cols];
+            for (int j = 0; j < M.cols; j++) {
+                if (d[j] != 0L) {
+                    col[l] = j;
+                    d[l] = d[j];
+                    l++;
+                }
+            }
+            M.addRow(Arrays.copyOf(col, l), Arrays.copyOf(d, l));
+        }
+    }
+
+
+    /**
+     * Test if the rows of M are reduced to zero by the echelon form E.
+     */
+    boolean inRowSpace(SparseModMatrix M, SparseModMatrix E) {
+        SparseModMatrix.Row[] piv = new SparseModMatrix.Row[M.cols];
+        for (SparseModMatrix.Row r : E.getRows()) {
+            piv[r.leadingColumn()] = r;
+        }
+        long[] acc = new long[M.cols];
+        for (SparseModMatrix.Row r : M.getRows()) {
+            if (r.length() == 0) {
+                continue;
+            }
+            if (E.reduce(r, piv, acc).length() != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Test construction and echelon form.
+     */
+    public void testEchelon() {
+        SparseModMatrix M = new SparseModMatrix(p, cols);
+        assertEquals("#rows = 0", 0, M.size());
+        assertEquals("rank = 0", 0, M.rank());
+
+        fill(M, rows);
+        assertEquals("#rows", rows + rows / 3, M.size());
+        SparseModMatrix E = M.echelon();
+        assertTrue("rank <= #rows", E.size() <= rows);
+        int last = -1;
+        for (SparseModMatrix.Row r : E.getRows()) {
+            assertTrue("ascending leading columns", r.leadingColumn() > last);
+            assertEquals("monic", 1, r.val[0]);
+            last = r.leadingColumn();
+        }
+        assertTrue("rows(M) in rows(E)", inRowSpace(M, E));
+        assertEquals("rank(E) = rank(M)", E.size(), E.rank());
+
+        // rank independent of row order
+        SparseModMatrix R = new SparseModMatrix(p, cols);
+        for (int i = M.size() - 1; i >= 0; i--) {
+            SparseModMatrix.Row r = M.getRow(i);
+            long[] v = new long[r.length()];
+            for (int t = 0; t < v.length; t++) {
+                v[t] = r.val[t];
+            }
+            R.addRow(r.col, v);
+        }
+        assertEquals("rank(reverse(M)) = rank(M)", E.size(), R.rank());
+        assertTrue("rows(M) in rows(E(R))", inRowSpace(M, R.echelon()));
+
+        // new pivots have leading columns not in M
+        boolean[] lead = new boolean[cols];
+        for (SparseModMatrix.Row r : M.getRows()) {
+            if (r.length() > 0) {
+                lead[r.leadingColumn()] = true;
+            }
+        }
+        for (SparseModMatrix.Row r : M.newPivots()) {
+            for (int k : r.col) {
+                assertFalse("no leading column of M", lead[k]);
+            }
+        }
+    }
+
+
+    /**
+     * Test small example and ModInt modul.
+     */
+    public void testSmall() {
+        ModIntRing mi = new ModIntRing(7, true);
+        SparseModMatrix M = new SparseModMatrix(mi, 4);
+        M.addRow(new int[] { 0, 1, 3 }, new long[] { 2, 4, 6 });
+        M.addRow(new int[] { 0, 2 }, new long[] { 3, 5 });
+        M.addRow(new int[] { 1, 2, 3 }, new long[] { 1, -1, 3 });
+        M.addRow(new int[] { 2 }, new long[] { 14 });
+        assertEquals("zero row", 0, M.getRow(3).length());
+        //System.out.println("M = " + M);
+        // pivots x0 + 4 x2 and x1 + 6 x2 + 3 x3, row 0 reduces to 3 x2 + x3
+        List<SparseModMatrix.Row> np = M.newPivots();
+        //System.out.println("np = " + np);
+        assertEquals("#new pivots", 1, np.size());
+        assertEquals("leading column", 2, np.get(0).leadingColumn());
+        assertEquals("rank", 3, M.rank());
+
+        try {
+            M.addRow(new int[] { 1, 0 }, new long[] { 1, 1 });
+            fail("columns not ascending");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+        try {
+            M = new SparseModMatrix(new ModLongRing(1L << 40), 4);
+            fail("modul to large");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+
+    /**
+     * Test parallel reduction.
+     */
+    public void testParallel() {
+        SparseModMatrix S = new SparseModMatrix(p, cols, 1);
+        SparseModMatrix P = new SparseModMatrix(p, cols, 3);
+        fill(S, rows);
+        for (SparseModMatrix.Row r : S.getRows()) {
+            long[] v = new long[r.length()];
+            for (int t = 0; t < v.length; t++) {
+                v[t] = r.val[t];
+            }
+            P.addRow(r.col, v);
+        }
+        int pt = SparseModMatrix.PARALLEL_THRESHOLD;
+        try {
+            SparseModMatrix.PARALLEL_THRESHOLD = 10;
+            List<SparseModMatrix.Row> ns = S.newPivots();
+            List<SparseModMatrix.Row> np = P.newPivots();
+            assertEquals("#seq == #par", ns.size(), np.size());
+            for (int i = 0; i < ns.size(); i++) {
+                assertEquals("seq == par", ns.get(i).toString(), np.get(i).toString());
+            }
+        } finally {
+            SparseModMatrix.PARALLEL_THRESHOLD = pt;
+        }
+    }
+
+}